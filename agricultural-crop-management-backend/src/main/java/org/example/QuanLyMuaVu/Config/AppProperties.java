@@ -72,6 +72,7 @@ public class AppProperties {
         private String baseUrl;
         private String apiKey;
         private String model;
+        private Resilience resilience = new Resilience();
 
         public String getBaseUrl() {
             return baseUrl;
@@ -96,5 +97,82 @@ public class AppProperties {
         public void setModel(String model) {
             this.model = model;
         }
+
+        public Resilience getResilience() {
+            return resilience;
+        }
+
+        public void setResilience(Resilience resilience) {
+            this.resilience = resilience;
+        }
+    }
+
+    /**
+     * Bulkhead, deadline and circuit breaker settings for calls to the AI provider.
+     */
+    public static class Resilience {
+        private int maxConcurrentCalls = 8;
+        private int queueCapacity = 16;
+        private int maxConcurrentStreams = 16;
+        private long callTimeoutMs = 20000;
+        private long streamTimeoutMs = 60000;
+        private int failureThreshold = 5;
+        private long openDurationMs = 30000;
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+
+        public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+
+        public long getCallTimeoutMs() {
+            return callTimeoutMs;
+        }
+
+        public void setCallTimeoutMs(long callTimeoutMs) {
+            this.callTimeoutMs = callTimeoutMs;
+        }
+
+        public long getStreamTimeoutMs() {
+            return streamTimeoutMs;
+        }
+
+        public void setStreamTimeoutMs(long streamTimeoutMs) {
+            this.streamTimeoutMs = streamTimeoutMs;
+        }
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public long getOpenDurationMs() {
+            return openDurationMs;
+        }
+
+        public void setOpenDurationMs(long openDurationMs) {
+            this.openDurationMs = openDurationMs;
+        }
     }
 }
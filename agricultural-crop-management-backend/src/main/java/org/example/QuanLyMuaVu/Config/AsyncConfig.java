@@ -0,0 +1,171 @@
+package org.example.QuanLyMuaVu.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor for domain event listeners, also the default for {@code @Async}.
+ * <p>
+ * The outbox delivers each event as a task on this dedicated, bounded pool
+ * ({@code app.events.executor.*}) and waits for it, so a listener failure
+ * reaches the outbox's retry. Each task carries the submitting thread's MDC
+ * and security context. When the pool and its queue are full, the submission
+ * fails with a {@code TaskRejectedException} instead of running on the
+ * caller's thread; the outbox counts that as a failed attempt. Queue size,
+ * active threads, rejections, queue wait and run time are published as
+ * {@code events.executor.*} metrics.
+ */
+@Configuration
+@EnableAsync
+@Slf4j
+public class AsyncConfig implements AsyncConfigurer {
+
+    public static final String DOMAIN_EVENT_EXECUTOR = "domainEventExecutor";
+
+    private final MeterRegistry meterRegistry;
+    private final int coreSize;
+    private final int maxSize;
+    private final int queueCapacity;
+    private final int keepAliveSeconds;
+
+    public AsyncConfig(
+            MeterRegistry meterRegistry,
+            @Value("${app.events.executor.core-size:2}") int coreSize,
+            @Value("${app.events.executor.max-size:4}") int maxSize,
+            @Value("${app.events.executor.queue-capacity:500}") int queueCapacity,
+            @Value("${app.events.executor.keep-alive-seconds:60}") int keepAliveSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.coreSize = Math.max(1, coreSize);
+        this.maxSize = Math.max(this.coreSize, maxSize);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.keepAliveSeconds = Math.max(0, keepAliveSeconds);
+    }
+
+    @Bean(name = DOMAIN_EVENT_EXECUTOR)
+    public ThreadPoolTaskExecutor domainEventExecutor() {
+        Counter rejected = Counter.builder("events.executor.rejected")
+                .description("Domain event tasks rejected because the executor was saturated")
+                .register(meterRegistry);
+        Timer wait = Timer.builder("events.executor.wait")
+                .description("Time domain event tasks spent queued")
+                .register(meterRegistry);
+        Timer run = Timer.builder("events.executor.run")
+                .description("Time domain event tasks spent running")
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("domain-event-");
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds(keepAliveSeconds);
+        executor.setTaskDecorator(new ContextPropagatingDecorator(wait, run));
+        executor.setRejectedExecutionHandler(rejectingHandler(rejected));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+
+        Gauge.builder("events.executor.queued", executor, AsyncConfig::queued)
+                .description("Domain event tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("events.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Threads currently running domain event tasks")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return domainEventExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> log.error("[EVENT] Async listener {}.{} failed",
+                method.getDeclaringClass().getSimpleName(), method.getName(), ex);
+    }
+
+    private static double queued(ThreadPoolTaskExecutor executor) {
+        // The pool is created on initialization; report 0 before that.
+        try {
+            return executor.getThreadPoolExecutor().getQueue().size();
+        } catch (IllegalStateException ex) {
+            return 0;
+        }
+    }
+
+    private static RejectedExecutionHandler rejectingHandler(Counter rejected) {
+        return (task, pool) -> {
+            rejected.increment();
+            log.warn("[EVENT] Domain event executor saturated (active={}, queued={}); rejecting task",
+                    pool.getActiveCount(), pool.getQueue().size());
+            throw new RejectedExecutionException("Domain event executor saturated");
+        };
+    }
+
+    /**
+     * Copies MDC and the security context onto the worker thread and records
+     * queue wait and run time.
+     */
+    static final class ContextPropagatingDecorator implements TaskDecorator {
+
+        private final Timer wait;
+        private final Timer run;
+
+        ContextPropagatingDecorator(Timer wait, Timer run) {
+            this.wait = wait;
+            this.run = run;
+        }
+
+        @Override
+        public Runnable decorate(Runnable task) {
+            Map<String, String> mdc = MDC.getCopyOfContextMap();
+            SecurityContext submitted = SecurityContextHolder.getContext();
+            long submittedAt = System.nanoTime();
+            return () -> {
+                long startedAt = System.nanoTime();
+                wait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+                SecurityContext previousContext = SecurityContextHolder.getContext();
+                setMdc(mdc);
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(submitted.getAuthentication());
+                SecurityContextHolder.setContext(context);
+                try {
+                    task.run();
+                } finally {
+                    SecurityContextHolder.setContext(previousContext);
+                    setMdc(previousMdc);
+                    run.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        }
+
+        private static void setMdc(Map<String, String> values) {
+            if (values == null) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(values);
+            }
+        }
+    }
+}
@@ -1,37 +1,73 @@
 package org.example.QuanLyMuaVu.Config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Cache configuration for the application.
- * Uses simple in-memory caching for address data (countries, provinces, wards).
+ * Uses bounded in-memory Caffeine caches for reference data (address data,
+ * crops, varieties, roles and supply catalogs).
  * <p>
- * For production with high traffic, consider switching to Redis:
- * 1. Add spring-boot-starter-data-redis dependency
- * 2. Configure Redis connection in application.properties
- * 3. Replace ConcurrentMapCacheManager with RedisCacheManager
+ * Every cache has a maximum size, a time-to-live and records statistics,
+ * which the actuator publishes as {@code cache.*} metrics. The default spec
+ * of a cache can be overridden with {@code app.cache.specs.<name>} using the
+ * Caffeine spec syntax, e.g. {@code maximumSize=500,expireAfterWrite=1h}.
+ * Evictions issued inside a transaction are applied after it commits.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    private static final Map<String, String> DEFAULT_SPECS = new LinkedHashMap<>();
+
+    static {
+        // Address data (changes only on import)
+        DEFAULT_SPECS.put("countries", "maximumSize=10,expireAfterWrite=24h"); // All countries list
+        DEFAULT_SPECS.put("country", "maximumSize=300,expireAfterWrite=24h"); // Single country by ID
+        DEFAULT_SPECS.put("provinces", "maximumSize=500,expireAfterWrite=24h"); // Provinces by keyword/type
+        DEFAULT_SPECS.put("province", "maximumSize=200,expireAfterWrite=24h"); // Single province by ID
+        DEFAULT_SPECS.put("wards", "maximumSize=2000,expireAfterWrite=24h"); // Wards by province ID/keyword
+        DEFAULT_SPECS.put("ward", "maximumSize=5000,expireAfterWrite=24h"); // Single ward by ID
+        // Crop catalog (evicted on admin writes)
+        DEFAULT_SPECS.put("crops", "maximumSize=10,expireAfterWrite=1h"); // All crops list
+        DEFAULT_SPECS.put("crop", "maximumSize=500,expireAfterWrite=1h"); // Single crop by ID
+        DEFAULT_SPECS.put("varieties", "maximumSize=10,expireAfterWrite=1h"); // All varieties list
+        DEFAULT_SPECS.put("variety", "maximumSize=2000,expireAfterWrite=1h"); // Single variety by ID
+        DEFAULT_SPECS.put("cropVarieties", "maximumSize=500,expireAfterWrite=1h"); // Varieties by crop ID
+        // Roles
+        DEFAULT_SPECS.put("roles", "maximumSize=10,expireAfterWrite=1h"); // All roles list
+        // Supply catalogs (paged searches)
+        DEFAULT_SPECS.put("suppliers", "maximumSize=500,expireAfterWrite=10m");
+        DEFAULT_SPECS.put("supplyItems", "maximumSize=500,expireAfterWrite=10m");
+        DEFAULT_SPECS.put("supplyLots", "maximumSize=500,expireAfterWrite=2m");
+    }
+
     /**
-     * Configure in-memory cache manager for address data.
-     * Cache entries will persist until application restart or manual eviction.
+     * Configure the bounded cache manager. Only the caches listed above exist;
+     * an unknown cache name fails fast instead of creating an unbounded cache.
      */
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager(
-                "countries", // All countries list
-                "country", // Single country by ID
-                "provinces", // All provinces list
-                "province", // Single province by ID
-                "wards", // Wards by province ID
-                "ward" // Single ward by ID
-        );
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(List.of());
+        DEFAULT_SPECS.forEach((name, defaultSpec) -> {
+            String spec = environment.getProperty("app.cache.specs." + name, defaultSpec);
+            if (!spec.contains("recordStats")) {
+                spec = spec + ",recordStats";
+            }
+            cacheManager.registerCustomCache(name, Caffeine.from(spec).build());
+        });
+        return new TransactionAwareCacheManagerProxy(cacheManager);
     }
 }
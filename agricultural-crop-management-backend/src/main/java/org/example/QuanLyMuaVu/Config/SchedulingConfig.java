@@ -0,0 +1,13 @@
+package org.example.QuanLyMuaVu.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} jobs (e.g. the daily overdue task transition).
+ * Spring Boot provides the scheduler pool, sized by {@code spring.task.scheduling.*}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,6 +1,9 @@
 package org.example.QuanLyMuaVu.Controller;
 
+import lombok.RequiredArgsConstructor;
 import org.example.QuanLyMuaVu.DTO.Common.ApiResponse;
+import org.example.QuanLyMuaVu.DTO.Response.YieldPredictionResponse;
+import org.example.QuanLyMuaVu.Service.YieldPredictionService;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,8 +15,11 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1")
+@RequiredArgsConstructor
 public class AIController {
 
+    private final YieldPredictionService yieldPredictionService;
+
     @PreAuthorize("hasRole('FARMER')")
     @GetMapping("/farmer/ai/suggestions")
     public ApiResponse<Map<String, Object>> suggestions(@RequestParam(required = false) String crop,
@@ -33,15 +39,14 @@ public class AIController {
 
     @PreAuthorize("hasRole('FARMER')")
     @GetMapping("/farmer/ai/predict-yield")
-    public ApiResponse<Map<String, Object>> predictYield(@RequestParam BigDecimal area,
-                                                         @RequestParam String crop) {
-        BigDecimal estimated = area.multiply(BigDecimal.valueOf(2.5));
-        Map<String, Object> payload = Map.of(
-                "crop", crop,
-                "area", area,
-                "estimatedYieldTon", estimated
-        );
-        return ApiResponse.success(payload);
+    public ApiResponse<YieldPredictionResponse> predictYield(@RequestParam BigDecimal area,
+                                                             @RequestParam String crop,
+                                                             @RequestParam(required = false) Integer cropId,
+                                                             @RequestParam(required = false) Integer varietyId,
+                                                             @RequestParam(required = false) Integer provinceId,
+                                                             @RequestParam(required = false) Integer durationDays) {
+        return ApiResponse.success(
+                yieldPredictionService.predict(crop, cropId, varietyId, provinceId, area, durationDays));
     }
 
     @PreAuthorize("hasRole('FARMER')")
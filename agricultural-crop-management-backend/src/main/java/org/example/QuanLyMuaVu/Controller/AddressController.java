@@ -11,11 +11,14 @@ import org.example.QuanLyMuaVu.DTO.Common.ApiResponse;
 import org.example.QuanLyMuaVu.DTO.Response.ProvinceResponse;
 import org.example.QuanLyMuaVu.DTO.Response.WardResponse;
 import org.example.QuanLyMuaVu.Service.AddressService;
+import org.example.QuanLyMuaVu.Service.CatalogVersions;
+import org.example.QuanLyMuaVu.Service.CatalogVersions.Catalog;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,6 +26,8 @@ import java.util.List;
  * REST endpoints for address data (provinces, wards).
  * <p>
  * Public GET endpoints are available for frontend address selection dropdowns.
+ * Lookup responses carry a version ETag; a matching {@code If-None-Match} gets
+ * 304 without touching the service.
  */
 @RestController
 @RequestMapping("/api/v1/address")
@@ -32,6 +37,7 @@ import java.util.List;
 public class AddressController {
 
     AddressService addressService;
+    CatalogVersions catalogVersions;
     // ==================== PROVINCE ENDPOINTS ====================
 
     @Operation(summary = "List all provinces", description = "Get list of all provinces with optional filters")
@@ -41,8 +47,13 @@ public class AddressController {
     @GetMapping("/provinces")
     public ApiResponse<List<ProvinceResponse>> listProvinces(
             @Parameter(description = "Optional keyword to search by province name") @RequestParam(value = "keyword", required = false) String keyword,
-            @Parameter(description = "Optional type filter: 'thanh-pho' (city) or 'tinh' (province)") @RequestParam(value = "type", required = false) String type) {
-        return ApiResponse.success(addressService.getAllProvinces(keyword, type));
+            @Parameter(description = "Optional type filter: 'thanh-pho' (city) or 'tinh' (province)") @RequestParam(value = "type", required = false) String type,
+            @Parameter(description = "Optional maximum number of results (best matches first)") @RequestParam(value = "limit", required = false) Integer limit,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersions.etag(Catalog.ADDRESS))) {
+            return null;
+        }
+        return ApiResponse.success(addressService.getAllProvinces(keyword, type, limit));
     }
 
     @Operation(summary = "Get province by ID", description = "Get a single province by its ID")
@@ -51,7 +62,10 @@ public class AddressController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Province not found")
     })
     @GetMapping("/provinces/{id}")
-    public ApiResponse<ProvinceResponse> getProvince(@PathVariable Integer id) {
+    public ApiResponse<ProvinceResponse> getProvince(@PathVariable Integer id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersions.etag(Catalog.ADDRESS))) {
+            return null;
+        }
         return ApiResponse.success(addressService.getProvinceById(id));
     }
 
@@ -65,8 +79,13 @@ public class AddressController {
     @GetMapping("/provinces/{provinceId}/wards")
     public ApiResponse<List<WardResponse>> listWardsByProvince(
             @PathVariable Integer provinceId,
-            @Parameter(description = "Optional keyword to search by ward name") @RequestParam(value = "keyword", required = false) String keyword) {
-        return ApiResponse.success(addressService.getWardsByProvinceId(provinceId, keyword));
+            @Parameter(description = "Optional keyword to search by ward name") @RequestParam(value = "keyword", required = false) String keyword,
+            @Parameter(description = "Optional maximum number of results (best matches first)") @RequestParam(value = "limit", required = false) Integer limit,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersions.etag(Catalog.ADDRESS))) {
+            return null;
+        }
+        return ApiResponse.success(addressService.getWardsByProvinceId(provinceId, keyword, limit));
     }
 
     @Operation(summary = "Get ward by ID", description = "Get a single ward by its ID")
@@ -75,7 +94,10 @@ public class AddressController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Ward not found")
     })
     @GetMapping("/wards/{id}")
-    public ApiResponse<WardResponse> getWard(@PathVariable Integer id) {
+    public ApiResponse<WardResponse> getWard(@PathVariable Integer id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersions.etag(Catalog.ADDRESS))) {
+            return null;
+        }
         return ApiResponse.success(addressService.getWardById(id));
     }
 
@@ -5,7 +5,9 @@ import org.example.QuanLyMuaVu.DTO.Common.ApiResponse;
 import org.example.QuanLyMuaVu.DTO.Common.PageResponse;
 import org.example.QuanLyMuaVu.DTO.Response.AdminDocumentResponse;
 import org.example.QuanLyMuaVu.Entity.Document;
+import org.example.QuanLyMuaVu.Pattern.Observer.DocumentChangedEvent;
 import org.example.QuanLyMuaVu.Repository.DocumentRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,6 +31,7 @@ import java.util.stream.Collectors;
 public class AdminDocumentController {
 
     private final DocumentRepository documentRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private static final DateTimeFormatter DTF = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
     /**
@@ -90,6 +93,7 @@ public class AdminDocumentController {
                 .isPublic(true)
                 .build();
         Document saved = documentRepository.save(doc);
+        eventPublisher.publishEvent(new DocumentChangedEvent(saved.getId()));
         return ResponseEntity.ok(ApiResponse.success(mapToResponse(saved)));
     }
 
@@ -110,6 +114,7 @@ public class AdminDocumentController {
         doc.setIsActive("ACTIVE".equalsIgnoreCase(request.status()));
 
         Document updated = documentRepository.save(doc);
+        eventPublisher.publishEvent(new DocumentChangedEvent(updated.getId()));
         return ResponseEntity.ok(ApiResponse.success(mapToResponse(updated)));
     }
 
@@ -122,6 +127,7 @@ public class AdminDocumentController {
                 .orElseThrow(() -> new RuntimeException("Document not found: " + id));
         doc.setIsActive(false);
         documentRepository.save(doc);
+        eventPublisher.publishEvent(new DocumentChangedEvent(id));
         return ResponseEntity.ok(ApiResponse.success(null));
     }
 
@@ -134,6 +140,7 @@ public class AdminDocumentController {
             throw new RuntimeException("Document not found: " + id);
         }
         documentRepository.deleteById(id);
+        eventPublisher.publishEvent(new DocumentChangedEvent(id));
         return ResponseEntity.ok(ApiResponse.success(null));
     }
 
@@ -0,0 +1,84 @@
+package org.example.QuanLyMuaVu.Controller.Admin;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.example.QuanLyMuaVu.DTO.Common.ApiResponse;
+import org.example.QuanLyMuaVu.DTO.Request.TaskTemplateRequest;
+import org.example.QuanLyMuaVu.DTO.Response.TaskTemplateResponse;
+import org.example.QuanLyMuaVu.Service.TaskTemplateService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Admin REST endpoints for crop / variety task templates.
+ * New seasons get their task schedule generated from these templates.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/task-templates")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin Task Templates", description = "Admin endpoints for crop task templates")
+public class AdminTaskTemplateController {
+
+    TaskTemplateService taskTemplateService;
+
+    @Operation(summary = "List task templates of a crop (Admin)", description = "Crop-level and variety-specific templates, in schedule order")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Success"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Crop not found")
+    })
+    @GetMapping
+    public ApiResponse<List<TaskTemplateResponse>> listTemplates(@RequestParam Integer cropId) {
+        return ApiResponse.success(taskTemplateService.listByCrop(cropId));
+    }
+
+    @Operation(summary = "Create task template (Admin)", description = "Add a step to a crop or variety schedule")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Success"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Bad Request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PostMapping
+    public ApiResponse<TaskTemplateResponse> createTemplate(@Valid @RequestBody TaskTemplateRequest request) {
+        return ApiResponse.success(taskTemplateService.create(request));
+    }
+
+    @Operation(summary = "Update task template (Admin)", description = "Update an existing task template")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Success"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Bad Request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Not Found")
+    })
+    @PutMapping("/{id}")
+    public ApiResponse<TaskTemplateResponse> updateTemplate(
+            @PathVariable Integer id,
+            @Valid @RequestBody TaskTemplateRequest request) {
+        return ApiResponse.success(taskTemplateService.update(id, request));
+    }
+
+    @Operation(summary = "Delete task template (Admin)", description = "Delete a task template; existing tasks are kept")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Success"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Not Found")
+    })
+    @DeleteMapping("/{id}")
+    public ApiResponse<Void> deleteTemplate(@PathVariable Integer id) {
+        taskTemplateService.delete(id);
+        return ApiResponse.success(null);
+    }
+}
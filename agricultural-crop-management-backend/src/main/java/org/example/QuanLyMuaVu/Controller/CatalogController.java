@@ -8,17 +8,21 @@ import lombok.experimental.FieldDefaults;
 import org.example.QuanLyMuaVu.DTO.Common.ApiResponse;
 import org.example.QuanLyMuaVu.DTO.Response.CropResponse;
 import org.example.QuanLyMuaVu.DTO.Response.VarietyResponse;
+import org.example.QuanLyMuaVu.Service.CatalogVersions;
+import org.example.QuanLyMuaVu.Service.CatalogVersions.Catalog;
 import org.example.QuanLyMuaVu.Service.CropService;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 /**
  * Catalog endpoints for crops and varieties selection (used in dropdowns).
+ * Responses carry a version ETag; a matching {@code If-None-Match} gets 304.
  */
 @RestController
 @RequestMapping("/api/v1/catalog")
@@ -28,6 +32,7 @@ import java.util.List;
 public class CatalogController {
 
     CropService cropService;
+    CatalogVersions catalogVersions;
 
     @Operation(summary = "Get all crops", description = "Get list of all crops for dropdown selection")
     @ApiResponses({
@@ -35,7 +40,10 @@ public class CatalogController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @GetMapping("/crops")
-    public ApiResponse<List<CropResponse>> getAllCrops() {
+    public ApiResponse<List<CropResponse>> getAllCrops(WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersions.etag(Catalog.CROPS))) {
+            return null;
+        }
         return ApiResponse.success(cropService.getAll());
     }
 
@@ -46,7 +54,10 @@ public class CatalogController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Crop not found")
     })
     @GetMapping("/crops/{cropId}/varieties")
-    public ApiResponse<List<VarietyResponse>> getVarietiesByCrop(@PathVariable Integer cropId) {
+    public ApiResponse<List<VarietyResponse>> getVarietiesByCrop(@PathVariable Integer cropId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersions.etag(Catalog.CROPS, Catalog.VARIETIES))) {
+            return null;
+        }
         return ApiResponse.success(cropService.getVarietiesByCropId(cropId));
     }
 }
@@ -5,20 +5,29 @@ import org.example.QuanLyMuaVu.DTO.Common.ApiResponse;
 import org.example.QuanLyMuaVu.DTO.Request.ChatRequest;
 import org.example.QuanLyMuaVu.DTO.Response.ChatResponse;
 import org.example.QuanLyMuaVu.Service.GeminiService;
+import org.example.QuanLyMuaVu.Service.SeasonChatContextService;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api/v1")
 public class ChatController {
 
+    private static final String CHUNK_EVENT = "chunk";
+    private static final String DONE_EVENT = "done";
+
     private final GeminiService geminiService;
+    private final SeasonChatContextService seasonChatContextService;
 
-    public ChatController(GeminiService geminiService) {
+    public ChatController(GeminiService geminiService, SeasonChatContextService seasonChatContextService) {
         this.geminiService = geminiService;
+        this.seasonChatContextService = seasonChatContextService;
     }
 
     @PreAuthorize("hasRole('FARMER')")
@@ -26,7 +35,7 @@ public class ChatController {
     public ApiResponse<ChatResponse> chat(@Valid @RequestBody ChatRequest request) {
         String reply = geminiService.chatAsAgriculturalExpert(
                 request.getUserMessage(),
-                request.getCropContext()
+                resolveCropContext(request)
         );
 
         ChatResponse response = ChatResponse.builder()
@@ -37,4 +46,25 @@ public class ChatController {
 
         return ApiResponse.success(response);
     }
+
+    /**
+     * Streams the assistant answer as Server-Sent Events.
+     * <p>
+     * Each partial text chunk is sent as a {@code chunk} event as soon as the
+     * model produces it, followed by a single {@code done} event. Closing the
+     * connection cancels the upstream generation.
+     */
+    @PreAuthorize("hasRole('FARMER')")
+    @PostMapping(value = "/farmer/ai/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> chatStream(@Valid @RequestBody ChatRequest request) {
+        return geminiService.streamChatAsAgriculturalExpert(
+                        request.getUserMessage(),
+                        resolveCropContext(request))
+                .map(chunk -> ServerSentEvent.builder(chunk).event(CHUNK_EVENT).build())
+                .concatWithValues(ServerSentEvent.builder("").event(DONE_EVENT).build());
+    }
+
+    private String resolveCropContext(ChatRequest request) {
+        return seasonChatContextService.resolveCropContext(request.getSeasonId(), request.getCropContext());
+    }
 }
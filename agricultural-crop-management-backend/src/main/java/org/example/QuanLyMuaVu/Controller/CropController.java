@@ -9,6 +9,8 @@ import lombok.experimental.FieldDefaults;
 import org.example.QuanLyMuaVu.DTO.Common.ApiResponse;
 import org.example.QuanLyMuaVu.DTO.Request.CropRequest;
 import org.example.QuanLyMuaVu.DTO.Response.CropResponse;
+import org.example.QuanLyMuaVu.Service.CatalogVersions;
+import org.example.QuanLyMuaVu.Service.CatalogVersions.Catalog;
 import org.example.QuanLyMuaVu.Service.CropService;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -30,6 +33,7 @@ import java.util.List;
 public class CropController {
 
     CropService cropService;
+    CatalogVersions catalogVersions;
 
     @Operation(summary = "List crops", description = "List crops for farmer workspace")
     @ApiResponses({
@@ -38,7 +42,10 @@ public class CropController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden")
     })
     @GetMapping
-    public ApiResponse<List<CropResponse>> listCrops() {
+    public ApiResponse<List<CropResponse>> listCrops(WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersions.etag(Catalog.CROPS))) {
+            return null;
+        }
         return ApiResponse.success(cropService.getAll());
     }
 
@@ -63,7 +70,10 @@ public class CropController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Not Found")
     })
     @GetMapping("/{id}")
-    public ApiResponse<CropResponse> getCrop(@PathVariable Integer id) {
+    public ApiResponse<CropResponse> getCrop(@PathVariable Integer id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersions.etag(Catalog.CROPS))) {
+            return null;
+        }
         return ApiResponse.success(cropService.getById(id));
     }
 
@@ -8,6 +8,7 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.example.QuanLyMuaVu.DTO.Common.ApiResponse;
+import org.example.QuanLyMuaVu.DTO.Common.CursorPageResponse;
 import org.example.QuanLyMuaVu.DTO.Common.PageResponse;
 import org.example.QuanLyMuaVu.DTO.Request.CreateFieldLogRequest;
 import org.example.QuanLyMuaVu.DTO.Request.UpdateFieldLogRequest;
@@ -33,6 +34,7 @@ import java.time.LocalDate;
  * 
  * API Contract:
  * - GET /api/v1/field-logs?seasonId=&type=&q=&from=&to=&page=&size=
+ * - GET /api/v1/field-logs/timeline?seasonId=&type=&q=&from=&to=&cursor=&size=
  * - GET /api/v1/field-logs/{id}
  * - POST /api/v1/field-logs (body: {seasonId, logDate, logType, notes})
  * - PUT /api/v1/field-logs/{id} (body: {logDate, logType, notes})
@@ -69,6 +71,27 @@ public class FieldLogController {
                                 fieldLogService.listFieldLogsForSeason(seasonId, from, to, type, q, page, size));
         }
 
+        @Operation(summary = "Field log timeline", description = "Keyset-paginated field logs of a season, newest log date first. Pass the returned nextCursor to get the next page")
+        @ApiResponses({
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Success"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Season not found")
+        })
+        @GetMapping("/timeline")
+        public ApiResponse<CursorPageResponse<FieldLogResponse>> listFieldLogTimeline(
+                        @Parameter(description = "Season ID (required)") @RequestParam(value = "seasonId") Integer seasonId,
+                        @Parameter(description = "Filter by log type") @RequestParam(value = "type", required = false) String type,
+                        @Parameter(description = "Search text in notes (min 2 chars)") @RequestParam(value = "q", required = false) String q,
+                        @Parameter(description = "From date (yyyy-MM-dd)") @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                        @Parameter(description = "To date (yyyy-MM-dd)") @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                        @Parameter(description = "nextCursor of the previous page; omit for the first page") @RequestParam(value = "cursor", required = false) String cursor,
+                        @Parameter(description = "Page size (max 100)") @RequestParam(value = "size", defaultValue = "20") int size) {
+                return ApiResponse.success(
+                                fieldLogService.listFieldLogTimeline(seasonId, from, to, type, q, cursor, size));
+        }
+
         @Operation(summary = "Get field log detail", description = "Get field log detail if it belongs to a season of current farmer")
         @ApiResponses({
                         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Success"),
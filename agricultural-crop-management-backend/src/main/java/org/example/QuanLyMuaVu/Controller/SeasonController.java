@@ -221,7 +221,8 @@ public class SeasonController {
         })
         @GetMapping("/search")
         public ApiResponse<java.util.List<SeasonResponse>> searchSeasonsByKeyword(
-                        @RequestParam(value = "q", required = false) String keyword) {
-                return ApiResponse.success(seasonService.searchSeasonsByKeyword(keyword));
+                        @RequestParam(value = "q", required = false) String keyword,
+                        @RequestParam(value = "limit", defaultValue = "20") int limit) {
+                return ApiResponse.success(seasonService.searchSeasonsByKeyword(keyword, limit));
         }
 }
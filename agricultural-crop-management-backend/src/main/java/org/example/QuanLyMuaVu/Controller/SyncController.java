@@ -0,0 +1,47 @@
+package org.example.QuanLyMuaVu.Controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.example.QuanLyMuaVu.DTO.Common.ApiResponse;
+import org.example.QuanLyMuaVu.DTO.Request.SyncRequest;
+import org.example.QuanLyMuaVu.DTO.Response.SyncResponse;
+import org.example.QuanLyMuaVu.Service.SyncService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Offline sync for the field app: push queued field log and task changes and
+ * pull everything changed since the last sync in one call.
+ *
+ * API Contract:
+ * - POST /api/v1/sync (body: {syncToken, mutations: [{mutationId, operation, entityId, ...}]})
+ */
+
+@RestController
+@RequestMapping("/api/v1/sync")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@PreAuthorize("hasRole('FARMER')")
+public class SyncController {
+
+        SyncService syncService;
+
+        @Operation(summary = "Sync offline changes", description = "Apply queued mutations (idempotent per mutationId) and return field logs, tasks and deletes changed since syncToken. Omit syncToken for a full sync; repeat with the returned token while hasMore is true")
+        @ApiResponses({
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Success"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request or sync token"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden")
+        })
+        @PostMapping
+        public ApiResponse<SyncResponse> sync(@Valid @RequestBody SyncRequest request) {
+                return ApiResponse.success(syncService.sync(request));
+        }
+}
@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.example.QuanLyMuaVu.DTO.Common.ApiResponse;
 import org.example.QuanLyMuaVu.DTO.Common.PageResponse;
+import org.example.QuanLyMuaVu.DTO.Request.BulkCreateTaskRequest;
 import org.example.QuanLyMuaVu.DTO.Request.CreateTaskRequest;
 import org.example.QuanLyMuaVu.DTO.Request.UpdateTaskRequest;
 import org.example.QuanLyMuaVu.DTO.Request.UpdateTaskStatusRequest;
@@ -28,6 +29,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * REST endpoints for planning and tracking season tasks (field operations) for
@@ -83,6 +85,22 @@ public class TaskController {
         return ApiResponse.success(seasonTaskService.createTask(seasonId, request));
     }
 
+    @Operation(summary = "Create tasks in season in bulk", description = "Create a whole task plan for given season in one transaction")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Success"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Bad Request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Season not found")
+    })
+    @PostMapping("/seasons/{seasonId}/tasks/bulk")
+    public ApiResponse<List<TaskResponse>> createTasks(
+            @PathVariable Integer seasonId,
+            @Valid @RequestBody BulkCreateTaskRequest request
+    ) {
+        return ApiResponse.success(seasonTaskService.createTasks(seasonId, request));
+    }
+
     @Operation(summary = "Get task detail", description = "Get task detail if its season belongs to current farmer")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Success"),
@@ -7,12 +7,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.example.QuanLyMuaVu.DTO.Common.ApiResponse;
 import org.example.QuanLyMuaVu.DTO.Response.VarietyResponse;
+import org.example.QuanLyMuaVu.Service.CatalogVersions;
+import org.example.QuanLyMuaVu.Service.CatalogVersions.Catalog;
 import org.example.QuanLyMuaVu.Service.VarietyService;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,18 +26,25 @@ import java.util.List;
 public class VarietyController {
 
     VarietyService varietyService;
+    CatalogVersions catalogVersions;
 
     @Operation(summary = "Get crop variety", description = "Get a single crop variety by id")
     @PreAuthorize("hasRole('FARMER')")
     @GetMapping("/{id}")
-    public ApiResponse<VarietyResponse> get(@PathVariable Integer id) {
+    public ApiResponse<VarietyResponse> get(@PathVariable Integer id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersions.etag(Catalog.CROPS, Catalog.VARIETIES))) {
+            return null;
+        }
         return ApiResponse.success(varietyService.get(id));
     }
 
     @Operation(summary = "List varieties of crop", description = "List all varieties belonging to a crop")
     @PreAuthorize("hasRole('FARMER')")
     @GetMapping("/by-crop/{cropId}")
-    public ApiResponse<List<VarietyResponse>> listByCrop(@PathVariable Integer cropId) {
+    public ApiResponse<List<VarietyResponse>> listByCrop(@PathVariable Integer cropId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersions.etag(Catalog.CROPS, Catalog.VARIETIES))) {
+            return null;
+        }
         return ApiResponse.success(varietyService.listByCrop(cropId));
     }
 }
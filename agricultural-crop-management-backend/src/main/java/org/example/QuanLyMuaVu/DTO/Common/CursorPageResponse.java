@@ -0,0 +1,55 @@
+package org.example.QuanLyMuaVu.DTO.Common;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) paginated list.
+ *
+ * @param <T> type of the items
+ */
+public class CursorPageResponse<T> {
+
+    private List<T> items;
+    private int size;
+
+    /**
+     * Opaque cursor of the next page, {@code null} on the last page.
+     */
+    private String nextCursor;
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+
+    public static <T> CursorPageResponse<T> of(List<T> items, int size, String nextCursor) {
+        CursorPageResponse<T> response = new CursorPageResponse<>();
+        response.setItems(items);
+        response.setSize(size);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+}
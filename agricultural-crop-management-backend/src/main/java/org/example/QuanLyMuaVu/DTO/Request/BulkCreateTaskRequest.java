@@ -0,0 +1,26 @@
+package org.example.QuanLyMuaVu.DTO.Request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkCreateTaskRequest {
+
+    @NotEmpty(message = "Tasks are required")
+    @Size(max = 500, message = "At most 500 tasks can be created at once")
+    @Valid
+    List<CreateTaskRequest> tasks;
+}
@@ -21,4 +21,9 @@ public class ChatRequest {
     String userMessage;
 
     String cropContext;
+
+    /**
+     * Optional season to build the crop context from on the server.
+     */
+    Integer seasonId;
 }
@@ -0,0 +1,66 @@
+package org.example.QuanLyMuaVu.DTO.Request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.example.QuanLyMuaVu.Enums.SyncOperation;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One change recorded offline. Which fields are used depends on the
+ * operation (see {@link SyncOperation}).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SyncMutationRequest {
+
+    /**
+     * Client-generated idempotency key, unique per user (e.g. a UUID).
+     */
+    @NotBlank(message = "Mutation ID is required")
+    @Size(max = 64, message = "Mutation ID must not exceed 64 characters")
+    String mutationId;
+
+    @NotNull(message = "Operation is required")
+    SyncOperation operation;
+
+    /**
+     * Field log or task id; not used by FIELD_LOG_CREATE.
+     */
+    Integer entityId;
+
+    /**
+     * Season of a new field log.
+     */
+    Integer seasonId;
+
+    LocalDate logDate;
+
+    @Size(max = 100, message = "Log type must not exceed 100 characters")
+    String logType;
+
+    @Size(max = 4000, message = "Notes must not exceed 4000 characters")
+    String notes;
+
+    /**
+     * Actual start (TASK_START) or end (TASK_DONE) date; today when omitted.
+     */
+    LocalDate date;
+
+    /**
+     * updatedAt of the field log the client edited or deleted. When the
+     * server copy changed since, the mutation is rejected as a conflict.
+     */
+    LocalDateTime baseUpdatedAt;
+}
@@ -0,0 +1,32 @@
+package org.example.QuanLyMuaVu.DTO.Request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SyncRequest {
+
+    /**
+     * syncToken of the previous response; omit for a first (full) sync.
+     */
+    String syncToken;
+
+    /**
+     * Offline changes in the order they were made.
+     */
+    @Size(max = 500, message = "At most 500 mutations can be synced at once")
+    @Valid
+    List<SyncMutationRequest> mutations;
+}
@@ -0,0 +1,52 @@
+package org.example.QuanLyMuaVu.DTO.Request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TaskTemplateRequest {
+
+    @NotNull(message = "KEY_INVALID")
+    Integer cropId;
+
+    /**
+     * Optional; when set the template only applies to seasons of this variety.
+     */
+    Integer varietyId;
+
+    @NotBlank(message = "KEY_INVALID")
+    @Size(max = 255, message = "Title must not exceed 255 characters")
+    String title;
+
+    @Size(max = 4000, message = "Description must not exceed 4000 characters")
+    String description;
+
+    /**
+     * Days after the season start date the task is planned for.
+     */
+    @NotNull(message = "KEY_INVALID")
+    @Min(value = 0, message = "KEY_INVALID")
+    Integer plannedOffsetDays;
+
+    /**
+     * Optional days after the season start date the task is due.
+     */
+    @Min(value = 0, message = "KEY_INVALID")
+    Integer dueOffsetDays;
+
+    Integer sortOrder;
+}
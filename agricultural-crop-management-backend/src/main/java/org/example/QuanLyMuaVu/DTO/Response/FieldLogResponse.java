@@ -26,4 +26,5 @@ public class FieldLogResponse {
     String logType;
     String notes;
     LocalDateTime createdAt;
+    LocalDateTime updatedAt;
 }
@@ -0,0 +1,38 @@
+package org.example.QuanLyMuaVu.DTO.Response;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.example.QuanLyMuaVu.Enums.SyncMutationStatus;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SyncMutationResult {
+
+    String mutationId;
+    SyncMutationStatus status;
+
+    /**
+     * Id of the affected row; the server id of a created field log.
+     */
+    Integer entityId;
+
+    /**
+     * Error code of a rejected mutation (e.g. ERR_SYNC_CONFLICT).
+     */
+    String errorCode;
+
+    /**
+     * True when the mutation id was already processed by an earlier sync and
+     * this is the stored outcome.
+     */
+    boolean replayed;
+}
@@ -0,0 +1,49 @@
+package org.example.QuanLyMuaVu.DTO.Response;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SyncResponse {
+
+    /**
+     * Outcome of each submitted mutation, in request order.
+     */
+    List<SyncMutationResult> results;
+
+    /**
+     * Field logs and tasks created or changed since the request token.
+     */
+    List<FieldLogResponse> fieldLogs;
+    List<TaskResponse> tasks;
+    List<SyncDeletionResponse> deleted;
+
+    /**
+     * Token for the next sync.
+     */
+    String syncToken;
+
+    /**
+     * More changes are waiting; sync again with the new token right away.
+     */
+    boolean hasMore;
+
+    /**
+     * The changes are a full snapshot (no token, or the token was older than
+     * the delete history): the client should drop its local copy before
+     * applying them.
+     */
+    boolean fullResync;
+}
@@ -32,4 +32,5 @@ public class TaskResponse {
     Long userId;
     String userName;
     LocalDateTime createdAt;
+    LocalDateTime updatedAt;
 }
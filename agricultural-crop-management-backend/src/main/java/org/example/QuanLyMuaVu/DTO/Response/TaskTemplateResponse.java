@@ -0,0 +1,29 @@
+package org.example.QuanLyMuaVu.DTO.Response;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TaskTemplateResponse {
+
+    Integer id;
+    Integer cropId;
+    String cropName;
+    Integer varietyId;
+    String varietyName;
+    String title;
+    String description;
+    Integer plannedOffsetDays;
+    Integer dueOffsetDays;
+    Integer sortOrder;
+}
@@ -0,0 +1,29 @@
+package org.example.QuanLyMuaVu.DTO.Response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class YieldPredictionResponse {
+    String crop;
+    Integer cropId;
+    BigDecimal area;
+    BigDecimal estimatedYieldTon;
+    BigDecimal estimatedYieldKg;
+    BigDecimal yieldPerHectareKg;
+    BigDecimal expectedErrorKgPerHa;
+    /**
+     * Group the estimate came from (e.g. CROP_VARIETY_PROVINCE, CROP) or BASELINE.
+     */
+    String modelLevel;
+    Integer sampleCount;
+    LocalDateTime modelTrainedAt;
+}
@@ -0,0 +1,46 @@
+package org.example.QuanLyMuaVu.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+
+/**
+ * Archived audit log entries of one entity for one day, stored as gzipped
+ * NDJSON (one {@link AuditLog} per line). Written by the retention job when
+ * the entries leave {@code audit_logs}; a day archived again gets another chunk.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "audit_log_archive_chunks", indexes = {
+        @Index(name = "idx_audit_archive_entity_day", columnList = "entity_type,entity_id,archive_day")
+})
+public class AuditLogArchiveChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "audit_log_archive_chunk_id")
+    Long id;
+
+    @Column(name = "archive_day", nullable = false)
+    LocalDate archiveDay;
+
+    @Column(name = "entity_type", nullable = false, length = 50)
+    String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    Integer entityId;
+
+    @Column(name = "entry_count", nullable = false)
+    Integer entryCount;
+
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "LONGBLOB")
+    byte[] payload;
+}
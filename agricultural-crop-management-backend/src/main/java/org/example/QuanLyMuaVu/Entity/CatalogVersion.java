@@ -0,0 +1,28 @@
+package org.example.QuanLyMuaVu.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Change counter of one reference catalog, incremented in every transaction
+ * that writes the catalog. Read by {@code CatalogVersions} on each node to
+ * derive ETags and to notice writes made through other nodes.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "catalog_versions")
+public class CatalogVersion {
+
+    @Id
+    @Column(name = "catalog", length = 30)
+    String catalog;
+
+    @Column(name = "version", nullable = false)
+    Long version;
+}
@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
-@Table(name = "document_recent_opens")
+@Table(name = "document_recent_opens", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_document_recent_opens_user_document", columnNames = { "user_id", "document_id" })
+})
 public class DocumentRecentOpen {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -16,6 +17,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -27,7 +30,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
-@Table(name = "field_logs")
+@Table(name = "field_logs", indexes = {
+        @Index(name = "idx_field_logs_season_date", columnList = "season_id,log_date"),
+        @Index(name = "idx_field_logs_updated", columnList = "updated_at,field_log_id")
+})
 public class FieldLog {
 
     @Id
@@ -54,6 +60,16 @@ public class FieldLog {
     @Column(name = "created_at", columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     LocalDateTime createdAt;
 
+    /**
+     * Last write; drives the offline sync delta. Stamped by the database on
+     * every insert and change (including bulk and JDBC writes), so all rows
+     * share one clock; read back after each write.
+     */
+    @Generated(event = { EventType.INSERT, EventType.UPDATE })
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+    LocalDateTime updatedAt;
+
     @PrePersist
     void onCreate() {
         if (createdAt == null) {
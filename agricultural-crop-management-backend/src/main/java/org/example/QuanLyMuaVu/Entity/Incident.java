@@ -7,6 +7,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -30,7 +31,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
-@Table(name = "incidents")
+@Table(name = "incidents", indexes = {
+        @Index(name = "idx_incidents_sla_candidates", columnList = "sla_breached_at,status,deadline")
+})
 public class Incident {
 
     @Id
@@ -66,6 +69,13 @@ public class Incident {
     @Column(name = "resolved_at")
     LocalDateTime resolvedAt;
 
+    /**
+     * When the SLA monitor reported the deadline as missed; cleared when the
+     * deadline is moved.
+     */
+    @Column(name = "sla_breached_at")
+    LocalDateTime slaBreachedAt;
+
     @Column(name = "created_at", columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     LocalDateTime createdAt;
 }
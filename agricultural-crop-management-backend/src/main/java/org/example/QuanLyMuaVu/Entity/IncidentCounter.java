@@ -0,0 +1,39 @@
+package org.example.QuanLyMuaVu.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.example.QuanLyMuaVu.Enums.IncidentStatus;
+
+/**
+ * Number of incidents of a season in one status, kept up to date by the
+ * incident write paths (see {@code IncidentCounters}) so that summaries and
+ * dashboards read a few rows instead of counting incidents.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "incident_counters", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_incident_counters_season_status", columnNames = { "season_id", "status" })
+})
+public class IncidentCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "incident_counter_id")
+    Long id;
+
+    @Column(name = "season_id", nullable = false)
+    Integer seasonId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 30)
+    IncidentStatus status;
+
+    @Column(name = "incident_count", nullable = false)
+    long incidentCount;
+}
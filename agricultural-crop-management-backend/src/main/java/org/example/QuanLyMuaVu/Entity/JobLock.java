@@ -0,0 +1,35 @@
+package org.example.QuanLyMuaVu.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease lock of a scheduled job: the node in {@code lockedBy} may run the job
+ * until {@code lockedUntil}. Written by {@code JobRunner} with plain JDBC.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "job_locks")
+public class JobLock {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    String jobName;
+
+    @Column(name = "locked_by", length = 100)
+    String lockedBy;
+
+    @Column(name = "locked_at")
+    LocalDateTime lockedAt;
+
+    @Column(name = "locked_until")
+    LocalDateTime lockedUntil;
+}
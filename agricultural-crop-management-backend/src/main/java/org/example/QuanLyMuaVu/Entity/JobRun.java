@@ -0,0 +1,51 @@
+package org.example.QuanLyMuaVu.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.example.QuanLyMuaVu.Enums.JobRunStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * History entry of one scheduled job run.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "job_runs", indexes = {
+        @Index(name = "idx_job_runs_job_started", columnList = "job_name,started_at")
+})
+public class JobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_run_id")
+    Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    String jobName;
+
+    @Column(name = "node", nullable = false, length = 100)
+    String node;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    JobRunStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    LocalDateTime finishedAt;
+
+    @Column(name = "rows_affected")
+    Long rowsAffected;
+
+    @Column(name = "error", length = 1000)
+    String error;
+}
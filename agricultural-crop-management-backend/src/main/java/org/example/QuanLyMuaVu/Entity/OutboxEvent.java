@@ -0,0 +1,73 @@
+package org.example.QuanLyMuaVu.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.example.QuanLyMuaVu.Enums.OutboxStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain event stored in the same transaction as the write that raised it,
+ * until the outbox dispatcher has delivered it to the listeners.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "outbox", indexes = {
+        @Index(name = "idx_outbox_due", columnList = "status,next_attempt_at"),
+        @Index(name = "idx_outbox_claimed_by", columnList = "claimed_by")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_outbox_event_id", columnNames = "event_id")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_id")
+    Long id;
+
+    @Column(name = "event_id", nullable = false, length = 36)
+    String eventId; // DomainEvent.eventId, stable across redeliveries
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    String eventType;
+
+    @Column(name = "aggregate_type", length = 50)
+    String aggregateType;
+
+    @Column(name = "aggregate_id", length = 64)
+    String aggregateId;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    String payload; // JSON of the event
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    OutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    LocalDateTime nextAttemptAt;
+
+    @Column(name = "claimed_by", length = 36)
+    String claimedBy;
+
+    @Column(name = "claimed_until")
+    LocalDateTime claimedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    LocalDateTime createdAt;
+
+    @Column(name = "dispatched_at")
+    LocalDateTime dispatchedAt;
+}
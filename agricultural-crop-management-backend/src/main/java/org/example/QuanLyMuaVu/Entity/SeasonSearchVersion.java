@@ -0,0 +1,28 @@
+package org.example.QuanLyMuaVu.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Change counter of one farm owner's season and plot names, incremented in
+ * every transaction that writes them. {@code SeasonSearchIndex} compares it
+ * on each search to notice writes made through other nodes.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "season_search_versions")
+public class SeasonSearchVersion {
+
+    @Id
+    @Column(name = "owner_id")
+    Long ownerId;
+
+    @Column(name = "version", nullable = false)
+    Long version;
+}
@@ -0,0 +1,57 @@
+package org.example.QuanLyMuaVu.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.example.QuanLyMuaVu.Enums.SyncMutationStatus;
+import org.example.QuanLyMuaVu.Enums.SyncOperation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a client mutation, keyed by the user and the client-generated
+ * mutation id, so a replayed batch returns the first outcome instead of
+ * applying the change twice.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "sync_mutations", indexes = {
+        @Index(name = "idx_sync_mutations_applied", columnList = "applied_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sync_mutations_user_mutation", columnNames = { "user_id", "mutation_id" })
+})
+public class SyncMutation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "sync_mutation_id")
+    Long id;
+
+    @Column(name = "user_id", nullable = false)
+    Long userId;
+
+    @Column(name = "mutation_id", nullable = false, length = 64)
+    String mutationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 30)
+    SyncOperation operation;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    SyncMutationStatus status;
+
+    @Column(name = "entity_id")
+    Integer entityId;
+
+    @Column(name = "error_code", length = 64)
+    String errorCode;
+
+    @Column(name = "applied_at", nullable = false)
+    LocalDateTime appliedAt;
+}
@@ -0,0 +1,47 @@
+package org.example.QuanLyMuaVu.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.example.QuanLyMuaVu.Enums.SyncEntityType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted field log or task, so that offline clients learn about
+ * the delete on their next sync. Field log deletes are scoped by farm, task
+ * deletes by the task's user.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "sync_tombstones", indexes = {
+        @Index(name = "idx_sync_tombstones_deleted", columnList = "deleted_at,sync_tombstone_id")
+})
+public class SyncTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "sync_tombstone_id")
+    Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    SyncEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    Integer entityId;
+
+    @Column(name = "farm_id")
+    Integer farmId;
+
+    @Column(name = "user_id")
+    Long userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    LocalDateTime deletedAt;
+}
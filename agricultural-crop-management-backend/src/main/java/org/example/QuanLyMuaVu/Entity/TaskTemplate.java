@@ -0,0 +1,53 @@
+package org.example.QuanLyMuaVu.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * One step of a crop's standard task schedule.
+ * <p>
+ * Dates are day offsets from the season start date. Templates with a variety
+ * apply to seasons of that variety; templates without one are the crop's
+ * default schedule.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "task_templates", indexes = {
+        @Index(name = "idx_task_templates_crop_variety", columnList = "crop_id,variety_id")
+})
+public class TaskTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "task_template_id")
+    Integer id;
+
+    @ManyToOne
+    @JoinColumn(name = "crop_id", nullable = false)
+    Crop crop;
+
+    @ManyToOne
+    @JoinColumn(name = "variety_id")
+    Variety variety;
+
+    @Column(name = "title", nullable = false)
+    String title;
+
+    @Column(name = "description", columnDefinition = "TEXT")
+    String description;
+
+    @Column(name = "planned_offset_days", nullable = false)
+    Integer plannedOffsetDays;
+
+    @Column(name = "due_offset_days")
+    Integer dueOffsetDays;
+
+    @Column(name = "sort_order", nullable = false)
+    Integer sortOrder;
+}
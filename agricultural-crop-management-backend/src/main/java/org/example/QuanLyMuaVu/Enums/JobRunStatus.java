@@ -0,0 +1,22 @@
+package org.example.QuanLyMuaVu.Enums;
+
+/**
+ * Outcome of a scheduled job run.
+ */
+public enum JobRunStatus {
+
+    /**
+     * Started and not finished yet (or the node died while running it).
+     */
+    RUNNING,
+
+    /**
+     * Finished without error.
+     */
+    SUCCEEDED,
+
+    /**
+     * Stopped by an error; see the run's error column.
+     */
+    FAILED
+}
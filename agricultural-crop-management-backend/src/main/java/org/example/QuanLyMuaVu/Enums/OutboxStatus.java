@@ -0,0 +1,22 @@
+package org.example.QuanLyMuaVu.Enums;
+
+/**
+ * Delivery state of an outbox entry.
+ */
+public enum OutboxStatus {
+
+    /**
+     * Waiting for (re)delivery.
+     */
+    PENDING,
+
+    /**
+     * Delivered to every listener.
+     */
+    DISPATCHED,
+
+    /**
+     * Gave up after the maximum number of attempts.
+     */
+    FAILED
+}
@@ -0,0 +1,9 @@
+package org.example.QuanLyMuaVu.Enums;
+
+/**
+ * Kind of row exchanged by the sync endpoint.
+ */
+public enum SyncEntityType {
+    FIELD_LOG,
+    TASK
+}
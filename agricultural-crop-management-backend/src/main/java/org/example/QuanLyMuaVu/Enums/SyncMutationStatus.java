@@ -0,0 +1,17 @@
+package org.example.QuanLyMuaVu.Enums;
+
+/**
+ * Outcome of a replayed client mutation.
+ */
+public enum SyncMutationStatus {
+
+    /**
+     * Written in the sync transaction.
+     */
+    APPLIED,
+
+    /**
+     * Not written: failed validation, access or a conflict; see the error code.
+     */
+    REJECTED
+}
@@ -0,0 +1,31 @@
+package org.example.QuanLyMuaVu.Enums;
+
+/**
+ * Change an offline client can replay through the sync endpoint.
+ */
+public enum SyncOperation {
+
+    /**
+     * New field log (seasonId, logDate, logType, notes).
+     */
+    FIELD_LOG_CREATE,
+
+    /**
+     * Replace logDate, logType and notes of a field log.
+     */
+    FIELD_LOG_UPDATE,
+
+    FIELD_LOG_DELETE,
+
+    /**
+     * Start a task of the current user (actual start date = date, default today).
+     */
+    TASK_START,
+
+    /**
+     * Complete a task of the current user (actual end date = date, default today).
+     */
+    TASK_DONE,
+
+    TASK_CANCEL
+}
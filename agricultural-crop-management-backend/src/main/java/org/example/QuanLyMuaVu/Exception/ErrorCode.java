@@ -104,6 +104,9 @@ public enum ErrorCode {
                         "Cannot add field log to closed season", HttpStatus.BAD_REQUEST),
         SEASON_CLOSED_CANNOT_MODIFY_FIELD_LOG("ERR_SEASON_CLOSED_CANNOT_MODIFY_FIELD_LOG",
                         "Cannot modify field log of closed season", HttpStatus.BAD_REQUEST),
+        INVALID_CURSOR("ERR_INVALID_CURSOR", "Invalid or expired page cursor", HttpStatus.BAD_REQUEST),
+        SYNC_CONFLICT("ERR_SYNC_CONFLICT", "The record was changed on the server since the client last synced",
+                        HttpStatus.CONFLICT),
 
         EXPENSE_NOT_FOUND("ERR_EXPENSE_NOT_FOUND", "Expense not found", HttpStatus.NOT_FOUND),
         EXPENSE_PERIOD_LOCKED("ERR_EXPENSE_PERIOD_LOCKED", "Expenses cannot be modified in a closed or locked season",
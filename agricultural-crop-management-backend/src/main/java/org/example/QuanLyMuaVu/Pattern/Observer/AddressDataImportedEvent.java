@@ -0,0 +1,28 @@
+package org.example.QuanLyMuaVu.Pattern.Observer;
+
+import lombok.Getter;
+
+/**
+ * Observer Pattern: Address Data Imported Event.
+ * <p>
+ * Published when province/ward data has been (re)imported. Listeners can use
+ * this to:
+ * - Rebuild the address autocomplete index
+ */
+@Getter
+public class AddressDataImportedEvent extends DomainEvent {
+
+    private final int provincesImported;
+    private final int wardsImported;
+
+    public AddressDataImportedEvent(int provincesImported, int wardsImported) {
+        super("Address", "all");
+        this.provincesImported = provincesImported;
+        this.wardsImported = wardsImported;
+    }
+
+    @Override
+    public String getEventType() {
+        return "ADDRESS_DATA_IMPORTED";
+    }
+}
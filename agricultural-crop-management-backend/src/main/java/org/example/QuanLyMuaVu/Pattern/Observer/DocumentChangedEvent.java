@@ -0,0 +1,27 @@
+package org.example.QuanLyMuaVu.Pattern.Observer;
+
+import lombok.Getter;
+
+/**
+ * Observer Pattern: Document Changed Event.
+ * <p>
+ * Published when a library document is created, updated, deactivated or
+ * deleted. Listeners can use this to:
+ * - Refresh the document search index
+ * - Invalidate cached document listings
+ */
+@Getter
+public class DocumentChangedEvent extends DomainEvent {
+
+    private final Integer documentId;
+
+    public DocumentChangedEvent(Integer documentId) {
+        super("Document", documentId != null ? documentId.toString() : "unknown");
+        this.documentId = documentId;
+    }
+
+    @Override
+    public String getEventType() {
+        return "DOCUMENT_CHANGED";
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.QuanLyMuaVu.Pattern.Observer;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -15,6 +17,7 @@ import java.util.UUID;
  * - Supports async processing for non-blocking operations
  * - Natural audit trail through event persistence
  */
+@JsonIgnoreProperties(value = "eventType", allowGetters = true)
 public abstract class DomainEvent {
 
     private final String eventId;
@@ -29,6 +32,17 @@ public abstract class DomainEvent {
         this.aggregateId = aggregateId;
     }
 
+    /**
+     * Restores an event read back from the outbox, keeping its original id
+     * and timestamp so listeners can de-duplicate redeliveries.
+     */
+    protected DomainEvent(String eventId, LocalDateTime occurredOn, String aggregateType, String aggregateId) {
+        this.eventId = eventId;
+        this.occurredOn = occurredOn;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+    }
+
     public String getEventId() {
         return eventId;
     }
@@ -2,8 +2,8 @@ package org.example.QuanLyMuaVu.Pattern.Observer;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.Config.AsyncConfig;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 /**
@@ -16,8 +16,11 @@ import org.springframework.stereotype.Component;
  * - Audit trail persistence
  * <p>
  * Uses Spring's @EventListener for automatic event subscription.
- * 
- * @Async enables non-blocking event processing.
+ * <p>
+ * The events come from the outbox, which runs these handlers on the bounded
+ * domain event executor (see {@link AsyncConfig}) and marks an event delivered
+ * once they return. They are deliberately not {@code @Async}: a handler that
+ * only queued its work would let a failure go unretried.
  */
 @Component
 @RequiredArgsConstructor
@@ -28,7 +31,6 @@ public class DomainEventListener {
     // private final NotificationService notificationService;
 
     @EventListener
-    @Async
     public void handleSeasonCreated(SeasonCreatedEvent event) {
         log.info("[EVENT] Season created: id={}, name={}, plotId={}, cropId={}",
                 event.getSeasonId(),
@@ -36,14 +38,13 @@ public class DomainEventListener {
                 event.getPlotId(),
                 event.getCropId());
 
+        // Task schedule from crop templates: see SeasonTaskPlanner.onSeasonCreated
         // TODO: Future enhancements:
-        // 1. Auto-generate tasks from crop-specific templates
-        // 2. Send notification to farm manager
-        // 3. Update farm dashboard statistics
+        // 1. Send notification to farm manager
+        // 2. Update farm dashboard statistics
     }
 
     @EventListener
-    @Async
     public void handleTaskCompleted(TaskCompletedEvent event) {
         log.info("[EVENT] Task completed: id={}, title={}, seasonId={}, previousStatus={}",
                 event.getTaskId(),
@@ -58,7 +59,6 @@ public class DomainEventListener {
     }
 
     @EventListener
-    @Async
     public void handleIncidentReported(IncidentReportedEvent event) {
         log.info("[EVENT] Incident reported: id={}, type={}, severity={}, seasonId={}, by user={}",
                 event.getIncidentId(),
@@ -74,4 +74,14 @@ public class DomainEventListener {
             // taskService.createMitigationTask(event.getSeasonId(), event.getIncidentId());
         }
     }
+
+    @EventListener
+    public void handleIncidentOverdue(IncidentOverdueEvent event) {
+        log.warn("[EVENT] Incident overdue: id={}, seasonId={}, status={}, severity={}, deadline={}",
+                event.getIncidentId(),
+                event.getSeasonId(),
+                event.getStatus(),
+                event.getSeverity(),
+                event.getDeadline());
+    }
 }
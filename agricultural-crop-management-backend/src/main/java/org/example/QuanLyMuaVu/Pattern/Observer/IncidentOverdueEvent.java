@@ -0,0 +1,60 @@
+package org.example.QuanLyMuaVu.Pattern.Observer;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import org.example.QuanLyMuaVu.Entity.Incident;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Observer Pattern: Incident Overdue Event.
+ * <p>
+ * Published once when an incident that is still OPEN or IN_PROGRESS passes
+ * the end of its deadline day.
+ * Listeners can use this to:
+ * - Escalate to farm managers or admins
+ * - Raise the incident severity
+ * - Flag the season as at risk
+ */
+@Getter
+public class IncidentOverdueEvent extends DomainEvent {
+
+    private final Integer incidentId;
+    private final Integer seasonId;
+    private final String status;
+    private final String severity;
+    private final LocalDate deadline;
+
+    public IncidentOverdueEvent(Incident incident) {
+        super("Incident", incident.getId() != null ? incident.getId().toString() : "unknown");
+        this.incidentId = incident.getId();
+        this.seasonId = incident.getSeason() != null ? incident.getSeason().getId() : null;
+        this.status = incident.getStatus() != null ? incident.getStatus().name() : null;
+        this.severity = incident.getSeverity() != null ? incident.getSeverity().name() : null;
+        this.deadline = incident.getDeadline();
+    }
+
+    @JsonCreator
+    IncidentOverdueEvent(
+            @JsonProperty("eventId") String eventId,
+            @JsonProperty("occurredOn") LocalDateTime occurredOn,
+            @JsonProperty("incidentId") Integer incidentId,
+            @JsonProperty("seasonId") Integer seasonId,
+            @JsonProperty("status") String status,
+            @JsonProperty("severity") String severity,
+            @JsonProperty("deadline") LocalDate deadline) {
+        super(eventId, occurredOn, "Incident", incidentId != null ? incidentId.toString() : "unknown");
+        this.incidentId = incidentId;
+        this.seasonId = seasonId;
+        this.status = status;
+        this.severity = severity;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public String getEventType() {
+        return "INCIDENT_OVERDUE";
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.QuanLyMuaVu.Pattern.Observer;
+
+import lombok.Getter;
+
+/**
+ * Observer Pattern: Season Data Changed Event.
+ * <p>
+ * Published whenever data that belongs to a season (the season itself, its
+ * tasks, incidents, expenses or harvests) is written.
+ * Listeners can use this to:
+ * - Invalidate per-season caches and read models
+ * - Refresh derived summaries (e.g. AI crop context)
+ */
+@Getter
+public class SeasonDataChangedEvent extends DomainEvent {
+
+    private final Integer seasonId;
+    private final String changeType;
+
+    public SeasonDataChangedEvent(Integer seasonId, String changeType) {
+        super("Season", seasonId != null ? seasonId.toString() : "unknown");
+        this.seasonId = seasonId;
+        this.changeType = changeType;
+    }
+
+    @Override
+    public String getEventType() {
+        return "SEASON_DATA_CHANGED";
+    }
+}
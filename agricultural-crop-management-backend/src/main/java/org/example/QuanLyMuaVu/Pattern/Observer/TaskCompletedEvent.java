@@ -1,9 +1,13 @@
 package org.example.QuanLyMuaVu.Pattern.Observer;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import org.example.QuanLyMuaVu.Entity.Task;
 import org.example.QuanLyMuaVu.Enums.TaskStatus;
 
+import java.time.LocalDateTime;
+
 /**
  * Observer Pattern: Task Completed Event.
  * <p>
@@ -30,6 +34,21 @@ public class TaskCompletedEvent extends DomainEvent {
         this.previousStatus = previousStatus;
     }
 
+    @JsonCreator
+    TaskCompletedEvent(
+            @JsonProperty("eventId") String eventId,
+            @JsonProperty("occurredOn") LocalDateTime occurredOn,
+            @JsonProperty("taskId") Integer taskId,
+            @JsonProperty("taskTitle") String taskTitle,
+            @JsonProperty("seasonId") Integer seasonId,
+            @JsonProperty("previousStatus") TaskStatus previousStatus) {
+        super(eventId, occurredOn, "Task", taskId != null ? taskId.toString() : "unknown");
+        this.taskId = taskId;
+        this.taskTitle = taskTitle;
+        this.seasonId = seasonId;
+        this.previousStatus = previousStatus;
+    }
+
     @Override
     public String getEventType() {
         return "TASK_COMPLETED";
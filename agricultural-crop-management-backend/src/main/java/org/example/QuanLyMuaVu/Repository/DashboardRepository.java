@@ -28,18 +28,21 @@ public interface DashboardRepository extends JpaRepository<org.example.QuanLyMua
             "group by s.status")
     List<SeasonStatusCountProjection> countSeasonsByStatus();
 
+    /**
+     * Seasons ranked by incidents (all statuses, from the incident counters)
+     * plus overdue tasks.
+     */
     @Query("select s.id as seasonId, s.seasonName as seasonName, f.name as farmName, p.plotName as plotName, " +
             "s.status as status, " +
-            "count(distinct i.id) as incidentCount, " +
-            "count(distinct t.id) as overdueTaskCount, " +
-            "(count(distinct i.id) + count(distinct t.id)) as riskScore " +
+            "coalesce((select sum(c.incidentCount) from IncidentCounter c where c.seasonId = s.id), 0) " +
+            "as incidentCount, " +
+            "(select count(t.id) from Task t where t.season = s and t.status = :overdueStatus) as overdueTaskCount, " +
+            "coalesce((select sum(c.incidentCount) from IncidentCounter c where c.seasonId = s.id), 0) " +
+            "+ (select count(t.id) from Task t where t.season = s and t.status = :overdueStatus) as riskScore " +
             "from Season s " +
             "join s.plot p " +
             "join p.farm f " +
-            "left join Incident i on i.season = s " +
-            "left join Task t on t.season = s and t.status = :overdueStatus " +
-            "group by s.id, s.seasonName, f.name, p.plotName, s.status " +
-            "order by (count(distinct i.id) + count(distinct t.id)) desc")
+            "order by riskScore desc")
     List<RiskySeasonProjection> findRiskySeasons(@Param("overdueStatus") TaskStatus overdueStatus, Pageable pageable);
 
     @Query(value = "select f.farm_id as farmId, f.farm_name as farmName, " +
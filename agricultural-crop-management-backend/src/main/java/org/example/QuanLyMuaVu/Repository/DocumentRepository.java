@@ -16,6 +16,11 @@ public interface DocumentRepository extends JpaRepository<Document, Integer> {
 
     List<Document> findByTitleContainingIgnoreCase(String title);
 
+    /**
+     * All visible documents (source for the in-memory search index)
+     */
+    List<Document> findAllByIsActiveTrueAndIsPublicTrue();
+
     /**
      * Find all visible documents with optional filters
      */
@@ -43,4 +48,13 @@ public interface DocumentRepository extends JpaRepository<Document, Integer> {
      */
     @Query("SELECT d FROM Document d WHERE d.id IN :ids AND d.isActive = true AND d.isPublic = true")
     List<Document> findVisibleByIds(@Param("ids") List<Integer> ids);
+
+    /**
+     * Page through a user's favorited visible documents, newest favorite first
+     */
+    @Query(value = "SELECT d FROM DocumentFavorite f JOIN Document d ON d.id = f.documentId " +
+            "WHERE f.userId = :userId AND d.isActive = true AND d.isPublic = true ORDER BY f.createdAt DESC, f.id DESC",
+            countQuery = "SELECT COUNT(f) FROM DocumentFavorite f JOIN Document d ON d.id = f.documentId " +
+                    "WHERE f.userId = :userId AND d.isActive = true AND d.isPublic = true")
+    Page<Document> findVisibleFavoritesByUserId(@Param("userId") Long userId, Pageable pageable);
 }
@@ -1,18 +1,52 @@
 package org.example.QuanLyMuaVu.Repository;
 
 import org.example.QuanLyMuaVu.Entity.FieldLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface FieldLogRepository extends JpaRepository<FieldLog, Integer> {
+public interface FieldLogRepository extends JpaRepository<FieldLog, Integer>, JpaSpecificationExecutor<FieldLog> {
 
     List<FieldLog> findAllBySeason_Id(Integer seasonId);
 
     List<FieldLog> findAllBySeason_IdAndLogDateBetween(Integer seasonId, LocalDate from, LocalDate to);
 
     boolean existsBySeason_Id(Integer seasonId);
+
+    /**
+     * Field logs of the given farms written after the (updatedAt, id) cursor
+     * and up to {@code upTo}, oldest first.
+     */
+    @Query("SELECT l FROM FieldLog l JOIN FETCH l.season s " +
+            "WHERE s.plot.farm.id IN :farmIds " +
+            "AND l.updatedAt <= :upTo " +
+            "AND (l.updatedAt > :afterTime OR (l.updatedAt = :afterTime AND l.id > :afterId)) " +
+            "ORDER BY l.updatedAt, l.id")
+    List<FieldLog> findChangedAfter(
+            @Param("farmIds") Collection<Integer> farmIds,
+            @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Integer afterId,
+            @Param("upTo") LocalDateTime upTo,
+            Pageable pageable);
+
+    /**
+     * Fill updated_at of rows written before the column existed, at most
+     * {@code limit} per call.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE field_logs SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) "
+            + "WHERE updated_at IS NULL LIMIT :limit", nativeQuery = true)
+    int backfillUpdatedAt(@Param("limit") int limit);
 }
@@ -57,4 +57,39 @@ public interface HarvestRepository extends JpaRepository<Harvest, Integer> {
             "FROM Harvest h WHERE h.season.id IN :seasonIds GROUP BY h.season.id")
     List<AdminReportProjections.SeasonRevenueAgg> sumRevenueBySeasonIds(
             @Param("seasonIds") Set<Integer> seasonIds);
+
+    // ═══════════════════════════════════════════════════════════════
+    // YIELD MODEL TRAINING
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * One row per harvested season with the features used by the yield model.
+     */
+    @Query("SELECT s.id AS seasonId, c.id AS cropId, c.cropName AS cropName, v.id AS varietyId, " +
+            "f.province.id AS provinceId, p.area AS plotArea, s.startDate AS startDate, " +
+            "MAX(h.harvestDate) AS lastHarvestDate, SUM(h.quantity) AS totalQuantity " +
+            "FROM Harvest h JOIN h.season s JOIN s.crop c JOIN s.plot p JOIN p.farm f LEFT JOIN s.variety v " +
+            "WHERE p.area > 0 " +
+            "GROUP BY s.id, c.id, c.cropName, v.id, f.province.id, p.area, s.startDate")
+    List<YieldSample> findYieldSamples();
+
+    interface YieldSample {
+        Integer getSeasonId();
+
+        Integer getCropId();
+
+        String getCropName();
+
+        Integer getVarietyId();
+
+        Integer getProvinceId();
+
+        BigDecimal getPlotArea();
+
+        LocalDate getStartDate();
+
+        LocalDate getLastHarvestDate();
+
+        BigDecimal getTotalQuantity();
+    }
 }
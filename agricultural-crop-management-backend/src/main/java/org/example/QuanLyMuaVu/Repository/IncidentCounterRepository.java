@@ -0,0 +1,53 @@
+package org.example.QuanLyMuaVu.Repository;
+
+import org.example.QuanLyMuaVu.Entity.IncidentCounter;
+import org.example.QuanLyMuaVu.Enums.IncidentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IncidentCounterRepository extends JpaRepository<IncidentCounter, Long> {
+
+    List<IncidentCounter> findAllBySeasonId(Integer seasonId);
+
+    /**
+     * Incidents in the given statuses over all seasons of the owner's farms.
+     */
+    @Query("SELECT COALESCE(SUM(c.incidentCount), 0) FROM IncidentCounter c JOIN Season s ON s.id = c.seasonId " +
+            "WHERE s.plot.farm.owner.id = :ownerId AND c.status IN :statuses")
+    long sumByFarmOwnerIdAndStatusIn(@Param("ownerId") Long ownerId,
+            @Param("statuses") Collection<IncidentStatus> statuses);
+
+    /**
+     * Add {@code delta} (may be negative) to a season's count for a status,
+     * creating the row on first use.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO incident_counters (season_id, status, incident_count) " +
+            "VALUES (:seasonId, :status, :delta) " +
+            "ON DUPLICATE KEY UPDATE incident_count = incident_count + :delta", nativeQuery = true)
+    int add(@Param("seasonId") Integer seasonId, @Param("status") String status, @Param("delta") long delta);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM incident_counters", nativeQuery = true)
+    int deleteAllRows();
+
+    /**
+     * Recount every (season, status) from the incidents table.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO incident_counters (season_id, status, incident_count) " +
+            "SELECT season_id, status, COUNT(*) FROM incidents WHERE status IS NOT NULL " +
+            "GROUP BY season_id, status", nativeQuery = true)
+    int insertCountsFromIncidents();
+}
@@ -4,23 +4,44 @@ import org.example.QuanLyMuaVu.Entity.Incident;
 import org.example.QuanLyMuaVu.Entity.Season;
 import org.example.QuanLyMuaVu.Entity.User;
 import org.example.QuanLyMuaVu.Enums.IncidentStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface IncidentRepository extends JpaRepository<Incident, Integer>, JpaSpecificationExecutor<Incident> {
 
+    /**
+     * Filtered incident page with season and reporter fetched in the same
+     * statement.
+     */
+    @Override
+    @EntityGraph(attributePaths = { "season", "reportedBy" })
+    Page<Incident> findAll(Specification<Incident> spec, Pageable pageable);
+
+    @EntityGraph(attributePaths = { "season", "reportedBy" })
     List<Incident> findAllBySeason(Season season);
 
+    long countBySeason_IdAndStatusIn(Integer seasonId, List<IncidentStatus> statuses);
+
     /**
-     * Count incidents by season and status for summary chips
+     * Most recent incidents of a season in the given statuses (AI crop context).
      */
-    long countBySeasonAndStatus(Season season, IncidentStatus status);
+    List<Incident> findTop3BySeason_IdAndStatusInOrderByCreatedAtDesc(Integer seasonId,
+            List<IncidentStatus> statuses);
 
     /**
      * Find all seasons that have incidents reported by a specific user
@@ -29,12 +50,50 @@ public interface IncidentRepository extends JpaRepository<Incident, Integer>, Jp
     List<Season> findDistinctSeasonsByReportedBy(@Param("user") User user);
 
     /**
-     * Count open incidents for farmer's seasons.
-     * Used for dashboard alert count.
+     * Open incidents with a deadline not yet reported as missed, in
+     * (deadline, id) order after the cursor; served by the
+     * (sla_breached_at, status, deadline) index, so reported incidents are
+     * never scanned.
+     */
+    @Query("SELECT i.id AS id, i.deadline AS deadline FROM Incident i " +
+            "WHERE i.status IN :statuses AND i.deadline IS NOT NULL AND i.slaBreachedAt IS NULL " +
+            "AND (i.deadline > :afterDeadline OR (i.deadline = :afterDeadline AND i.id > :afterId)) " +
+            "ORDER BY i.deadline, i.id")
+    List<SlaCandidate> findSlaCandidatesAfter(
+            @Param("statuses") Collection<IncidentStatus> statuses,
+            @Param("afterDeadline") LocalDate afterDeadline,
+            @Param("afterId") Integer afterId,
+            Pageable pageable);
+
+    /**
+     * Same candidates up to and including the cursor, in (deadline, id) order.
+     */
+    @Query("SELECT i.id AS id, i.deadline AS deadline FROM Incident i " +
+            "WHERE i.status IN :statuses AND i.deadline IS NOT NULL AND i.slaBreachedAt IS NULL " +
+            "AND (i.deadline < :upToDeadline OR (i.deadline = :upToDeadline AND i.id <= :upToId)) " +
+            "ORDER BY i.deadline, i.id")
+    List<SlaCandidate> findSlaCandidatesUpTo(
+            @Param("statuses") Collection<IncidentStatus> statuses,
+            @Param("upToDeadline") LocalDate upToDeadline,
+            @Param("upToId") Integer upToId,
+            Pageable pageable);
+
+    /**
+     * Record the missed deadline unless the incident was closed, its deadline
+     * moved or another node got there first. Returns 1 when this call won.
      */
-    @Query("SELECT COUNT(i) FROM Incident i WHERE i.season.plot.farm.owner.id = :ownerId AND i.status IN :openStatuses")
-    long countByFarmOwnerIdAndStatusIn(@Param("ownerId") Long ownerId,
-            @Param("openStatuses") List<IncidentStatus> openStatuses);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Incident i SET i.slaBreachedAt = :now WHERE i.id = :id AND i.deadline = :deadline " +
+            "AND i.slaBreachedAt IS NULL AND i.status IN :statuses")
+    int markSlaBreached(@Param("id") Integer id, @Param("deadline") LocalDate deadline,
+            @Param("statuses") Collection<IncidentStatus> statuses, @Param("now") LocalDateTime now);
+
+    interface SlaCandidate {
+        Integer getId();
+
+        LocalDate getDeadline();
+    }
 
     // ═══════════════════════════════════════════════════════════════
     // ADMIN QUERY METHODS
@@ -0,0 +1,78 @@
+package org.example.QuanLyMuaVu.Repository;
+
+import org.example.QuanLyMuaVu.Entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Claim up to {@code limit} due entries for one dispatcher run, oldest
+     * first, for {@code claimSeconds} by the database clock (so clock skew
+     * between nodes cannot expire a live claim early). Entries claimed by a
+     * run that died become claimable again once {@code claimed_until} has
+     * passed.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE outbox SET claimed_by = :owner, "
+            + "claimed_until = TIMESTAMPADD(SECOND, :claimSeconds, CURRENT_TIMESTAMP) "
+            + "WHERE status = 'PENDING' AND next_attempt_at <= CURRENT_TIMESTAMP "
+            + "AND (claimed_until IS NULL OR claimed_until < CURRENT_TIMESTAMP) "
+            + "ORDER BY outbox_id LIMIT :limit", nativeQuery = true)
+    int claimDue(
+            @Param("owner") String owner,
+            @Param("claimSeconds") long claimSeconds,
+            @Param("limit") int limit);
+
+    List<OutboxEvent> findByClaimedByOrderByIdAsc(String claimedBy);
+
+    /**
+     * Mark an entry delivered and release it, only while {@code owner} still
+     * holds the claim.
+     *
+     * @return 0 when the claim expired and another run took the entry over
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE outbox SET status = 'DISPATCHED', dispatched_at = CURRENT_TIMESTAMP, claimed_by = NULL, "
+            + "claimed_until = NULL, last_error = NULL WHERE outbox_id = :id AND claimed_by = :owner",
+            nativeQuery = true)
+    int markDispatched(@Param("id") Long id, @Param("owner") String owner);
+
+    /**
+     * Record a failed delivery and release the entry, due again after
+     * {@code delaySeconds}, only while {@code owner} still holds the claim.
+     *
+     * @return 0 when the claim expired and another run took the entry over
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE outbox SET status = :status, attempts = :attempts, last_error = :lastError, "
+            + "next_attempt_at = TIMESTAMPADD(SECOND, :delaySeconds, CURRENT_TIMESTAMP), claimed_by = NULL, "
+            + "claimed_until = NULL WHERE outbox_id = :id AND claimed_by = :owner", nativeQuery = true)
+    int recordFailure(
+            @Param("id") Long id,
+            @Param("owner") String owner,
+            @Param("status") String status,
+            @Param("attempts") int attempts,
+            @Param("lastError") String lastError,
+            @Param("delaySeconds") long delaySeconds);
+
+    /**
+     * Delete delivered entries older than {@code before}, at most {@code limit} per call.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM outbox WHERE status = 'DISPATCHED' AND dispatched_at < :before LIMIT :limit",
+            nativeQuery = true)
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -3,6 +3,11 @@ package org.example.QuanLyMuaVu.Repository;
 import org.example.QuanLyMuaVu.Entity.Season;
 import org.example.QuanLyMuaVu.Entity.User;
 import org.example.QuanLyMuaVu.Enums.SeasonStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,6 +21,18 @@ import java.util.Optional;
 public interface SeasonRepository extends JpaRepository<Season, Integer>,
                 org.springframework.data.jpa.repository.JpaSpecificationExecutor<Season> {
 
+        /**
+         * Specification search with plot, crop and variety fetched in the same
+         * statement, so mapping a page does not load them one season at a time.
+         */
+        @Override
+        @EntityGraph(attributePaths = { "plot", "crop", "variety" })
+        Page<Season> findAll(Specification<Season> spec, Pageable pageable);
+
+        @Override
+        @EntityGraph(attributePaths = { "plot", "crop", "variety" })
+        List<Season> findAll(Specification<Season> spec, Sort sort);
+
         List<Season> findByPlot(org.example.QuanLyMuaVu.Entity.Plot plot);
 
         List<Season> findBySeasonNameContainingIgnoreCase(String seasonName);
@@ -111,20 +128,22 @@ public interface SeasonRepository extends JpaRepository<Season, Integer>,
                         @Param("excludeId") Integer excludeId);
 
         /**
-         * BR17: Search seasons by keyword (matches season name, plot name, or crop
-         * name).
-         * Used for the Text_change() search functionality.
-         *
-         * @param keyword the search keyword
-         * @param ownerId the farm owner's user ID
-         * @return list of matching seasons
+         * BR17: Names of all seasons of an owner's farms, with plot and crop
+         * names, for the keyword search index (SeasonSearchIndex).
+         */
+        @Query("SELECT s.id AS id, s.seasonName AS seasonName, p.plotName AS plotName, " +
+                        "c.cropName AS cropName, s.startDate AS startDate " +
+                        "FROM Season s JOIN s.plot p JOIN p.farm f JOIN s.crop c " +
+                        "WHERE f.owner.id = :ownerId")
+        List<SearchEntry> findSearchEntriesByFarmOwnerId(@Param("ownerId") Long ownerId);
+
+        /**
+         * Seasons by id, restricted to the owner's farms, with plot, crop and
+         * variety fetched in the same statement.
          */
-        @Query("SELECT s FROM Season s WHERE s.plot.farm.owner.id = :ownerId " +
-                        "AND (LOWER(s.seasonName) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-                        "OR LOWER(s.plot.plotName) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-                        "OR LOWER(s.crop.cropName) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
-                        "ORDER BY s.startDate DESC")
-        List<Season> searchByKeywordAndOwnerId(@Param("keyword") String keyword, @Param("ownerId") Long ownerId);
+        @Query("SELECT s FROM Season s JOIN FETCH s.plot p JOIN FETCH s.crop LEFT JOIN FETCH s.variety " +
+                        "WHERE s.id IN :ids AND p.farm.owner.id = :ownerId")
+        List<Season> findAllByIdInAndFarmOwnerId(@Param("ids") List<Integer> ids, @Param("ownerId") Long ownerId);
 
         // ═══════════════════════════════════════════════════════════════
         // ADMIN QUERY METHODS (global - no owner filter)
@@ -144,7 +163,9 @@ public interface SeasonRepository extends JpaRepository<Season, Integer>,
         /**
          * Find seasons by date range with optional filters.
          * Uses date range for index optimization (no YEAR() function).
+         * Crop, plot and farm are fetched with the rows for report mapping.
          */
+        @EntityGraph(attributePaths = { "crop", "plot", "plot.farm" })
         @Query("SELECT s FROM Season s " +
                         "WHERE (:from IS NULL OR s.startDate >= :from) " +
                         "AND (:to IS NULL OR s.startDate < :to) " +
@@ -156,4 +177,16 @@ public interface SeasonRepository extends JpaRepository<Season, Integer>,
                         @Param("cropId") Integer cropId,
                         @Param("farmId") Integer farmId,
                         @Param("plotId") Integer plotId);
+
+        interface SearchEntry {
+                Integer getId();
+
+                String getSeasonName();
+
+                String getPlotName();
+
+                String getCropName();
+
+                LocalDate getStartDate();
+        }
 }
@@ -0,0 +1,28 @@
+package org.example.QuanLyMuaVu.Repository;
+
+import org.example.QuanLyMuaVu.Entity.SeasonSearchVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface SeasonSearchVersionRepository extends JpaRepository<SeasonSearchVersion, Long> {
+
+    /**
+     * Increment the owner's version in the current transaction, creating the
+     * row on first use.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO season_search_versions (owner_id, version) VALUES (:ownerId, 1) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1", nativeQuery = true)
+    int increment(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT v.version FROM SeasonSearchVersion v WHERE v.ownerId = :ownerId")
+    Optional<Long> findVersion(@Param("ownerId") Long ownerId);
+}
@@ -7,6 +7,7 @@ import org.example.QuanLyMuaVu.Entity.Warehouse;
 import org.example.QuanLyMuaVu.Enums.StockMovementType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -35,6 +36,26 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, In
                         @Param("warehouse") Warehouse warehouse,
                         @Param("location") StockLocation location);
 
+        /**
+         * On-hand quantity of every supply lot with movements at a
+         * warehouse/location, in one grouped query.
+         */
+        @Query("""
+                        select m.supplyLot.id as supplyLotId, coalesce(sum(
+                            case when m.movementType = org.example.QuanLyMuaVu.Enums.StockMovementType.IN then m.quantity
+                                 when m.movementType = org.example.QuanLyMuaVu.Enums.StockMovementType.OUT then -m.quantity
+                                 else m.quantity end
+                        ), 0) as onHandQuantity
+                        from StockMovement m
+                        where m.warehouse = :warehouse
+                          and (:location is null or m.location = :location)
+                        group by m.supplyLot.id
+                        order by m.supplyLot.id
+                        """)
+        List<LotOnHand> sumOnHandBySupplyLot(
+                        @Param("warehouse") Warehouse warehouse,
+                        @Param("location") StockLocation location);
+
         /**
          * Find distinct supply lot IDs with movements at a warehouse/location
          */
@@ -49,8 +70,10 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, In
                         @Param("location") StockLocation location);
 
         /**
-         * Paginated movement history with filters
+         * Paginated movement history with filters. Lot, item, location, season
+         * and task are fetched with the page rather than per row.
          */
+        @EntityGraph(attributePaths = { "supplyLot", "supplyLot.supplyItem", "location", "season", "task" })
         @Query("""
                         select m from StockMovement m
                         where m.warehouse = :warehouse
@@ -70,4 +93,10 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, In
          * Find all movements for a warehouse (simpler version)
          */
         Page<StockMovement> findByWarehouseOrderByMovementDateDesc(Warehouse warehouse, Pageable pageable);
+
+        interface LotOnHand {
+                Integer getSupplyLotId();
+
+                BigDecimal getOnHandQuantity();
+        }
 }
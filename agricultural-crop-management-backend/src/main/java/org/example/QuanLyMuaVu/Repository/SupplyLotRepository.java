@@ -5,11 +5,13 @@ import org.example.QuanLyMuaVu.Entity.SupplyLot;
 import org.example.QuanLyMuaVu.Entity.Supplier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,6 +21,9 @@ public interface SupplyLotRepository extends JpaRepository<SupplyLot, Integer> {
 
     List<SupplyLot> findAllBySupplier(Supplier supplier);
 
+    @EntityGraph(attributePaths = { "supplyItem" })
+    List<SupplyLot> findAllByIdIn(Collection<Integer> ids);
+
     @Query("""
             SELECT l FROM SupplyLot l
             LEFT JOIN FETCH l.supplyItem
@@ -0,0 +1,27 @@
+package org.example.QuanLyMuaVu.Repository;
+
+import org.example.QuanLyMuaVu.Entity.SyncMutation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SyncMutationRepository extends JpaRepository<SyncMutation, Long> {
+
+    List<SyncMutation> findAllByUserIdAndMutationIdIn(Long userId, Collection<String> mutationIds);
+
+    /**
+     * Delete outcomes older than {@code before}, at most {@code limit} per call.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM sync_mutations WHERE applied_at < :before LIMIT :limit", nativeQuery = true)
+    int deleteAppliedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,45 @@
+package org.example.QuanLyMuaVu.Repository;
+
+import org.example.QuanLyMuaVu.Entity.SyncTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    /**
+     * Deletes visible to a user after the (deletedAt, id) cursor and up to
+     * {@code upTo}, oldest first: field logs of the given farms and the user's
+     * own tasks.
+     */
+    @Query("SELECT t FROM SyncTombstone t " +
+            "WHERE ((t.entityType = org.example.QuanLyMuaVu.Enums.SyncEntityType.FIELD_LOG AND t.farmId IN :farmIds) " +
+            "OR (t.entityType = org.example.QuanLyMuaVu.Enums.SyncEntityType.TASK AND t.userId = :userId)) " +
+            "AND t.deletedAt <= :upTo " +
+            "AND (t.deletedAt > :afterTime OR (t.deletedAt = :afterTime AND t.id > :afterId)) " +
+            "ORDER BY t.deletedAt, t.id")
+    List<SyncTombstone> findVisibleAfter(
+            @Param("farmIds") Collection<Integer> farmIds,
+            @Param("userId") Long userId,
+            @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Long afterId,
+            @Param("upTo") LocalDateTime upTo,
+            Pageable pageable);
+
+    /**
+     * Delete tombstones older than {@code before}, at most {@code limit} per call.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM sync_tombstones WHERE deleted_at < :before LIMIT :limit", nativeQuery = true)
+    int deleteDeletedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -10,8 +10,11 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,13 +57,23 @@ public interface TaskRepository extends JpaRepository<Task, Integer>,
                         @Param("searchQuery") String searchQuery,
                         Pageable pageable);
 
-        // Bulk update for overdue tasks
+        // Next chunk of tasks to mark overdue: [taskId, seasonId]
+        @Query("SELECT t.id, s.id FROM Task t LEFT JOIN t.season s " +
+                        "WHERE t.dueDate < :currentDate " +
+                        "AND t.status IN :pendingStatuses " +
+                        "ORDER BY t.id")
+        List<Object[]> findOverdueCandidates(
+                        @Param("currentDate") LocalDate currentDate,
+                        @Param("pendingStatuses") List<TaskStatus> pendingStatuses,
+                        Pageable pageable);
+
+        // updated_at follows through the column's ON UPDATE
         @Modifying
         @Query("UPDATE Task t SET t.status = :overdueStatus " +
-                        "WHERE t.dueDate < :currentDate " +
+                        "WHERE t.id IN :ids " +
                         "AND t.status IN :pendingStatuses")
-        int updateOverdueTasks(
-                        @Param("currentDate") LocalDate currentDate,
+        int markOverdue(
+                        @Param("ids") List<Integer> ids,
                         @Param("overdueStatus") TaskStatus overdueStatus,
                         @Param("pendingStatuses") List<TaskStatus> pendingStatuses);
 
@@ -113,6 +126,18 @@ public interface TaskRepository extends JpaRepository<Task, Integer>,
         @Query("SELECT COUNT(t) FROM Task t WHERE t.season.id = :seasonId AND t.status = 'DONE'")
         long countCompletedBySeasonId(@Param("seasonId") Integer seasonId);
 
+        /**
+         * Count tasks of a season grouped by status in a single statement.
+         */
+        @Query("SELECT t.status AS status, COUNT(t) AS total FROM Task t " +
+                        "WHERE t.season.id = :seasonId GROUP BY t.status")
+        List<StatusCount> countBySeasonIdGroupByStatus(@Param("seasonId") Integer seasonId);
+
+        /**
+         * Next open tasks of a season by due date (AI crop context).
+         */
+        List<Task> findTop5BySeason_IdAndStatusInOrderByDueDateAsc(Integer seasonId, List<TaskStatus> statuses);
+
         // ═══════════════════════════════════════════════════════════════════════════
         // BR176/BR180: Expense-Task Validation Queries
         // ═══════════════════════════════════════════════════════════════════════════
@@ -135,4 +160,41 @@ public interface TaskRepository extends JpaRepository<Task, Integer>,
          * @return Optional containing the task if found
          */
         Optional<Task> findByIdAndSeasonId(Integer taskId, Integer seasonId);
+
+        List<Task> findAllByIdInAndUser(Collection<Integer> ids, User user);
+
+        /**
+         * Tasks of a user written after the (updatedAt, id) cursor and up to
+         * {@code upTo}, oldest first.
+         */
+        @Query("SELECT t FROM Task t LEFT JOIN FETCH t.season " +
+                        "WHERE t.user = :user " +
+                        "AND t.updatedAt <= :upTo " +
+                        "AND (t.updatedAt > :afterTime OR (t.updatedAt = :afterTime AND t.id > :afterId)) " +
+                        "ORDER BY t.updatedAt, t.id")
+        List<Task> findChangedAfter(
+                        @Param("user") User user,
+                        @Param("afterTime") LocalDateTime afterTime,
+                        @Param("afterId") Integer afterId,
+                        @Param("upTo") LocalDateTime upTo,
+                        Pageable pageable);
+
+        /**
+         * Fill updated_at of rows written before the column existed, at most
+         * {@code limit} per call.
+         */
+        @Transactional
+        @Modifying
+        @Query(value = "UPDATE tasks SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) "
+                        + "WHERE updated_at IS NULL LIMIT :limit", nativeQuery = true)
+        int backfillUpdatedAt(@Param("limit") int limit);
+
+        /**
+         * Projection for per-status task counts.
+         */
+        interface StatusCount {
+                TaskStatus getStatus();
+
+                long getTotal();
+        }
 }
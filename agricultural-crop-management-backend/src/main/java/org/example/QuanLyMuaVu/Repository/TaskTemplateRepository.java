@@ -0,0 +1,17 @@
+package org.example.QuanLyMuaVu.Repository;
+
+import org.example.QuanLyMuaVu.Entity.TaskTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskTemplateRepository extends JpaRepository<TaskTemplate, Integer> {
+
+    List<TaskTemplate> findAllByCrop_IdAndVarietyIsNullOrderBySortOrderAscIdAsc(Integer cropId);
+
+    List<TaskTemplate> findAllByVariety_IdOrderBySortOrderAscIdAsc(Integer varietyId);
+
+    List<TaskTemplate> findAllByCrop_IdOrderBySortOrderAscIdAsc(Integer cropId);
+}
@@ -0,0 +1,36 @@
+package org.example.QuanLyMuaVu.Service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Readiness of the province/ward data loaded by {@link AddressImportService}.
+ * <p>
+ * Reported as {@code UNKNOWN} while the background import is pending or
+ * running, so it does not mark the whole application down during startup.
+ */
+@Component("addressData")
+@RequiredArgsConstructor
+public class AddressDataHealthIndicator implements HealthIndicator {
+
+    private final AddressImportService addressImportService;
+
+    @Override
+    public Health health() {
+        AddressImportService.ImportProgress progress = addressImportService.getProgress();
+        Health.Builder builder = switch (progress.state()) {
+            case COMPLETED, SKIPPED -> Health.up();
+            case FAILED -> Health.down();
+            case NOT_STARTED, RUNNING -> Health.unknown();
+        };
+        builder.withDetail("state", progress.state())
+                .withDetail("provincesImported", progress.provincesImported())
+                .withDetail("wardsImported", progress.wardsImported());
+        if (progress.error() != null) {
+            builder.withDetail("error", progress.error());
+        }
+        return builder.build();
+    }
+}
@@ -1,76 +1,104 @@
 package org.example.QuanLyMuaVu.Service;
 
-import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
-import lombok.experimental.FieldDefaults;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.example.QuanLyMuaVu.Entity.Province;
 import org.example.QuanLyMuaVu.Entity.Ward;
 import org.example.QuanLyMuaVu.Exception.AppException;
 import org.example.QuanLyMuaVu.Exception.ErrorCode;
-import org.example.QuanLyMuaVu.Repository.ProvinceRepository;
-import org.example.QuanLyMuaVu.Repository.WardRepository;
+import org.example.QuanLyMuaVu.Pattern.Observer.AddressDataImportedEvent;
+import org.example.QuanLyMuaVu.Util.SqlValuesReader;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service for importing address data from SQL files.
  * Supports both automatic import on startup (if tables are empty) and manual
  * import via API.
+ * <p>
+ * The dump is read tuple by tuple with {@link SqlValuesReader} and written
+ * with JDBC batch inserts of {@code app.address-import.batch-size} rows, so
+ * memory stays constant whatever the file size. Provinces must appear before
+ * the wards that reference them (as in {@code loc.sql}); wards of an unknown
+ * province are skipped. The startup import runs on a background thread and
+ * its progress is exposed through {@link #getProgress()} and the
+ * {@code addressData} health indicator.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
-@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class AddressImportService {
 
-    ProvinceRepository provinceRepository;
-    WardRepository wardRepository;
+    private static final String[] ADDRESS_CACHES = { "provinces", "province", "wards", "ward" };
+    private static final int PROGRESS_LOG_INTERVAL = 10_000;
 
-    // Regex patterns for parsing SQL INSERT statements
-    private static final Pattern PROVINCE_VALUES = Pattern.compile(
-            "\\((\\d+),\\s*'([^']*)',\\s*'([^']*)',\\s*'([^']*)',\\s*'([^']*)'\\)");
-    private static final Pattern WARD_VALUES = Pattern.compile(
-            "\\((\\d+),\\s*\"([^\"]*)\",\\s*\"([^\"]*)\",\\s*\"([^\"]*)\",\\s*\"([^\"]*)\",\\s*(\\d+)\\)");
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogVersions catalogVersions;
+    private final int batchSize;
+    private final ExecutorService importExecutor;
+    private final AtomicBoolean importing = new AtomicBoolean(false);
+
+    private volatile ImportProgress progress = new ImportProgress(ImportState.NOT_STARTED, 0, 0, null);
+    private volatile TargetTables tables;
+
+    public AddressImportService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            EntityManagerFactory entityManagerFactory,
+            CacheManager cacheManager,
+            ApplicationEventPublisher eventPublisher,
+            CatalogVersions catalogVersions,
+            @Value("${app.address-import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.catalogVersions = catalogVersions;
+        this.batchSize = Math.max(1, batchSize);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("address-import-");
+        threadFactory.setDaemon(true);
+        this.importExecutor = Executors.newSingleThreadExecutor(threadFactory);
+    }
 
     /**
      * Automatically import address data on application startup if tables are empty.
+     * The import runs in the background so it does not delay startup.
      */
     @EventListener(ApplicationReadyEvent.class)
-    @Transactional
     public void importOnStartupIfEmpty() {
-        try {
-            if (provinceRepository.count() == 0 || wardRepository.count() == 0) {
-                log.info("Address tables are empty. Starting automatic import from loc.sql...");
-                ClassPathResource resource = new ClassPathResource("loc.sql");
-                if (resource.exists()) {
-                    ImportResult result = importFromSqlFile(resource.getInputStream());
-                    log.info("Address import completed: {} provinces, {} wards",
-                            result.getProvincesImported(), result.getWardsImported());
-                } else {
-                    log.warn("loc.sql not found in classpath. Skipping automatic import.");
-                }
-            } else {
-                log.info("Address tables already populated. Skipping automatic import.");
-            }
-        } catch (Exception e) {
-            log.error("Failed to import address data on startup: {}", e.getMessage(), e);
-        }
+        importExecutor.execute(this::runStartupImport);
     }
 
     /**
@@ -80,47 +108,7 @@ public class AddressImportService {
     @Transactional
     @CacheEvict(value = { "provinces", "province", "wards", "ward" }, allEntries = true)
     public ImportResult importFromSqlFile(InputStream inputStream) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-            StringBuilder sql = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sql.append(line).append("\n");
-            }
-            String sqlContent = sql.toString();
-
-            int provincesImported = 0;
-            int wardsImported = 0;
-
-            // Import provinces
-            Map<Integer, Province> provinceMap = new HashMap<>();
-            if (provinceRepository.count() == 0) {
-                List<Province> provinces = parseProvinces(sqlContent);
-                provinceRepository.saveAll(provinces);
-                provincesImported = provinces.size();
-                provinces.forEach(p -> provinceMap.put(p.getId(), p));
-                log.debug("Imported {} provinces", provincesImported);
-            } else {
-                provinceRepository.findAll().forEach(p -> provinceMap.put(p.getId(), p));
-            }
-
-            // Import wards
-            if (wardRepository.count() == 0) {
-                List<Ward> wards = parseWards(sqlContent, provinceMap);
-                wardRepository.saveAll(wards);
-                wardsImported = wards.size();
-                log.debug("Imported {} wards", wardsImported);
-            }
-
-            return ImportResult.builder()
-                    .provincesImported(provincesImported)
-                    .wardsImported(wardsImported)
-                    .success(true)
-                    .build();
-
-        } catch (Exception e) {
-            log.error("Error importing address data: {}", e.getMessage(), e);
-            throw new AppException(ErrorCode.ADDRESS_IMPORT_FAILED);
-        }
+        return runExclusive(() -> streamImport(inputStream));
     }
 
     /**
@@ -130,66 +118,255 @@ public class AddressImportService {
     @Transactional
     @CacheEvict(value = { "provinces", "province", "wards", "ward" }, allEntries = true)
     public ImportResult forceReimport(InputStream inputStream) {
-        log.warn("Force reimport requested. Clearing existing address data...");
-        wardRepository.deleteAll();
-        provinceRepository.deleteAll();
-        return importFromSqlFile(inputStream);
-    }
-
-    // ==================== PARSING METHODS ====================
-
-    private List<Province> parseProvinces(String sql) {
-        List<Province> provinces = new ArrayList<>();
-        Matcher matcher = PROVINCE_VALUES.matcher(sql);
-
-        while (matcher.find()) {
-            try {
-                Province province = Province.builder()
-                        .id(Integer.parseInt(matcher.group(1)))
-                        .name(matcher.group(2))
-                        .slug(matcher.group(3))
-                        .type(matcher.group(4))
-                        .nameWithType(matcher.group(5))
-                        .build();
-                provinces.add(province);
-            } catch (NumberFormatException e) {
-                log.warn("Failed to parse province entry: {}", matcher.group(0));
+        return runExclusive(() -> {
+            log.warn("Force reimport requested. Clearing existing address data...");
+            TargetTables target = tables();
+            jdbcTemplate.update("DELETE FROM " + target.wardTable());
+            jdbcTemplate.update("DELETE FROM " + target.provinceTable());
+            return streamImport(inputStream);
+        });
+    }
+
+    /**
+     * Snapshot of the current (or last) import.
+     */
+    public ImportProgress getProgress() {
+        return progress;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        importExecutor.shutdownNow();
+        try {
+            importExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runStartupImport() {
+        try {
+            TargetTables target = tables();
+            if (!isEmpty(target.provinceTable()) && !isEmpty(target.wardTable())) {
+                log.info("Address tables already populated. Skipping automatic import.");
+                progress = new ImportProgress(ImportState.SKIPPED, 0, 0, null);
+                return;
             }
+            ClassPathResource resource = new ClassPathResource("loc.sql");
+            if (!resource.exists()) {
+                log.warn("loc.sql not found in classpath. Skipping automatic import.");
+                progress = new ImportProgress(ImportState.SKIPPED, 0, 0, "loc.sql not found");
+                return;
+            }
+            log.info("Address tables are empty. Starting automatic import from loc.sql...");
+            try (InputStream in = resource.getInputStream()) {
+                ImportResult result = runExclusive(() -> transactionTemplate.execute(status -> streamImport(in)));
+                evictAddressCaches();
+                log.info("Address import completed: {} provinces, {} wards",
+                        result.getProvincesImported(), result.getWardsImported());
+            }
+        } catch (Exception e) {
+            log.error("Failed to import address data on startup: {}", e.getMessage(), e);
+            if (progress.state() != ImportState.FAILED) {
+                progress = new ImportProgress(ImportState.FAILED, 0, 0, e.getMessage());
+            }
+        }
+    }
+
+    private ImportResult runExclusive(ImportAction action) {
+        if (!importing.compareAndSet(false, true)) {
+            log.warn("Address import requested while another import is running.");
+            throw new AppException(ErrorCode.ADDRESS_IMPORT_FAILED);
+        }
+        try {
+            return action.run();
+        } finally {
+            importing.set(false);
         }
-        return provinces;
-    }
-
-    private List<Ward> parseWards(String sql, Map<Integer, Province> provinceMap) {
-        List<Ward> wards = new ArrayList<>();
-        Matcher matcher = WARD_VALUES.matcher(sql);
-
-        while (matcher.find()) {
-            try {
-                int provinceId = Integer.parseInt(matcher.group(6));
-                Province province = provinceMap.get(provinceId);
-
-                if (province != null) {
-                    Ward ward = Ward.builder()
-                            .id(Integer.parseInt(matcher.group(1)))
-                            .name(matcher.group(2))
-                            .slug(matcher.group(3))
-                            .type(matcher.group(4))
-                            .nameWithType(matcher.group(5))
-                            .province(province)
-                            .build();
-                    wards.add(ward);
-                } else {
-                    log.warn("Province not found for ward: {} with provinceId: {}", matcher.group(2), provinceId);
+    }
+
+    private ImportResult streamImport(InputStream inputStream) {
+        long startedAt = System.nanoTime();
+        progress = new ImportProgress(ImportState.RUNNING, 0, 0, null);
+        TargetTables target = tables();
+
+        boolean importProvinces = isEmpty(target.provinceTable());
+        boolean importWards = isEmpty(target.wardTable());
+        Set<Integer> provinceIds = new HashSet<>(
+                jdbcTemplate.queryForList("SELECT " + target.provinceIdColumn() + " FROM " + target.provinceTable(),
+                        Integer.class));
+
+        List<Object[]> provinceBatch = new ArrayList<>(batchSize);
+        List<Object[]> wardBatch = new ArrayList<>(batchSize);
+        int provincesImported = 0;
+        int wardsImported = 0;
+        int skipped = 0;
+
+        try (SqlValuesReader reader = new SqlValuesReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            SqlValuesReader.Row row;
+            while ((row = reader.next()) != null) {
+                List<String> values = row.values();
+                if (isProvinceRow(row)) {
+                    if (!importProvinces) {
+                        continue;
+                    }
+                    Integer id = parseId(values.get(0));
+                    if (id == null) {
+                        skipped++;
+                        continue;
+                    }
+                    provinceIds.add(id);
+                    provinceBatch.add(new Object[] { id, values.get(1), values.get(2), values.get(3), values.get(4) });
+                    if (provinceBatch.size() >= batchSize) {
+                        provincesImported += insert(target.provinceInsertSql(), provinceBatch);
+                        reportProgress(provincesImported, wardsImported, reader.getLineNumber());
+                    }
+                } else if (isWardRow(row)) {
+                    if (!importWards) {
+                        continue;
+                    }
+                    Integer id = parseId(values.get(0));
+                    Integer provinceId = parseId(values.get(5));
+                    if (id == null || provinceId == null || !provinceIds.contains(provinceId)) {
+                        log.warn("Province not found for ward: {} with provinceId: {}", values.get(1), values.get(5));
+                        skipped++;
+                        continue;
+                    }
+                    wardBatch.add(new Object[] { id, values.get(1), values.get(2), values.get(3), values.get(4),
+                            provinceId });
+                    if (wardBatch.size() >= batchSize) {
+                        // Wards reference provinces, so pending provinces go first.
+                        provincesImported += insert(target.provinceInsertSql(), provinceBatch);
+                        wardsImported += insert(target.wardInsertSql(), wardBatch);
+                        reportProgress(provincesImported, wardsImported, reader.getLineNumber());
+                    }
                 }
-            } catch (NumberFormatException e) {
-                log.warn("Failed to parse ward entry: {}", matcher.group(0));
             }
+            provincesImported += insert(target.provinceInsertSql(), provinceBatch);
+            wardsImported += insert(target.wardInsertSql(), wardBatch);
+        } catch (IOException | RuntimeException e) {
+            log.error("Error importing address data: {}", e.getMessage(), e);
+            progress = new ImportProgress(ImportState.FAILED, provincesImported, wardsImported, e.getMessage());
+            throw new AppException(ErrorCode.ADDRESS_IMPORT_FAILED);
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        log.debug("Imported {} provinces and {} wards in {} ms ({} rows skipped)",
+                provincesImported, wardsImported, elapsedMs, skipped);
+        progress = new ImportProgress(ImportState.COMPLETED, provincesImported, wardsImported, null);
+        catalogVersions.bump(CatalogVersions.Catalog.ADDRESS);
+        eventPublisher.publishEvent(new AddressDataImportedEvent(provincesImported, wardsImported));
+        return ImportResult.builder()
+                .provincesImported(provincesImported)
+                .wardsImported(wardsImported)
+                .success(true)
+                .message(skipped > 0 ? skipped + " rows skipped" : null)
+                .build();
+    }
+
+    private void reportProgress(int provincesImported, int wardsImported, long lineNumber) {
+        int previous = progress.provincesImported() + progress.wardsImported();
+        progress = new ImportProgress(ImportState.RUNNING, provincesImported, wardsImported, null);
+        if ((provincesImported + wardsImported) / PROGRESS_LOG_INTERVAL > previous / PROGRESS_LOG_INTERVAL) {
+            log.info("Address import progress: {} provinces, {} wards written (line {})",
+                    provincesImported, wardsImported, lineNumber);
+        }
+    }
+
+    private int insert(String sql, List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int size = batch.size();
+        jdbcTemplate.batchUpdate(sql, batch);
+        batch.clear();
+        return size;
+    }
+
+    private static boolean isProvinceRow(SqlValuesReader.Row row) {
+        return row.table() != null && row.table().startsWith("province")
+                ? row.values().size() >= 5
+                : row.values().size() == 5;
+    }
+
+    private static boolean isWardRow(SqlValuesReader.Row row) {
+        return row.table() != null && row.table().startsWith("ward")
+                ? row.values().size() >= 6
+                : row.values().size() == 6;
+    }
+
+    private static Integer parseId(String value) {
+        try {
+            return value != null ? Integer.valueOf(value.trim()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean isEmpty(String table) {
+        return jdbcTemplate.query("SELECT 1 FROM " + table + " LIMIT 1", rs -> !rs.next());
+    }
+
+    private void evictAddressCaches() {
+        for (String name : ADDRESS_CACHES) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * Physical table and column names, taken from the Hibernate mapping so the
+     * JDBC statements follow whatever naming strategy is configured.
+     */
+    private TargetTables tables() {
+        TargetTables resolved = tables;
+        if (resolved == null) {
+            SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+            AbstractEntityPersister province = (AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+                    .getEntityDescriptor(Province.class);
+            AbstractEntityPersister ward = (AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+                    .getEntityDescriptor(Ward.class);
+            resolved = new TargetTables(
+                    province.getTableName(),
+                    ward.getTableName(),
+                    province.getIdentifierColumnNames()[0],
+                    insertSql(province, "name", "slug", "type", "nameWithType"),
+                    insertSql(ward, "name", "slug", "type", "nameWithType", "province"));
+            tables = resolved;
         }
-        return wards;
+        return resolved;
+    }
+
+    private static String insertSql(AbstractEntityPersister persister, String... properties) {
+        StringBuilder columns = new StringBuilder(persister.getIdentifierColumnNames()[0]);
+        StringBuilder params = new StringBuilder("?");
+        for (String property : properties) {
+            columns.append(", ").append(persister.getPropertyColumnNames(property)[0]);
+            params.append(", ?");
+        }
+        return "INSERT INTO " + persister.getTableName() + " (" + columns + ") VALUES (" + params + ")";
+    }
+
+    @FunctionalInterface
+    private interface ImportAction {
+        ImportResult run();
+    }
+
+    private record TargetTables(String provinceTable, String wardTable, String provinceIdColumn,
+            String provinceInsertSql, String wardInsertSql) {
     }
 
     // ==================== RESULT DTO ====================
 
+    public enum ImportState {
+        NOT_STARTED, RUNNING, COMPLETED, SKIPPED, FAILED
+    }
+
+    public record ImportProgress(ImportState state, int provincesImported, int wardsImported, String error) {
+    }
+
     @lombok.Builder
     @lombok.Data
     public static class ImportResult {
@@ -0,0 +1,318 @@
+package org.example.QuanLyMuaVu.Service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.DTO.Response.ProvinceResponse;
+import org.example.QuanLyMuaVu.DTO.Response.WardResponse;
+import org.example.QuanLyMuaVu.Mapper.AddressMapper;
+import org.example.QuanLyMuaVu.Pattern.Observer.AddressDataImportedEvent;
+import org.example.QuanLyMuaVu.Repository.ProvinceRepository;
+import org.example.QuanLyMuaVu.Repository.WardRepository;
+import org.example.QuanLyMuaVu.Util.TextFoldingUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * In-memory autocomplete index over provinces and wards.
+ * <p>
+ * Names are folded (lower case, Vietnamese diacritics removed) and split into
+ * tokens; every token is stored in a sorted key array with the ordinal of its
+ * entry, so a query token is resolved by a binary search plus a scan of the
+ * keys it prefixes. "ha noi" and partial input such as "ha n" both reach
+ * "H\u00e0 N\u1ed9i". All query tokens must match. Wards are ordered by
+ * province so a province filter is a contiguous ordinal range.
+ * <p>
+ * Results are ranked by folded-name prefix match, then name-with-type prefix
+ * match, then shorter name, and only the top {@code limit} are kept. The index
+ * is built in the background at startup (or on first use) and rebuilt whenever
+ * {@link CatalogVersions} sees a new {@code ADDRESS} version, bumped by every
+ * import on any node; an {@link AddressDataImportedEvent} checks right away.
+ */
+@Component
+@Slf4j
+public class AddressSearchIndex {
+
+    private final ProvinceRepository provinceRepository;
+    private final WardRepository wardRepository;
+    private final AddressMapper addressMapper;
+    private final CatalogVersions catalogVersions;
+    private final ExecutorService rebuilder;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean(false);
+
+    private volatile Snapshot snapshot;
+
+    public AddressSearchIndex(
+            ProvinceRepository provinceRepository,
+            WardRepository wardRepository,
+            AddressMapper addressMapper,
+            CatalogVersions catalogVersions) {
+        this.provinceRepository = provinceRepository;
+        this.wardRepository = wardRepository;
+        this.addressMapper = addressMapper;
+        this.catalogVersions = catalogVersions;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("address-index-");
+        threadFactory.setDaemon(true);
+        this.rebuilder = Executors.newSingleThreadExecutor(threadFactory);
+        catalogVersions.onChange(CatalogVersions.Catalog.ADDRESS, this::rebuild);
+    }
+
+    /**
+     * Provinces whose name matches every folded query token by prefix.
+     *
+     * @param type  optional exact type filter ("thanh-pho", "tinh")
+     * @param limit maximum results, best first
+     */
+    public List<ProvinceResponse> searchProvinces(String keyword, String type, int limit) {
+        PrefixIndex<ProvinceResponse> provinces = current().provinces;
+        boolean hasType = type != null && !type.isBlank();
+        return provinces.search(TextFoldingUtils.tokenize(keyword), 0, provinces.size(), limit,
+                province -> !hasType || type.trim().equalsIgnoreCase(province.getType()));
+    }
+
+    /**
+     * Wards of a province whose name matches every folded query token by prefix.
+     */
+    public List<WardResponse> searchWards(Integer provinceId, String keyword, int limit) {
+        Snapshot current = current();
+        int group = provinceId != null ? Arrays.binarySearch(current.wardProvinceIds, provinceId) : -1;
+        if (group < 0) {
+            return List.of();
+        }
+        return current.wards.search(TextFoldingUtils.tokenize(keyword),
+                current.wardGroupStarts[group], current.wardGroupStarts[group + 1], limit, ward -> true);
+    }
+
+    /**
+     * Whether the indexed data contains the province.
+     */
+    public boolean containsProvince(Integer provinceId) {
+        return provinceId != null && Arrays.binarySearch(current().provinceIds, provinceId) >= 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAddressDataImported(AddressDataImportedEvent event) {
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    catalogVersions.refresh();
+                } catch (Exception ex) {
+                    log.warn("Address search index rebuild failed: {}", ex.toString());
+                }
+            });
+        }
+    }
+
+    /**
+     * Reload all provinces and wards and publish a fresh snapshot.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        List<ProvinceResponse> provinces = provinceRepository.findAll().stream()
+                .map(addressMapper::toProvinceResponse)
+                .toList();
+        List<WardResponse> wards = wardRepository.findAll().stream()
+                .map(addressMapper::toWardResponse)
+                .filter(ward -> ward.getProvinceId() != null)
+                .sorted(Comparator.comparing(WardResponse::getProvinceId))
+                .toList();
+        Snapshot built = new Snapshot(provinces, wards);
+        snapshot = built;
+        log.info("Address search index rebuilt: provinces={}, wards={}, took={}ms",
+                provinces.size(), wards.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+
+        final PrefixIndex<ProvinceResponse> provinces;
+        final PrefixIndex<WardResponse> wards;
+        final int[] provinceIds;
+        /**
+         * Distinct province ids of the (province-ordered) wards and the start
+         * ordinal of each group; {@code wardGroupStarts[i + 1]} ends group i.
+         */
+        final int[] wardProvinceIds;
+        final int[] wardGroupStarts;
+
+        Snapshot(List<ProvinceResponse> provinces, List<WardResponse> wards) {
+            this.provinces = new PrefixIndex<>(provinces, ProvinceResponse::getName, ProvinceResponse::getNameWithType);
+            this.wards = new PrefixIndex<>(wards, WardResponse::getName, WardResponse::getNameWithType);
+            this.provinceIds = provinces.stream().mapToInt(ProvinceResponse::getId).sorted().toArray();
+
+            int[] ids = new int[wards.size()];
+            int[] starts = new int[wards.size() + 1];
+            int groups = 0;
+            for (int i = 0; i < wards.size(); i++) {
+                int provinceId = wards.get(i).getProvinceId();
+                if (groups == 0 || ids[groups - 1] != provinceId) {
+                    ids[groups] = provinceId;
+                    starts[groups] = i;
+                    groups++;
+                }
+            }
+            starts[groups] = wards.size();
+            this.wardProvinceIds = Arrays.copyOf(ids, groups);
+            this.wardGroupStarts = Arrays.copyOf(starts, groups + 1);
+        }
+    }
+
+    /**
+     * Sorted folded-token array over a list of named entries.
+     */
+    static final class PrefixIndex<T> {
+
+        private final List<T> entries;
+        private final String[] foldedNames;
+        private final String[] foldedFullNames;
+        private final String[] keys;
+        private final int[] postings;
+
+        PrefixIndex(List<T> entries, Function<T, String> name, Function<T, String> nameWithType) {
+            this.entries = entries;
+            this.foldedNames = new String[entries.size()];
+            this.foldedFullNames = new String[entries.size()];
+
+            List<Posting> all = new ArrayList<>(entries.size() * 4);
+            for (int i = 0; i < entries.size(); i++) {
+                T entry = entries.get(i);
+                List<String> nameTokens = TextFoldingUtils.tokenize(name.apply(entry));
+                List<String> fullTokens = TextFoldingUtils.tokenize(nameWithType.apply(entry));
+                foldedNames[i] = String.join(" ", nameTokens);
+                foldedFullNames[i] = String.join(" ", fullTokens);
+                Set<String> distinct = new LinkedHashSet<>(nameTokens);
+                distinct.addAll(fullTokens);
+                for (String token : distinct) {
+                    all.add(new Posting(token, i));
+                }
+            }
+            all.sort(Comparator.comparing(Posting::key).thenComparingInt(Posting::ordinal));
+            this.keys = new String[all.size()];
+            this.postings = new int[all.size()];
+            for (int i = 0; i < all.size(); i++) {
+                keys[i] = all.get(i).key();
+                postings[i] = all.get(i).ordinal();
+            }
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        List<T> search(List<String> tokens, int from, int to, int limit, Predicate<T> filter) {
+            if (limit <= 0 || from >= to) {
+                return List.of();
+            }
+            BitSet matches = new BitSet(to);
+            matches.set(from, to);
+            for (String token : tokens) {
+                matches.and(prefixMatches(token, from, to));
+                if (matches.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            String query = String.join(" ", tokens);
+            Comparator<Integer> rank = Comparator
+                    .<Integer>comparingInt(ordinal -> tier(ordinal, query))
+                    .thenComparingInt(ordinal -> foldedNames[ordinal].length())
+                    .thenComparing(ordinal -> foldedNames[ordinal])
+                    .thenComparingInt(ordinal -> ordinal);
+            PriorityQueue<Integer> best = new PriorityQueue<>(rank.reversed());
+            for (int ordinal = matches.nextSetBit(from); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                if (!filter.test(entries.get(ordinal))) {
+                    continue;
+                }
+                best.offer(ordinal);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<Integer> ordered = new ArrayList<>(best);
+            ordered.sort(rank);
+            List<T> result = new ArrayList<>(ordered.size());
+            for (Integer ordinal : ordered) {
+                result.add(entries.get(ordinal));
+            }
+            return result;
+        }
+
+        private BitSet prefixMatches(String token, int from, int to) {
+            BitSet bits = new BitSet(to);
+            int i = lowerBound(token);
+            while (i < keys.length && keys[i].startsWith(token)) {
+                int ordinal = postings[i];
+                if (ordinal >= from && ordinal < to) {
+                    bits.set(ordinal);
+                }
+                i++;
+            }
+            return bits;
+        }
+
+        private int lowerBound(String token) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(token) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int tier(int ordinal, String query) {
+            if (foldedNames[ordinal].startsWith(query)) {
+                return 0;
+            }
+            return foldedFullNames[ordinal].startsWith(query) ? 1 : 2;
+        }
+
+        private record Posting(String key, int ordinal) {
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.example.QuanLyMuaVu.Repository.ProvinceRepository;
 import org.example.QuanLyMuaVu.Repository.WardRepository;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -31,28 +32,34 @@ public class AddressService {
     ProvinceRepository provinceRepository;
     WardRepository wardRepository;
     AddressMapper addressMapper;
+    AddressSearchIndex addressSearchIndex;
 
     // ==================== PROVINCE OPERATIONS ====================
 
     /**
      * Get all provinces with optional keyword and type filter.
      *
+     * Keyword searches are answered by {@link AddressSearchIndex}
+     * (accent-insensitive token prefix match, best matches first).
+     *
      * @param keyword optional search keyword
      * @param type    optional type filter ("thanh-pho" for city, "tinh" for
      *                province)
+     * @param limit   optional maximum number of results
      */
-    @Cacheable(value = "provinces", key = "#keyword + '-' + #type")
-    public List<ProvinceResponse> getAllProvinces(String keyword, String type) {
+    @Cacheable(value = "provinces", key = "#type + '-' + #limit", condition = "#keyword == null || #keyword.isBlank()")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ProvinceResponse> getAllProvinces(String keyword, String type, Integer limit) {
         List<Province> provinces;
 
         boolean hasKeyword = keyword != null && !keyword.trim().isEmpty();
         boolean hasType = type != null && !type.trim().isEmpty();
 
-        if (hasKeyword && hasType) {
-            provinces = provinceRepository.findByNameContainingIgnoreCaseAndType(keyword.trim(), type.trim());
-        } else if (hasKeyword) {
-            provinces = provinceRepository.findByNameContainingIgnoreCase(keyword.trim());
-        } else if (hasType) {
+        if (hasKeyword) {
+            return addressSearchIndex.searchProvinces(keyword, type, resultLimit(limit));
+        }
+
+        if (hasType) {
             provinces = provinceRepository.findByType(type.trim());
         } else {
             provinces = provinceRepository.findAll();
@@ -60,6 +67,7 @@ public class AddressService {
 
         return provinces.stream()
                 .map(addressMapper::toProvinceResponse)
+                .limit(resultLimit(limit))
                 .toList();
     }
 
@@ -77,23 +85,26 @@ public class AddressService {
 
     /**
      * Get all wards for a specific province with optional keyword search.
+     * Keyword searches are answered by {@link AddressSearchIndex}.
      */
-    @Cacheable(value = "wards", key = "#provinceId + '-' + #keyword")
-    public List<WardResponse> getWardsByProvinceId(Integer provinceId, String keyword) {
+    @Cacheable(value = "wards", key = "#provinceId + '-' + #limit", condition = "#keyword == null || #keyword.isBlank()")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<WardResponse> getWardsByProvinceId(Integer provinceId, String keyword, Integer limit) {
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            if (!addressSearchIndex.containsProvince(provinceId)) {
+                throw new AppException(ErrorCode.PROVINCE_NOT_FOUND);
+            }
+            return addressSearchIndex.searchWards(provinceId, keyword, resultLimit(limit));
+        }
+
         // Verify province exists
         if (!provinceRepository.existsById(provinceId)) {
             throw new AppException(ErrorCode.PROVINCE_NOT_FOUND);
         }
 
-        List<Ward> wards;
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            wards = wardRepository.findByProvinceIdAndNameContainingIgnoreCase(provinceId, keyword.trim());
-        } else {
-            wards = wardRepository.findByProvinceId(provinceId);
-        }
-
-        return wards.stream()
+        return wardRepository.findByProvinceId(provinceId).stream()
                 .map(addressMapper::toWardResponse)
+                .limit(resultLimit(limit))
                 .toList();
     }
 
@@ -109,6 +120,10 @@ public class AddressService {
 
     // ==================== UTILITY METHODS ====================
 
+    private static int resultLimit(Integer limit) {
+        return limit != null && limit > 0 ? limit : Integer.MAX_VALUE;
+    }
+
     /**
      * Get count of all address entities (for import statistics).
      */
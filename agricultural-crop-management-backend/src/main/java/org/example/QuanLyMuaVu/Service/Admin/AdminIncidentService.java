@@ -16,6 +16,8 @@ import org.example.QuanLyMuaVu.Exception.AppException;
 import org.example.QuanLyMuaVu.Exception.ErrorCode;
 import org.example.QuanLyMuaVu.Mapper.IncidentMapper;
 import org.example.QuanLyMuaVu.Repository.IncidentRepository;
+import org.example.QuanLyMuaVu.Service.IncidentCounters;
+import org.example.QuanLyMuaVu.Service.IncidentSlaMonitor;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -55,6 +57,8 @@ public class AdminIncidentService {
 
     IncidentRepository incidentRepository;
     IncidentMapper incidentMapper;
+    IncidentCounters incidentCounters;
+    IncidentSlaMonitor incidentSlaMonitor;
 
     // ═══════════════════════════════════════════════════════════════
     // STATE MACHINE CONFIGURATION
@@ -134,17 +138,21 @@ public class AdminIncidentService {
             incident.setSeverity(newSeverity);
 
             // Set deadline if provided
-            if (request.getDeadline() != null) {
+            if (request.getDeadline() != null && !request.getDeadline().equals(incident.getDeadline())) {
                 incident.setDeadline(request.getDeadline());
+                incident.setSlaBreachedAt(null);
             }
 
             // Note: assignee is not stored in current entity structure
             // but the triage workflow is still functional
 
             // Transition to IN_PROGRESS
+            IncidentStatus previousStatus = incident.getStatus();
             incident.setStatus(IN_PROGRESS);
 
             incidentRepository.save(incident);
+            incidentCounters.statusChanged(incident, previousStatus);
+            incidentSlaMonitor.changed(incident);
             log.info("Incident {} triaged successfully", incidentId);
             return incidentMapper.toResponse(incident);
 
@@ -173,6 +181,7 @@ public class AdminIncidentService {
             validateTransition(incident.getStatus(), RESOLVED);
 
             // Set resolution details
+            IncidentStatus previousStatus = incident.getStatus();
             incident.setStatus(RESOLVED);
             incident.setResolvedAt(LocalDateTime.now());
 
@@ -182,6 +191,8 @@ public class AdminIncidentService {
             log.info("Resolution note for incident {}: {}", incidentId, request.getResolutionNote());
 
             incidentRepository.save(incident);
+            incidentCounters.statusChanged(incident, previousStatus);
+            incidentSlaMonitor.changed(incident);
             log.info("Incident {} resolved successfully", incidentId);
             return incidentMapper.toResponse(incident);
 
@@ -210,6 +221,7 @@ public class AdminIncidentService {
             validateTransition(incident.getStatus(), CANCELLED);
 
             // Set cancellation status
+            IncidentStatus previousStatus = incident.getStatus();
             incident.setStatus(CANCELLED);
 
             // Note: cancellationReason is not stored in current entity structure
@@ -217,6 +229,8 @@ public class AdminIncidentService {
             log.info("Cancellation reason for incident {}: {}", incidentId, request.getCancellationReason());
 
             incidentRepository.save(incident);
+            incidentCounters.statusChanged(incident, previousStatus);
+            incidentSlaMonitor.changed(incident);
             log.info("Incident {} cancelled successfully", incidentId);
             return incidentMapper.toResponse(incident);
 
@@ -245,6 +259,7 @@ public class AdminIncidentService {
         // Validate transition
         validateTransition(incident.getStatus(), targetStatus);
 
+        IncidentStatus previousStatus = incident.getStatus();
         incident.setStatus(targetStatus);
 
         // Set resolved_at when status changes to RESOLVED
@@ -253,6 +268,8 @@ public class AdminIncidentService {
         }
 
         incidentRepository.save(incident);
+        incidentCounters.statusChanged(incident, previousStatus);
+        incidentSlaMonitor.changed(incident);
         return incidentMapper.toResponse(incident);
     }
 
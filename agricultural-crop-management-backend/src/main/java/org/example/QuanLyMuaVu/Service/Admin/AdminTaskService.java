@@ -137,7 +137,7 @@ public class AdminTaskService {
             task.setNotes(request.getNotes());
         }
 
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = taskRepository.saveAndFlush(task);
         return toTaskResponse(savedTask);
     }
 
@@ -204,6 +204,7 @@ public class AdminTaskService {
                 .status(task.getStatus() != null ? task.getStatus().name() : null)
                 .notes(task.getNotes())
                 .createdAt(task.getCreatedAt())
+                .updatedAt(task.getUpdatedAt())
                 .build();
     }
 }
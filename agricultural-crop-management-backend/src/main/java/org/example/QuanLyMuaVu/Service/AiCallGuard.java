@@ -0,0 +1,317 @@
+package org.example.QuanLyMuaVu.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.QuanLyMuaVu.Config.AppProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Isolates calls to the AI provider from the servlet request pool.
+ * <p>
+ * Blocking calls run on a dedicated bounded executor with a per-call deadline;
+ * streams are capped by a permit count and an idle/overall deadline. A
+ * consecutive-failure circuit breaker fails fast while the provider is
+ * unhealthy, so callers can return their fallback message immediately instead
+ * of pinning a request thread.
+ */
+@Component
+public class AiCallGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(AiCallGuard.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore streamPermits;
+    private final int maxConcurrentStreams;
+    private final long callTimeoutMs;
+    private final long streamTimeoutMs;
+    private final CircuitBreaker circuitBreaker;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadRejections;
+
+    public AiCallGuard(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.Resilience props = appProperties.getAi().getResilience();
+        this.callTimeoutMs = props.getCallTimeoutMs();
+        this.streamTimeoutMs = props.getStreamTimeoutMs();
+        this.maxConcurrentStreams = props.getMaxConcurrentStreams();
+        this.streamPermits = new Semaphore(props.getMaxConcurrentStreams());
+        this.circuitBreaker = new CircuitBreaker(props.getFailureThreshold(),
+                TimeUnit.MILLISECONDS.toNanos(props.getOpenDurationMs()));
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ai-call-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(
+                props.getMaxConcurrentCalls(),
+                props.getMaxConcurrentCalls(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, props.getQueueCapacity())),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("ai.calls.queue.depth", executor, e -> e.getQueue().size())
+                .description("AI calls waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("ai.calls.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("AI calls currently executing")
+                .register(meterRegistry);
+        Gauge.builder("ai.streams.active", streamPermits, s -> maxConcurrentStreams - s.availablePermits())
+                .description("AI streams currently open")
+                .register(meterRegistry);
+        Gauge.builder("ai.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+                .description("AI circuit breaker state (0=closed, 1=open, 2=half-open)")
+                .register(meterRegistry);
+        this.circuitOpenRejections = Counter.builder("ai.calls.rejected")
+                .tag("reason", RejectReason.CIRCUIT_OPEN.tag)
+                .register(meterRegistry);
+        this.bulkheadRejections = Counter.builder("ai.calls.rejected")
+                .tag("reason", RejectReason.BULKHEAD_FULL.tag)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a blocking provider call on the AI executor and wait at most the
+     * configured deadline for it.
+     *
+     * @throws AiUnavailableException when the breaker is open, the bulkhead is
+     *                                full or the deadline passes
+     */
+    public <T> T call(Callable<T> action) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitOpenRejections.increment();
+            throw new AiUnavailableException(RejectReason.CIRCUIT_OPEN);
+        }
+
+        long start = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(action);
+        } catch (RejectedExecutionException ex) {
+            circuitBreaker.releaseWithoutOutcome();
+            bulkheadRejections.increment();
+            throw new AiUnavailableException(RejectReason.BULKHEAD_FULL);
+        }
+
+        try {
+            T result = future.get(callTimeoutMs, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            recordLatency("call", "success", start);
+            return result;
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            recordLatency("call", "timeout", start);
+            throw new AiUnavailableException(RejectReason.TIMEOUT);
+        } catch (ExecutionException ex) {
+            circuitBreaker.onFailure();
+            recordLatency("call", "failure", start);
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            circuitBreaker.releaseWithoutOutcome();
+            throw new AiUnavailableException(RejectReason.INTERRUPTED);
+        }
+    }
+
+    /**
+     * Guard a streaming provider call. The source is only subscribed when the
+     * breaker is closed and a stream permit is free; a gap longer than the call
+     * timeout between chunks, or a stream exceeding the stream timeout, fails
+     * the stream with {@link AiUnavailableException}.
+     */
+    public <T> Flux<T> stream(Supplier<Flux<T>> source) {
+        return Flux.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                circuitOpenRejections.increment();
+                return Flux.error(new AiUnavailableException(RejectReason.CIRCUIT_OPEN));
+            }
+            if (!streamPermits.tryAcquire()) {
+                circuitBreaker.releaseWithoutOutcome();
+                bulkheadRejections.increment();
+                return Flux.error(new AiUnavailableException(RejectReason.BULKHEAD_FULL));
+            }
+
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(streamTimeoutMs);
+            AtomicBoolean released = new AtomicBoolean(false);
+
+            return source.get()
+                    .timeout(Mono.delay(Duration.ofMillis(Math.min(callTimeoutMs, streamTimeoutMs))),
+                            item -> Mono.delay(nextChunkTimeout(deadline)))
+                    .onErrorMap(TimeoutException.class, ex -> new AiUnavailableException(RejectReason.TIMEOUT))
+                    .doOnComplete(() -> {
+                        circuitBreaker.onSuccess();
+                        recordLatency("stream", "success", start);
+                    })
+                    .doOnError(ex -> {
+                        circuitBreaker.onFailure();
+                        boolean timedOut = ex instanceof AiUnavailableException unavailable
+                                && unavailable.getReason() == RejectReason.TIMEOUT;
+                        recordLatency("stream", timedOut ? "timeout" : "failure", start);
+                    })
+                    .doOnCancel(() -> {
+                        circuitBreaker.releaseWithoutOutcome();
+                        recordLatency("stream", "cancelled", start);
+                    })
+                    .doFinally(signal -> {
+                        if (released.compareAndSet(false, true)) {
+                            streamPermits.release();
+                        }
+                    });
+        });
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Duration nextChunkTimeout(long deadlineNanos) {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        return Duration.ofMillis(Math.max(0, Math.min(callTimeoutMs, remainingMs)));
+    }
+
+    private void recordLatency(String mode, String outcome, long startNanos) {
+        Timer.builder("ai.calls.latency")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public enum RejectReason {
+        CIRCUIT_OPEN("circuit_open"),
+        BULKHEAD_FULL("bulkhead_full"),
+        TIMEOUT("timeout"),
+        INTERRUPTED("interrupted");
+
+        private final String tag;
+
+        RejectReason(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Raised when the guard refuses or abandons a provider call.
+     */
+    public static class AiUnavailableException extends RuntimeException {
+
+        private final RejectReason reason;
+
+        public AiUnavailableException(RejectReason reason) {
+            super("AI provider unavailable: " + reason.tag);
+            this.reason = reason;
+        }
+
+        public RejectReason getReason() {
+            return reason;
+        }
+    }
+
+    /**
+     * Consecutive-failure circuit breaker. After {@code failureThreshold}
+     * failures in a row it opens for {@code openDurationNanos}, then lets a
+     * single trial call through (half-open) to decide whether to close again.
+     */
+    static final class CircuitBreaker {
+
+        enum State {
+            CLOSED, OPEN, HALF_OPEN
+        }
+
+        private final int failureThreshold;
+        private final long openDurationNanos;
+
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAtNanos;
+
+        CircuitBreaker(int failureThreshold, long openDurationNanos) {
+            this.failureThreshold = Math.max(1, failureThreshold);
+            this.openDurationNanos = openDurationNanos;
+        }
+
+        synchronized boolean tryAcquirePermission() {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.nanoTime() - openedAtNanos >= openDurationNanos) {
+                        state = State.HALF_OPEN;
+                        return true;
+                    }
+                    return false;
+                default:
+                    // A trial call is already in flight.
+                    return false;
+            }
+        }
+
+        synchronized void onSuccess() {
+            if (state == State.HALF_OPEN) {
+                log.info("AI circuit breaker closed after successful trial call.");
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+        }
+
+        synchronized void onFailure() {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                if (state != State.OPEN) {
+                    log.warn("AI circuit breaker opened after {} consecutive failures.", consecutiveFailures);
+                }
+                state = State.OPEN;
+                openedAtNanos = System.nanoTime();
+            }
+        }
+
+        /**
+         * The permitted call ended without telling us anything about provider
+         * health (cancelled or rejected locally); allow another trial.
+         */
+        synchronized void releaseWithoutOutcome() {
+            if (state == State.HALF_OPEN) {
+                state = State.OPEN;
+                openedAtNanos = System.nanoTime() - openDurationNanos;
+            }
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+    }
+}
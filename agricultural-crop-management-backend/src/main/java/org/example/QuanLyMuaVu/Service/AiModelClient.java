@@ -0,0 +1,28 @@
+package org.example.QuanLyMuaVu.Service;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Text generation backend used by {@link GeminiService}.
+ * <p>
+ * Keeps the vendor SDK out of the prompt/fallback logic so a local fake can
+ * stand in for the real provider in tests.
+ */
+public interface AiModelClient {
+
+    /**
+     * Whether the backend is configured and able to serve requests.
+     */
+    boolean isEnabled();
+
+    /**
+     * Generate the complete answer for the prompt in one blocking call.
+     */
+    String generateText(String prompt);
+
+    /**
+     * Generate the answer as a stream of partial text chunks, in arrival order.
+     * Cancelling the subscription must release the underlying connection.
+     */
+    Flux<String> streamText(String prompt);
+}
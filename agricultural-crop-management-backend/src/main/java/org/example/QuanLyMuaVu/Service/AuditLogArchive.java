@@ -0,0 +1,428 @@
+package org.example.QuanLyMuaVu.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.Entity.AuditLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Retention for {@code audit_logs}: moves old entries to compressed archive
+ * chunks and reads them back on demand.
+ * <p>
+ * Entries older than {@code retention-days} are archived one day at a time
+ * into {@code audit_log_archive_chunks}: each page of a day is grouped by
+ * entity and written as one gzipped NDJSON chunk per entity. The chunks are
+ * then read back, decompressed and checked against the page (entry counts,
+ * entities and ids) before the page's rows are deleted from the hot table in
+ * the same transaction, so a failure leaves them in {@code audit_logs} for the
+ * next run and never in both places.
+ * <p>
+ * The job runs on its own daemon thread every {@code interval-hours}, through
+ * {@link JobRunner} so only one node archives at a time; the lease is renewed
+ * after every page and the run stops if it was lost. The archive lives in the
+ * database, so {@link #find} sees every node's archive and, through the
+ * (entity, day) index, only decompresses the chunks of the entity and days
+ * asked for, newest day first, and stops once {@code max-results} entries
+ * are in.
+ */
+@Component
+@Slf4j
+public class AuditLogArchive {
+
+    private static final Duration LEASE = Duration.ofMinutes(30);
+
+    private static final String CHUNK_INSERT_SQL = "INSERT INTO audit_log_archive_chunks "
+            + "(archive_day, entity_type, entity_id, entry_count, payload) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String COLUMNS =
+            "audit_log_id, entity_type, entity_id, operation, performed_by, performed_at, snapshot_data, reason, ip_address";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final JobRunner jobRunner;
+    private final int retentionDays;
+    private final int pageSize;
+    private final int maxResults;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final Counter archivedCounter;
+
+    public AuditLogArchive(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            JobRunner jobRunner,
+            MeterRegistry meterRegistry,
+            @Value("${app.audit.archive.retention-days:365}") int retentionDays,
+            @Value("${app.audit.archive.page-size:1000}") int pageSize,
+            @Value("${app.audit.archive.max-results:1000}") int maxResults,
+            @Value("${app.audit.archive.interval-hours:24}") long intervalHours,
+            @Value("${app.audit.archive.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.jobRunner = jobRunner;
+        this.retentionDays = Math.max(1, retentionDays);
+        this.pageSize = Math.max(1, pageSize);
+        this.maxResults = Math.max(1, maxResults);
+        this.archivedCounter = Counter.builder("audit.archive.archived")
+                .description("Audit log entries moved from audit_logs to archive chunks")
+                .register(meterRegistry);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("audit-archive-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        if (enabled) {
+            long periodMinutes = Math.max(1, intervalHours) * 60;
+            // First run shortly after startup, off the startup path.
+            scheduler.scheduleWithFixedDelay(this::archiveQuietly, 10, periodMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Archive every entry performed before the start of the day
+     * {@code retention-days} ago.
+     *
+     * @return number of entries moved out of {@code audit_logs}
+     */
+    public int archiveExpired() {
+        return archiveBefore(LocalDate.now().minusDays(retentionDays), () -> { });
+    }
+
+    /**
+     * Archive every entry performed before {@code cutoff}, oldest day first.
+     * Returns 0 when another run is already in progress.
+     */
+    public int archiveBefore(LocalDate cutoff) {
+        return archiveBefore(cutoff, () -> { });
+    }
+
+    /**
+     * As {@link #archiveBefore(LocalDate)}, calling {@code afterPage} once
+     * every page is committed; an exception from it ends the run.
+     */
+    int archiveBefore(LocalDate cutoff, Runnable afterPage) {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int total = 0;
+            LocalDate previous = null;
+            LocalDate day;
+            while ((day = oldestDayBefore(cutoff)) != null) {
+                if (day.equals(previous)) {
+                    // Rows of an archived day survived the delete; leave them for the next run.
+                    log.warn("Audit log entries for {} remain after archiving; stopping this run", day);
+                    break;
+                }
+                total += archiveDay(day, afterPage);
+                previous = day;
+            }
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Archived entries for an entity, newest first, at most
+     * {@code max-results} of them.
+     *
+     * @param entityType entity type such as "FARM"
+     * @param entityId   entity id, or null for every entity of the type
+     * @param from       first day to include, or null for no lower bound
+     * @param to         last day to include, or null for no upper bound
+     */
+    public List<AuditLog> find(String entityType, Integer entityId, LocalDate from, LocalDate to) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT archive_day, payload FROM audit_log_archive_chunks WHERE entity_type = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(entityType);
+        if (entityId != null) {
+            sql.append(" AND entity_id = ?");
+            args.add(entityId);
+        }
+        if (from != null) {
+            sql.append(" AND archive_day >= ?");
+            args.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND archive_day <= ?");
+            args.add(Date.valueOf(to));
+        }
+        sql.append(" ORDER BY archive_day DESC");
+        List<AuditLog> result = new ArrayList<>();
+        // Chunks stream in newest day first; once the limit is reached, only
+        // the rest of that day can still hold newer entries.
+        LocalDate lastDay = null;
+        try (Stream<DayChunk> chunks = jdbcTemplate.queryForStream(sql.toString(),
+                (rs, rowNum) -> new DayChunk(rs.getDate("archive_day").toLocalDate(), rs.getBytes("payload")),
+                args.toArray())) {
+            for (DayChunk chunk : (Iterable<DayChunk>) chunks::iterator) {
+                if (result.size() >= maxResults && !chunk.day().equals(lastDay)) {
+                    break;
+                }
+                readChunk(chunk.payload(), result::add);
+                lastDay = chunk.day();
+            }
+        }
+        result.sort(Comparator.comparing(AuditLog::getPerformedAt).thenComparing(AuditLog::getId).reversed());
+        return result.size() > maxResults ? new ArrayList<>(result.subList(0, maxResults)) : result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private LocalDate oldestDayBefore(LocalDate cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(performed_at) FROM audit_logs WHERE performed_at < ?",
+                Timestamp.class, Timestamp.valueOf(cutoff.atStartOfDay()));
+        return oldest != null ? oldest.toLocalDateTime().toLocalDate() : null;
+    }
+
+    private int archiveDay(LocalDate day, Runnable afterPage) {
+        Timestamp start = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archivePage(day, start, end));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+            archivedCounter.increment(moved);
+            afterPage.run();
+        }
+        log.info("Archived {} audit log entries for {}", total, day);
+        return total;
+    }
+
+    /**
+     * Move the oldest page of the day: one chunk per entity, read back and
+     * verified, then the delete. Rolls back when a chunk or the delete does
+     * not match the exported rows.
+     */
+    private int archivePage(LocalDate day, Timestamp start, Timestamp end) {
+        List<AuditLog> page = jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM audit_logs WHERE performed_at >= ? AND performed_at < ? "
+                        + "ORDER BY audit_log_id LIMIT ?",
+                (rs, rowNum) -> mapRow(rs), start, end, pageSize);
+        if (page.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<AuditLog>> byEntity = new LinkedHashMap<>();
+        for (AuditLog entry : page) {
+            byEntity.computeIfAbsent(entry.getEntityType() + '#' + entry.getEntityId(), key -> new ArrayList<>())
+                    .add(entry);
+        }
+        List<List<AuditLog>> chunks = new ArrayList<>(byEntity.values());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(CHUNK_INSERT_SQL,
+                        new String[] { "audit_log_archive_chunk_id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        List<AuditLog> entries = chunks.get(i);
+                        ps.setDate(1, Date.valueOf(day));
+                        ps.setString(2, entries.get(0).getEntityType());
+                        ps.setInt(3, entries.get(0).getEntityId());
+                        ps.setInt(4, entries.size());
+                        ps.setBytes(5, gzip(entries));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunks.size();
+                    }
+                },
+                keyHolder);
+        verifyChunks(day, page, keyHolder.getKeyList());
+
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM audit_logs WHERE audit_log_id BETWEEN ? AND ? AND performed_at >= ? AND performed_at < ?",
+                page.get(0).getId(), page.get(page.size() - 1).getId(), start, end);
+        if (deleted != page.size()) {
+            throw new IllegalStateException("Audit archive of " + day + ": exported " + page.size()
+                    + " entries but would delete " + deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Read the chunks just written back from the table and check that
+     * together they hold exactly the page's entries.
+     */
+    private void verifyChunks(LocalDate day, List<AuditLog> page, List<Map<String, Object>> keys) {
+        List<Object> chunkIds = new ArrayList<>(keys.size());
+        for (Map<String, Object> key : keys) {
+            chunkIds.add(key.values().iterator().next());
+        }
+        Set<Long> archivedIds = new HashSet<>();
+        jdbcTemplate.query("SELECT entity_type, entity_id, entry_count, payload FROM audit_log_archive_chunks "
+                        + "WHERE audit_log_archive_chunk_id IN ("
+                        + String.join(", ", Collections.nCopies(chunkIds.size(), "?")) + ")",
+                (RowCallbackHandler) rs -> {
+                    List<AuditLog> entries = new ArrayList<>();
+                    readChunk(rs.getBytes("payload"), entries::add);
+                    if (entries.size() != rs.getInt("entry_count")) {
+                        throw mismatch(day, "chunk holds " + entries.size() + " entries, expected "
+                                + rs.getInt("entry_count"));
+                    }
+                    for (AuditLog entry : entries) {
+                        if (!entry.getEntityType().equals(rs.getString("entity_type"))
+                                || entry.getEntityId() != rs.getInt("entity_id")
+                                || !archivedIds.add(entry.getId())) {
+                            throw mismatch(day, "unexpected entry " + entry.getId() + " in chunk");
+                        }
+                    }
+                },
+                chunkIds.toArray());
+        Set<Long> exportedIds = new HashSet<>();
+        page.forEach(entry -> exportedIds.add(entry.getId()));
+        if (!archivedIds.equals(exportedIds)) {
+            throw mismatch(day, "chunks hold " + archivedIds.size() + " of " + exportedIds.size() + " entries");
+        }
+    }
+
+    private static IllegalStateException mismatch(LocalDate day, String detail) {
+        return new IllegalStateException("Audit archive of " + day + " failed verification: " + detail);
+    }
+
+    private byte[] gzip(List<AuditLog> entries) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+            for (AuditLog entry : entries) {
+                writer.write(objectMapper.writeValueAsString(toJson(entry)));
+                writer.write('\n');
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void readChunk(byte[] payload, Consumer<AuditLog> consumer) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(payload)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    consumer.accept(fromJson(objectMapper.readTree(line)));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private ObjectNode toJson(AuditLog entry) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", entry.getId());
+        node.put("entityType", entry.getEntityType());
+        node.put("entityId", entry.getEntityId());
+        node.put("operation", entry.getOperation());
+        node.put("performedBy", entry.getPerformedBy());
+        node.put("performedAt", entry.getPerformedAt().toString());
+        node.put("snapshotData", entry.getSnapshotDataJson());
+        node.put("reason", entry.getReason());
+        node.put("ipAddress", entry.getIpAddress());
+        return node;
+    }
+
+    private static AuditLog fromJson(JsonNode node) {
+        return AuditLog.builder()
+                .id(node.get("id").asLong())
+                .entityType(node.get("entityType").asText())
+                .entityId(node.get("entityId").asInt())
+                .operation(node.get("operation").asText())
+                .performedBy(node.get("performedBy").asText())
+                .performedAt(LocalDateTime.parse(node.get("performedAt").asText()))
+                .snapshotDataJson(text(node, "snapshotData"))
+                .reason(text(node, "reason"))
+                .ipAddress(text(node, "ipAddress"))
+                .build();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static AuditLog mapRow(ResultSet rs) throws SQLException {
+        return AuditLog.builder()
+                .id(rs.getLong("audit_log_id"))
+                .entityType(rs.getString("entity_type"))
+                .entityId(rs.getInt("entity_id"))
+                .operation(rs.getString("operation"))
+                .performedBy(rs.getString("performed_by"))
+                .performedAt(rs.getTimestamp("performed_at").toLocalDateTime())
+                .snapshotDataJson(rs.getString("snapshot_data"))
+                .reason(rs.getString("reason"))
+                .ipAddress(rs.getString("ip_address"))
+                .build();
+    }
+
+    private record DayChunk(LocalDate day, byte[] payload) {
+    }
+
+    private void archiveQuietly() {
+        try {
+            jobRunner.run("audit.archive", LEASE, context ->
+                    archiveBefore(LocalDate.now().minusDays(retentionDays), context::renewLease));
+        } catch (Exception ex) {
+            log.warn("Audit log retention run failed: {}", ex.toString());
+        }
+    }
+}
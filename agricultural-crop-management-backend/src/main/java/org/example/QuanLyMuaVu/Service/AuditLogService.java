@@ -13,14 +13,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
  * Service for creating audit logs of critical operations.
  * 
  * Transaction Strategy:
- * - Non-critical operations (soft delete, restore, create, update): Use
- * REQUIRES_NEW propagation.
+ * - Non-critical operations (soft delete, restore, create, update): Handed to
+ * {@link AuditLogWriter}, which batch-inserts them outside the caller's
+ * transaction.
  * Audit logs persist independently, even if main operation fails.
  * Audit failures are logged but don't fail the business operation.
  * 
@@ -36,13 +38,15 @@ import java.time.LocalDateTime;
 public class AuditLogService {
 
     AuditLogRepository auditLogRepository;
+    AuditLogWriter auditLogWriter;
+    AuditLogArchive auditLogArchive;
     ObjectMapper objectMapper;
 
     /**
      * Log non-critical farm operations (CREATE, UPDATE, SOFT_DELETE, RESTORE).
      * 
-     * Uses REQUIRES_NEW propagation to ensure audit log is saved in a separate
-     * transaction.
+     * The snapshot is taken now; the row is queued and written in a batch by
+     * {@link AuditLogWriter}, independently of the caller's transaction.
      * If the main operation fails, the audit log still persists.
      * If audit logging fails, it's logged as an error but doesn't fail the business
      * operation.
@@ -56,7 +60,6 @@ public class AuditLogService {
      * @param reason      Optional reason provided by the user
      * @param ipAddress   IP address of the request
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logFarmOperation(
             Farm farm,
             String operation,
@@ -64,9 +67,9 @@ public class AuditLogService {
             String reason,
             String ipAddress) {
         try {
-            createAuditLog(farm, operation, performedBy, reason, ipAddress);
+            auditLogWriter.submit(buildAuditLog(farm, operation, performedBy, reason, ipAddress));
             log.info(
-                    "[AUDIT] Non-critical operation logged: entityType=FARM, entityId={}, operation={}, performedBy={}",
+                    "[AUDIT] Non-critical operation queued: entityType=FARM, entityId={}, operation={}, performedBy={}",
                     farm.getId(), operation, performedBy);
 
         } catch (Exception e) {
@@ -112,7 +115,7 @@ public class AuditLogService {
             String reason,
             String ipAddress) {
         try {
-            createAuditLog(farm, operation, performedBy, reason, ipAddress);
+            auditLogRepository.save(buildAuditLog(farm, operation, performedBy, reason, ipAddress));
             log.info(
                     "[AUDIT_CRITICAL] Critical operation logged: entityType=FARM, entityId={}, operation={}, performedBy={}",
                     farm.getId(), operation, performedBy);
@@ -133,10 +136,10 @@ public class AuditLogService {
     }
 
     /**
-     * Shared logic to create audit log entry.
+     * Shared logic to build an audit log entry.
      * Minimizes PII in snapshot by redacting sensitive fields if needed.
      */
-    private void createAuditLog(
+    private AuditLog buildAuditLog(
             Farm farm,
             String operation,
             String performedBy,
@@ -148,7 +151,7 @@ public class AuditLogService {
         // GDPR compliance
         String snapshot = objectMapper.writeValueAsString(farm);
 
-        AuditLog auditLog = AuditLog.builder()
+        return AuditLog.builder()
                 .entityType("FARM")
                 .entityId(farm.getId())
                 .operation(operation)
@@ -158,8 +161,6 @@ public class AuditLogService {
                 .reason(reason)
                 .ipAddress(ipAddress)
                 .build();
-
-        auditLogRepository.save(auditLog);
     }
 
     /**
@@ -168,4 +169,12 @@ public class AuditLogService {
     public java.util.List<AuditLog> getFarmAuditTrail(Integer farmId) {
         return auditLogRepository.findByEntityTypeAndEntityIdOrderByPerformedAtDesc("FARM", farmId);
     }
+
+    /**
+     * Retrieve archived audit entries of a farm (moved out of audit_logs by
+     * retention), newest first. Null bounds are open.
+     */
+    public java.util.List<AuditLog> getArchivedFarmAuditTrail(Integer farmId, LocalDate from, LocalDate to) {
+        return auditLogArchive.find("FARM", farmId, from, to);
+    }
 }
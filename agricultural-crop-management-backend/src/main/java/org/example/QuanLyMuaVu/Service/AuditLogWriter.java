@@ -0,0 +1,207 @@
+package org.example.QuanLyMuaVu.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.Entity.AuditLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background writer for non-critical audit log entries.
+ * <p>
+ * Entries are put on a bounded queue and drained by a single thread that
+ * inserts them into {@code audit_logs} with JDBC batches of up to
+ * {@code flush-size} rows, every {@code flush-interval-ms} or as soon as a
+ * full batch is waiting. When the queue is full the caller waits up to
+ * {@code enqueue-timeout-ms}; if it is still full the entry is written on
+ * the caller's thread in a separate transaction, so bursts slow producers
+ * down instead of losing entries, the entry survives a rollback of the
+ * caller and a failed audit insert never affects the caller's transaction.
+ * The queue is drained on shutdown.
+ * <p>
+ * Critical audit entries do not go through here; they are saved in the
+ * caller's transaction by {@link AuditLogService#logFarmOperationCritical}.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (entity_type, entity_id, operation, performed_by, performed_at, "
+                    + "snapshot_data, reason, ip_address) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final int flushSize;
+    private final long enqueueTimeoutMs;
+    private final BlockingQueue<AuditLog> queue;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean earlyFlushQueued = new AtomicBoolean(false);
+
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter callerWritesCounter;
+
+    public AuditLogWriter(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.audit.writer.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.audit.writer.flush-size:200}") int flushSize,
+            @Value("${app.audit.writer.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${app.audit.writer.enqueue-timeout-ms:50}") long enqueueTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.flushSize = Math.max(1, flushSize);
+        this.enqueueTimeoutMs = Math.max(0, enqueueTimeoutMs);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("audit-log-writer-");
+        threadFactory.setDaemon(true);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs,
+                TimeUnit.MILLISECONDS);
+
+        Gauge.builder("audit.writer.queued", queue, BlockingQueue::size)
+                .description("Audit log entries waiting to be written")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.writer.written")
+                .description("Audit log entries written by the background writer")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.writer.failed")
+                .description("Audit log entries that could not be written")
+                .register(meterRegistry);
+        this.callerWritesCounter = Counter.builder("audit.writer.caller_writes")
+                .description("Audit log entries written on the caller thread because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue an entry. Blocks for at most {@code enqueue-timeout-ms} when the
+     * queue is full, then writes the entry synchronously in its own
+     * transaction.
+     */
+    public void submit(AuditLog entry) {
+        boolean queued;
+        try {
+            queued = queue.offer(entry, enqueueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            callerWritesCounter.increment();
+            try {
+                requiresNew.executeWithoutResult(status -> writeBatch(List.of(entry)));
+            } catch (RuntimeException ex) {
+                failedCounter.increment();
+                log.error("[AUDIT_FAILURE] Failed to write audit log: entityType={}, entityId={}, operation={}, error={}",
+                        entry.getEntityType(), entry.getEntityId(), entry.getOperation(), ex.getMessage());
+            }
+            return;
+        }
+        if (queue.size() >= flushSize) {
+            requestEarlyFlush();
+        }
+    }
+
+    /**
+     * Write everything queued so far, in batches of {@code flush-size}.
+     */
+    synchronized void flush() {
+        List<AuditLog> batch = new ArrayList<>(flushSize);
+        while (queue.drainTo(batch, flushSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private void writeBatch(List<AuditLog> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (AuditLog entry : batch) {
+            rows.add(toRow(entry));
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            writtenCounter.increment(rows.size());
+        } catch (RuntimeException ex) {
+            log.warn("[AUDIT_FAILURE] Batched audit insert failed ({}); retrying row by row.", ex.toString());
+            for (int i = 0; i < rows.size(); i++) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, rows.get(i));
+                    writtenCounter.increment();
+                } catch (RuntimeException rowEx) {
+                    failedCounter.increment();
+                    AuditLog entry = batch.get(i);
+                    log.error("[AUDIT_FAILURE] Failed to write audit log: entityType={}, entityId={}, operation={}, error={}",
+                            entry.getEntityType(), entry.getEntityId(), entry.getOperation(), rowEx.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Object[] toRow(AuditLog entry) {
+        return new Object[] {
+                entry.getEntityType(),
+                entry.getEntityId(),
+                entry.getOperation(),
+                entry.getPerformedBy(),
+                Timestamp.valueOf(entry.getPerformedAt()),
+                entry.getSnapshotDataJson(),
+                entry.getReason(),
+                entry.getIpAddress()
+        };
+    }
+
+    private void requestEarlyFlush() {
+        if (earlyFlushQueued.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    earlyFlushQueued.set(false);
+                    flushQuietly();
+                });
+            } catch (RuntimeException ex) {
+                // Rejected during shutdown; the final drain picks the entries up.
+                earlyFlushQueued.set(false);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception ex) {
+            log.warn("Flushing audit log entries failed: {}", ex.toString());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.QuanLyMuaVu.Service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.Entity.CatalogVersion;
+import org.example.QuanLyMuaVu.Repository.CatalogVersionRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Version counters behind the ETags of catalog and reference endpoints.
+ * <p>
+ * Each catalog has a row in {@code catalog_versions} that is incremented in
+ * the transaction writing the catalog, so every node sees the same version
+ * once the write is visible. Controllers compare the tag with
+ * {@code If-None-Match} before touching the service; tags are built from the
+ * versions this node has applied, so a 304 needs no database read.
+ * <p>
+ * Caches and search indexes are per node. A refresh reads the stored versions
+ * and, for every catalog that moved, drops its caches and runs its reload hook
+ * (an index rebuild) before recording the version as applied, so a response
+ * tagged with a version is never built from older data. Refreshes run on the
+ * scheduler every {@code refresh-ms} and, after a local write commits, on a
+ * background thread; never on the request thread.
+ */
+@Component
+@Slf4j
+public class CatalogVersions {
+
+    public enum Catalog {
+        CROPS("crops", "crop", "cropVarieties", "varieties", "variety"),
+        VARIETIES("varieties", "variety", "cropVarieties"),
+        ADDRESS("provinces", "province", "wards", "ward"),
+        DOCUMENTS;
+
+        private final String[] cacheNames;
+
+        Catalog(String... cacheNames) {
+            this.cacheNames = cacheNames;
+        }
+    }
+
+    private static final Catalog[] CATALOGS = Catalog.values();
+
+    private final CacheManager cacheManager;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final AtomicLongArray applied = new AtomicLongArray(CATALOGS.length);
+    private final Map<Catalog, Runnable> reloadHooks = new EnumMap<>(Catalog.class);
+    private final ExecutorService refresher;
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+
+    public CatalogVersions(CacheManager cacheManager, CatalogVersionRepository catalogVersionRepository) {
+        this.cacheManager = cacheManager;
+        this.catalogVersionRepository = catalogVersionRepository;
+        for (int i = 0; i < CATALOGS.length; i++) {
+            applied.set(i, -1);
+        }
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("catalog-versions-");
+        threadFactory.setDaemon(true);
+        this.refresher = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    /**
+     * Weak ETag covering the given catalogs, from the applied versions.
+     */
+    public String etag(Catalog... catalogs) {
+        StringBuilder tag = new StringBuilder("W/\"v");
+        for (Catalog catalog : catalogs) {
+            tag.append('-').append(version(catalog));
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Version of the catalog this node has applied, for in-memory read models
+     * built from it (0 until the first refresh).
+     */
+    public long version(Catalog catalog) {
+        return Math.max(0, applied.get(catalog.ordinal()));
+    }
+
+    /**
+     * Record a write to the catalog. The version row is incremented in the
+     * current transaction (or in its own when there is none); this node's
+     * caches are dropped once it commits.
+     */
+    public void bump(Catalog catalog) {
+        catalogVersionRepository.increment(catalog.name());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dropCaches(catalog);
+                    refreshSoon();
+                }
+            });
+        } else {
+            dropCaches(catalog);
+            refreshSoon();
+        }
+    }
+
+    /**
+     * Run {@code hook} whenever this node first sees a new version of the
+     * catalog, before that version is handed out.
+     */
+    public synchronized void onChange(Catalog catalog, Runnable hook) {
+        reloadHooks.put(catalog, hook);
+    }
+
+    /**
+     * Read the stored versions and apply every catalog that moved.
+     *
+     * @return versions indexed by catalog ordinal
+     */
+    public long[] refresh() {
+        long[] current = new long[CATALOGS.length];
+        for (CatalogVersion row : catalogVersionRepository.findAll()) {
+            try {
+                current[Catalog.valueOf(row.getCatalog()).ordinal()] = row.getVersion();
+            } catch (IllegalArgumentException ex) {
+                // Row of a catalog this build does not know.
+            }
+        }
+        for (Catalog catalog : CATALOGS) {
+            if (current[catalog.ordinal()] > applied.get(catalog.ordinal())) {
+                apply(catalog, current[catalog.ordinal()]);
+            }
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.versions.refresh-ms:10000}")
+    public void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.warn("Catalog version refresh failed: {}", ex.toString());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void refreshSoon() {
+        if (refreshPending.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                refreshPending.set(false);
+                refreshQuietly();
+            });
+        }
+    }
+
+    private synchronized void apply(Catalog catalog, long version) {
+        if (applied.get(catalog.ordinal()) >= version) {
+            return;
+        }
+        dropCaches(catalog);
+        Runnable hook = reloadHooks.get(catalog);
+        if (hook != null) {
+            hook.run();
+        }
+        applied.set(catalog.ordinal(), version);
+    }
+
+    private void dropCaches(Catalog catalog) {
+        for (String name : catalog.cacheNames) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                // invalidate() is immediate even on a transaction-aware cache.
+                cache.invalidate();
+            }
+        }
+    }
+}
@@ -12,7 +12,11 @@ import org.example.QuanLyMuaVu.Exception.ErrorCode;
 import org.example.QuanLyMuaVu.Mapper.CropMapper;
 import org.example.QuanLyMuaVu.Mapper.VarietyMapper;
 import org.example.QuanLyMuaVu.Repository.CropRepository;
+import org.example.QuanLyMuaVu.Repository.TaskTemplateRepository;
 import org.example.QuanLyMuaVu.Repository.VarietyRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,25 +31,37 @@ public class CropService {
     CropMapper cropMapper;
     VarietyRepository varietyRepository;
     VarietyMapper varietyMapper;
+    TaskTemplateRepository taskTemplateRepository;
+    CatalogVersions catalogVersions;
 
+    @CacheEvict(value = "crops", allEntries = true)
     public CropResponse create(CropRequest request) {
         if (cropRepository.existsByCropNameIgnoreCase(request.getCropName())) {
             throw new AppException(ErrorCode.DUPLICATE_RESOURCE);
         }
         Crop crop = cropMapper.toEntity(request);
-        return cropMapper.toResponse(cropRepository.save(crop));
+        Crop saved = cropRepository.save(crop);
+        catalogVersions.bump(CatalogVersions.Catalog.CROPS);
+        return cropMapper.toResponse(saved);
     }
 
+    @Cacheable(value = "crops", key = "'all'")
     public List<CropResponse> getAll() {
         return cropRepository.findAll().stream().map(cropMapper::toResponse).toList();
     }
 
+    @Cacheable(value = "crop", key = "#id")
     public CropResponse getById(Integer id) {
         return cropRepository.findById(id)
                 .map(cropMapper::toResponse)
                 .orElseThrow(() -> new AppException(ErrorCode.CROP_NOT_FOUND));
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = "crops", allEntries = true),
+            @CacheEvict(value = "crop", key = "#id"),
+            @CacheEvict(value = { "varieties", "variety", "cropVarieties" }, allEntries = true)
+    })
     public CropResponse update(Integer id, CropRequest request) {
         Crop crop = cropRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.CROP_NOT_FOUND));
@@ -56,15 +72,25 @@ public class CropService {
         }
 
         cropMapper.update(crop, request);
-        return cropMapper.toResponse(cropRepository.save(crop));
+        Crop saved = cropRepository.save(crop);
+        catalogVersions.bump(CatalogVersions.Catalog.CROPS);
+        return cropMapper.toResponse(saved);
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = "crops", allEntries = true),
+            @CacheEvict(value = "crop", key = "#id"),
+            @CacheEvict(value = "cropVarieties", key = "#id")
+    })
     public void delete(Integer id) {
         Crop crop = cropRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.CROP_NOT_FOUND));
+        taskTemplateRepository.deleteAll(taskTemplateRepository.findAllByCrop_IdOrderBySortOrderAscIdAsc(id));
         cropRepository.delete(crop);
+        catalogVersions.bump(CatalogVersions.Catalog.CROPS);
     }
 
+    @Cacheable(value = "cropVarieties", key = "#cropId")
     public List<VarietyResponse> getVarietiesByCropId(Integer cropId) {
         Crop crop = cropRepository.findById(cropId)
                 .orElseThrow(() -> new AppException(ErrorCode.CROP_NOT_FOUND));
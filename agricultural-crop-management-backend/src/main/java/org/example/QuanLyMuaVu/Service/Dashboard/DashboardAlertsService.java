@@ -8,11 +8,11 @@ import org.example.QuanLyMuaVu.Entity.Farm;
 import org.example.QuanLyMuaVu.Entity.SupplyLot;
 import org.example.QuanLyMuaVu.Entity.Warehouse;
 import org.example.QuanLyMuaVu.Enums.IncidentStatus;
-import org.example.QuanLyMuaVu.Repository.IncidentRepository;
 import org.example.QuanLyMuaVu.Repository.StockMovementRepository;
 import org.example.QuanLyMuaVu.Repository.SupplyLotRepository;
 import org.example.QuanLyMuaVu.Repository.WarehouseRepository;
 import org.example.QuanLyMuaVu.Service.FarmerOwnershipService;
+import org.example.QuanLyMuaVu.Service.IncidentCounters;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +20,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for Dashboard alerts aggregation.
@@ -32,7 +35,7 @@ import java.util.List;
 public class DashboardAlertsService {
 
     private final FarmerOwnershipService ownershipService;
-    private final IncidentRepository incidentRepository;
+    private final IncidentCounters incidentCounters;
     private final WarehouseRepository warehouseRepository;
     private final StockMovementRepository stockMovementRepository;
     private final SupplyLotRepository supplyLotRepository;
@@ -46,7 +49,7 @@ public class DashboardAlertsService {
      */
     public DashboardOverviewResponse.Alerts buildAlerts(Long ownerId) {
         // Open incidents
-        long openIncidents = incidentRepository.countByFarmOwnerIdAndStatusIn(ownerId, OPEN_STATUSES);
+        long openIncidents = incidentCounters.countForOwner(ownerId, OPEN_STATUSES);
 
         // Expiring lots (within 30 days)
         int expiringLots = countExpiringLots();
@@ -75,13 +78,17 @@ public class DashboardAlertsService {
         for (Farm farm : farms) {
             List<Warehouse> warehouses = warehouseRepository.findAllByFarm(farm);
             for (Warehouse warehouse : warehouses) {
-                List<Integer> lotIds = stockMovementRepository.findDistinctSupplyLotIdsByWarehouse(warehouse, null);
-                for (Integer lotId : lotIds) {
-                    SupplyLot lot = supplyLotRepository.findById(lotId).orElse(null);
+                List<StockMovementRepository.LotOnHand> balances = stockMovementRepository
+                        .sumOnHandBySupplyLot(warehouse, null);
+                Map<Integer, SupplyLot> lots = loadLots(balances.stream()
+                        .map(StockMovementRepository.LotOnHand::getSupplyLotId)
+                        .toList());
+                for (StockMovementRepository.LotOnHand balance : balances) {
+                    SupplyLot lot = lots.get(balance.getSupplyLotId());
                     if (lot == null)
                         continue;
 
-                    BigDecimal onHand = stockMovementRepository.calculateOnHandQuantity(lot, warehouse, null);
+                    BigDecimal onHand = balance.getOnHandQuantity();
                     if (onHand != null && onHand.compareTo(BigDecimal.valueOf(LOW_STOCK_THRESHOLD)) <= 0) {
                         lowStockItems.add(LowStockAlertResponse.builder()
                                 .supplyLotId(lot.getId())
@@ -120,9 +127,8 @@ public class DashboardAlertsService {
             List<Warehouse> warehouses = warehouseRepository.findAllByFarm(farm);
             for (Warehouse warehouse : warehouses) {
                 List<Integer> lotIds = stockMovementRepository.findDistinctSupplyLotIdsByWarehouse(warehouse, null);
-                for (Integer lotId : lotIds) {
-                    SupplyLot lot = supplyLotRepository.findById(lotId).orElse(null);
-                    if (lot != null && lot.getExpiryDate() != null
+                for (SupplyLot lot : loadLots(lotIds).values()) {
+                    if (lot.getExpiryDate() != null
                             && !lot.getExpiryDate().isAfter(expiryThreshold)) {
                         expiringLots++;
                     }
@@ -131,4 +137,12 @@ public class DashboardAlertsService {
         }
         return expiringLots;
     }
+
+    private Map<Integer, SupplyLot> loadLots(List<Integer> lotIds) {
+        if (lotIds.isEmpty()) {
+            return Map.of();
+        }
+        return supplyLotRepository.findAllByIdIn(lotIds).stream()
+                .collect(Collectors.toMap(SupplyLot::getId, Function.identity()));
+    }
 }
@@ -0,0 +1,262 @@
+package org.example.QuanLyMuaVu.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind buffer for "recent opens" of library documents.
+ * <p>
+ * Opens are coalesced per user and document (latest timestamp wins) and
+ * written to {@code document_recent_opens} in periodic JDBC batches of one
+ * upsert per pair against the (user_id, document_id) unique key, so nodes
+ * flushing the same pair concurrently still leave a single row. The
+ * buffer holds at most {@code max-buffered} pairs; beyond that an early flush
+ * is triggered and further new pairs are dropped until it drains. Pending and
+ * in-flight opens are exposed through {@link #pendingOpens(Long)} so the
+ * Recent tab reads through the buffer.
+ */
+@Component
+@Slf4j
+public class DocumentOpenBuffer {
+
+    /**
+     * Inserts the pair or keeps the newer of the stored and buffered timestamps.
+     */
+    private static final String UPSERT_SQL =
+            "INSERT INTO document_recent_opens (user_id, document_id, opened_at) VALUES (?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE opened_at = GREATEST(COALESCE(opened_at, VALUES(opened_at)), VALUES(opened_at))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxBuffered;
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * userId -> (documentId -> openedAt). Inner maps are only touched inside
+     * {@code compute} on their user key, which serialises access per user.
+     */
+    private final ConcurrentHashMap<Long, Map<Integer, LocalDateTime>> pending = new ConcurrentHashMap<>();
+    private volatile Map<Long, Map<Integer, LocalDateTime>> inFlight = Map.of();
+    private final AtomicInteger bufferedCount = new AtomicInteger();
+    private final AtomicBoolean earlyFlushQueued = new AtomicBoolean(false);
+
+    private final Counter coalescedCounter;
+    private final Counter droppedCounter;
+    private final Counter flushedCounter;
+
+    public DocumentOpenBuffer(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.documents.recent-opens.flush-interval-ms:5000}") long flushIntervalMs,
+            @Value("${app.documents.recent-opens.max-buffered:50000}") int maxBuffered) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxBuffered = Math.max(1, maxBuffered);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("document-open-flush-");
+        threadFactory.setDaemon(true);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs,
+                TimeUnit.MILLISECONDS);
+
+        Gauge.builder("documents.recent_opens.buffered", bufferedCount, AtomicInteger::get)
+                .description("Document opens waiting to be written")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("documents.recent_opens.coalesced")
+                .description("Document opens merged into an already buffered open")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("documents.recent_opens.dropped")
+                .description("Document opens discarded because the buffer was full")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("documents.recent_opens.flushed")
+                .description("Document opens written to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffer an open. Returns immediately; the row is written on the next flush.
+     */
+    public void record(Long userId, Integer documentId, LocalDateTime openedAt) {
+        AtomicBoolean added = new AtomicBoolean(false);
+        AtomicBoolean dropped = new AtomicBoolean(false);
+        pending.compute(userId, (key, opens) -> {
+            Map<Integer, LocalDateTime> map = opens != null ? opens : new HashMap<>();
+            LocalDateTime previous = map.get(documentId);
+            if (previous != null) {
+                if (openedAt.isAfter(previous)) {
+                    map.put(documentId, openedAt);
+                }
+                return map;
+            }
+            if (bufferedCount.get() >= maxBuffered) {
+                dropped.set(true);
+                return map.isEmpty() ? null : map;
+            }
+            map.put(documentId, openedAt);
+            bufferedCount.incrementAndGet();
+            added.set(true);
+            return map;
+        });
+
+        if (dropped.get()) {
+            droppedCounter.increment();
+            requestEarlyFlush();
+        } else if (!added.get()) {
+            coalescedCounter.increment();
+        } else if (bufferedCount.get() >= maxBuffered) {
+            requestEarlyFlush();
+        }
+    }
+
+    /**
+     * Opens of a user that are buffered or currently being written.
+     */
+    public Map<Integer, LocalDateTime> pendingOpens(Long userId) {
+        Map<Integer, LocalDateTime> result = new HashMap<>();
+        Map<Integer, LocalDateTime> writing = inFlight.get(userId);
+        if (writing != null) {
+            result.putAll(writing);
+        }
+        pending.computeIfPresent(userId, (key, opens) -> {
+            opens.forEach((documentId, openedAt) -> result.merge(documentId, openedAt, DocumentOpenBuffer::latest));
+            return opens;
+        });
+        return result;
+    }
+
+    /**
+     * Write everything buffered so far. Runs on the flush thread; also called
+     * on shutdown.
+     */
+    synchronized void flush() {
+        // Published before draining so readers never see an open in neither place.
+        Map<Long, Map<Integer, LocalDateTime>> batch = new ConcurrentHashMap<>();
+        inFlight = batch;
+        drainInto(batch);
+        if (batch.isEmpty()) {
+            inFlight = Map.of();
+            return;
+        }
+        try {
+            write(batch);
+        } catch (RuntimeException ex) {
+            requeue(batch);
+            throw ex;
+        } finally {
+            inFlight = Map.of();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private void drainInto(Map<Long, Map<Integer, LocalDateTime>> batch) {
+        for (Long userId : new ArrayList<>(pending.keySet())) {
+            Map<Integer, LocalDateTime> opens = pending.remove(userId);
+            if (opens != null && !opens.isEmpty()) {
+                batch.put(userId, opens);
+                bufferedCount.addAndGet(-opens.size());
+            }
+        }
+    }
+
+    /**
+     * Put a failed batch back so it is retried on the next flush, keeping any
+     * newer open recorded meanwhile and respecting the buffer bound.
+     */
+    private void requeue(Map<Long, Map<Integer, LocalDateTime>> batch) {
+        batch.forEach((userId, opens) -> opens.forEach((documentId, openedAt) -> {
+            boolean[] dropped = { false };
+            pending.compute(userId, (key, current) -> {
+                Map<Integer, LocalDateTime> map = current != null ? current : new HashMap<>();
+                LocalDateTime existing = map.get(documentId);
+                if (existing != null) {
+                    map.put(documentId, latest(existing, openedAt));
+                } else if (bufferedCount.get() < maxBuffered) {
+                    map.put(documentId, openedAt);
+                    bufferedCount.incrementAndGet();
+                } else {
+                    dropped[0] = true;
+                }
+                return map.isEmpty() ? null : map;
+            });
+            if (dropped[0]) {
+                droppedCounter.increment();
+            }
+        }));
+    }
+
+    private void write(Map<Long, Map<Integer, LocalDateTime>> batch) {
+        List<Object[]> rows = new ArrayList<>();
+        batch.forEach((userId, opens) -> opens.forEach((documentId, openedAt) ->
+                rows.add(new Object[] { userId, documentId, Timestamp.valueOf(openedAt) })));
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        } catch (DataIntegrityViolationException ex) {
+            // A document may have been deleted since it was opened; write the rest one by one.
+            log.warn("Batched upsert of recent opens failed ({}); retrying row by row.", ex.toString());
+            upsertIndividually(rows);
+        }
+        flushedCounter.increment(rows.size());
+        log.debug("Flushed {} document opens", rows.size());
+    }
+
+    private void upsertIndividually(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            try {
+                jdbcTemplate.update(UPSERT_SQL, row);
+            } catch (DataIntegrityViolationException ex) {
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    private void requestEarlyFlush() {
+        if (earlyFlushQueued.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                earlyFlushQueued.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception ex) {
+            log.warn("Flushing document opens failed: {}", ex.toString());
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
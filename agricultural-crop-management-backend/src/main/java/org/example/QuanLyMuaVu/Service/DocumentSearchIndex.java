@@ -0,0 +1,349 @@
+package org.example.QuanLyMuaVu.Service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.Entity.Document;
+import org.example.QuanLyMuaVu.Pattern.Observer.DocumentChangedEvent;
+import org.example.QuanLyMuaVu.Repository.DocumentRepository;
+import org.example.QuanLyMuaVu.Util.TextFoldingUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory inverted index over the visible document library.
+ * <p>
+ * Title, description, crop, stage and topic are folded (lower case, Vietnamese
+ * diacritics removed, {@code đ -> d}) and tokenised; every term maps to a
+ * posting list of document ordinals. Queries are ranked with BM25, require all
+ * query terms to match and treat the last term as a prefix so the search box
+ * can query on every keystroke. Work per query is proportional to the posting
+ * lists touched, not to the size of the library.
+ * <p>
+ * A {@link DocumentChangedEvent} bumps the {@code DOCUMENTS} catalog version
+ * in the background; the index is rebuilt whenever {@link CatalogVersions}
+ * sees a new version, which also covers changes made through other nodes.
+ * Searches keep using the previous snapshot until the new one is published.
+ */
+@Component
+@Slf4j
+public class DocumentSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float FACET_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final DocumentRepository documentRepository;
+    private final CatalogVersions catalogVersions;
+    private final ExecutorService rebuilder;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean(false);
+
+    private volatile Snapshot snapshot;
+
+    public DocumentSearchIndex(DocumentRepository documentRepository, CatalogVersions catalogVersions) {
+        this.documentRepository = documentRepository;
+        this.catalogVersions = catalogVersions;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("document-index-");
+        threadFactory.setDaemon(true);
+        this.rebuilder = Executors.newSingleThreadExecutor(threadFactory);
+        catalogVersions.onChange(CatalogVersions.Catalog.DOCUMENTS, this::rebuild);
+    }
+
+    public record SearchResult(List<Integer> documentIds, long total) {
+    }
+
+    /**
+     * Search visible documents.
+     *
+     * @param query  free text; must contain at least one token
+     * @param crop   optional exact crop filter
+     * @param stage  optional exact stage filter
+     * @param topic  optional exact topic filter
+     * @param offset number of ranked hits to skip
+     * @param limit  maximum hits to return
+     */
+    public SearchResult search(String query, String crop, String stage, String topic, long offset, int limit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+        }
+
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        List<Map<Integer, Double>> perToken = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            boolean prefix = i == tokens.size() - 1;
+            Map<Integer, Double> scores = current.score(tokens.get(i), prefix);
+            if (scores.isEmpty()) {
+                return new SearchResult(List.of(), 0);
+            }
+            perToken.add(scores);
+        }
+        perToken.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        int keep = (int) Math.min(Integer.MAX_VALUE - 1L, offset + limit);
+        PriorityQueue<Hit> top = new PriorityQueue<>(Math.max(1, keep), Hit.WORST_FIRST);
+        long total = 0;
+        for (Map.Entry<Integer, Double> candidate : perToken.get(0).entrySet()) {
+            int doc = candidate.getKey();
+            if (!current.matchesFilters(doc, crop, stage, topic)) {
+                continue;
+            }
+            double score = candidate.getValue();
+            boolean all = true;
+            for (int t = 1; t < perToken.size() && all; t++) {
+                Double other = perToken.get(t).get(doc);
+                if (other == null) {
+                    all = false;
+                } else {
+                    score += other;
+                }
+            }
+            if (!all) {
+                continue;
+            }
+            total++;
+            if (keep == 0) {
+                continue;
+            }
+            Hit hit = new Hit(doc, score, current.createdAt[doc]);
+            if (top.size() < keep) {
+                top.add(hit);
+            } else if (Hit.WORST_FIRST.compare(hit, top.peek()) > 0) {
+                top.poll();
+                top.add(hit);
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(Collections.reverseOrder(Hit.WORST_FIRST));
+        List<Integer> ids = new ArrayList<>(limit);
+        for (int i = (int) Math.min(offset, ranked.size()); i < ranked.size(); i++) {
+            ids.add(current.documentIds[ranked.get(i).doc()]);
+        }
+        return new SearchResult(ids, total);
+    }
+
+    /**
+     * Whether the current snapshot contains the document. A {@code false}
+     * answer may be stale (index not built yet or rebuild pending), so callers
+     * should confirm it against the database.
+     */
+    public boolean isIndexedVisible(Integer documentId) {
+        Snapshot current = snapshot;
+        return current != null && documentId != null
+                && Arrays.binarySearch(current.sortedDocumentIds, documentId) >= 0;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    // Other nodes rebuild on their next read of the version; this one does now.
+                    catalogVersions.bump(CatalogVersions.Catalog.DOCUMENTS);
+                    catalogVersions.refresh();
+                } catch (Exception ex) {
+                    log.warn("Document search index rebuild failed: {}", ex.toString());
+                }
+            });
+        }
+    }
+
+    /**
+     * Reload all visible documents and publish a fresh snapshot.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Snapshot built = Snapshot.build(documentRepository.findAllByIsActiveTrueAndIsPublicTrue());
+        snapshot = built;
+        log.info("Document search index rebuilt: documents={}, terms={}, took={}ms",
+                built.documentIds.length, built.terms.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    static List<String> tokenize(String text) {
+        return new ArrayList<>(new LinkedHashSet<>(TextFoldingUtils.tokenize(text)));
+    }
+
+    private record Hit(int doc, double score, long createdAt) {
+
+        /**
+         * Lowest score first; on equal score the older document is worse.
+         */
+        static final Comparator<Hit> WORST_FIRST = Comparator
+                .comparingDouble(Hit::score)
+                .thenComparingLong(Hit::createdAt)
+                .thenComparing(Hit::doc, Collections.reverseOrder());
+    }
+
+    /**
+     * Immutable index state. Terms are sorted so prefix lookups are a binary
+     * search; posting lists hold document ordinals and field-weighted term
+     * frequencies in parallel arrays.
+     */
+    static final class Snapshot {
+
+        private final int[] documentIds;
+        private final int[] sortedDocumentIds;
+        private final long[] createdAt;
+        private final float[] lengths;
+        private final String[] crops;
+        private final String[] stages;
+        private final String[] topics;
+        private final double averageLength;
+        private final String[] terms;
+        private final int[][] postingDocs;
+        private final float[][] postingFreqs;
+
+        private Snapshot(int[] documentIds, long[] createdAt, float[] lengths, String[] crops, String[] stages,
+                String[] topics, String[] terms, int[][] postingDocs, float[][] postingFreqs) {
+            this.documentIds = documentIds;
+            this.sortedDocumentIds = documentIds.clone();
+            Arrays.sort(this.sortedDocumentIds);
+            this.createdAt = createdAt;
+            this.lengths = lengths;
+            this.crops = crops;
+            this.stages = stages;
+            this.topics = topics;
+            this.terms = terms;
+            this.postingDocs = postingDocs;
+            this.postingFreqs = postingFreqs;
+            double sum = 0;
+            for (float length : lengths) {
+                sum += length;
+            }
+            this.averageLength = lengths.length > 0 ? Math.max(1e-6, sum / lengths.length) : 1;
+        }
+
+        static Snapshot build(List<Document> documents) {
+            int size = documents.size();
+            int[] ids = new int[size];
+            long[] created = new long[size];
+            float[] lengths = new float[size];
+            String[] crops = new String[size];
+            String[] stages = new String[size];
+            String[] topics = new String[size];
+            TreeMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+
+            for (int doc = 0; doc < size; doc++) {
+                Document document = documents.get(doc);
+                ids[doc] = document.getId();
+                created[doc] = document.getCreatedAt() != null
+                        ? document.getCreatedAt().toEpochSecond(ZoneOffset.UTC)
+                        : 0L;
+                crops[doc] = document.getCrop();
+                stages[doc] = document.getStage();
+                topics[doc] = document.getTopic();
+
+                Map<String, Float> termFreqs = new HashMap<>();
+                lengths[doc] += addField(termFreqs, document.getTitle(), TITLE_WEIGHT);
+                lengths[doc] += addField(termFreqs, document.getCrop(), FACET_WEIGHT);
+                lengths[doc] += addField(termFreqs, document.getStage(), FACET_WEIGHT);
+                lengths[doc] += addField(termFreqs, document.getTopic(), FACET_WEIGHT);
+                lengths[doc] += addField(termFreqs, document.getDescription(), DESCRIPTION_WEIGHT);
+                for (Map.Entry<String, Float> entry : termFreqs.entrySet()) {
+                    postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(doc, entry.getValue());
+                }
+            }
+
+            String[] terms = postings.keySet().toArray(new String[0]);
+            int[][] postingDocs = new int[terms.length][];
+            float[][] postingFreqs = new float[terms.length][];
+            for (int t = 0; t < terms.length; t++) {
+                Map<Integer, Float> list = postings.get(terms[t]);
+                int[] docs = list.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+                float[] freqs = new float[docs.length];
+                for (int i = 0; i < docs.length; i++) {
+                    freqs[i] = list.get(docs[i]);
+                }
+                postingDocs[t] = docs;
+                postingFreqs[t] = freqs;
+            }
+            return new Snapshot(ids, created, lengths, crops, stages, topics, terms, postingDocs, postingFreqs);
+        }
+
+        /**
+         * BM25 contribution of one query token per matching document. A
+         * prefix token sums over every index term starting with it; both ends
+         * of that term range are found by binary search.
+         */
+        Map<Integer, Double> score(String token, boolean prefix) {
+            Map<Integer, Double> scores = new HashMap<>();
+            int from = Arrays.binarySearch(terms, token);
+            if (!prefix) {
+                if (from >= 0) {
+                    addTerm(scores, from);
+                }
+                return scores;
+            }
+            if (from < 0) {
+                from = -from - 1;
+            }
+            int to = -Arrays.binarySearch(terms, from, terms.length, token + Character.MAX_VALUE) - 1;
+            for (int t = from; t < to; t++) {
+                addTerm(scores, t);
+            }
+            return scores;
+        }
+
+        boolean matchesFilters(int doc, String crop, String stage, String topic) {
+            return matches(crops[doc], crop) && matches(stages[doc], stage) && matches(topics[doc], topic);
+        }
+
+        private void addTerm(Map<Integer, Double> scores, int term) {
+            int[] docs = postingDocs[term];
+            float[] freqs = postingFreqs[term];
+            int total = documentIds.length;
+            double idf = Math.log(1 + (total - docs.length + 0.5) / (docs.length + 0.5));
+            for (int i = 0; i < docs.length; i++) {
+                double tf = freqs[i];
+                double norm = K1 * (1 - B + B * lengths[docs[i]] / averageLength);
+                scores.merge(docs[i], idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+            }
+        }
+
+        private static boolean matches(String value, String filter) {
+            return filter == null || filter.isEmpty() || filter.equalsIgnoreCase(value);
+        }
+
+        private static float addField(Map<String, Float> termFreqs, String text, float weight) {
+            if (text == null || text.isBlank()) {
+                return 0f;
+            }
+            float length = 0f;
+            for (String token : TextFoldingUtils.tokenize(text)) {
+                termFreqs.merge(token, weight, Float::sum);
+                length += weight;
+            }
+            return length;
+        }
+    }
+}
@@ -5,11 +5,9 @@ import org.example.QuanLyMuaVu.DTO.Common.PageResponse;
 import org.example.QuanLyMuaVu.DTO.Response.DocumentResponse;
 import org.example.QuanLyMuaVu.Entity.Document;
 import org.example.QuanLyMuaVu.Entity.DocumentFavorite;
-import org.example.QuanLyMuaVu.Entity.DocumentRecentOpen;
 import org.example.QuanLyMuaVu.Exception.AppException;
 import org.example.QuanLyMuaVu.Exception.ErrorCode;
 import org.example.QuanLyMuaVu.Repository.DocumentFavoriteRepository;
-import org.example.QuanLyMuaVu.Repository.DocumentRecentOpenRepository;
 import org.example.QuanLyMuaVu.Repository.DocumentRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -19,8 +17,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,7 +30,9 @@ import java.util.stream.Collectors;
 public class DocumentService {
     private final DocumentRepository documentRepository;
     private final DocumentFavoriteRepository documentFavoriteRepository;
-    private final DocumentRecentOpenRepository documentRecentOpenRepository;
+    private final DocumentSearchIndex documentSearchIndex;
+    private final DocumentOpenBuffer documentOpenBuffer;
+    private final DocumentUserStateCache documentUserStateCache;
 
     /**
      * List documents for farmer with filters and tab support
@@ -44,67 +47,76 @@ public class DocumentService {
             int size,
             Long userId) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Set<Integer> favoritedIds = documentFavoriteRepository.findDocumentIdsByUserId(userId);
+        DocumentUserStateCache.UserDocumentState state = documentUserStateCache.get(userId);
 
         if ("favorites".equalsIgnoreCase(tab)) {
-            return listFavoriteDocuments(userId, pageable, favoritedIds);
+            return listFavoriteDocuments(userId, PageRequest.of(page, size));
         } else if ("recent".equalsIgnoreCase(tab)) {
-            return listRecentDocuments(userId, pageable, favoritedIds);
+            return listRecentDocuments(pageable, state);
+        } else if (q != null && q.trim().length() >= 2) {
+            return searchDocuments(q, crop, stage, topic, pageable, state);
         } else {
             // All documents
             Page<Document> pageData = documentRepository.findAllVisible(q, crop, stage, topic, pageable);
             List<DocumentResponse> items = pageData.getContent().stream()
-                    .map(doc -> toResponse(doc, favoritedIds.contains(doc.getId())))
+                    .map(doc -> toResponse(doc, state.isFavorite(doc.getId())))
                     .collect(Collectors.toList());
             return PageResponse.of(pageData, items);
         }
     }
 
-    private PageResponse<DocumentResponse> listFavoriteDocuments(Long userId, Pageable pageable,
-            Set<Integer> favoritedIds) {
-        List<DocumentFavorite> favorites = documentFavoriteRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        List<Integer> documentIds = favorites.stream()
-                .map(DocumentFavorite::getDocumentId)
-                .collect(Collectors.toList());
-
-        if (documentIds.isEmpty()) {
-            return createEmptyPageResponse(pageable);
+    /**
+     * Ranked full-text search via the in-memory index; only the requested page
+     * of documents is loaded from the database.
+     */
+    private PageResponse<DocumentResponse> searchDocuments(String q, String crop, String stage, String topic,
+            Pageable pageable, DocumentUserStateCache.UserDocumentState state) {
+        DocumentSearchIndex.SearchResult result = documentSearchIndex.search(
+                q, crop, stage, topic, pageable.getOffset(), pageable.getPageSize());
+        if (result.documentIds().isEmpty()) {
+            return createPageResponse(List.of(), pageable, (int) result.total());
         }
 
-        List<Document> visibleDocs = documentRepository.findVisibleByIds(documentIds);
-        List<DocumentResponse> items = visibleDocs.stream()
-                .map(doc -> toResponse(doc, true)) // all are favorited
-                .collect(Collectors.toList());
-
-        // Simple manual pagination for favorites
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), items.size());
-
-        if (start >= items.size()) {
-            return createEmptyPageResponse(pageable);
-        }
+        Map<Integer, Document> docsById = documentRepository.findVisibleByIds(result.documentIds()).stream()
+                .collect(Collectors.toMap(Document::getId, Function.identity()));
 
-        List<DocumentResponse> pagedItems = items.subList(start, end);
-        return createPageResponse(pagedItems, pageable, items.size());
+        // Preserve ranking order from the index
+        List<DocumentResponse> items = result.documentIds().stream()
+                .map(docsById::get)
+                .filter(Objects::nonNull)
+                .map(doc -> toResponse(doc, state.isFavorite(doc.getId())))
+                .collect(Collectors.toList());
+        return createPageResponse(items, pageable, (int) result.total());
     }
 
-    private PageResponse<DocumentResponse> listRecentDocuments(Long userId, Pageable pageable,
-            Set<Integer> favoritedIds) {
-        // Get recent document IDs (limit to 50 for performance)
-        List<Integer> recentDocIds = documentRecentOpenRepository.findRecentDocumentIdsByUserId(
-                userId, PageRequest.of(0, 50));
+    /**
+     * Favorites are paged in the database (join on visible documents, newest
+     * favorite first), so favorites added on another node show up at once.
+     */
+    private PageResponse<DocumentResponse> listFavoriteDocuments(Long userId, Pageable pageable) {
+        Page<Document> pageData = documentRepository.findVisibleFavoritesByUserId(userId, pageable);
+        List<DocumentResponse> items = pageData.getContent().stream()
+                .map(doc -> toResponse(doc, true)) // all are favorited
+                .collect(Collectors.toList());
+        return PageResponse.of(pageData, items);
+    }
 
-        if (recentDocIds.isEmpty()) {
+    private PageResponse<DocumentResponse> listRecentDocuments(Pageable pageable,
+            DocumentUserStateCache.UserDocumentState state) {
+        int[] recentIds = state.recentIds();
+        if (recentIds.length == 0) {
             return createEmptyPageResponse(pageable);
         }
 
-        List<Document> visibleDocs = documentRepository.findVisibleByIds(recentDocIds);
+        List<Integer> recentDocIds = Arrays.stream(recentIds).boxed().collect(Collectors.toList());
+        Map<Integer, Document> docsById = documentRepository.findVisibleByIds(recentDocIds).stream()
+                .collect(Collectors.toMap(Document::getId, Function.identity()));
 
         // Preserve order from recent opens
         List<DocumentResponse> items = recentDocIds.stream()
-                .map(id -> visibleDocs.stream().filter(d -> d.getId().equals(id)).findFirst().orElse(null))
-                .filter(doc -> doc != null)
-                .map(doc -> toResponse(doc, favoritedIds.contains(doc.getId())))
+                .map(docsById::get)
+                .filter(Objects::nonNull)
+                .map(doc -> toResponse(doc, state.isFavorite(doc.getId())))
                 .collect(Collectors.toList());
 
         // Simple manual pagination
@@ -126,32 +138,23 @@ public class DocumentService {
         Document doc = documentRepository.findVisibleById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
 
-        boolean isFavorited = documentFavoriteRepository.existsByUserIdAndDocumentId(userId, id);
+        boolean isFavorited = documentUserStateCache.get(userId).isFavorite(id);
         return toResponse(doc, isFavorited);
     }
 
     /**
-     * Record document open (for Recent tab)
+     * Record document open (for Recent tab). The open is buffered and written
+     * in batches by {@link DocumentOpenBuffer}.
      */
     public void recordOpen(Integer documentId, Long userId) {
-        // Verify document exists and is visible
-        documentRepository.findVisibleById(documentId)
-                .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
+        // Verify document exists and is visible; the search index answers without a query
+        if (!documentSearchIndex.isIndexedVisible(documentId)) {
+            documentRepository.findVisibleById(documentId)
+                    .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
+        }
 
-        // Check if already exists, update timestamp
-        documentRecentOpenRepository.findByUserIdAndDocumentId(userId, documentId)
-                .ifPresentOrElse(
-                        existing -> {
-                            existing.setOpenedAt(LocalDateTime.now());
-                            documentRecentOpenRepository.save(existing);
-                        },
-                        () -> {
-                            DocumentRecentOpen newOpen = DocumentRecentOpen.builder()
-                                    .userId(userId)
-                                    .documentId(documentId)
-                                    .build();
-                            documentRecentOpenRepository.save(newOpen);
-                        });
+        documentOpenBuffer.record(userId, documentId, LocalDateTime.now());
+        documentUserStateCache.onOpened(userId, documentId);
     }
 
     /**
@@ -172,6 +175,7 @@ public class DocumentService {
                 .documentId(documentId)
                 .build();
         documentFavoriteRepository.save(favorite);
+        documentUserStateCache.invalidateAfterCommit(userId);
     }
 
     /**
@@ -179,6 +183,7 @@ public class DocumentService {
      */
     public void removeFavorite(Integer documentId, Long userId) {
         documentFavoriteRepository.deleteByUserIdAndDocumentId(userId, documentId);
+        documentUserStateCache.invalidateAfterCommit(userId);
     }/**
      * Get all documents (legacy method for backward compatibility)
      */
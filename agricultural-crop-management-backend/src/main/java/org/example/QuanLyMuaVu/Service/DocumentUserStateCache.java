@@ -0,0 +1,195 @@
+package org.example.QuanLyMuaVu.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.example.QuanLyMuaVu.Entity.DocumentRecentOpen;
+import org.example.QuanLyMuaVu.Repository.DocumentFavoriteRepository;
+import org.example.QuanLyMuaVu.Repository.DocumentRecentOpenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user cache of document library state: the favorite ids as a sorted
+ * {@code int[]} (membership is a binary search) and the most recently opened
+ * ids as a bounded, newest-first deque.
+ * <p>
+ * Entries are loaded on first use from {@code document_favorites} and
+ * {@code document_recent_opens} merged with {@link DocumentOpenBuffer}, kept
+ * in a size-bounded cache, moved-to-front on open and invalidated after a
+ * favorite change commits. Changes made through another node are only seen
+ * after reload, so every entry expires {@code ttl-seconds} after it was
+ * loaded; moving an open to the front does not extend that.
+ */
+@Component
+public class DocumentUserStateCache {
+
+    private final DocumentFavoriteRepository documentFavoriteRepository;
+    private final DocumentRecentOpenRepository documentRecentOpenRepository;
+    private final DocumentOpenBuffer documentOpenBuffer;
+    private final int recentLimit;
+    private final Cache<Long, UserDocumentState> states;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public DocumentUserStateCache(
+            DocumentFavoriteRepository documentFavoriteRepository,
+            DocumentRecentOpenRepository documentRecentOpenRepository,
+            DocumentOpenBuffer documentOpenBuffer,
+            @Value("${app.documents.user-state.recent-limit:50}") int recentLimit,
+            @Value("${app.documents.user-state.max-users:10000}") int maxUsers,
+            @Value("${app.documents.user-state.ttl-seconds:60}") long ttlSeconds) {
+        this(documentFavoriteRepository, documentRecentOpenRepository, documentOpenBuffer,
+                recentLimit, maxUsers, ttlSeconds, Ticker.systemTicker());
+    }
+
+    DocumentUserStateCache(
+            DocumentFavoriteRepository documentFavoriteRepository,
+            DocumentRecentOpenRepository documentRecentOpenRepository,
+            DocumentOpenBuffer documentOpenBuffer,
+            int recentLimit,
+            int maxUsers,
+            long ttlSeconds,
+            Ticker ticker) {
+        this.documentFavoriteRepository = documentFavoriteRepository;
+        this.documentRecentOpenRepository = documentRecentOpenRepository;
+        this.documentOpenBuffer = documentOpenBuffer;
+        this.recentLimit = Math.max(1, recentLimit);
+        long ttlNanos = Duration.ofSeconds(Math.max(1, ttlSeconds)).toNanos();
+        this.states = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxUsers))
+                .expireAfter(new Expiry<Long, UserDocumentState>() {
+                    @Override
+                    public long expireAfterCreate(Long key, UserDocumentState value, long currentTime) {
+                        return ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long key, UserDocumentState value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long key, UserDocumentState value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .build();
+    }
+
+    public UserDocumentState get(Long userId) {
+        UserDocumentState state = states.getIfPresent(userId);
+        if (state == null) {
+            long generation = invalidations.get();
+            state = load(userId);
+            // Skip caching if an invalidation raced with the load.
+            if (invalidations.get() == generation) {
+                states.put(userId, state);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Move an opened document to the front of the cached recent list.
+     */
+    public void onOpened(Long userId, Integer documentId) {
+        states.asMap().computeIfPresent(userId, (key, state) -> state.withOpened(documentId, recentLimit));
+    }
+
+    /**
+     * Drop the user's entry once the current transaction commits (or now when
+     * there is none), so a concurrent read cannot re-cache pre-commit data.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        invalidations.incrementAndGet();
+        states.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidations.incrementAndGet();
+                    states.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private UserDocumentState load(Long userId) {
+        int[] favorites = documentFavoriteRepository.findDocumentIdsByUserId(userId).stream()
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+
+        Map<Integer, LocalDateTime> openedAtById = new HashMap<>();
+        for (DocumentRecentOpen open : documentRecentOpenRepository
+                .findByUserIdOrderByOpenedAtDesc(userId, PageRequest.of(0, recentLimit))) {
+            openedAtById.merge(open.getDocumentId(),
+                    open.getOpenedAt() != null ? open.getOpenedAt() : LocalDateTime.MIN,
+                    DocumentUserStateCache::latest);
+        }
+        documentOpenBuffer.pendingOpens(userId)
+                .forEach((documentId, openedAt) -> openedAtById.merge(documentId, openedAt, DocumentUserStateCache::latest));
+
+        int[] recent = openedAtById.entrySet().stream()
+                .sorted(Map.Entry.<Integer, LocalDateTime>comparingByValue().reversed())
+                .limit(recentLimit)
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+        return new UserDocumentState(favorites, recent);
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * Immutable snapshot of one user's document state; updates return a copy.
+     */
+    public static final class UserDocumentState {
+
+        private final int[] favoriteIds;
+        private final int[] recentIds;
+
+        UserDocumentState(int[] favoriteIds, int[] recentIds) {
+            this.favoriteIds = favoriteIds;
+            this.recentIds = recentIds;
+        }
+
+        public boolean isFavorite(Integer documentId) {
+            return documentId != null && Arrays.binarySearch(favoriteIds, documentId) >= 0;
+        }
+
+        /**
+         * Recently opened ids, newest first.
+         */
+        public int[] recentIds() {
+            return recentIds.clone();
+        }
+
+        UserDocumentState withOpened(int documentId, int limit) {
+            int[] next = new int[Math.min(limit, recentIds.length + 1)];
+            next[0] = documentId;
+            int j = 1;
+            for (int i = 0; i < recentIds.length && j < next.length; i++) {
+                if (recentIds[i] != documentId) {
+                    next[j++] = recentIds[i];
+                }
+            }
+            return new UserDocumentState(favoriteIds, j == next.length ? next : Arrays.copyOf(next, j));
+        }
+    }
+}
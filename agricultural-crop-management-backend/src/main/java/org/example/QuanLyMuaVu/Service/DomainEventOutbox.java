@@ -0,0 +1,358 @@
+package org.example.QuanLyMuaVu.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.Config.AsyncConfig;
+import org.example.QuanLyMuaVu.Entity.OutboxEvent;
+import org.example.QuanLyMuaVu.Enums.OutboxStatus;
+import org.example.QuanLyMuaVu.Pattern.Observer.DomainEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.IncidentOverdueEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.IncidentReportedEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonCreatedEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.TaskCompletedEvent;
+import org.example.QuanLyMuaVu.Repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transactional outbox for domain events.
+ * <p>
+ * {@link #append} stores the event in {@code outbox} inside the caller's
+ * transaction, so the event exists exactly when the write that raised it
+ * commits. A dispatcher thread claims due entries in batches (a lease in
+ * {@code claimed_by}/{@code claimed_until}, so several instances can poll
+ * the same table), restores the event with its original
+ * {@link DomainEvent#getEventId()} and publishes it to the Spring listeners
+ * on the domain event executor ({@link AsyncConfig}), one task per entry.
+ * <p>
+ * Delivery is at least once: the dispatcher waits for each task and marks the
+ * entry dispatched only after every listener returned, and a crash in between
+ * redelivers it with the same event id. Outcomes are written only while the
+ * run still holds the claim, so a run whose claim expired cannot overwrite
+ * the state written by the run that took the entry over. Listeners of outbox events therefore
+ * run synchronously within the task and must not be {@code @Async}. A
+ * saturated executor, or a delivery still running when the claim expires,
+ * counts as a failed attempt, like a failing listener: a retry is scheduled
+ * with exponential backoff, and after {@code max-attempts} the entry is parked
+ * as FAILED. Entries are not ordered across a retry. Polling starts once the
+ * application is ready; from then on a commit wakes the dispatcher
+ * immediately, and the poll interval only bounds the delay for retries and
+ * other instances' events.
+ */
+@Component
+@Slf4j
+public class DomainEventOutbox {
+
+    private static final Map<String, Class<? extends DomainEvent>> EVENT_TYPES = Map.of(
+            "SEASON_CREATED", SeasonCreatedEvent.class,
+            "TASK_COMPLETED", TaskCompletedEvent.class,
+            "INCIDENT_REPORTED", IncidentReportedEvent.class,
+            "INCIDENT_OVERDUE", IncidentOverdueEvent.class);
+
+    private static final int CLEANUP_BATCH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor listenerExecutor;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final long claimTimeoutMs;
+    private final long retentionHours;
+    private final long pollIntervalMs;
+    private final ScheduledExecutorService dispatcher;
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean(false);
+
+    private final Counter dispatchedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public DomainEventOutbox(
+            OutboxEventRepository outboxEventRepository,
+            ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier(AsyncConfig.DOMAIN_EVENT_EXECUTOR) Executor listenerExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.poll-interval-ms:1000}") long pollIntervalMs,
+            @Value("${app.outbox.batch-size:100}") int batchSize,
+            @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${app.outbox.backoff-base-ms:1000}") long backoffBaseMs,
+            @Value("${app.outbox.backoff-max-ms:3600000}") long backoffMaxMs,
+            @Value("${app.outbox.claim-timeout-ms:60000}") long claimTimeoutMs,
+            @Value("${app.outbox.retention-hours:72}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.listenerExecutor = listenerExecutor;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMs = Math.max(1, backoffBaseMs);
+        this.backoffMaxMs = Math.max(this.backoffBaseMs, backoffMaxMs);
+        this.claimTimeoutMs = Math.max(1000, claimTimeoutMs);
+        this.retentionHours = Math.max(1, retentionHours);
+        this.pollIntervalMs = Math.max(1, pollIntervalMs);
+
+        this.dispatchedCounter = Counter.builder("outbox.dispatched")
+                .description("Outbox events delivered to all listeners")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("outbox.retried")
+                .description("Outbox deliveries that failed and were scheduled for retry")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.failed")
+                .description("Outbox events given up after the maximum number of attempts")
+                .register(meterRegistry);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("outbox-dispatch-");
+        threadFactory.setDaemon(true);
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Start polling once the context is ready, so no event reaches a listener
+     * that is not set up yet. Entries appended during startup go out with
+     * the first poll.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            dispatcher.scheduleWithFixedDelay(this::dispatchQuietly, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+            dispatcher.scheduleWithFixedDelay(this::cleanupQuietly, 1, 1, TimeUnit.HOURS);
+        }
+    }
+
+    /**
+     * Store the event in the caller's transaction. Listeners receive it after
+     * the transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(DomainEvent event) {
+        if (!EVENT_TYPES.containsKey(event.getEventType())) {
+            throw new IllegalArgumentException("Event type not registered with the outbox: " + event.getEventType());
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + event.getEventType(), ex);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventId(event.getEventId())
+                .eventType(event.getEventType())
+                .aggregateType(event.getAggregateType())
+                .aggregateId(event.getAggregateId())
+                .payload(payload)
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        }
+    }
+
+    /**
+     * Claim and deliver due entries until none are left.
+     *
+     * @return number of entries delivered
+     */
+    public int dispatchDue() {
+        int delivered = 0;
+        while (true) {
+            String owner = UUID.randomUUID().toString();
+            long claimDeadline = System.nanoTime() + claimTimeoutMs * 1_000_000;
+            int claimed = outboxEventRepository.claimDue(owner, (claimTimeoutMs + 999) / 1000, batchSize);
+            if (claimed == 0) {
+                return delivered;
+            }
+            List<OutboxEvent> entries = outboxEventRepository.findByClaimedByOrderByIdAsc(owner);
+            List<CompletableFuture<Void>> deliveries = new ArrayList<>(entries.size());
+            for (OutboxEvent entry : entries) {
+                deliveries.add(publishAsync(entry));
+            }
+            for (int i = 0; i < entries.size(); i++) {
+                if (complete(entries.get(i), owner, deliveries.get(i), claimDeadline)) {
+                    delivered++;
+                }
+            }
+            if (claimed < batchSize) {
+                return delivered;
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    private CompletableFuture<Void> publishAsync(OutboxEvent entry) {
+        try {
+            return CompletableFuture.runAsync(() -> publish(entry), listenerExecutor);
+        } catch (RuntimeException ex) {
+            // Executor saturated: counted as a failed attempt.
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private void publish(OutboxEvent entry) {
+        Class<? extends DomainEvent> type = EVENT_TYPES.get(entry.getEventType());
+        if (type == null) {
+            throw new IllegalStateException("Unknown outbox event type " + entry.getEventType());
+        }
+        try {
+            eventPublisher.publishEvent(objectMapper.readValue(entry.getPayload(), type));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read " + entry.getEventType() + " payload", ex);
+        }
+    }
+
+    /**
+     * Wait for the entry's listeners and record the outcome, unless the claim
+     * was lost meanwhile (the new owner's writes win).
+     */
+    private boolean complete(OutboxEvent entry, String owner, CompletableFuture<Void> delivery, long claimDeadline) {
+        try {
+            delivery.get(Math.max(0, claimDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            // Shutting down; the claim expires and the entry is picked up again.
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException ex) {
+            recordFailure(entry, owner, ex.getCause() instanceof Exception cause ? cause : ex);
+            return false;
+        } catch (TimeoutException ex) {
+            recordFailure(entry, owner, new TimeoutException("Listeners still running when the claim expired"));
+            return false;
+        }
+        try {
+            if (outboxEventRepository.markDispatched(entry.getId(), owner) == 0) {
+                log.warn("Outbox claim on {} was taken over before its delivery was recorded", entry.getEventId());
+                return false;
+            }
+        } catch (Exception ex) {
+            recordFailure(entry, owner, ex);
+            return false;
+        }
+        entry.setStatus(OutboxStatus.DISPATCHED);
+        entry.setClaimedBy(null);
+        entry.setClaimedUntil(null);
+        entry.setLastError(null);
+        dispatchedCounter.increment();
+        return true;
+    }
+
+    private void recordFailure(OutboxEvent entry, String owner, Exception ex) {
+        int attempts = entry.getAttempts() + 1;
+        boolean giveUp = attempts >= maxAttempts;
+        OutboxStatus status = giveUp ? OutboxStatus.FAILED : OutboxStatus.PENDING;
+        String error = ex.toString();
+        error = error.length() > 1000 ? error.substring(0, 1000) : error;
+        try {
+            long delaySeconds = giveUp ? 0 : (backoffMs(attempts) + 999) / 1000;
+            if (outboxEventRepository.recordFailure(entry.getId(), owner, status.name(), attempts, error,
+                    delaySeconds) == 0) {
+                log.warn("Outbox claim on {} was taken over before its failure was recorded", entry.getEventId());
+                return;
+            }
+        } catch (RuntimeException saveEx) {
+            // The claim expires and the entry is picked up again.
+            log.warn("Could not record outbox failure for {}: {}", entry.getEventId(), saveEx.toString());
+            return;
+        }
+        entry.setAttempts(attempts);
+        entry.setStatus(status);
+        entry.setLastError(error);
+        entry.setClaimedBy(null);
+        entry.setClaimedUntil(null);
+        if (giveUp) {
+            failedCounter.increment();
+            log.error("Outbox event {} ({}) failed {} times, giving up: {}",
+                    entry.getEventId(), entry.getEventType(), attempts, error);
+        } else {
+            retriedCounter.increment();
+            log.warn("Outbox event {} ({}) failed on attempt {}, retrying: {}",
+                    entry.getEventId(), entry.getEventType(), attempts, error);
+        }
+    }
+
+    /**
+     * Delay before the given (1-based) retry: base * 2^(attempt - 1), capped.
+     */
+    long backoffMs(int attempt) {
+        int shift = Math.min(attempt - 1, 30);
+        long delay = backoffBaseMs << shift;
+        return delay <= 0 || delay > backoffMaxMs ? backoffMaxMs : delay;
+    }
+
+    private void wakeUp() {
+        if (started.get() && wakeUpQueued.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> {
+                    wakeUpQueued.set(false);
+                    dispatchQuietly();
+                });
+            } catch (RuntimeException ex) {
+                // Rejected during shutdown; the entry stays pending.
+                wakeUpQueued.set(false);
+            }
+        }
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatchDue();
+        } catch (Exception ex) {
+            log.warn("Outbox dispatch failed: {}", ex.toString());
+        }
+    }
+
+    private void cleanupQuietly() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+            int deleted;
+            do {
+                deleted = outboxEventRepository.deleteDispatchedBefore(before, CLEANUP_BATCH);
+            } while (deleted == CLEANUP_BATCH);
+        } catch (Exception ex) {
+            log.warn("Outbox cleanup failed: {}", ex.toString());
+        }
+    }
+}
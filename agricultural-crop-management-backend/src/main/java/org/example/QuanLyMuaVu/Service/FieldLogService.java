@@ -1,8 +1,10 @@
 package org.example.QuanLyMuaVu.Service;
 
+import jakarta.persistence.criteria.Predicate;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.example.QuanLyMuaVu.DTO.Common.CursorPageResponse;
 import org.example.QuanLyMuaVu.DTO.Common.PageResponse;
 import org.example.QuanLyMuaVu.DTO.Request.CreateFieldLogRequest;
 import org.example.QuanLyMuaVu.DTO.Request.UpdateFieldLogRequest;
@@ -17,14 +19,16 @@ import org.example.QuanLyMuaVu.Exception.ErrorCode;
 import org.example.QuanLyMuaVu.Repository.FieldLogRepository;
 import org.example.QuanLyMuaVu.Repository.SeasonRepository;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Service
@@ -33,9 +37,13 @@ import java.util.List;
 @Transactional
 public class FieldLogService {
 
+    static final Sort TIMELINE_ORDER = Sort.by(Sort.Order.desc("logDate"), Sort.Order.desc("id"));
+    static final int MAX_TIMELINE_PAGE_SIZE = 100;
+
     FieldLogRepository fieldLogRepository;
     SeasonRepository seasonRepository;
     FarmAccessService farmAccessService;
+    SyncTombstones syncTombstones;
 
     public PageResponse<FieldLogResponse> listFieldLogsForSeason(
             Integer seasonId,
@@ -47,48 +55,45 @@ public class FieldLogService {
             int size) {
         Season season = getSeasonForCurrentFarmer(seasonId);
 
-        List<FieldLog> all = fieldLogRepository.findAllBySeason_Id(season.getId());
-
-        String typeFilter = type != null ? type.trim().toLowerCase() : null;
-        String queryFilter = searchQuery != null && searchQuery.length() >= 2 ? searchQuery.toLowerCase() : null;
+        Specification<FieldLog> spec = buildFieldLogSpecification(season.getId(), from, to, type, searchQuery, null);
+        Page<FieldLog> pageData = fieldLogRepository.findAll(spec, PageRequest.of(page, size, TIMELINE_ORDER));
 
-        List<FieldLogResponse> items = all.stream()
-                .filter(log -> {
-                    if (from == null && to == null) {
-                        return true;
-                    }
-                    LocalDate date = log.getLogDate();
-                    boolean afterFrom = from == null || !date.isBefore(from);
-                    boolean beforeTo = to == null || !date.isAfter(to);
-                    return afterFrom && beforeTo;
-                })
-                .filter(log -> {
-                    if (typeFilter == null || typeFilter.isBlank()) {
-                        return true;
-                    }
-                    return log.getLogType() != null
-                            && log.getLogType().toLowerCase().contains(typeFilter);
-                })
-                .filter(log -> {
-                    if (queryFilter == null) {
-                        return true;
-                    }
-                    return log.getNotes() != null && log.getNotes().toLowerCase().contains(queryFilter);
-                })
-                .sorted((l1, l2) -> Integer.compare(
-                        l2.getId() != null ? l2.getId() : 0,
-                        l1.getId() != null ? l1.getId() : 0))
+        List<FieldLogResponse> items = pageData.getContent().stream()
                 .map(this::toResponse)
                 .toList();
+        return PageResponse.of(pageData, items);
+    }
 
-        int fromIndex = page * size;
-        int toIndex = Math.min(fromIndex + size, items.size());
-        List<FieldLogResponse> pageItems = fromIndex >= items.size() ? List.of() : items.subList(fromIndex, toIndex);
-
-        Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-        Page<FieldLogResponse> pageData = new PageImpl<>(pageItems, pageable, items.size());
-
-        return PageResponse.of(pageData, pageItems);
+    /**
+     * Keyset-paginated field log timeline, newest log date first.
+     * <p>
+     * Each page continues after the last row of the previous one
+     * ({@code cursor} = its {@code nextCursor}) instead of skipping an offset,
+     * so deep pages cost the same as the first and rows inserted meanwhile do
+     * not shift the pages.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<FieldLogResponse> listFieldLogTimeline(
+            Integer seasonId,
+            LocalDate from,
+            LocalDate to,
+            String type,
+            String searchQuery,
+            String cursor,
+            int size) {
+        Season season = getSeasonForCurrentFarmer(seasonId);
+        int limit = Math.min(Math.max(size, 1), MAX_TIMELINE_PAGE_SIZE);
+
+        Specification<FieldLog> spec = buildFieldLogSpecification(season.getId(), from, to, type, searchQuery,
+                decodeCursor(cursor));
+        // One extra row tells whether another page follows.
+        List<FieldLog> rows = fieldLogRepository.findBy(spec,
+                query -> query.sortBy(TIMELINE_ORDER).limit(limit + 1).all());
+
+        boolean hasMore = rows.size() > limit;
+        List<FieldLog> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? encodeCursor(pageRows.get(pageRows.size() - 1)) : null;
+        return CursorPageResponse.of(pageRows.stream().map(this::toResponse).toList(), limit, nextCursor);
     }
 
     public FieldLogResponse createFieldLog(Integer seasonId, CreateFieldLogRequest request) {
@@ -125,7 +130,7 @@ public class FieldLogService {
         log.setLogType(request.getLogType().toUpperCase().trim());
         log.setNotes(request.getNotes());
 
-        FieldLog saved = fieldLogRepository.save(log);
+        FieldLog saved = fieldLogRepository.saveAndFlush(log);
         return toResponse(saved);
     }
 
@@ -134,9 +139,10 @@ public class FieldLogService {
         ensureSeasonOpenForLogs(log.getSeason(), false);
 
         fieldLogRepository.delete(log);
+        syncTombstones.fieldLogDeleted(log);
     }
 
-    private void ensureSeasonOpenForLogs(Season season, boolean forCreate) {
+    static void ensureSeasonOpenForLogs(Season season, boolean forCreate) {
         if (season == null) {
             throw new AppException(ErrorCode.SEASON_NOT_FOUND);
         }
@@ -151,13 +157,13 @@ public class FieldLogService {
         }
     }
 
-    private void validateLogType(String logType) {
+    static void validateLogType(String logType) {
         if (!LogType.isValid(logType)) {
             throw new AppException(ErrorCode.INVALID_LOG_TYPE);
         }
     }
 
-    private void validateLogDateWithinSeason(Season season, LocalDate date) {
+    static void validateLogDateWithinSeason(Season season, LocalDate date) {
         LocalDate start = season.getStartDate();
         LocalDate end = season.getEndDate() != null ? season.getEndDate() : season.getPlannedHarvestDate();
 
@@ -203,7 +209,80 @@ public class FieldLogService {
                 .toList();
     }
 
-    private FieldLogResponse toResponse(FieldLog log) {
+    /**
+     * Season filter plus optional date range, type, notes and keyset
+     * predicates, served by the (season_id, log_date) index.
+     */
+    private Specification<FieldLog> buildFieldLogSpecification(
+            Integer seasonId,
+            LocalDate from,
+            LocalDate to,
+            String type,
+            String searchQuery,
+            TimelineCursor after) {
+        String typeFilter = type != null ? type.trim().toLowerCase() : null;
+        String queryFilter = searchQuery != null && searchQuery.length() >= 2 ? searchQuery.toLowerCase() : null;
+
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("season").get("id"), seasonId));
+
+            if (from != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("logDate"), from));
+            }
+            if (to != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("logDate"), to));
+            }
+            if (typeFilter != null && !typeFilter.isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("logType")), containsPattern(typeFilter), '!'));
+            }
+            if (queryFilter != null) {
+                predicates.add(cb.like(cb.lower(root.get("notes")), containsPattern(queryFilter), '!'));
+            }
+            if (after != null) {
+                // (logDate, id) < (cursor date, cursor id) in timeline order
+                predicates.add(cb.or(
+                        cb.lessThan(root.get("logDate"), after.logDate()),
+                        cb.and(
+                                cb.equal(root.get("logDate"), after.logDate()),
+                                cb.lessThan(root.get("id"), after.id()))));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * LIKE pattern matching the text anywhere, with wildcards in it taken
+     * literally ('!' is the escape character).
+     */
+    private static String containsPattern(String text) {
+        return "%" + text.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
+    private record TimelineCursor(LocalDate logDate, Integer id) {
+    }
+
+    private static String encodeCursor(FieldLog last) {
+        String raw = last.getLogDate() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static TimelineCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new TimelineCursor(LocalDate.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    FieldLogResponse toResponse(FieldLog log) {
         return FieldLogResponse.builder()
                 .id(log.getId())
                 .seasonId(log.getSeason() != null ? log.getSeason().getId() : null)
@@ -212,6 +291,7 @@ public class FieldLogService {
                 .logType(log.getLogType())
                 .notes(log.getNotes())
                 .createdAt(log.getCreatedAt())
+                .updatedAt(log.getUpdatedAt())
                 .build();
     }
 }
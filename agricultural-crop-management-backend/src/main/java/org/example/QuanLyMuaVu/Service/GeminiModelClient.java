@@ -0,0 +1,278 @@
+package org.example.QuanLyMuaVu.Service;
+
+import com.google.genai.Client;
+import com.google.genai.ResponseStream;
+import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.HttpOptions;
+import jakarta.annotation.PostConstruct;
+import org.example.QuanLyMuaVu.Config.AppProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Google Gemini implementation of {@link AiModelClient}.
+ * <p>
+ * Owns SDK client construction (base URL, API key and model resolution).
+ * Errors from the SDK are propagated unchanged; callers decide on fallbacks.
+ */
+@Component
+public class GeminiModelClient implements AiModelClient {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiModelClient.class);
+
+    private static final String DEFAULT_MODEL = "gemini-2.5-flash";
+    private static final String DEFAULT_BASE_URL = "https://generativelanguage.googleapis.com";
+    private static final String API_VERSION = "v1beta";
+    private static final String[] API_KEY_ENV_KEYS = new String[] {
+            "APP_AI_API_KEY",
+            "GEMINI_API_KEY",
+            "GOOGLE_API_KEY"
+    };
+
+    private final Client client;
+    private final String model;
+    private final String baseUrl;
+    private final boolean apiKeyPresent;
+    private final boolean aiEnabled;
+    private final String apiKeySource;
+    private final Environment environment;
+
+    public GeminiModelClient(AppProperties appProperties, Environment environment) {
+        this.environment = environment;
+        AppProperties.Ai aiProps = appProperties.getAi();
+
+        Client.Builder builder = new Client.Builder();
+
+        this.baseUrl = resolveBaseUrl(aiProps);
+        if (this.baseUrl != null) {
+            HttpOptions httpOptions = HttpOptions.builder()
+                    .baseUrl(this.baseUrl)
+                    .build();
+            builder = builder.httpOptions(httpOptions);
+        }
+
+        ApiKeyResolution apiKeyResolution = resolveApiKey(aiProps);
+        String apiKey = apiKeyResolution.value;
+        this.apiKeySource = apiKeyResolution.source;
+        this.apiKeyPresent = apiKey != null && !apiKey.isBlank();
+        this.aiEnabled = this.apiKeyPresent;
+        if (this.apiKeyPresent) {
+            builder = builder.apiKey(apiKey);
+        }
+
+        this.client = builder.build();
+        this.model = resolveModel(aiProps);
+    }
+
+    @PostConstruct
+    void logConfiguration() {
+        if (!apiKeyPresent) {
+            if (isDevProfile()) {
+                log.warn("Gemini API key missing; AI features are disabled in this profile. Set APP_AI_API_KEY, GEMINI_API_KEY, or GOOGLE_API_KEY.");
+            } else {
+                throw new IllegalStateException("Gemini API key is required in non-dev profiles. Set APP_AI_API_KEY, GEMINI_API_KEY, or GOOGLE_API_KEY.");
+            }
+        }
+
+        String effectiveBaseUrl = baseUrl != null ? baseUrl : DEFAULT_BASE_URL;
+        log.info("Gemini configuration: baseUrl={}, model={}, apiVersion={}, apiKeyPresent={}, apiKeySource={}",
+                effectiveBaseUrl, model, API_VERSION, apiKeyPresent, apiKeySource);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return aiEnabled;
+    }
+
+    @Override
+    public String generateText(String prompt) {
+        GenerateContentResponse response = client.models.generateContent(model, prompt, null);
+        return response.text();
+    }
+
+    /**
+     * Reads the SDK's blocking chunk iterator on a bounded elastic worker so the
+     * request thread is released as soon as the SSE response is committed.
+     * The stream is closed when the subscriber cancels (client disconnect).
+     */
+    @Override
+    public Flux<String> streamText(String prompt) {
+        return Flux.<String>create(sink -> {
+            try (ResponseStream<GenerateContentResponse> stream =
+                         client.models.generateContentStream(model, prompt, null)) {
+                sink.onDispose(stream::close);
+                for (GenerateContentResponse chunk : stream) {
+                    if (sink.isCancelled()) {
+                        return;
+                    }
+                    String text = chunk.text();
+                    if (text != null && !text.isEmpty()) {
+                        sink.next(text);
+                    }
+                }
+                sink.complete();
+            } catch (Exception ex) {
+                sink.error(ex);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private String resolveBaseUrl(AppProperties.Ai aiProps) {
+        if (aiProps == null || aiProps.getBaseUrl() == null || aiProps.getBaseUrl().isBlank()) {
+            return null;
+        }
+
+        String baseUrlValue = aiProps.getBaseUrl().trim();
+        if (baseUrlValue.endsWith("/")) {
+            baseUrlValue = baseUrlValue.substring(0, baseUrlValue.length() - 1);
+        }
+
+        String versionSegment = "/" + API_VERSION;
+        if (baseUrlValue.contains(versionSegment + versionSegment)) {
+            throw new IllegalStateException("app.ai.base-url must not contain '" + versionSegment + versionSegment + "'. Use " + DEFAULT_BASE_URL + " instead.");
+        }
+
+        if (baseUrlValue.endsWith(versionSegment)) {
+            log.warn("app.ai.base-url should not include '{}'; removing trailing version segment.", versionSegment);
+            baseUrlValue = baseUrlValue.substring(0, baseUrlValue.length() - versionSegment.length());
+        }
+
+        if (baseUrlValue.contains(versionSegment + "/")) {
+            log.warn("app.ai.base-url contains '{}' segment; removing to avoid double versioning.", versionSegment);
+            baseUrlValue = baseUrlValue.replace(versionSegment + "/", "/");
+        }
+
+        if (baseUrlValue.contains(versionSegment + versionSegment)) {
+            throw new IllegalStateException("app.ai.base-url normalized into an invalid path. Use " + DEFAULT_BASE_URL + " instead.");
+        }
+
+        return DEFAULT_BASE_URL.equals(baseUrlValue) ? null : baseUrlValue;
+    }
+
+    private ApiKeyResolution resolveApiKey(AppProperties.Ai aiProps) {
+        if (aiProps != null && aiProps.getApiKey() != null && !aiProps.getApiKey().isBlank()) {
+            return new ApiKeyResolution(aiProps.getApiKey().trim(), "app.ai.api-key");
+        }
+
+        String geminiApiKey = environment.getProperty("GEMINI_API_KEY");
+        if (geminiApiKey != null && !geminiApiKey.isBlank()) {
+            return new ApiKeyResolution(geminiApiKey.trim(), "GEMINI_API_KEY");
+        }
+
+        String googleApiKey = environment.getProperty("GOOGLE_API_KEY");
+        if (googleApiKey != null && !googleApiKey.isBlank()) {
+            return new ApiKeyResolution(googleApiKey.trim(), "GOOGLE_API_KEY");
+        }
+
+        if (isDevProfile()) {
+            ApiKeyResolution dotenvResolution = resolveApiKeyFromDotenv();
+            if (dotenvResolution != null) {
+                return dotenvResolution;
+            }
+        }
+
+        return new ApiKeyResolution(null, "missing");
+    }
+
+    private String resolveModel(AppProperties.Ai aiProps) {
+        if (aiProps != null && aiProps.getModel() != null && !aiProps.getModel().isBlank()) {
+            return aiProps.getModel().trim();
+        }
+        return DEFAULT_MODEL;
+    }
+
+    private boolean isDevProfile() {
+        return environment.acceptsProfiles(Profiles.of("dev", "test", "local"));
+    }
+
+    private ApiKeyResolution resolveApiKeyFromDotenv() {
+        for (Path dotenvPath : resolveDotenvPaths()) {
+            ApiKeyResolution resolution = parseDotenvForApiKey(dotenvPath);
+            if (resolution != null && resolution.value != null && !resolution.value.isBlank()) {
+                return resolution;
+            }
+        }
+        return null;
+    }
+
+    private Path[] resolveDotenvPaths() {
+        String userDir = System.getProperty("user.dir");
+        return new Path[] {
+                Path.of(userDir, ".env"),
+                Path.of(userDir, "agricultural-crop-management-backend", ".env")
+        };
+    }
+
+    private ApiKeyResolution parseDotenvForApiKey(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        Map<String, String> values = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                if (trimmed.startsWith("export ")) {
+                    trimmed = trimmed.substring("export ".length()).trim();
+                }
+                int eqIndex = trimmed.indexOf('=');
+                if (eqIndex <= 0) {
+                    continue;
+                }
+                String key = trimmed.substring(0, eqIndex).trim();
+                String value = trimmed.substring(eqIndex + 1).trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                values.put(key, stripOptionalQuotes(value));
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to read .env file at {} ({}).", path, ex.toString());
+            return null;
+        }
+
+        for (String key : API_KEY_ENV_KEYS) {
+            String value = values.get(key);
+            if (value != null && !value.isBlank()) {
+                return new ApiKeyResolution(value.trim(), "dotenv:" + path);
+            }
+        }
+        return null;
+    }
+
+    private String stripOptionalQuotes(String value) {
+        String trimmed = value.trim();
+        if ((trimmed.startsWith("\"") && trimmed.endsWith("\""))
+                || (trimmed.startsWith("'") && trimmed.endsWith("'"))) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    private static final class ApiKeyResolution {
+        private final String value;
+        private final String source;
+
+        private ApiKeyResolution(String value, String source) {
+            this.value = value;
+            this.source = source;
+        }
+    }
+}
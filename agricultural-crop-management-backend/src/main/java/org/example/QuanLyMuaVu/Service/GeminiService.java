@@ -1,44 +1,26 @@
 package org.example.QuanLyMuaVu.Service;
 
-import com.google.genai.Client;
 import com.google.genai.errors.ApiException;
 import com.google.genai.errors.GenAiIOException;
-import com.google.genai.types.GenerateContentResponse;
-import com.google.genai.types.HttpOptions;
-import jakarta.annotation.PostConstruct;
-import org.example.QuanLyMuaVu.Config.AppProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.env.Environment;
-import org.springframework.core.env.Profiles;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class GeminiService {
 
     private static final Logger log = LoggerFactory.getLogger(GeminiService.class);
 
-    private static final String DEFAULT_MODEL = "gemini-2.5-flash";
-    private static final String DEFAULT_BASE_URL = "https://generativelanguage.googleapis.com";
-    private static final String API_VERSION = "v1beta";
     private static final String SYSTEM_PROMPT_RESOURCE = "prompts/system_prompt.txt";
     private static final String SYSTEM_PROMPT = loadSystemPrompt();
-    private static final String[] API_KEY_ENV_KEYS = new String[] {
-            "APP_AI_API_KEY",
-            "GEMINI_API_KEY",
-            "GOOGLE_API_KEY"
-    };
 
     private static final String CONNECTION_FALLBACK_MESSAGE =
             "Hi\u1EC7n t\u1EA1i t\u00F4i kh\u00F4ng th\u1EC3 k\u1EBFt n\u1ED1i t\u1EDBi d\u1ECBch v\u1EE5 t\u01B0 v\u1EA5n n\u00F4ng nghi\u1EC7p. Vui l\u00F2ng th\u1EED l\u1EA1i sau.";
@@ -49,64 +31,19 @@ public class GeminiService {
     private static final String USER_QUESTION_LABEL =
             "C\u00E2u h\u1ECFi c\u1EE7a n\u00F4ng d\u00E2n: ";
 
-    private final Client client;
-    private final String model;
-    private final String baseUrl;
-    private final boolean apiKeyPresent;
-    private final boolean aiEnabled;
-    private final String apiKeySource;
-    private final Environment environment;
+    private final AiModelClient modelClient;
+    private final AiCallGuard callGuard;
 
-    public GeminiService(AppProperties appProperties, Environment environment) {
-        this.environment = environment;
-        AppProperties.Ai aiProps = appProperties.getAi();
-
-        Client.Builder builder = new Client.Builder();
-
-        this.baseUrl = resolveBaseUrl(aiProps);
-        if (this.baseUrl != null) {
-            HttpOptions httpOptions = HttpOptions.builder()
-                    .baseUrl(this.baseUrl)
-                    .build();
-            builder = builder.httpOptions(httpOptions);
-        }
-
-        ApiKeyResolution apiKeyResolution = resolveApiKey(aiProps);
-        String apiKey = apiKeyResolution.value;
-        this.apiKeySource = apiKeyResolution.source;
-        this.apiKeyPresent = apiKey != null && !apiKey.isBlank();
-        this.aiEnabled = this.apiKeyPresent;
-        if (this.apiKeyPresent) {
-            builder = builder.apiKey(apiKey);
-        }
-
-        this.client = builder.build();
-        this.model = resolveModel(aiProps);
-    }
-
-    @PostConstruct
-    void logConfiguration() {
-        if (!apiKeyPresent) {
-            if (isDevProfile()) {
-                log.warn("Gemini API key missing; AI features are disabled in this profile. Set APP_AI_API_KEY, GEMINI_API_KEY, or GOOGLE_API_KEY.");
-            } else {
-                throw new IllegalStateException("Gemini API key is required in non-dev profiles. Set APP_AI_API_KEY, GEMINI_API_KEY, or GOOGLE_API_KEY.");
-            }
-        }
-
-        String effectiveBaseUrl = baseUrl != null ? baseUrl : DEFAULT_BASE_URL;
-        log.info("Gemini configuration: baseUrl={}, model={}, apiVersion={}, apiKeyPresent={}, apiKeySource={}",
-                effectiveBaseUrl, model, API_VERSION, apiKeyPresent, apiKeySource);
+    public GeminiService(AiModelClient modelClient, AiCallGuard callGuard) {
+        this.modelClient = modelClient;
+        this.callGuard = callGuard;
     }
 
     public String chatAsAgriculturalExpert(String userMessage, String cropContext) {
-        Objects.requireNonNull(userMessage, "userMessage must not be null");
-        if (userMessage.isBlank()) {
-            throw new IllegalArgumentException("userMessage must not be blank");
-        }
+        validateUserMessage(userMessage);
 
         String requestId = UUID.randomUUID().toString();
-        if (!aiEnabled) {
+        if (!modelClient.isEnabled()) {
             log.warn("Gemini request skipped because AI is disabled (requestId={}).", requestId);
             return CONNECTION_FALLBACK_MESSAGE;
         }
@@ -114,25 +51,64 @@ public class GeminiService {
         String prompt = buildPrompt(userMessage, cropContext);
 
         try {
-            GenerateContentResponse response = client.models.generateContent(model, prompt, null);
-            String text = response.text();
+            String text = callGuard.call(() -> modelClient.generateText(prompt));
             if (text == null || text.isBlank()) {
                 log.warn("Gemini response empty (requestId={}).", requestId);
                 return fallbackMessage();
             }
             return text;
-        } catch (ApiException ex) {
-            logApiException(requestId, ex);
-            return CONNECTION_FALLBACK_MESSAGE;
-        } catch (GenAiIOException ex) {
-            logIoException(requestId, ex);
-            return CONNECTION_FALLBACK_MESSAGE;
         } catch (Exception ex) {
-            logUnexpectedException(requestId, ex);
+            logException(requestId, ex);
             return CONNECTION_FALLBACK_MESSAGE;
         }
     }
 
+    /**
+     * Streaming variant of {@link #chatAsAgriculturalExpert(String, String)}.
+     * <p>
+     * Emits partial answer text as soon as the provider produces it. When the
+     * provider fails before any text was sent, or produces nothing, the same
+     * fallback messages as the blocking call are emitted as a single chunk.
+     * A failure after text was already streamed simply ends the stream.
+     */
+    public Flux<String> streamChatAsAgriculturalExpert(String userMessage, String cropContext) {
+        validateUserMessage(userMessage);
+
+        return Flux.defer(() -> {
+            String requestId = UUID.randomUUID().toString();
+            if (!modelClient.isEnabled()) {
+                log.warn("Gemini stream skipped because AI is disabled (requestId={}).", requestId);
+                return Flux.just(CONNECTION_FALLBACK_MESSAGE);
+            }
+
+            String prompt = buildPrompt(userMessage, cropContext);
+            AtomicBoolean emitted = new AtomicBoolean(false);
+
+            return callGuard.stream(() -> modelClient.streamText(prompt))
+                    .filter(chunk -> chunk != null && !chunk.isEmpty())
+                    .doOnNext(chunk -> emitted.set(true))
+                    .concatWith(Flux.defer(() -> {
+                        if (emitted.get()) {
+                            return Flux.empty();
+                        }
+                        log.warn("Gemini stream empty (requestId={}).", requestId);
+                        return Flux.just(fallbackMessage());
+                    }))
+                    .onErrorResume(ex -> {
+                        logException(requestId, ex);
+                        return emitted.get() ? Flux.empty() : Flux.just(CONNECTION_FALLBACK_MESSAGE);
+                    })
+                    .doOnCancel(() -> log.debug("Gemini stream cancelled by client (requestId={}).", requestId));
+        });
+    }
+
+    private void validateUserMessage(String userMessage) {
+        Objects.requireNonNull(userMessage, "userMessage must not be null");
+        if (userMessage.isBlank()) {
+            throw new IllegalArgumentException("userMessage must not be blank");
+        }
+    }
+
     private String buildPrompt(String userMessage, String cropContext) {
         StringBuilder sb = new StringBuilder();
         sb.append(SYSTEM_PROMPT).append("\n\n");
@@ -149,72 +125,16 @@ public class GeminiService {
         return EMPTY_RESPONSE_FALLBACK_MESSAGE;
     }
 
-    private String resolveBaseUrl(AppProperties.Ai aiProps) {
-        if (aiProps == null || aiProps.getBaseUrl() == null || aiProps.getBaseUrl().isBlank()) {
-            return null;
-        }
-
-        String baseUrlValue = aiProps.getBaseUrl().trim();
-        if (baseUrlValue.endsWith("/")) {
-            baseUrlValue = baseUrlValue.substring(0, baseUrlValue.length() - 1);
-        }
-
-        String versionSegment = "/" + API_VERSION;
-        if (baseUrlValue.contains(versionSegment + versionSegment)) {
-            throw new IllegalStateException("app.ai.base-url must not contain '" + versionSegment + versionSegment + "'. Use " + DEFAULT_BASE_URL + " instead.");
-        }
-
-        if (baseUrlValue.endsWith(versionSegment)) {
-            log.warn("app.ai.base-url should not include '{}'; removing trailing version segment.", versionSegment);
-            baseUrlValue = baseUrlValue.substring(0, baseUrlValue.length() - versionSegment.length());
-        }
-
-        if (baseUrlValue.contains(versionSegment + "/")) {
-            log.warn("app.ai.base-url contains '{}' segment; removing to avoid double versioning.", versionSegment);
-            baseUrlValue = baseUrlValue.replace(versionSegment + "/", "/");
-        }
-
-        if (baseUrlValue.contains(versionSegment + versionSegment)) {
-            throw new IllegalStateException("app.ai.base-url normalized into an invalid path. Use " + DEFAULT_BASE_URL + " instead.");
-        }
-
-        return DEFAULT_BASE_URL.equals(baseUrlValue) ? null : baseUrlValue;
-    }
-
-    private ApiKeyResolution resolveApiKey(AppProperties.Ai aiProps) {
-        if (aiProps != null && aiProps.getApiKey() != null && !aiProps.getApiKey().isBlank()) {
-            return new ApiKeyResolution(aiProps.getApiKey().trim(), "app.ai.api-key");
-        }
-
-        String geminiApiKey = environment.getProperty("GEMINI_API_KEY");
-        if (geminiApiKey != null && !geminiApiKey.isBlank()) {
-            return new ApiKeyResolution(geminiApiKey.trim(), "GEMINI_API_KEY");
-        }
-
-        String googleApiKey = environment.getProperty("GOOGLE_API_KEY");
-        if (googleApiKey != null && !googleApiKey.isBlank()) {
-            return new ApiKeyResolution(googleApiKey.trim(), "GOOGLE_API_KEY");
-        }
-
-        if (isDevProfile()) {
-            ApiKeyResolution dotenvResolution = resolveApiKeyFromDotenv();
-            if (dotenvResolution != null) {
-                return dotenvResolution;
-            }
-        }
-
-        return new ApiKeyResolution(null, "missing");
-    }
-
-    private String resolveModel(AppProperties.Ai aiProps) {
-        if (aiProps != null && aiProps.getModel() != null && !aiProps.getModel().isBlank()) {
-            return aiProps.getModel().trim();
+    private void logException(String requestId, Throwable ex) {
+        if (ex instanceof AiCallGuard.AiUnavailableException unavailable) {
+            log.warn("Gemini call not completed (requestId={}, reason={})", requestId, unavailable.getReason());
+        } else if (ex instanceof ApiException apiException) {
+            logApiException(requestId, apiException);
+        } else if (ex instanceof GenAiIOException ioException) {
+            logIoException(requestId, ioException);
+        } else {
+            logUnexpectedException(requestId, ex);
         }
-        return DEFAULT_MODEL;
-    }
-
-    private boolean isDevProfile() {
-        return environment.acceptsProfiles(Profiles.of("dev", "test", "local"));
     }
 
     private void logApiException(String requestId, ApiException ex) {
@@ -243,7 +163,7 @@ public class GeminiService {
                 requestId, ex.getClass().getSimpleName(), causeSummary);
     }
 
-    private void logUnexpectedException(String requestId, Exception ex) {
+    private void logUnexpectedException(String requestId, Throwable ex) {
         log.warn("Gemini unexpected error (requestId={}, exceptionType={}, exception={})",
                 requestId, ex.getClass().getSimpleName(), ex.toString(), ex);
     }
@@ -258,82 +178,4 @@ public class GeminiService {
             throw new IllegalStateException("Failed to load system prompt resource: " + SYSTEM_PROMPT_RESOURCE, ex);
         }
     }
-
-    private ApiKeyResolution resolveApiKeyFromDotenv() {
-        for (Path dotenvPath : resolveDotenvPaths()) {
-            ApiKeyResolution resolution = parseDotenvForApiKey(dotenvPath);
-            if (resolution != null && resolution.value != null && !resolution.value.isBlank()) {
-                return resolution;
-            }
-        }
-        return null;
-    }
-
-    private Path[] resolveDotenvPaths() {
-        String userDir = System.getProperty("user.dir");
-        return new Path[] {
-                Path.of(userDir, ".env"),
-                Path.of(userDir, "agricultural-crop-management-backend", ".env")
-        };
-    }
-
-    private ApiKeyResolution parseDotenvForApiKey(Path path) {
-        if (!Files.isRegularFile(path)) {
-            return null;
-        }
-
-        Map<String, String> values = new HashMap<>();
-        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String trimmed = line.trim();
-                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
-                    continue;
-                }
-                if (trimmed.startsWith("export ")) {
-                    trimmed = trimmed.substring("export ".length()).trim();
-                }
-                int eqIndex = trimmed.indexOf('=');
-                if (eqIndex <= 0) {
-                    continue;
-                }
-                String key = trimmed.substring(0, eqIndex).trim();
-                String value = trimmed.substring(eqIndex + 1).trim();
-                if (value.isEmpty()) {
-                    continue;
-                }
-                values.put(key, stripOptionalQuotes(value));
-            }
-        } catch (IOException ex) {
-            log.warn("Failed to read .env file at {} ({}).", path, ex.toString());
-            return null;
-        }
-
-        for (String key : API_KEY_ENV_KEYS) {
-            String value = values.get(key);
-            if (value != null && !value.isBlank()) {
-                return new ApiKeyResolution(value.trim(), "dotenv:" + path);
-            }
-        }
-        return null;
-    }
-
-    private String stripOptionalQuotes(String value) {
-        String trimmed = value.trim();
-        if ((trimmed.startsWith("\"") && trimmed.endsWith("\""))
-                || (trimmed.startsWith("'") && trimmed.endsWith("'"))) {
-            return trimmed.substring(1, trimmed.length() - 1);
-        }
-        return trimmed;
-    }
-
-    private static final class ApiKeyResolution {
-        private final String value;
-        private final String source;
-
-        private ApiKeyResolution(String value, String source) {
-            this.value = value;
-            this.source = source;
-        }
-    }
 }
@@ -0,0 +1,106 @@
+package org.example.QuanLyMuaVu.Service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.Entity.Incident;
+import org.example.QuanLyMuaVu.Entity.IncidentCounter;
+import org.example.QuanLyMuaVu.Enums.IncidentStatus;
+import org.example.QuanLyMuaVu.Repository.IncidentCounterRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-season incident counts by status, maintained in the caller's
+ * transaction. Every code path that creates an incident, changes its status
+ * or deletes it goes through here.
+ * <p>
+ * Writes that bypass the services (seed scripts, season deletes) are caught
+ * up by a full recount nightly and at startup, the latter on Spring's
+ * scheduler pool rather than the main thread.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class IncidentCounters {
+
+    static final String REBUILD_JOB = "incidents.counters";
+
+    IncidentCounterRepository incidentCounterRepository;
+    TransactionTemplate transactionTemplate;
+    JobRunner jobRunner;
+    TaskScheduler scheduler;
+
+    public void created(Incident incident) {
+        add(incident.getSeason().getId(), incident.getStatus(), 1);
+    }
+
+    public void statusChanged(Incident incident, IncidentStatus previousStatus) {
+        if (previousStatus == incident.getStatus()) {
+            return;
+        }
+        add(incident.getSeason().getId(), previousStatus, -1);
+        add(incident.getSeason().getId(), incident.getStatus(), 1);
+    }
+
+    public void deleted(Incident incident) {
+        add(incident.getSeason().getId(), incident.getStatus(), -1);
+    }
+
+    /**
+     * Counts of one season by status, every status present.
+     */
+    public Map<IncidentStatus, Long> countsForSeason(Integer seasonId) {
+        Map<IncidentStatus, Long> counts = new EnumMap<>(IncidentStatus.class);
+        for (IncidentStatus status : IncidentStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (IncidentCounter counter : incidentCounterRepository.findAllBySeasonId(seasonId)) {
+            counts.put(counter.getStatus(), Math.max(0, counter.getIncidentCount()));
+        }
+        return counts;
+    }
+
+    public long countForOwner(Long ownerId, Collection<IncidentStatus> statuses) {
+        return Math.max(0, incidentCounterRepository.sumByFarmOwnerIdAndStatusIn(ownerId, statuses));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        scheduler.schedule(this::rebuild, Instant.now());
+    }
+
+    /**
+     * Recount all seasons from the incidents table (03:15 daily by default).
+     */
+    @Scheduled(cron = "${app.incidents.counters.rebuild-cron:0 15 3 * * *}")
+    public void rebuild() {
+        jobRunner.run(REBUILD_JOB, Duration.ofMinutes(10), context -> {
+            Integer rows = transactionTemplate.execute(status -> {
+                incidentCounterRepository.deleteAllRows();
+                return incidentCounterRepository.insertCountsFromIncidents();
+            });
+            log.info("Incident counters rebuilt: {} season/status rows", rows);
+            return rows != null ? rows : 0;
+        });
+    }
+
+    private void add(Integer seasonId, IncidentStatus status, long delta) {
+        if (seasonId == null || status == null) {
+            return;
+        }
+        incidentCounterRepository.add(seasonId, status.name(), delta);
+    }
+}
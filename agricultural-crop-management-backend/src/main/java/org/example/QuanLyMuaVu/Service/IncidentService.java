@@ -16,8 +16,11 @@ import org.example.QuanLyMuaVu.Enums.IncidentSeverity;
 import org.example.QuanLyMuaVu.Enums.IncidentStatus;
 import org.example.QuanLyMuaVu.Exception.AppException;
 import org.example.QuanLyMuaVu.Exception.ErrorCode;
+import org.example.QuanLyMuaVu.Pattern.Observer.IncidentReportedEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
 import org.example.QuanLyMuaVu.Repository.IncidentRepository;
 import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -32,6 +35,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -42,6 +46,10 @@ public class IncidentService {
     IncidentRepository incidentRepository;
     SeasonRepository seasonRepository;
     FarmAccessService farmAccessService;
+    ApplicationEventPublisher eventPublisher;
+    DomainEventOutbox domainEventOutbox;
+    IncidentCounters incidentCounters;
+    IncidentSlaMonitor incidentSlaMonitor;
 
     /**
      * List incidents with pagination and filters
@@ -131,6 +139,10 @@ public class IncidentService {
                 .build();
 
         Incident saved = incidentRepository.save(incident);
+        incidentCounters.created(saved);
+        incidentSlaMonitor.changed(saved);
+        publishSeasonDataChanged(saved.getSeason());
+        domainEventOutbox.append(new IncidentReportedEvent(saved));
         return toResponse(saved);
     }
 
@@ -157,10 +169,15 @@ public class IncidentService {
             if (request.getDeadline().isBefore(LocalDate.now())) {
                 throw new AppException(ErrorCode.INVALID_DEADLINE);
             }
-            incident.setDeadline(request.getDeadline());
+            if (!request.getDeadline().equals(incident.getDeadline())) {
+                incident.setDeadline(request.getDeadline());
+                incident.setSlaBreachedAt(null);
+            }
         }
 
         Incident saved = incidentRepository.save(incident);
+        incidentSlaMonitor.changed(saved);
+        publishSeasonDataChanged(saved.getSeason());
         return toResponse(saved);
     }
 
@@ -198,6 +215,9 @@ public class IncidentService {
 
         incident.setStatus(newStatus);
         Incident saved = incidentRepository.save(incident);
+        incidentCounters.statusChanged(saved, currentStatus);
+        incidentSlaMonitor.changed(saved);
+        publishSeasonDataChanged(saved.getSeason());
         return toResponse(saved);
     }
 
@@ -216,6 +236,9 @@ public class IncidentService {
         }
 
         incidentRepository.delete(incident);
+        incidentCounters.deleted(incident);
+        incidentSlaMonitor.removed(incident);
+        publishSeasonDataChanged(incident.getSeason());
     }
 
     /**
@@ -225,12 +248,13 @@ public class IncidentService {
     public IncidentSummary getSummary(Integer seasonId) {
         Season season = getSeasonForCurrentFarmer(seasonId);
 
-        long openCount = incidentRepository.countBySeasonAndStatus(season, IncidentStatus.OPEN);
-        long inProgressCount = incidentRepository.countBySeasonAndStatus(season, IncidentStatus.IN_PROGRESS);
-        long resolvedCount = incidentRepository.countBySeasonAndStatus(season, IncidentStatus.RESOLVED);
-        long cancelledCount = incidentRepository.countBySeasonAndStatus(season, IncidentStatus.CANCELLED);
+        Map<IncidentStatus, Long> counts = incidentCounters.countsForSeason(season.getId());
 
-        return new IncidentSummary(openCount, inProgressCount, resolvedCount, cancelledCount);
+        return new IncidentSummary(
+                counts.get(IncidentStatus.OPEN),
+                counts.get(IncidentStatus.IN_PROGRESS),
+                counts.get(IncidentStatus.RESOLVED),
+                counts.get(IncidentStatus.CANCELLED));
     }
 
     // ============ Helper Methods ============
@@ -340,4 +364,10 @@ public class IncidentService {
     // ============ Inner class for summary ============
     public record IncidentSummary(long openCount, long inProgressCount, long resolvedCount, long cancelledCount) {
     }
+
+    private void publishSeasonDataChanged(Season season) {
+        if (season != null) {
+            eventPublisher.publishEvent(new SeasonDataChangedEvent(season.getId(), "INCIDENT"));
+        }
+    }
 }
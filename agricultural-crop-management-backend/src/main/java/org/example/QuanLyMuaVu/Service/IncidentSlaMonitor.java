@@ -0,0 +1,322 @@
+package org.example.QuanLyMuaVu.Service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.Entity.Incident;
+import org.example.QuanLyMuaVu.Enums.IncidentStatus;
+import org.example.QuanLyMuaVu.Pattern.Observer.IncidentOverdueEvent;
+import org.example.QuanLyMuaVu.Repository.IncidentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emits {@link IncidentOverdueEvent} when an open incident passes the end of
+ * its deadline day.
+ * <p>
+ * The earliest {@code app.incidents.sla.window-size} candidates are held in a
+ * priority queue by (deadline, id), loaded page by page from the
+ * (sla_breached_at, status, deadline) index as the queue drains. One timer is
+ * armed for the head of the queue, so a wake-up only touches incidents that
+ * are actually due. Writes on this node update the queue after commit; writes
+ * on other nodes are picked up every {@code refresh-minutes} by re-reading the
+ * loaded range up to the frontier, which stays where it was unless that range
+ * has outgrown the window.
+ * <p>
+ * A due incident is reported with a conditional UPDATE of
+ * {@code sla_breached_at} and an outbox append in the same transaction, so
+ * each missed deadline produces one event even with several nodes running.
+ * A stale queue entry (incident closed or deadline moved) simply fails the
+ * UPDATE. All queue state is confined to the monitor thread.
+ */
+@Component
+@Slf4j
+public class IncidentSlaMonitor {
+
+    static final List<IncidentStatus> OPEN_STATUSES = List.of(IncidentStatus.OPEN, IncidentStatus.IN_PROGRESS);
+    private static final LocalDate ORIGIN = LocalDate.of(1970, 1, 1);
+
+    private final IncidentRepository incidentRepository;
+    private final DomainEventOutbox domainEventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final int windowSize;
+    private final long refreshMinutes;
+    private final ScheduledExecutorService timer;
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private final Map<Integer, Entry> tracked = new HashMap<>();
+    private Entry frontier;
+    private boolean exhausted;
+    private ScheduledFuture<?> wakeUp;
+    private LocalDateTime wakeUpAt;
+
+    public IncidentSlaMonitor(
+            IncidentRepository incidentRepository,
+            DomainEventOutbox domainEventOutbox,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.incidents.sla.window-size:500}") int windowSize,
+            @Value("${app.incidents.sla.refresh-minutes:15}") long refreshMinutes) {
+        this.incidentRepository = incidentRepository;
+        this.domainEventOutbox = domainEventOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.windowSize = Math.max(2, windowSize);
+        this.refreshMinutes = Math.max(1, refreshMinutes);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("incident-sla-");
+        threadFactory.setDaemon(true);
+        this.timer = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        timer.scheduleWithFixedDelay(() -> runQuietly(() -> {
+            reload();
+            arm();
+        }), 0, refreshMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Re-queue an incident after its status or deadline was written; applied
+     * once the caller's transaction commits.
+     */
+    public void changed(Incident incident) {
+        Integer id = incident.getId();
+        Entry entry = OPEN_STATUSES.contains(incident.getStatus()) && incident.getDeadline() != null
+                && incident.getSlaBreachedAt() == null
+                ? new Entry(id, incident.getDeadline())
+                : null;
+        afterCommit(() -> {
+            onChanged(id, entry);
+            arm();
+        });
+    }
+
+    public void removed(Incident incident) {
+        Integer id = incident.getId();
+        afterCommit(() -> {
+            onChanged(id, null);
+            arm();
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Re-read the loaded range from the index, keeping the frontier.
+     */
+    void reload() {
+        if (frontier == null && !exhausted) {
+            fill();
+            return;
+        }
+        // One extra row tells whether the range still fits in the window.
+        PageRequest page = PageRequest.of(0, windowSize + 1);
+        List<IncidentRepository.SlaCandidate> candidates = exhausted
+                ? incidentRepository.findSlaCandidatesAfter(OPEN_STATUSES, ORIGIN, 0, page)
+                : incidentRepository.findSlaCandidatesUpTo(OPEN_STATUSES, frontier.deadline(),
+                        frontier.incidentId(), page);
+        queue.clear();
+        tracked.clear();
+        Entry last = null;
+        for (IncidentRepository.SlaCandidate candidate : candidates.subList(0, Math.min(candidates.size(), windowSize))) {
+            last = new Entry(candidate.getId(), candidate.getDeadline());
+            tracked.put(last.incidentId(), last);
+            queue.add(last);
+        }
+        if (candidates.size() > windowSize) {
+            // Other nodes added incidents before the frontier: pull it back.
+            frontier = last;
+            exhausted = false;
+        }
+        fill();
+    }
+
+    /**
+     * Apply a committed change: {@code entry} is the incident's new queue
+     * entry, or {@code null} when it no longer needs watching.
+     */
+    void onChanged(Integer id, Entry entry) {
+        tracked.remove(id);
+        // Entries past the frontier are loaded from the index when their turn comes.
+        if (entry != null && (exhausted || (frontier != null && entry.compareTo(frontier) <= 0))) {
+            tracked.put(id, entry);
+            queue.add(entry);
+        }
+    }
+
+    /**
+     * Report every queued incident due at {@code now}, then top the window up.
+     *
+     * @return number of events emitted
+     */
+    int fireDue(LocalDateTime now) {
+        int emitted = 0;
+        List<Entry> due = new ArrayList<>();
+        while (true) {
+            Entry head = peekLive();
+            if (head == null || head.dueAt().isAfter(now)) {
+                break;
+            }
+            queue.poll();
+            tracked.remove(head.incidentId());
+            due.add(head);
+            if (due.size() == windowSize) {
+                emitted += report(due, now);
+                due.clear();
+            }
+        }
+        if (!due.isEmpty()) {
+            emitted += report(due, now);
+        }
+        fill();
+        return emitted;
+    }
+
+    int pending() {
+        return tracked.size();
+    }
+
+    private int report(List<Entry> due, LocalDateTime now) {
+        try {
+            Integer emitted = transactionTemplate.execute(status -> {
+                List<Integer> breached = new ArrayList<>();
+                for (Entry entry : due) {
+                    if (incidentRepository.markSlaBreached(entry.incidentId(), entry.deadline(), OPEN_STATUSES,
+                            now) == 1) {
+                        breached.add(entry.incidentId());
+                    }
+                }
+                if (!breached.isEmpty()) {
+                    incidentRepository.findAllById(breached)
+                            .forEach(incident -> domainEventOutbox.append(new IncidentOverdueEvent(incident)));
+                }
+                return breached.size();
+            });
+            int count = emitted != null ? emitted : 0;
+            if (count > 0) {
+                log.info("Incident SLA monitor: {} incidents overdue", count);
+            }
+            return count;
+        } catch (RuntimeException ex) {
+            // Rows stay unmarked, so the next reload queues them again.
+            log.warn("Incident SLA monitor: reporting {} due incidents failed", due.size(), ex);
+            return 0;
+        }
+    }
+
+    /**
+     * Load candidates after the frontier until the window is half full again.
+     */
+    private void fill() {
+        while (!exhausted && tracked.size() < windowSize / 2) {
+            int limit = windowSize - tracked.size();
+            List<IncidentRepository.SlaCandidate> page = incidentRepository.findSlaCandidatesAfter(OPEN_STATUSES,
+                    frontier != null ? frontier.deadline() : ORIGIN,
+                    frontier != null ? frontier.incidentId() : 0,
+                    PageRequest.of(0, limit));
+            for (IncidentRepository.SlaCandidate candidate : page) {
+                Entry entry = new Entry(candidate.getId(), candidate.getDeadline());
+                if (!tracked.containsKey(entry.incidentId())) {
+                    tracked.put(entry.incidentId(), entry);
+                    queue.add(entry);
+                }
+                frontier = entry;
+            }
+            if (page.size() < limit) {
+                exhausted = true;
+            }
+        }
+    }
+
+    /**
+     * Point the timer at the head of the queue.
+     */
+    private void arm() {
+        Entry head = peekLive();
+        LocalDateTime next = head != null ? head.dueAt() : null;
+        if (next == null || (wakeUp != null && !wakeUp.isDone() && !next.isBefore(wakeUpAt))) {
+            return;
+        }
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+        }
+        long delayMs = Math.max(0, Duration.between(LocalDateTime.now(), next).toMillis());
+        wakeUpAt = next;
+        wakeUp = timer.schedule(() -> runQuietly(() -> {
+            wakeUp = null;
+            fireDue(LocalDateTime.now());
+            arm();
+        }), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Head of the queue, discarding entries replaced by a later change.
+     */
+    private Entry peekLive() {
+        Entry head = queue.peek();
+        while (head != null && tracked.get(head.incidentId()) != head) {
+            queue.poll();
+            head = queue.peek();
+        }
+        return head;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            timer.execute(() -> runQuietly(action));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                timer.execute(() -> runQuietly(action));
+            }
+        });
+    }
+
+    private void runQuietly(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException ex) {
+            log.warn("Incident SLA monitor failed", ex);
+        }
+    }
+
+    /**
+     * Queued incident; due at the start of the day after its deadline.
+     */
+    record Entry(Integer incidentId, LocalDate deadline) implements Comparable<Entry> {
+
+        LocalDateTime dueAt() {
+            return deadline.plusDays(1).atStartOfDay();
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byDeadline = deadline.compareTo(other.deadline);
+            return byDeadline != 0 ? byDeadline : Integer.compare(incidentId, other.incidentId);
+        }
+    }
+}
@@ -34,7 +34,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -99,25 +102,35 @@ public class InventoryService {
             }
         }
 
-        // Get all distinct supply lot IDs with movements at this warehouse/location
-        List<Integer> lotIds = stockMovementRepository.findDistinctSupplyLotIdsByWarehouse(warehouse, location);
-
-        if (lotIds.isEmpty()) {
-            return createEmptyPageResponse(pageable);
-        }
+        // On-hand per supply lot with movements at this warehouse/location
+        List<StockMovementRepository.LotOnHand> balances = stockMovementRepository
+                .sumOnHandBySupplyLot(warehouse, location);
 
         // Filter by specific lot if provided
         if (lotId != null) {
-            if (!lotIds.contains(lotId)) {
-                return createEmptyPageResponse(pageable);
+            balances = balances.stream()
+                    .filter(balance -> lotId.equals(balance.getSupplyLotId()))
+                    .toList();
+        }
+
+        // Only lots with positive on-hand make a row
+        Map<Integer, BigDecimal> onHandByLot = new LinkedHashMap<>();
+        for (StockMovementRepository.LotOnHand balance : balances) {
+            if (balance.getOnHandQuantity() != null && balance.getOnHandQuantity().compareTo(BigDecimal.ZERO) > 0) {
+                onHandByLot.put(balance.getSupplyLotId(), balance.getOnHandQuantity());
             }
-            lotIds = List.of(lotId);
         }
+        if (onHandByLot.isEmpty()) {
+            return createEmptyPageResponse(pageable);
+        }
+
+        Map<Integer, SupplyLot> lots = supplyLotRepository.findAllByIdIn(onHandByLot.keySet()).stream()
+                .collect(Collectors.toMap(SupplyLot::getId, Function.identity()));
 
         // Build on-hand rows
         List<OnHandRowResponse> allRows = new ArrayList<>();
-        for (Integer lid : lotIds) {
-            SupplyLot lot = supplyLotRepository.findById(lid).orElse(null);
+        for (Map.Entry<Integer, BigDecimal> entry : onHandByLot.entrySet()) {
+            SupplyLot lot = lots.get(entry.getKey());
             if (lot == null)
                 continue;
 
@@ -136,25 +149,20 @@ public class InventoryService {
                     continue;
             }
 
-            BigDecimal onHand = stockMovementRepository.calculateOnHandQuantity(lot, warehouse, location);
-
-            // Only include rows with positive on-hand
-            if (onHand.compareTo(BigDecimal.ZERO) > 0) {
-                OnHandRowResponse row = OnHandRowResponse.builder()
-                        .warehouseId(warehouse.getId())
-                        .warehouseName(warehouse.getName())
-                        .locationId(location != null ? location.getId() : null)
-                        .locationLabel(location != null ? buildLocationLabel(location) : "Any Location")
-                        .supplyLotId(lot.getId())
-                        .batchCode(lot.getBatchCode())
-                        .supplyItemName(lot.getSupplyItem() != null ? lot.getSupplyItem().getName() : null)
-                        .unit(lot.getSupplyItem() != null ? lot.getSupplyItem().getUnit() : null)
-                        .expiryDate(lot.getExpiryDate())
-                        .lotStatus(lot.getStatus())
-                        .onHandQuantity(onHand)
-                        .build();
-                allRows.add(row);
-            }
+            OnHandRowResponse row = OnHandRowResponse.builder()
+                    .warehouseId(warehouse.getId())
+                    .warehouseName(warehouse.getName())
+                    .locationId(location != null ? location.getId() : null)
+                    .locationLabel(location != null ? buildLocationLabel(location) : "Any Location")
+                    .supplyLotId(lot.getId())
+                    .batchCode(lot.getBatchCode())
+                    .supplyItemName(lot.getSupplyItem() != null ? lot.getSupplyItem().getName() : null)
+                    .unit(lot.getSupplyItem() != null ? lot.getSupplyItem().getUnit() : null)
+                    .expiryDate(lot.getExpiryDate())
+                    .lotStatus(lot.getStatus())
+                    .onHandQuantity(entry.getValue())
+                    .build();
+            allRows.add(row);
         }
 
         // Manual pagination
@@ -0,0 +1,196 @@
+package org.example.QuanLyMuaVu.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.Entity.JobRun;
+import org.example.QuanLyMuaVu.Enums.JobRunStatus;
+import org.example.QuanLyMuaVu.Repository.JobRunRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Runs scheduled jobs on one node at a time.
+ * <p>
+ * Each job has a row in {@code job_locks}; a node runs the job only after
+ * taking the lease with a conditional UPDATE (free or expired), and releases
+ * it when done. Other nodes skip that run. The lease is renewed between
+ * chunks, so a long job keeps it while a dead node's lease simply expires.
+ * Lease times come from the database clock, so nodes with skewed clocks
+ * still agree on when a lease has expired.
+ * <p>
+ * Every run that got the lease is recorded in {@code job_runs} with start
+ * and end time, rows affected and the error if it failed. Jobs that rewrite
+ * many rows use {@link JobContext#inChunks}, which commits every chunk in its
+ * own short transaction instead of holding row locks for the whole job.
+ */
+@Component
+@Slf4j
+public class JobRunner {
+
+    /**
+     * Body of a job; returns the number of rows it affected.
+     */
+    @FunctionalInterface
+    public interface Job {
+        long execute(JobContext context) throws Exception;
+    }
+
+    /**
+     * One bounded unit of work; returns the rows it affected, 0 when done.
+     */
+    @FunctionalInterface
+    public interface Chunk {
+        int process(int limit);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobRunRepository jobRunRepository;
+    private final int chunkSize;
+    private final int historyDays;
+    private final String node;
+
+    public JobRunner(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            JobRunRepository jobRunRepository,
+            @Value("${app.jobs.chunk-size:500}") int chunkSize,
+            @Value("${app.jobs.history-days:30}") int historyDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jobRunRepository = jobRunRepository;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.historyDays = Math.max(1, historyDays);
+        this.node = nodeName();
+    }
+
+    /**
+     * Run the job if no other node holds its lease.
+     *
+     * @param lease how long the lease lasts without renewal; longer than a chunk takes
+     * @return the recorded run, or empty when another node is running the job
+     */
+    public Optional<JobRun> run(String jobName, Duration lease, Job job) {
+        if (!tryAcquire(jobName, lease)) {
+            log.debug("Job {} skipped: lease held by another node", jobName);
+            return Optional.empty();
+        }
+        JobRun run = jobRunRepository.save(JobRun.builder()
+                .jobName(jobName)
+                .node(node)
+                .status(JobRunStatus.RUNNING)
+                .startedAt(LocalDateTime.now())
+                .build());
+        try {
+            long rows = job.execute(new JobContext(jobName, lease));
+            run.setStatus(JobRunStatus.SUCCEEDED);
+            run.setRowsAffected(rows);
+            log.info("Job {} finished on {}: rows={}", jobName, node, rows);
+        } catch (Exception ex) {
+            run.setStatus(JobRunStatus.FAILED);
+            String error = ex.toString();
+            run.setError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            log.error("Job {} failed on {}", jobName, node, ex);
+        } finally {
+            run.setFinishedAt(LocalDateTime.now());
+            release(jobName);
+        }
+        JobRun saved = jobRunRepository.save(run);
+        jobRunRepository.deleteStartedBefore(LocalDateTime.now().minusDays(historyDays));
+        return Optional.of(saved);
+    }
+
+    /**
+     * Handle passed to a running job.
+     */
+    public final class JobContext {
+
+        private final String jobName;
+        private final Duration lease;
+
+        private JobContext(String jobName, Duration lease) {
+            this.jobName = jobName;
+            this.lease = lease;
+        }
+
+        /**
+         * Call {@code chunk} with the configured chunk size, each call in its
+         * own transaction, until it reports fewer rows than the limit.
+         * Renews the lease between chunks and stops if it was lost.
+         *
+         * @return total rows affected
+         */
+        public long inChunks(Chunk chunk) {
+            long total = 0;
+            while (true) {
+                Integer rows = transactionTemplate.execute(status -> chunk.process(chunkSize));
+                int affected = rows != null ? rows : 0;
+                total += affected;
+                if (affected < chunkSize) {
+                    return total;
+                }
+                renewLease();
+            }
+        }
+
+        /**
+         * Extend the lease; throws when another node has taken it over.
+         */
+        public void renewLease() {
+            int renewed = jdbcTemplate.update(
+                    "UPDATE job_locks SET locked_until = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP) "
+                            + "WHERE job_name = ? AND locked_by = ?",
+                    leaseSeconds(lease), jobName, node);
+            if (renewed == 0) {
+                throw new IllegalStateException("Lease of job " + jobName + " was lost");
+            }
+        }
+    }
+
+    private boolean tryAcquire(String jobName, Duration lease) {
+        try {
+            jdbcTemplate.update("INSERT INTO job_locks (job_name) VALUES (?)", jobName);
+        } catch (DataIntegrityViolationException ex) {
+            // Row already exists.
+        }
+        return jdbcTemplate.update(
+                "UPDATE job_locks SET locked_by = ?, locked_at = CURRENT_TIMESTAMP, "
+                        + "locked_until = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP) "
+                        + "WHERE job_name = ? AND (locked_until IS NULL OR locked_until < CURRENT_TIMESTAMP)",
+                node, leaseSeconds(lease), jobName) == 1;
+    }
+
+    private static long leaseSeconds(Duration lease) {
+        return Math.max(1, lease.toSeconds());
+    }
+
+    private void release(String jobName) {
+        try {
+            jdbcTemplate.update("UPDATE job_locks SET locked_until = NULL WHERE job_name = ? AND locked_by = ?",
+                    jobName, node);
+        } catch (RuntimeException ex) {
+            // The lease expires on its own.
+            log.warn("Could not release lease of job {}: {}", jobName, ex.toString());
+        }
+    }
+
+    private static String nodeName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception ex) {
+            host = "unknown";
+        }
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String name = host + "-" + suffix;
+        return name.length() > 100 ? name.substring(name.length() - 100) : name;
+    }
+}
@@ -26,6 +26,7 @@ public class PlotService {
     private final PlotRepository plotRepository;
     private final FarmRepository farmRepository;
     private final CurrentUserService currentUserService;
+    private final SeasonSearchIndex seasonSearchIndex;
 
     @Transactional(readOnly = true)
     public List<PlotResponse> listPlotsForCurrentFarmer() {
@@ -112,6 +113,7 @@ public class PlotService {
         }
 
         Plot savedPlot = plotRepository.save(plot);
+        seasonSearchIndex.invalidateAfterCommit(savedPlot);
         return toResponse(savedPlot);
     }
 
@@ -123,6 +125,7 @@ public class PlotService {
 
         // TODO: Check for dependencies (seasons, tasks etc) before delete
         plotRepository.delete(plot);
+        seasonSearchIndex.invalidateAfterCommit(plot);
     }
 
     private PlotResponse toResponse(Plot plot) {
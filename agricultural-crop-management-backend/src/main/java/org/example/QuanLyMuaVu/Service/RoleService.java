@@ -2,6 +2,8 @@ package org.example.QuanLyMuaVu.Service;
 
 import java.util.List;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import org.example.QuanLyMuaVu.DTO.Request.RoleRequest;
@@ -22,6 +24,7 @@ public class RoleService {
     RoleRepository roleRepository;
     RoleMapper roleMapper;
 
+    @CacheEvict(value = "roles", allEntries = true)
     public RoleResponse createRole(RoleRequest request) {
         var role = roleMapper.toRole(request);
 
@@ -29,10 +32,12 @@ public class RoleService {
         return roleMapper.toRoleResponse(role);
     }
 
+    @Cacheable(value = "roles", key = "'all'")
     public List<RoleResponse> listRoles() {
         return roleRepository.findAll().stream().map(roleMapper::toRoleResponse).toList();
     }
 
+    @CacheEvict(value = "roles", allEntries = true)
     public void deleteRoleByCode(String roleCode) {
         roleRepository.deleteByCode(roleCode);
     }
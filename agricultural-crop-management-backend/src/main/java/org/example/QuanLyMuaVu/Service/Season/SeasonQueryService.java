@@ -1,5 +1,9 @@
 package org.example.QuanLyMuaVu.Service.Season;
 
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -7,6 +11,8 @@ import org.example.QuanLyMuaVu.DTO.Common.PageResponse;
 import org.example.QuanLyMuaVu.DTO.Response.MySeasonResponse;
 import org.example.QuanLyMuaVu.DTO.Response.SeasonDetailResponse;
 import org.example.QuanLyMuaVu.DTO.Response.SeasonResponse;
+import org.example.QuanLyMuaVu.Entity.Farm;
+import org.example.QuanLyMuaVu.Entity.Plot;
 import org.example.QuanLyMuaVu.Entity.Season;
 import org.example.QuanLyMuaVu.Entity.User;
 import org.example.QuanLyMuaVu.Enums.SeasonStatus;
@@ -15,20 +21,21 @@ import org.example.QuanLyMuaVu.Exception.ErrorCode;
 import org.example.QuanLyMuaVu.Mapper.SeasonMapper;
 import org.example.QuanLyMuaVu.Repository.SeasonRepository;
 import org.example.QuanLyMuaVu.Service.FarmAccessService;
+import org.example.QuanLyMuaVu.Service.SeasonSearchIndex;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Service responsible for Season query and search operations.
@@ -43,6 +50,7 @@ public class SeasonQueryService {
     SeasonRepository seasonRepository;
     SeasonMapper seasonMapper;
     FarmAccessService farmAccessService;
+    SeasonSearchIndex seasonSearchIndex;
 
     /**
      * Get a minimal list of seasons for the current farmer (for dropdown
@@ -51,19 +59,10 @@ public class SeasonQueryService {
      */
     public List<MySeasonResponse> getMySeasons() {
         User currentUser = farmAccessService.getCurrentUser();
-        List<Integer> accessibleFarmIds = farmAccessService.getAccessibleFarmIdsForCurrentUser();
 
-        LinkedHashSet<Season> allSeasons = new LinkedHashSet<>();
-
-        if (!accessibleFarmIds.isEmpty()) {
-            allSeasons.addAll(seasonRepository.findAllByPlot_Farm_IdIn(accessibleFarmIds));
-        }
-        allSeasons.addAll(seasonRepository.findAllByPlot_User(currentUser));
-
-        return allSeasons.stream()
-                .sorted((s1, s2) -> Integer.compare(
-                        s2.getId() != null ? s2.getId() : 0,
-                        s1.getId() != null ? s1.getId() : 0))
+        return seasonRepository.findAll(buildMySeasonSpecification(currentUser, null, null, null, null, null),
+                        Sort.by("id").descending())
+                .stream()
                 .map(season -> MySeasonResponse.builder()
                         .seasonId(season.getId())
                         .seasonName(season.getSeasonName())
@@ -77,6 +76,8 @@ public class SeasonQueryService {
 
     /**
      * Search seasons for the current farmer with filters.
+     * Filtering, sorting and paging run in the database; plot, crop and
+     * variety are fetched with the page (see SeasonRepository#findAll).
      */
     public PageResponse<SeasonResponse> searchMySeasons(
             Integer plotId,
@@ -88,22 +89,6 @@ public class SeasonQueryService {
             int size) {
 
         User currentUser = farmAccessService.getCurrentUser();
-        List<Integer> accessibleFarmIds = farmAccessService.getAccessibleFarmIdsForCurrentUser();
-
-        List<Season> all = new ArrayList<>();
-        if (!accessibleFarmIds.isEmpty()) {
-            all.addAll(seasonRepository.findAllByPlot_Farm_IdIn(accessibleFarmIds));
-        }
-        all.addAll(seasonRepository.findAllByPlot_User(currentUser));
-
-        // De-duplicate by season id while preserving order
-        Map<Integer, Season> byId = new LinkedHashMap<>();
-        for (Season season : all) {
-            if (season.getId() != null) {
-                byId.putIfAbsent(season.getId(), season);
-            }
-        }
-        all = new ArrayList<>(byId.values());
 
         SeasonStatus statusFilter = null;
         if (status != null && !status.isBlank()) {
@@ -114,33 +99,15 @@ public class SeasonQueryService {
             }
         }
 
-        final Integer plotIdFilter = plotId;
-        final Integer cropIdFilter = cropId;
-        final SeasonStatus statusFilterFinal = statusFilter;
-        final LocalDate fromDate = from;
-        final LocalDate toDate = to;
-
-        List<SeasonResponse> filtered = all.stream()
-                .filter(season -> plotIdFilter == null
-                        || (season.getPlot() != null && plotIdFilter.equals(season.getPlot().getId())))
-                .filter(season -> cropIdFilter == null
-                        || (season.getCrop() != null && cropIdFilter.equals(season.getCrop().getId())))
-                .filter(season -> statusFilterFinal == null || statusFilterFinal.equals(season.getStatus()))
-                .filter(season -> filterByDateRange(season, fromDate, toDate))
-                .sorted((s1, s2) -> Integer.compare(
-                        s2.getId() != null ? s2.getId() : 0,
-                        s1.getId() != null ? s1.getId() : 0))
+        Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
+        Page<Season> seasonPage = seasonRepository.findAll(
+                buildMySeasonSpecification(currentUser, plotId, cropId, statusFilter, from, to), pageable);
+
+        List<SeasonResponse> content = seasonPage.getContent().stream()
                 .map(seasonMapper::toResponse)
                 .toList();
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-        int fromIndex = page * size;
-        int toIndex = Math.min(fromIndex + size, filtered.size());
-        List<SeasonResponse> pageItems = fromIndex >= filtered.size() ? List.of()
-                : filtered.subList(fromIndex, toIndex);
-        Page<SeasonResponse> pageData = new PageImpl<>(pageItems, pageable, filtered.size());
-
-        return PageResponse.of(pageData, pageItems);
+        return PageResponse.of(seasonPage, content);
     }
 
     /**
@@ -165,32 +132,72 @@ public class SeasonQueryService {
 
     /**
      * BR17: Search seasons by keyword for Text_change() handler.
+     * Matches season, plot and crop names accent-insensitively through
+     * {@link SeasonSearchIndex}; returns at most {@code limit} best hits.
      */
-    public List<SeasonResponse> searchSeasonsByKeyword(String keyword) {
+    public List<SeasonResponse> searchSeasonsByKeyword(String keyword, int limit) {
         User currentUser = farmAccessService.getCurrentUser();
         if (keyword == null || keyword.trim().isEmpty()) {
             return List.of();
         }
-        List<Season> results = seasonRepository.searchByKeywordAndOwnerId(keyword.trim(), currentUser.getId());
-        return results.stream()
+        List<Integer> ids = seasonSearchIndex.search(currentUser.getId(), keyword, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Season> byId = new HashMap<>();
+        for (Season season : seasonRepository.findAllByIdInAndFarmOwnerId(ids, currentUser.getId())) {
+            byId.put(season.getId(), season);
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(seasonMapper::toResponse)
                 .toList();
     }
 
     /**
-     * Helper method to filter seasons by date range.
+     * Seasons listed for the user: on plots of farms they own, or on plots
+     * they created, with optional filters.
+     * A season matches the date range when [startDate, endDate or startDate]
+     * overlaps it.
      */
-    private boolean filterByDateRange(Season season, LocalDate fromDate, LocalDate toDate) {
-        if (fromDate == null && toDate == null) {
-            return true;
-        }
-        LocalDate sStart = season.getStartDate();
-        LocalDate sEnd = season.getEndDate();
-        if (sEnd == null) {
-            sEnd = sStart;
-        }
-        LocalDate rangeStart = fromDate != null ? fromDate : sStart;
-        LocalDate rangeEnd = toDate != null ? toDate : sEnd;
-        return !sEnd.isBefore(rangeStart) && !sStart.isAfter(rangeEnd);
+    private Specification<Season> buildMySeasonSpecification(
+            User user,
+            Integer plotId,
+            Integer cropId,
+            SeasonStatus status,
+            LocalDate from,
+            LocalDate to) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            Join<Season, Plot> plotJoin = root.join("plot");
+            Join<Plot, Farm> farmJoin = plotJoin.join("farm");
+            // Explicit LEFT join: an implicit path to the owner would be an
+            // inner join and drop creator-only seasons on ownerless farms.
+            Join<Farm, User> ownerJoin = farmJoin.join("owner", JoinType.LEFT);
+            predicates.add(cb.or(
+                    cb.equal(ownerJoin.get("id"), user.getId()),
+                    cb.equal(plotJoin.get("user").get("id"), user.getId())));
+
+            if (plotId != null) {
+                predicates.add(cb.equal(plotJoin.get("id"), plotId));
+            }
+            if (cropId != null) {
+                predicates.add(cb.equal(root.get("crop").get("id"), cropId));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (from != null) {
+                Expression<LocalDate> end = cb.coalesce(root.get("endDate"), root.<LocalDate>get("startDate"));
+                predicates.add(cb.greaterThanOrEqualTo(end, from));
+            }
+            if (to != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("startDate"), to));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
     }
 }
@@ -14,11 +14,13 @@ import org.example.QuanLyMuaVu.Enums.TaskStatus;
 import org.example.QuanLyMuaVu.Exception.AppException;
 import org.example.QuanLyMuaVu.Exception.ErrorCode;
 import org.example.QuanLyMuaVu.Mapper.SeasonMapper;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
 import org.example.QuanLyMuaVu.Pattern.Strategy.SeasonStatusStrategy;
 import org.example.QuanLyMuaVu.Repository.HarvestRepository;
 import org.example.QuanLyMuaVu.Repository.SeasonRepository;
 import org.example.QuanLyMuaVu.Repository.TaskRepository;
 import org.example.QuanLyMuaVu.Service.FarmAccessService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,6 +45,7 @@ public class SeasonStatusService {
     SeasonMapper seasonMapper;
     FarmAccessService farmAccessService;
     SeasonStatusStrategy statusStrategy;
+    ApplicationEventPublisher eventPublisher;
 
     /**
      * Update season status with generic transition logic.
@@ -83,6 +86,7 @@ public class SeasonStatusService {
         }
 
         Season saved = seasonRepository.save(season);
+        publishSeasonDataChanged(saved);
         return seasonMapper.toResponse(saved);
     }
 
@@ -113,6 +117,7 @@ public class SeasonStatusService {
 
         season.setStatus(SeasonStatus.ACTIVE);
         Season saved = seasonRepository.save(season);
+        publishSeasonDataChanged(saved);
         return seasonMapper.toResponse(saved);
     }
 
@@ -155,6 +160,7 @@ public class SeasonStatusService {
 
         season.setStatus(SeasonStatus.COMPLETED);
         Season saved = seasonRepository.save(season);
+        publishSeasonDataChanged(saved);
         return seasonMapper.toResponse(saved);
     }
 
@@ -181,6 +187,7 @@ public class SeasonStatusService {
         }
 
         Season saved = seasonRepository.save(season);
+        publishSeasonDataChanged(saved);
         return seasonMapper.toResponse(saved);
     }
 
@@ -197,6 +204,7 @@ public class SeasonStatusService {
 
         season.setStatus(SeasonStatus.ARCHIVED);
         Season saved = seasonRepository.save(season);
+        publishSeasonDataChanged(saved);
         return seasonMapper.toResponse(saved);
     }
 
@@ -252,4 +260,10 @@ public class SeasonStatusService {
                             .reduce(BigDecimal.ZERO, BigDecimal::add));
         }
     }
+
+    private void publishSeasonDataChanged(Season season) {
+        if (season != null) {
+            eventPublisher.publishEvent(new SeasonDataChangedEvent(season.getId(), "SEASON"));
+        }
+    }
 }
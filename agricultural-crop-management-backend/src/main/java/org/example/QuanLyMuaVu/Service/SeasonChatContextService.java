@@ -0,0 +1,284 @@
+package org.example.QuanLyMuaVu.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.Entity.Incident;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.Task;
+import org.example.QuanLyMuaVu.Enums.IncidentStatus;
+import org.example.QuanLyMuaVu.Enums.TaskStatus;
+import org.example.QuanLyMuaVu.Exception.AppException;
+import org.example.QuanLyMuaVu.Exception.ErrorCode;
+import org.example.QuanLyMuaVu.Pattern.Observer.IncidentReportedEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.TaskCompletedEvent;
+import org.example.QuanLyMuaVu.Repository.ExpenseRepository;
+import org.example.QuanLyMuaVu.Repository.HarvestRepository;
+import org.example.QuanLyMuaVu.Repository.IncidentRepository;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.example.QuanLyMuaVu.Repository.TaskRepository;
+import org.example.QuanLyMuaVu.Util.CurrentUserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the server-side crop context that is prepended to AI chat prompts.
+ * <p>
+ * The summary is assembled from the season rollup queries (task counts by
+ * status, open incidents, expense and harvest totals) instead of loading
+ * every row, trimmed to a token budget, and cached per season so that a
+ * multi-turn chat only pays the DB fan-out once. Entries are evicted when a
+ * {@link SeasonDataChangedEvent} for the season is committed, and rebuilt at
+ * the latest after the configured TTL or on a new calendar day.
+ */
+@Service
+@Slf4j
+public class SeasonChatContextService {
+
+    /**
+     * Rough characters-per-token ratio for Vietnamese text with Gemini tokenizers.
+     */
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final List<TaskStatus> OPEN_TASK_STATUSES = List.of(
+            TaskStatus.OVERDUE, TaskStatus.IN_PROGRESS, TaskStatus.PENDING);
+    private static final List<IncidentStatus> OPEN_INCIDENT_STATUSES = List.of(
+            IncidentStatus.OPEN, IncidentStatus.IN_PROGRESS);
+
+    private final SeasonRepository seasonRepository;
+    private final TaskRepository taskRepository;
+    private final IncidentRepository incidentRepository;
+    private final ExpenseRepository expenseRepository;
+    private final HarvestRepository harvestRepository;
+    private final CurrentUserService currentUserService;
+
+    private final int maxChars;
+    private final long ttlMillis;
+    private final Map<Integer, CachedContext> cache;
+
+    public SeasonChatContextService(
+            SeasonRepository seasonRepository,
+            TaskRepository taskRepository,
+            IncidentRepository incidentRepository,
+            ExpenseRepository expenseRepository,
+            HarvestRepository harvestRepository,
+            CurrentUserService currentUserService,
+            @Value("${app.ai.context.token-budget:400}") int tokenBudget,
+            @Value("${app.ai.context.cache-ttl-minutes:30}") long ttlMinutes,
+            @Value("${app.ai.context.cache-max-entries:1000}") int maxEntries) {
+        this.seasonRepository = seasonRepository;
+        this.taskRepository = taskRepository;
+        this.incidentRepository = incidentRepository;
+        this.expenseRepository = expenseRepository;
+        this.harvestRepository = harvestRepository;
+        this.currentUserService = currentUserService;
+        this.maxChars = Math.max(1, tokenBudget) * CHARS_PER_TOKEN;
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedContext> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Resolve the crop context for a chat turn.
+     * <p>
+     * Without a season the client-supplied context is used unchanged. With a
+     * season owned by the current farmer, the cached server summary is used and
+     * any client note is appended after it.
+     */
+    @Transactional(readOnly = true)
+    public String resolveCropContext(Integer seasonId, String clientContext) {
+        if (seasonId == null) {
+            return clientContext;
+        }
+
+        Long ownerId = currentUserService.getCurrentUserId();
+        String summary = getSeasonSummary(seasonId, ownerId);
+
+        if (clientContext == null || clientContext.isBlank()) {
+            return summary;
+        }
+        return summary + "\n" + clientContext.trim();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSeasonDataChanged(SeasonDataChangedEvent event) {
+        evict(event.getSeasonId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskCompleted(TaskCompletedEvent event) {
+        evict(event.getSeasonId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onIncidentReported(IncidentReportedEvent event) {
+        evict(event.getSeasonId());
+    }
+
+    void evict(Integer seasonId) {
+        if (seasonId != null && cache.remove(seasonId) != null) {
+            log.debug("Evicted AI crop context for season {}", seasonId);
+        }
+    }
+
+    private String getSeasonSummary(Integer seasonId, Long ownerId) {
+        CachedContext cached = cache.get(seasonId);
+        if (cached != null && cached.isFresh(ttlMillis)) {
+            if (!cached.ownerId().equals(ownerId)) {
+                throw new AppException(ErrorCode.SEASON_NOT_FOUND);
+            }
+            return cached.text();
+        }
+
+        Season season = seasonRepository.findByIdAndFarmOwnerId(seasonId, ownerId)
+                .orElseThrow(() -> new AppException(ErrorCode.SEASON_NOT_FOUND));
+        String text = buildSummary(season);
+        cache.put(seasonId, new CachedContext(ownerId, text, System.currentTimeMillis(), LocalDate.now()));
+        return text;
+    }
+
+    /**
+     * Lines are added in priority order; once the budget is reached the
+     * remaining (less important) lines are dropped.
+     */
+    String buildSummary(Season season) {
+        Integer seasonId = season.getId();
+        List<String> lines = new ArrayList<>();
+
+        lines.add("M\u00F9a v\u1EE5: " + season.getSeasonName()
+                + (season.getStatus() != null ? " (" + season.getStatus().getDisplayName() + ")" : ""));
+
+        StringBuilder crop = new StringBuilder("C\u00E2y tr\u1ED3ng: ");
+        crop.append(season.getCrop() != null ? season.getCrop().getCropName() : "?");
+        if (season.getVariety() != null) {
+            crop.append(", gi\u1ED1ng ").append(season.getVariety().getName());
+        }
+        lines.add(crop.toString());
+
+        Plot plot = season.getPlot();
+        if (plot != null) {
+            StringBuilder plotLine = new StringBuilder("L\u00F4 \u0111\u1EA5t: ").append(plot.getPlotName());
+            if (plot.getArea() != null) {
+                plotLine.append(", ").append(plot.getArea().stripTrailingZeros().toPlainString()).append(" ha");
+            }
+            if (plot.getSoilType() != null && !plot.getSoilType().isBlank()) {
+                plotLine.append(", \u0111\u1EA5t ").append(plot.getSoilType());
+            }
+            lines.add(plotLine.toString());
+        }
+
+        StringBuilder timeline = new StringBuilder("Th\u1EDDi gian: b\u1EAFt \u0111\u1EA7u ").append(format(season.getStartDate()));
+        if (season.getPlannedHarvestDate() != null) {
+            timeline.append(", d\u1EF1 ki\u1EBFn thu ho\u1EA1ch ").append(format(season.getPlannedHarvestDate()));
+        }
+        if (season.getStartDate() != null && !season.getStartDate().isAfter(LocalDate.now())) {
+            long day = ChronoUnit.DAYS.between(season.getStartDate(), LocalDate.now()) + 1;
+            timeline.append(", ng\u00E0y th\u1EE9 ").append(day);
+        }
+        lines.add(timeline.toString());
+
+        Map<TaskStatus, Long> taskCounts = new EnumMap<>(TaskStatus.class);
+        taskRepository.countBySeasonIdGroupByStatus(seasonId)
+                .forEach(row -> taskCounts.put(row.getStatus(), row.getTotal()));
+        if (!taskCounts.isEmpty()) {
+            lines.add("C\u00F4ng vi\u1EC7c: " + taskCounts.getOrDefault(TaskStatus.DONE, 0L) + " xong, "
+                    + taskCounts.getOrDefault(TaskStatus.IN_PROGRESS, 0L) + " \u0111ang l\u00E0m, "
+                    + taskCounts.getOrDefault(TaskStatus.PENDING, 0L) + " ch\u1EDD, "
+                    + taskCounts.getOrDefault(TaskStatus.OVERDUE, 0L) + " qu\u00E1 h\u1EA1n");
+        }
+
+        List<Incident> openIncidents = incidentRepository
+                .findTop3BySeason_IdAndStatusInOrderByCreatedAtDesc(seasonId, OPEN_INCIDENT_STATUSES);
+        if (!openIncidents.isEmpty()) {
+            long openCount = incidentRepository.countBySeason_IdAndStatusIn(seasonId, OPEN_INCIDENT_STATUSES);
+            StringBuilder incidents = new StringBuilder("S\u1EF1 c\u1ED1 \u0111ang m\u1EDF (").append(openCount).append("): ");
+            for (int i = 0; i < openIncidents.size(); i++) {
+                Incident incident = openIncidents.get(i);
+                if (i > 0) {
+                    incidents.append("; ");
+                }
+                incidents.append(incident.getIncidentType());
+                if (incident.getSeverity() != null) {
+                    incidents.append(" (").append(incident.getSeverity().name()).append(")");
+                }
+            }
+            lines.add(incidents.toString());
+        }
+
+        List<Task> upcoming = taskRepository.findTop5BySeason_IdAndStatusInOrderByDueDateAsc(
+                seasonId, OPEN_TASK_STATUSES);
+        if (!upcoming.isEmpty()) {
+            StringBuilder tasks = new StringBuilder("Vi\u1EC7c s\u1EAFp t\u1EDBi: ");
+            for (int i = 0; i < upcoming.size(); i++) {
+                Task task = upcoming.get(i);
+                if (i > 0) {
+                    tasks.append("; ");
+                }
+                tasks.append(task.getTitle());
+                if (task.getDueDate() != null) {
+                    tasks.append(" (h\u1EA1n ").append(format(task.getDueDate())).append(")");
+                }
+            }
+            lines.add(tasks.toString());
+        }
+
+        BigDecimal totalExpense = expenseRepository.sumTotalCostBySeasonId(seasonId);
+        if (totalExpense != null && totalExpense.signum() > 0) {
+            lines.add("Chi ph\u00ED \u0111\u00E3 ghi: " + totalExpense.stripTrailingZeros().toPlainString() + " VND");
+        }
+
+        BigDecimal harvested = harvestRepository.sumQuantityBySeasonId(seasonId);
+        if (harvested != null && harvested.signum() > 0) {
+            lines.add("\u0110\u00E3 thu ho\u1EA1ch: " + harvested.stripTrailingZeros().toPlainString() + " kg");
+        }
+
+        return joinWithinBudget(lines);
+    }
+
+    private String joinWithinBudget(List<String> lines) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            int needed = line.length() + (sb.length() > 0 ? 1 : 0);
+            if (sb.length() + needed > maxChars) {
+                if (sb.length() == 0) {
+                    sb.append(line, 0, maxChars);
+                }
+                break;
+            }
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(line);
+        }
+        return sb.toString();
+    }
+
+    private String format(LocalDate date) {
+        return date != null ? date.format(DATE_FORMAT) : "?";
+    }
+
+    private record CachedContext(Long ownerId, String text, long builtAtMillis, LocalDate builtOn) {
+
+        boolean isFresh(long ttlMillis) {
+            return System.currentTimeMillis() - builtAtMillis < ttlMillis && LocalDate.now().equals(builtOn);
+        }
+    }
+}
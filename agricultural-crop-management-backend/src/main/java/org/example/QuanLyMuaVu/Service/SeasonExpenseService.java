@@ -15,9 +15,11 @@ import org.example.QuanLyMuaVu.Entity.User;
 import org.example.QuanLyMuaVu.Enums.SeasonStatus;
 import org.example.QuanLyMuaVu.Exception.AppException;
 import org.example.QuanLyMuaVu.Exception.ErrorCode;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
 import org.example.QuanLyMuaVu.Repository.ExpenseRepository;
 import org.example.QuanLyMuaVu.Repository.SeasonRepository;
 import org.example.QuanLyMuaVu.Repository.TaskRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -46,6 +48,7 @@ public class SeasonExpenseService {
     SeasonRepository seasonRepository;
     TaskRepository taskRepository;
     FarmAccessService farmAccessService;
+    ApplicationEventPublisher eventPublisher;
 
     // ═══════════════════════════════════════════════════════════════════════════
     // BR176: CreateExpense(Expense expense) - Create Expense with Full Validation
@@ -114,6 +117,7 @@ public class SeasonExpenseService {
                 .build();
 
         Expense saved = expenseRepository.save(expense);
+        publishSeasonDataChanged(saved.getSeason());
 
         // BR176: Step (7) - Return success (MSG 7 handled by controller)
         return toResponse(saved);
@@ -200,6 +204,7 @@ public class SeasonExpenseService {
         expense.setExpenseDate(request.getExpenseDate());
 
         Expense saved = expenseRepository.save(expense);
+        publishSeasonDataChanged(saved.getSeason());
 
         // BR180: Step (8) - Return success (MSG 7 handled by controller)
         return toResponse(saved);
@@ -223,6 +228,7 @@ public class SeasonExpenseService {
         ensureSeasonOpenForExpenses(expense.getSeason());
 
         expenseRepository.delete(expense);
+        publishSeasonDataChanged(expense.getSeason());
         // BR183: Step (7) - Success (MSG 7 handled by controller)
     }
 
@@ -608,4 +614,10 @@ public class SeasonExpenseService {
                 .totalCost(expense.getTotalCost())
                 .build();
     }
+
+    private void publishSeasonDataChanged(Season season) {
+        if (season != null) {
+            eventPublisher.publishEvent(new SeasonDataChangedEvent(season.getId(), "EXPENSE"));
+        }
+    }
 }
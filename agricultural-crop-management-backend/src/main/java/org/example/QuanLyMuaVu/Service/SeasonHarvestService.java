@@ -15,8 +15,10 @@ import org.example.QuanLyMuaVu.Enums.SeasonStatus;
 import org.example.QuanLyMuaVu.Exception.AppException;
 import org.example.QuanLyMuaVu.Exception.ErrorCode;
 import org.example.QuanLyMuaVu.Mapper.HarvestMapper;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
 import org.example.QuanLyMuaVu.Repository.HarvestRepository;
 import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -40,6 +42,7 @@ public class SeasonHarvestService {
     SeasonRepository seasonRepository;
     HarvestMapper harvestMapper;
     FarmAccessService farmAccessService;
+    ApplicationEventPublisher eventPublisher;
 
     /**
      * List all harvests for the current farmer's seasons (supports "All Seasons"
@@ -237,6 +240,7 @@ public class SeasonHarvestService {
                 .build();
 
         Harvest saved = harvestRepository.save(harvest);
+        publishSeasonDataChanged(saved.getSeason());
         recomputeSeasonActualYield(season);
         return harvestMapper.toResponse(saved);
     }
@@ -258,6 +262,7 @@ public class SeasonHarvestService {
         harvest.setNote(request.getNote());
 
         Harvest saved = harvestRepository.save(harvest);
+        publishSeasonDataChanged(saved.getSeason());
         recomputeSeasonActualYield(harvest.getSeason());
         return harvestMapper.toResponse(saved);
     }
@@ -268,6 +273,7 @@ public class SeasonHarvestService {
 
         Season season = harvest.getSeason();
         harvestRepository.delete(harvest);
+        publishSeasonDataChanged(harvest.getSeason());
         if (season != null) {
             recomputeSeasonActualYield(season);
         }
@@ -326,5 +332,12 @@ public class SeasonHarvestService {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         season.setActualYieldKg(total);
         seasonRepository.save(season);
+        publishSeasonDataChanged(season);
+    }
+
+    private void publishSeasonDataChanged(Season season) {
+        if (season != null) {
+            eventPublisher.publishEvent(new SeasonDataChangedEvent(season.getId(), "HARVEST"));
+        }
     }
 }
@@ -0,0 +1,371 @@
+package org.example.QuanLyMuaVu.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.Entity.Farm;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository.SearchEntry;
+import org.example.QuanLyMuaVu.Repository.SeasonSearchVersionRepository;
+import org.example.QuanLyMuaVu.Util.TextFoldingUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * In-memory keyword index over season, plot and crop names, one per farm
+ * owner.
+ * <p>
+ * Names are folded (lower case, Vietnamese diacritics removed) and split into
+ * words. Each owner's index keeps the sorted word list for prefix lookups and
+ * the trigrams of every word for infix matches, so "lua" finds "L\u00faa h\u00e8 thu"
+ * and "ua" finds words starting with it. Every query token must match; each
+ * token scores its best field (season name, then plot, then crop) and, within
+ * the field, its match quality (whole word, prefix, infix), so any season-name
+ * match outranks any crop-name match. Hits are ranked by the summed token
+ * scores, then newest start date, and only the top K are kept.
+ * <p>
+ * An owner's index is built with one query on first search and kept in a
+ * bounded cache, tagged with the owner's row in {@code season_search_versions}
+ * and the crop catalog version. Season and plot writes increment the owner's
+ * row in their transaction; every search reads both versions and rebuilds a
+ * stale index, so writes through any node are seen once they commit.
+ */
+@Component
+@Slf4j
+public class SeasonSearchIndex {
+
+    private static final int FIELDS = 3;
+    /**
+     * Match qualities per field: infix 1, prefix 2, whole word 3.
+     */
+    private static final int QUALITIES = 4;
+    private static final int GRAM = 3;
+    /**
+     * Upper bound on index words a short token may expand to.
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+
+    private final SeasonRepository seasonRepository;
+    private final SeasonSearchVersionRepository seasonSearchVersionRepository;
+    private final CatalogVersions catalogVersions;
+    private final Cache<Long, Snapshot> snapshots;
+    private final int maxResults;
+
+    public SeasonSearchIndex(
+            SeasonRepository seasonRepository,
+            SeasonSearchVersionRepository seasonSearchVersionRepository,
+            CatalogVersions catalogVersions,
+            @Value("${app.search.seasons.max-owners:1000}") int maxOwners,
+            @Value("${app.search.seasons.ttl-minutes:30}") long ttlMinutes,
+            @Value("${app.search.seasons.max-results:50}") int maxResults) {
+        this.seasonRepository = seasonRepository;
+        this.seasonSearchVersionRepository = seasonSearchVersionRepository;
+        this.catalogVersions = catalogVersions;
+        // The TTL only bounds staleness from writes that bypass the hooks.
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxOwners))
+                .expireAfterWrite(Duration.ofMinutes(Math.max(1, ttlMinutes)))
+                .build();
+        this.maxResults = Math.max(1, maxResults);
+    }
+
+    /**
+     * Ids of the owner's seasons matching every query token, best first.
+     *
+     * @param limit requested results; capped at {@code app.search.seasons.max-results}
+     */
+    public List<Integer> search(Long ownerId, String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(TextFoldingUtils.tokenize(query)));
+        if (ownerId == null || tokens.isEmpty()) {
+            return List.of();
+        }
+        return snapshotFor(ownerId).search(tokens, Math.min(Math.max(1, limit), maxResults));
+    }
+
+    /**
+     * Record a write to seasons or plots of the plot's farm owner: the owner's
+     * version is incremented in the current transaction (so every node
+     * rebuilds on its next search) and this node's index is dropped once it
+     * commits (or now when there is none).
+     */
+    public void invalidateAfterCommit(Plot plot) {
+        Farm farm = plot != null ? plot.getFarm() : null;
+        if (farm == null || farm.getOwner() == null) {
+            return;
+        }
+        Long ownerId = farm.getOwner().getId();
+        seasonSearchVersionRepository.increment(ownerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(ownerId);
+                }
+            });
+        } else {
+            invalidate(ownerId);
+        }
+    }
+
+    /**
+     * Drop the owner's index. A build in progress for the owner is discarded
+     * too, so it cannot publish data read before the write.
+     */
+    public void invalidate(Long ownerId) {
+        if (ownerId != null) {
+            snapshots.invalidate(ownerId);
+        }
+    }
+
+    private Snapshot snapshotFor(Long ownerId) {
+        // Versions are read before the entries, so a write racing the build
+        // leaves the snapshot tagged older and it is rebuilt on the next search.
+        long ownerVersion = seasonSearchVersionRepository.findVersion(ownerId).orElse(0L);
+        long cropVersion = catalogVersions.version(CatalogVersions.Catalog.CROPS);
+        Snapshot current = snapshots.get(ownerId, id -> build(id, ownerVersion, cropVersion));
+        if (current.ownerVersion != ownerVersion || current.cropVersion != cropVersion) {
+            snapshots.invalidate(ownerId);
+            current = snapshots.get(ownerId, id -> build(id, ownerVersion, cropVersion));
+        }
+        return current;
+    }
+
+    private Snapshot build(Long ownerId, long ownerVersion, long cropVersion) {
+        long start = System.nanoTime();
+        Snapshot built = Snapshot.build(seasonRepository.findSearchEntriesByFarmOwnerId(ownerId), ownerVersion,
+                cropVersion);
+        log.debug("Season search index built: owner={}, seasons={}, took={}ms",
+                ownerId, built.seasonIds.length, (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    private record Hit(int season, int score, long startDay, int id) {
+
+        /**
+         * Lowest score first; on equal score the older season is worse.
+         */
+        static final Comparator<Hit> WORST_FIRST = Comparator
+                .comparingInt(Hit::score)
+                .thenComparingLong(Hit::startDay)
+                .thenComparingInt(Hit::id);
+    }
+
+    /**
+     * Immutable index of one owner's seasons. Season ordinals index the
+     * parallel arrays; posting lists hold sorted ordinals.
+     */
+    static final class Snapshot {
+
+        private final long ownerVersion;
+        private final long cropVersion;
+        private final int[] seasonIds;
+        private final long[] startDays;
+        private final String[][][] words;
+        private final String[] terms;
+        private final int[][] termPostings;
+        private final Map<String, int[]> gramPostings;
+
+        private Snapshot(long ownerVersion, long cropVersion, int[] seasonIds, long[] startDays, String[][][] words, String[] terms,
+                int[][] termPostings, Map<String, int[]> gramPostings) {
+            this.ownerVersion = ownerVersion;
+            this.cropVersion = cropVersion;
+            this.seasonIds = seasonIds;
+            this.startDays = startDays;
+            this.words = words;
+            this.terms = terms;
+            this.termPostings = termPostings;
+            this.gramPostings = gramPostings;
+        }
+
+        static Snapshot build(List<SearchEntry> entries, long ownerVersion, long cropVersion) {
+            int size = entries.size();
+            int[] ids = new int[size];
+            long[] startDays = new long[size];
+            String[][][] words = new String[size][][];
+            TreeMap<String, List<Integer>> terms = new TreeMap<>();
+            Map<String, List<Integer>> grams = new HashMap<>();
+
+            for (int season = 0; season < size; season++) {
+                SearchEntry entry = entries.get(season);
+                ids[season] = entry.getId();
+                startDays[season] = entry.getStartDate() != null ? entry.getStartDate().toEpochDay() : Long.MIN_VALUE;
+                words[season] = new String[][] {
+                        fieldWords(entry.getSeasonName()),
+                        fieldWords(entry.getPlotName()),
+                        fieldWords(entry.getCropName())
+                };
+                for (String[] field : words[season]) {
+                    for (String word : field) {
+                        addPosting(terms.computeIfAbsent(word, k -> new ArrayList<>()), season);
+                        for (int i = 0; i + GRAM <= word.length(); i++) {
+                            addPosting(grams.computeIfAbsent(word.substring(i, i + GRAM), k -> new ArrayList<>()),
+                                    season);
+                        }
+                    }
+                }
+            }
+
+            String[] termArray = terms.keySet().toArray(new String[0]);
+            int[][] termPostings = new int[termArray.length][];
+            for (int t = 0; t < termArray.length; t++) {
+                termPostings[t] = toArray(terms.get(termArray[t]));
+            }
+            Map<String, int[]> gramPostings = new HashMap<>(grams.size() * 2);
+            grams.forEach((gram, list) -> gramPostings.put(gram, toArray(list)));
+            return new Snapshot(ownerVersion, cropVersion, ids, startDays, words, termArray, termPostings, gramPostings);
+        }
+
+        List<Integer> search(List<String> tokens, int limit) {
+            List<int[]> candidates = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                int[] matches = candidates(token);
+                if (matches.length == 0) {
+                    return List.of();
+                }
+                candidates.add(matches);
+            }
+            // Drive from the most selective token; check the others per season.
+            int driver = 0;
+            for (int i = 1; i < candidates.size(); i++) {
+                if (candidates.get(i).length < candidates.get(driver).length) {
+                    driver = i;
+                }
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit, Hit.WORST_FIRST);
+            for (int season : candidates.get(driver)) {
+                int score = 0;
+                for (String token : tokens) {
+                    int tokenScore = score(season, token);
+                    if (tokenScore == 0) {
+                        score = 0;
+                        break;
+                    }
+                    score += tokenScore;
+                }
+                if (score == 0) {
+                    continue;
+                }
+                Hit hit = new Hit(season, score, startDays[season], seasonIds[season]);
+                if (top.size() < limit) {
+                    top.add(hit);
+                } else if (Hit.WORST_FIRST.compare(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort(Collections.reverseOrder(Hit.WORST_FIRST));
+            List<Integer> result = new ArrayList<>(ranked.size());
+            for (Hit hit : ranked) {
+                result.add(hit.id());
+            }
+            return result;
+        }
+
+        /**
+         * Seasons that may contain the token: trigram intersection for tokens
+         * of three or more characters (verified later), word prefixes for
+         * shorter ones.
+         */
+        private int[] candidates(String token) {
+            if (token.length() >= GRAM) {
+                int[] result = null;
+                for (int i = 0; i + GRAM <= token.length(); i++) {
+                    int[] postings = gramPostings.get(token.substring(i, i + GRAM));
+                    if (postings == null) {
+                        return new int[0];
+                    }
+                    result = result == null ? postings : intersect(result, postings);
+                    if (result.length == 0) {
+                        return result;
+                    }
+                }
+                return result;
+            }
+            int from = Arrays.binarySearch(terms, token);
+            if (from < 0) {
+                from = -from - 1;
+            }
+            BitSet seasons = new BitSet(seasonIds.length);
+            for (int t = from, n = 0; t < terms.length && n < MAX_PREFIX_EXPANSIONS
+                    && terms[t].startsWith(token); t++, n++) {
+                for (int season : termPostings[t]) {
+                    seasons.set(season);
+                }
+            }
+            return seasons.stream().toArray();
+        }
+
+        /**
+         * Best match of the token in the season, 0 when absent. Ordered by
+         * field first and quality second: (FIELDS - field) * QUALITIES + quality.
+         */
+        private int score(int season, String token) {
+            String[][] fields = words[season];
+            for (int f = 0; f < fields.length; f++) {
+                int quality = 0;
+                for (String word : fields[f]) {
+                    quality = Math.max(quality, word.equals(token) ? 3
+                            : word.startsWith(token) ? 2
+                            : token.length() >= GRAM && word.contains(token) ? 1
+                            : 0);
+                }
+                if (quality > 0) {
+                    return (FIELDS - f) * QUALITIES + quality;
+                }
+            }
+            return 0;
+        }
+
+        private static String[] fieldWords(String text) {
+            return TextFoldingUtils.tokenize(text).toArray(new String[0]);
+        }
+
+        private static void addPosting(List<Integer> postings, int season) {
+            if (postings.isEmpty() || postings.get(postings.size() - 1) != season) {
+                postings.add(season);
+            }
+        }
+
+        private static int[] toArray(List<Integer> postings) {
+            return postings.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] out = new int[Math.min(a.length, b.length)];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    out[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+}
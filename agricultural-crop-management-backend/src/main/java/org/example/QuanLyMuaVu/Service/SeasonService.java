@@ -21,6 +21,8 @@ import org.example.QuanLyMuaVu.Enums.SeasonStatus;
 import org.example.QuanLyMuaVu.Exception.AppException;
 import org.example.QuanLyMuaVu.Exception.ErrorCode;
 import org.example.QuanLyMuaVu.Mapper.SeasonMapper;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonCreatedEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
 import org.example.QuanLyMuaVu.Repository.CropRepository;
 import org.example.QuanLyMuaVu.Repository.ExpenseRepository;
 import org.example.QuanLyMuaVu.Repository.FieldLogRepository;
@@ -32,6 +34,7 @@ import org.example.QuanLyMuaVu.Repository.VarietyRepository;
 import org.example.QuanLyMuaVu.Service.Season.SeasonQueryService;
 import org.example.QuanLyMuaVu.Service.Season.SeasonStatusService;
 import org.example.QuanLyMuaVu.Service.Season.SeasonValidationService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -72,6 +75,9 @@ public class SeasonService {
     SeasonStatusService statusService;
     SeasonValidationService validationService;
     FarmAccessService farmAccessService;
+    ApplicationEventPublisher eventPublisher;
+    DomainEventOutbox domainEventOutbox;
+    SeasonSearchIndex seasonSearchIndex;
 
     // =========================================================================
     // LEGACY METHODS (Backward Compatibility)
@@ -141,8 +147,8 @@ public class SeasonService {
         return queryService.getSeasonForCurrentFarmer(id);
     }
 
-    public List<SeasonResponse> searchSeasonsByKeyword(String keyword) {
-        return queryService.searchSeasonsByKeyword(keyword);
+    public List<SeasonResponse> searchSeasonsByKeyword(String keyword, int limit) {
+        return queryService.searchSeasonsByKeyword(keyword, limit);
     }
 
     public Season getSeasonById(Integer id) {
@@ -233,6 +239,8 @@ public class SeasonService {
                 .build();
 
         Season saved = seasonRepository.save(season);
+        domainEventOutbox.append(new SeasonCreatedEvent(saved));
+        seasonSearchIndex.invalidateAfterCommit(plot);
         return seasonMapper.toDetailResponse(saved);
     }
 
@@ -296,6 +304,8 @@ public class SeasonService {
         }
 
         Season saved = seasonRepository.save(season);
+        publishSeasonDataChanged(saved);
+        seasonSearchIndex.invalidateAfterCommit(saved.getPlot());
         return seasonMapper.toDetailResponse(saved);
     }
 
@@ -341,5 +351,13 @@ public class SeasonService {
         }
 
         seasonRepository.delete(season);
+        publishSeasonDataChanged(season);
+        seasonSearchIndex.invalidateAfterCommit(season.getPlot());
+    }
+
+    private void publishSeasonDataChanged(Season season) {
+        if (season != null) {
+            eventPublisher.publishEvent(new SeasonDataChangedEvent(season.getId(), "SEASON"));
+        }
     }
 }
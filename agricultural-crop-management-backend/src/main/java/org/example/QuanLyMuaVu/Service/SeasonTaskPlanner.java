@@ -0,0 +1,247 @@
+package org.example.QuanLyMuaVu.Service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.Entity.Farm;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.Task;
+import org.example.QuanLyMuaVu.Entity.TaskTemplate;
+import org.example.QuanLyMuaVu.Entity.User;
+import org.example.QuanLyMuaVu.Enums.SeasonStatus;
+import org.example.QuanLyMuaVu.Enums.TaskStatus;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonCreatedEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.example.QuanLyMuaVu.Repository.TaskRepository;
+import org.example.QuanLyMuaVu.Repository.TaskTemplateRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates whole task schedules of a season at once.
+ * <p>
+ * {@link #insertAll} writes new tasks with one JDBC batch (multi-row INSERTs
+ * with {@code rewriteBatchedStatements}) instead of one Hibernate insert per
+ * task, which IDENTITY ids cannot batch. It is shared by the bulk create
+ * endpoint and by template generation: when a season is created, its crop's
+ * (or variety's) {@link TaskTemplate}s are turned into tasks dated from the
+ * season start date.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class SeasonTaskPlanner {
+
+    static final String INSERT_SQL = "INSERT INTO tasks (user_id, season_id, title, description, planned_date, "
+            + "due_date, status, notes, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    static final String UPDATED_AT_SQL = "SELECT task_id, updated_at FROM tasks WHERE task_id IN (";
+
+    JdbcTemplate jdbcTemplate;
+    TaskTemplateRepository taskTemplateRepository;
+    SeasonRepository seasonRepository;
+    TaskRepository taskRepository;
+    ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Insert new tasks in one batch, joining the caller's transaction.
+     * Sets id, status PENDING when unset (OVERDUE when the due date has
+     * already passed, as single creates do), created_at, and updated_at as
+     * stamped by the database. Throws when the driver does not return a key
+     * per task, so the transaction rolls back.
+     *
+     * @return the same tasks
+     */
+    public List<Task> insertAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        for (Task task : tasks) {
+            if (task.getStatus() == null) {
+                task.setStatus(TaskStatus.PENDING);
+            }
+            if (task.getStatus() == TaskStatus.PENDING && task.getDueDate() != null
+                    && task.getDueDate().isBefore(today)) {
+                task.setStatus(TaskStatus.OVERDUE);
+            }
+            task.setCreatedAt(now);
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[] { "task_id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Task task = tasks.get(i);
+                        ps.setLong(1, task.getUser().getId());
+                        ps.setInt(2, task.getSeason().getId());
+                        ps.setString(3, task.getTitle());
+                        ps.setString(4, task.getDescription());
+                        setDate(ps, 5, task.getPlannedDate());
+                        setDate(ps, 6, task.getDueDate());
+                        ps.setString(7, task.getStatus().name());
+                        ps.setString(8, task.getNotes());
+                        ps.setTimestamp(9, Timestamp.valueOf(task.getCreatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return tasks.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != tasks.size()) {
+            throw new IllegalStateException("Driver returned " + keys.size() + " keys for " + tasks.size() + " tasks");
+        }
+        Map<Integer, Task> byId = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Object key = keys.get(i).values().iterator().next();
+            tasks.get(i).setId(((Number) key).intValue());
+            byId.put(tasks.get(i).getId(), tasks.get(i));
+        }
+        jdbcTemplate.query(UPDATED_AT_SQL + String.join(", ", Collections.nCopies(byId.size(), "?")) + ")",
+                (RowCallbackHandler) rs -> byId.get(rs.getInt(1)).setUpdatedAt(rs.getTimestamp(2).toLocalDateTime()),
+                byId.keySet().toArray());
+        return tasks;
+    }
+
+    /**
+     * Materialize the template schedule of a newly created season.
+     * <p>
+     * Runs when the outbox delivers the event; a failure is retried by the
+     * outbox. Seasons that already have tasks are left alone, so a redelivered
+     * event does not create the schedule twice.
+     */
+    @EventListener
+    @Transactional
+    public void onSeasonCreated(SeasonCreatedEvent event) {
+        if (event.getSeasonId() != null) {
+            generateFromTemplates(event.getSeasonId());
+        }
+    }
+
+    /**
+     * Create the season's tasks from its crop or variety templates.
+     *
+     * @return number of tasks created
+     */
+    @Transactional
+    public int generateFromTemplates(Integer seasonId) {
+        Season season = seasonRepository.findById(seasonId).orElse(null);
+        if (season == null || season.getStartDate() == null || isClosed(season.getStatus())
+                || taskRepository.existsBySeason_Id(seasonId)) {
+            return 0;
+        }
+        List<TaskTemplate> templates = templatesFor(season);
+        if (templates.isEmpty()) {
+            return 0;
+        }
+        User owner = ownerOf(season);
+        if (owner == null) {
+            log.warn("Season {} has no owner, skipping task templates", seasonId);
+            return 0;
+        }
+
+        LocalDate start = season.getStartDate();
+        LocalDate end = season.getEndDate() != null ? season.getEndDate() : season.getPlannedHarvestDate();
+        List<Task> tasks = new ArrayList<>(templates.size());
+        for (TaskTemplate template : templates) {
+            LocalDate planned = start.plusDays(template.getPlannedOffsetDays());
+            if (end != null && planned.isAfter(end)) {
+                continue;
+            }
+            LocalDate due = template.getDueOffsetDays() != null
+                    ? start.plusDays(template.getDueOffsetDays())
+                    : null;
+            if (due != null && end != null && due.isAfter(end)) {
+                due = end;
+            }
+            tasks.add(Task.builder()
+                    .user(owner)
+                    .season(season)
+                    .title(template.getTitle())
+                    .description(template.getDescription())
+                    .plannedDate(planned)
+                    .dueDate(due)
+                    .status(TaskStatus.PENDING)
+                    .build());
+        }
+
+        insertAll(tasks);
+        if (!tasks.isEmpty()) {
+            eventPublisher.publishEvent(new SeasonDataChangedEvent(seasonId, "TASK"));
+        }
+        log.info("Created {} tasks from templates for season {}", tasks.size(), seasonId);
+        return tasks.size();
+    }
+
+    private List<TaskTemplate> templatesFor(Season season) {
+        if (season.getVariety() != null) {
+            List<TaskTemplate> varietyTemplates = taskTemplateRepository
+                    .findAllByVariety_IdOrderBySortOrderAscIdAsc(season.getVariety().getId());
+            if (!varietyTemplates.isEmpty()) {
+                return varietyTemplates;
+            }
+        }
+        if (season.getCrop() == null) {
+            return List.of();
+        }
+        return taskTemplateRepository.findAllByCrop_IdAndVarietyIsNullOrderBySortOrderAscIdAsc(
+                season.getCrop().getId());
+    }
+
+    private static User ownerOf(Season season) {
+        Plot plot = season.getPlot();
+        if (plot == null) {
+            return null;
+        }
+        Farm farm = plot.getFarm();
+        if (farm != null && farm.getOwner() != null) {
+            return farm.getOwner();
+        }
+        return plot.getUser();
+    }
+
+    private static boolean isClosed(SeasonStatus status) {
+        return status == SeasonStatus.COMPLETED
+                || status == SeasonStatus.CANCELLED
+                || status == SeasonStatus.ARCHIVED;
+    }
+
+    private static void setDate(PreparedStatement ps, int index, LocalDate date) throws SQLException {
+        if (date == null) {
+            ps.setNull(index, Types.DATE);
+        } else {
+            ps.setDate(index, Date.valueOf(date));
+        }
+    }
+}
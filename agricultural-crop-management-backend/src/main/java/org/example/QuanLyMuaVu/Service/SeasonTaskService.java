@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.example.QuanLyMuaVu.DTO.Common.PageResponse;
+import org.example.QuanLyMuaVu.DTO.Request.BulkCreateTaskRequest;
 import org.example.QuanLyMuaVu.DTO.Request.CreateTaskRequest;
 import org.example.QuanLyMuaVu.DTO.Request.UpdateTaskRequest;
 import org.example.QuanLyMuaVu.DTO.Request.UpdateTaskStatusRequest;
@@ -15,8 +16,11 @@ import org.example.QuanLyMuaVu.Enums.SeasonStatus;
 import org.example.QuanLyMuaVu.Enums.TaskStatus;
 import org.example.QuanLyMuaVu.Exception.AppException;
 import org.example.QuanLyMuaVu.Exception.ErrorCode;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.TaskCompletedEvent;
 import org.example.QuanLyMuaVu.Repository.SeasonRepository;
 import org.example.QuanLyMuaVu.Repository.TaskRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -27,6 +31,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 
@@ -39,6 +44,10 @@ public class SeasonTaskService {
     TaskRepository taskRepository;
     SeasonRepository seasonRepository;
     FarmAccessService farmAccessService;
+    ApplicationEventPublisher eventPublisher;
+    DomainEventOutbox domainEventOutbox;
+    SeasonTaskPlanner seasonTaskPlanner;
+    SyncTombstones syncTombstones;
 
     public PageResponse<TaskResponse> listTasksForSeason(
             Integer seasonId,
@@ -114,10 +123,44 @@ public class SeasonTaskService {
                 .status(TaskStatus.PENDING)
                 .build();
 
+        // Check if task should be OVERDUE immediately
+        if (due != null && due.isBefore(LocalDate.now())) {
+            task.setStatus(TaskStatus.OVERDUE);
+        }
+
         Task saved = taskRepository.save(task);
+        publishSeasonDataChanged(saved.getSeason());
         return toResponse(saved);
     }
 
+    /**
+     * Create many tasks of one season with the same checks as
+     * {@link #createTask}, written in a single batch; all or none are created.
+     */
+    public List<TaskResponse> createTasks(Integer seasonId, BulkCreateTaskRequest request) {
+        Season season = getSeasonForCurrentFarmer(seasonId);
+        ensureSeasonOpenForTasks(season, true);
+
+        User currentUser = getCurrentUser();
+        List<Task> tasks = new ArrayList<>(request.getTasks().size());
+        for (CreateTaskRequest item : request.getTasks()) {
+            validateTaskDatesWithinSeason(season, item.getPlannedDate(), item.getDueDate(), null, null);
+            tasks.add(Task.builder()
+                    .user(currentUser)
+                    .season(season)
+                    .title(item.getTitle())
+                    .description(item.getDescription())
+                    .plannedDate(item.getPlannedDate())
+                    .dueDate(item.getDueDate())
+                    .status(TaskStatus.PENDING)
+                    .build());
+        }
+
+        seasonTaskPlanner.insertAll(tasks);
+        publishSeasonDataChanged(season);
+        return tasks.stream().map(this::toResponse).toList();
+    }
+
     public TaskResponse getTask(Integer id) {
         Task task = getTaskForCurrentFarmer(id);
         return toResponse(task);
@@ -141,7 +184,8 @@ public class SeasonTaskService {
         task.setPlannedDate(planned);
         task.setDueDate(due);
 
-        Task saved = taskRepository.save(task);
+        Task saved = taskRepository.saveAndFlush(task);
+        publishSeasonDataChanged(saved.getSeason());
         return toResponse(saved);
     }
 
@@ -187,7 +231,11 @@ public class SeasonTaskService {
             task.setNotes(request.getNotes());
         }
 
-        Task saved = taskRepository.save(task);
+        Task saved = taskRepository.saveAndFlush(task);
+        publishSeasonDataChanged(saved.getSeason());
+        if (targetStatus == TaskStatus.DONE && currentStatus != TaskStatus.DONE) {
+            domainEventOutbox.append(new TaskCompletedEvent(saved, currentStatus));
+        }
         return toResponse(saved);
     }
 
@@ -200,6 +248,8 @@ public class SeasonTaskService {
         }
 
         taskRepository.delete(task);
+        syncTombstones.taskDeleted(task);
+        publishSeasonDataChanged(task.getSeason());
     }
 
     private boolean isValidStatusTransition(TaskStatus currentStatus, TaskStatus targetStatus) {
@@ -320,6 +370,13 @@ public class SeasonTaskService {
                 .actualEndDate(task.getActualEndDate())
                 .notes(task.getNotes())
                 .createdAt(task.getCreatedAt())
+                .updatedAt(task.getUpdatedAt())
                 .build();
     }
+
+    private void publishSeasonDataChanged(Season season) {
+        if (season != null) {
+            eventPublisher.publishEvent(new SeasonDataChangedEvent(season.getId(), "TASK"));
+        }
+    }
 }
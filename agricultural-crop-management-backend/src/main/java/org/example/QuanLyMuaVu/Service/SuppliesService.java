@@ -25,6 +25,8 @@ import org.example.QuanLyMuaVu.Repository.SupplierRepository;
 import org.example.QuanLyMuaVu.Repository.SupplyItemRepository;
 import org.example.QuanLyMuaVu.Repository.SupplyLotRepository;
 import org.example.QuanLyMuaVu.Repository.WarehouseRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -53,6 +55,7 @@ public class SuppliesService {
     // CATALOG: SUPPLIERS
     // ============================================
     @Transactional(readOnly = true)
+    @Cacheable(value = "suppliers", key = "#q + '|' + #pageable")
     public PageResponse<SupplierResponse> getSuppliers(String q, Pageable pageable) {
         String searchQuery = (q != null && !q.isBlank()) ? q.trim() : null;
         Page<Supplier> page = supplierRepository.searchByName(searchQuery, pageable);
@@ -66,6 +69,7 @@ public class SuppliesService {
     // CATALOG: SUPPLY ITEMS
     // ============================================
     @Transactional(readOnly = true)
+    @Cacheable(value = "supplyItems", key = "#q + '|' + #restricted + '|' + #pageable")
     public PageResponse<SupplyItemResponse> getSupplyItems(String q, Boolean restricted, Pageable pageable) {
         String searchQuery = (q != null && !q.isBlank()) ? q.trim() : null;
         Page<SupplyItem> page = supplyItemRepository.searchItems(searchQuery, restricted, pageable);
@@ -79,6 +83,7 @@ public class SuppliesService {
     // CATALOG: SUPPLY LOTS
     // ============================================
     @Transactional(readOnly = true)
+    @Cacheable(value = "supplyLots", key = "#itemId + '|' + #supplierId + '|' + #status + '|' + #q + '|' + #pageable")
     public PageResponse<SupplyLotResponse> getSupplyLots(Integer itemId, Integer supplierId,
             String status, String q, Pageable pageable) {
         String searchQuery = (q != null && !q.isBlank()) ? q.trim() : null;
@@ -93,6 +98,7 @@ public class SuppliesService {
     // ============================================
     // STOCK IN
     // ============================================
+    @CacheEvict(value = "supplyLots", allEntries = true)
     public StockInResponse stockIn(StockInRequest request) {
         // 1. Validate warehouse ownership
         Warehouse warehouse = warehouseRepository.findById(request.getWarehouseId())
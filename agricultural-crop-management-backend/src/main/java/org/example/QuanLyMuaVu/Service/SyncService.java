@@ -0,0 +1,623 @@
+package org.example.QuanLyMuaVu.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.DTO.Request.SyncMutationRequest;
+import org.example.QuanLyMuaVu.DTO.Request.SyncRequest;
+import org.example.QuanLyMuaVu.DTO.Response.SyncDeletionResponse;
+import org.example.QuanLyMuaVu.DTO.Response.SyncMutationResult;
+import org.example.QuanLyMuaVu.DTO.Response.SyncResponse;
+import org.example.QuanLyMuaVu.Entity.FieldLog;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.SyncMutation;
+import org.example.QuanLyMuaVu.Entity.SyncTombstone;
+import org.example.QuanLyMuaVu.Entity.Task;
+import org.example.QuanLyMuaVu.Entity.User;
+import org.example.QuanLyMuaVu.Enums.SyncMutationStatus;
+import org.example.QuanLyMuaVu.Enums.SyncOperation;
+import org.example.QuanLyMuaVu.Enums.TaskStatus;
+import org.example.QuanLyMuaVu.Exception.AppException;
+import org.example.QuanLyMuaVu.Exception.ErrorCode;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.TaskCompletedEvent;
+import org.example.QuanLyMuaVu.Repository.FieldLogRepository;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.example.QuanLyMuaVu.Repository.SyncMutationRepository;
+import org.example.QuanLyMuaVu.Repository.SyncTombstoneRepository;
+import org.example.QuanLyMuaVu.Repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Offline sync of field logs and tasks in one round-trip.
+ * <p>
+ * A request carries the mutations recorded offline, each with a
+ * client-generated id. They are applied in order in one transaction: new
+ * field logs go in with one JDBC batch, edits are flushed by Hibernate in JDBC
+ * batches, deletes run as one statement. Each outcome is stored under
+ * (user, mutation id), so replaying a batch after a timeout returns the first
+ * outcomes instead of writing twice. A replay running concurrently with the
+ * first attempt loses on that key: it is rolled back and run again, and then
+ * finds the stored outcomes. A mutation that fails validation is
+ * rejected on its own; the others still apply.
+ * <p>
+ * The response then carries every field log, task and delete visible to the
+ * user that changed after the request's sync token, read by (updated_at, id)
+ * keyset per kind, at most {@code app.sync.max-changes} each. The database
+ * stamps updated_at and deleted_at when the statement runs, but the row only
+ * shows once its transaction commits; rows younger than
+ * {@code app.sync.settle-seconds} (by the database clock; keep it at least
+ * {@link #TRANSACTION_TIMEOUT_SECONDS}) therefore wait for the next sync, so
+ * a transaction committing after a newer one is not skipped.
+ */
+@Service
+@Slf4j
+public class SyncService {
+
+    /**
+     * Upper bound on one sync transaction, and so the shortest safe settle window.
+     */
+    static final int TRANSACTION_TIMEOUT_SECONDS = 30;
+    static final String BACKFILL_JOB = "sync.backfill";
+    static final String CLEANUP_JOB = "sync.cleanup";
+    static final String FIELD_LOG_INSERT_SQL = "INSERT INTO field_logs (season_id, log_date, log_type, notes, "
+            + "created_at) VALUES (?, ?, ?, ?, ?)";
+    static final String MUTATION_INSERT_SQL = "INSERT INTO sync_mutations (user_id, mutation_id, operation, status, "
+            + "entity_id, error_code, applied_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    static final String DATABASE_NOW_SQL = "SELECT LOCALTIMESTAMP(6)";
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int CLEANUP_BATCH = 1000;
+
+    private final FieldLogRepository fieldLogRepository;
+    private final TaskRepository taskRepository;
+    private final SeasonRepository seasonRepository;
+    private final SyncMutationRepository syncMutationRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final SyncTombstones syncTombstones;
+    private final FieldLogService fieldLogService;
+    private final TaskWorkspaceService taskWorkspaceService;
+    private final FarmAccessService farmAccessService;
+    private final DomainEventOutbox domainEventOutbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobRunner jobRunner;
+    private final TaskScheduler scheduler;
+    private final int maxChanges;
+    private final long settleSeconds;
+    private final int retentionDays;
+
+    public SyncService(
+            FieldLogRepository fieldLogRepository,
+            TaskRepository taskRepository,
+            SeasonRepository seasonRepository,
+            SyncMutationRepository syncMutationRepository,
+            SyncTombstoneRepository syncTombstoneRepository,
+            SyncTombstones syncTombstones,
+            FieldLogService fieldLogService,
+            TaskWorkspaceService taskWorkspaceService,
+            FarmAccessService farmAccessService,
+            DomainEventOutbox domainEventOutbox,
+            ApplicationEventPublisher eventPublisher,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            JobRunner jobRunner,
+            TaskScheduler scheduler,
+            @Value("${app.sync.max-changes:500}") int maxChanges,
+            @Value("${app.sync.settle-seconds:30}") long settleSeconds,
+            @Value("${app.sync.retention-days:30}") int retentionDays) {
+        this.fieldLogRepository = fieldLogRepository;
+        this.taskRepository = taskRepository;
+        this.seasonRepository = seasonRepository;
+        this.syncMutationRepository = syncMutationRepository;
+        this.syncTombstoneRepository = syncTombstoneRepository;
+        this.syncTombstones = syncTombstones;
+        this.fieldLogService = fieldLogService;
+        this.taskWorkspaceService = taskWorkspaceService;
+        this.farmAccessService = farmAccessService;
+        this.domainEventOutbox = domainEventOutbox;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager(),
+                transactionTemplate);
+        this.transactionTemplate.setTimeout(TRANSACTION_TIMEOUT_SECONDS);
+        this.jobRunner = jobRunner;
+        this.scheduler = scheduler;
+        this.maxChanges = Math.max(1, maxChanges);
+        this.settleSeconds = Math.max(0, settleSeconds);
+        if (this.settleSeconds < TRANSACTION_TIMEOUT_SECONDS) {
+            log.warn("app.sync.settle-seconds={} is shorter than the sync transaction timeout ({}s); "
+                    + "late commits may be skipped", this.settleSeconds, TRANSACTION_TIMEOUT_SECONDS);
+        }
+        this.retentionDays = Math.max(1, retentionDays);
+    }
+
+    /**
+     * Apply the client's mutations, then return what changed since its token.
+     */
+    public SyncResponse sync(SyncRequest request) {
+        try {
+            return transactionTemplate.execute(status -> apply(request));
+        } catch (DuplicateKeyException e) {
+            // The same mutations were recorded by a concurrent request that
+            // committed first; this attempt rolled back, the retry replays them.
+            log.info("Sync batch raced with a concurrent replay, answering with the stored outcomes");
+            return transactionTemplate.execute(status -> apply(request));
+        }
+    }
+
+    private SyncResponse apply(SyncRequest request) {
+        SyncToken token = SyncToken.decode(request.getSyncToken());
+        User user = farmAccessService.getCurrentUser();
+        Set<Integer> farmIds = new HashSet<>(farmAccessService.getAccessibleFarmIdsForCurrentUser());
+
+        List<SyncMutationResult> results = request.getMutations() == null || request.getMutations().isEmpty()
+                ? List.of()
+                : new Batch(user, farmIds).run(request.getMutations());
+
+        SyncResponse response = changesSince(user, farmIds, token);
+        response.setResults(results);
+        return response;
+    }
+
+    private SyncResponse changesSince(User user, Set<Integer> farmIds, SyncToken token) {
+        LocalDateTime now = jdbcTemplate.queryForObject(DATABASE_NOW_SQL, Timestamp.class).toLocalDateTime();
+        LocalDateTime upTo = now.minusSeconds(settleSeconds);
+        // Deletes older than the retention are gone, so an old token cannot be
+        // brought up to date; start over.
+        boolean fullResync = token == null || token.deletes().time().isBefore(now.minusDays(retentionDays));
+        if (fullResync) {
+            token = SyncToken.initial(upTo);
+        }
+        Pageable limit = PageRequest.of(0, maxChanges + 1);
+
+        List<FieldLog> logs = farmIds.isEmpty()
+                ? List.of()
+                : fieldLogRepository.findChangedAfter(farmIds, token.logs().time(), token.logs().id().intValue(),
+                        upTo, limit);
+        List<Task> tasks = taskRepository.findChangedAfter(user, token.tasks().time(),
+                token.tasks().id().intValue(), upTo, limit);
+        List<SyncTombstone> tombstones = fullResync
+                ? List.of()
+                : syncTombstoneRepository.findVisibleAfter(farmIds.isEmpty() ? Set.of(-1) : farmIds, user.getId(),
+                        token.deletes().time(), token.deletes().id(), upTo, limit);
+
+        boolean hasMore = logs.size() > maxChanges || tasks.size() > maxChanges || tombstones.size() > maxChanges;
+        logs = logs.subList(0, Math.min(logs.size(), maxChanges));
+        tasks = tasks.subList(0, Math.min(tasks.size(), maxChanges));
+        tombstones = tombstones.subList(0, Math.min(tombstones.size(), maxChanges));
+
+        SyncToken next = new SyncToken(
+                advance(token.logs(), logs.isEmpty() ? null
+                        : Cursor.of(logs.get(logs.size() - 1).getUpdatedAt(), logs.get(logs.size() - 1).getId()),
+                        logs.size() == maxChanges, upTo),
+                advance(token.tasks(), tasks.isEmpty() ? null
+                        : Cursor.of(tasks.get(tasks.size() - 1).getUpdatedAt(), tasks.get(tasks.size() - 1).getId()),
+                        tasks.size() == maxChanges, upTo),
+                advance(token.deletes(), tombstones.isEmpty() ? null
+                        : new Cursor(tombstones.get(tombstones.size() - 1).getDeletedAt(),
+                                tombstones.get(tombstones.size() - 1).getId()),
+                        tombstones.size() == maxChanges, upTo));
+
+        return SyncResponse.builder()
+                .fieldLogs(logs.stream().map(fieldLogService::toResponse).toList())
+                .tasks(tasks.stream().map(taskWorkspaceService::mapToResponse).toList())
+                .deleted(tombstones.stream()
+                        .map(tombstone -> SyncDeletionResponse.builder()
+                                .entityType(tombstone.getEntityType())
+                                .entityId(tombstone.getEntityId())
+                                .deletedAt(tombstone.getDeletedAt())
+                                .build())
+                        .toList())
+                .syncToken(next.encode())
+                .hasMore(hasMore)
+                .fullResync(fullResync)
+                .build();
+    }
+
+    /**
+     * Next cursor of one kind: the last row returned, or {@code upTo} once
+     * everything up to it was returned (keeps idle tokens from expiring).
+     */
+    private static Cursor advance(Cursor current, Cursor last, boolean maybeMore, LocalDateTime upTo) {
+        Cursor next = last != null ? last : current;
+        if (maybeMore) {
+            return next;
+        }
+        Cursor settled = new Cursor(upTo, 0L);
+        return next.compareTo(settled) >= 0 ? next : settled;
+    }
+
+    /**
+     * Fill updated_at of rows written before the column existed, once at
+     * startup (a no-op afterwards). Runs on Spring's scheduler pool so it
+     * does not hold up the main thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        scheduler.schedule(this::backfillUpdatedAt, Instant.now());
+    }
+
+    void backfillUpdatedAt() {
+        jobRunner.run(BACKFILL_JOB, Duration.ofMinutes(10), context -> context.inChunks(
+                fieldLogRepository::backfillUpdatedAt) + context.inChunks(taskRepository::backfillUpdatedAt));
+    }
+
+    /**
+     * Drop delete records and mutation outcomes older than the retention.
+     */
+    @Scheduled(cron = "${app.sync.cleanup-cron:0 30 3 * * *}")
+    public void cleanup() {
+        jobRunner.run(CLEANUP_JOB, Duration.ofMinutes(10), context -> {
+            LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+            return context.inChunks(limit -> syncTombstoneRepository.deleteDeletedBefore(before, limit))
+                    + context.inChunks(limit -> syncMutationRepository.deleteAppliedBefore(before, limit));
+        });
+    }
+
+    /**
+     * One request's mutations: rows are loaded up front, changes are applied
+     * in memory in request order, then written together.
+     */
+    private final class Batch {
+
+        private final User user;
+        private final Set<Integer> farmIds;
+        private final LocalDateTime now = LocalDateTime.now();
+        private final Map<Integer, Season> seasons = new HashMap<>();
+        private final Map<Integer, FieldLog> fieldLogs = new HashMap<>();
+        private final Map<Integer, Task> tasks = new HashMap<>();
+        private final List<FieldLog> created = new ArrayList<>();
+        private final Map<FieldLog, SyncMutationResult> createdResults = new HashMap<>();
+        private final List<FieldLog> deleted = new ArrayList<>();
+        private final Set<Integer> taskSeasonIds = new LinkedHashSet<>();
+        private final List<SyncMutationRequest> applied = new ArrayList<>();
+        private final List<SyncMutationResult> outcomes = new ArrayList<>();
+
+        Batch(User user, Set<Integer> farmIds) {
+            this.user = user;
+            this.farmIds = farmIds;
+        }
+
+        List<SyncMutationResult> run(List<SyncMutationRequest> mutations) {
+            Map<String, SyncMutation> previous = syncMutationRepository
+                    .findAllByUserIdAndMutationIdIn(user.getId(),
+                            mutations.stream().map(SyncMutationRequest::getMutationId).collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(SyncMutation::getMutationId, Function.identity()));
+            load(mutations.stream().filter(m -> !previous.containsKey(m.getMutationId())).toList());
+
+            List<SyncMutationResult> results = new ArrayList<>(mutations.size());
+            Map<String, SyncMutationResult> thisBatch = new HashMap<>();
+            for (SyncMutationRequest mutation : mutations) {
+                SyncMutation earlier = previous.get(mutation.getMutationId());
+                SyncMutationResult repeated = thisBatch.get(mutation.getMutationId());
+                if (earlier != null) {
+                    results.add(replayed(earlier));
+                } else if (repeated != null) {
+                    results.add(repeated);
+                } else {
+                    SyncMutationResult result = apply(mutation);
+                    thisBatch.put(mutation.getMutationId(), result);
+                    results.add(result);
+                }
+            }
+
+            write();
+            return results;
+        }
+
+        private void load(List<SyncMutationRequest> mutations) {
+            Set<Integer> seasonIds = new HashSet<>();
+            Set<Integer> fieldLogIds = new HashSet<>();
+            Set<Integer> taskIds = new HashSet<>();
+            for (SyncMutationRequest mutation : mutations) {
+                switch (mutation.getOperation()) {
+                    case FIELD_LOG_CREATE -> addIfPresent(seasonIds, mutation.getSeasonId());
+                    case FIELD_LOG_UPDATE, FIELD_LOG_DELETE -> addIfPresent(fieldLogIds, mutation.getEntityId());
+                    case TASK_START, TASK_DONE, TASK_CANCEL -> addIfPresent(taskIds, mutation.getEntityId());
+                }
+            }
+            if (!seasonIds.isEmpty()) {
+                seasonRepository.findAllById(seasonIds).forEach(season -> seasons.put(season.getId(), season));
+            }
+            if (!fieldLogIds.isEmpty()) {
+                fieldLogRepository.findAllById(fieldLogIds).forEach(log -> fieldLogs.put(log.getId(), log));
+            }
+            if (!taskIds.isEmpty()) {
+                taskRepository.findAllByIdInAndUser(taskIds, user).forEach(task -> tasks.put(task.getId(), task));
+            }
+        }
+
+        private SyncMutationResult apply(SyncMutationRequest mutation) {
+            SyncMutationResult result = SyncMutationResult.builder()
+                    .mutationId(mutation.getMutationId())
+                    .status(SyncMutationStatus.APPLIED)
+                    .build();
+            try {
+                switch (mutation.getOperation()) {
+                    case FIELD_LOG_CREATE -> createFieldLog(mutation, result);
+                    case FIELD_LOG_UPDATE -> updateFieldLog(mutation, result);
+                    case FIELD_LOG_DELETE -> deleteFieldLog(mutation, result);
+                    case TASK_START -> TaskWorkspaceService.applyStart(task(mutation, result), mutation.getDate());
+                    case TASK_DONE -> completeTask(mutation, result);
+                    case TASK_CANCEL -> task(mutation, result).setStatus(TaskStatus.CANCELLED);
+                }
+            } catch (AppException e) {
+                result.setStatus(SyncMutationStatus.REJECTED);
+                result.setErrorCode(e.getErrorCode().getCode());
+            }
+            applied.add(mutation);
+            outcomes.add(result);
+            return result;
+        }
+
+        private void createFieldLog(SyncMutationRequest mutation, SyncMutationResult result) {
+            Season season = mutation.getSeasonId() != null ? seasons.get(mutation.getSeasonId()) : null;
+            if (season == null) {
+                throw new AppException(ErrorCode.SEASON_NOT_FOUND);
+            }
+            checkAccess(season);
+            validateFieldLog(season, mutation, true);
+
+            FieldLog log = FieldLog.builder()
+                    .season(season)
+                    .logDate(mutation.getLogDate())
+                    .logType(mutation.getLogType().toUpperCase().trim())
+                    .notes(mutation.getNotes())
+                    .createdAt(now)
+                    .build();
+            created.add(log);
+            createdResults.put(log, result);
+        }
+
+        private void updateFieldLog(SyncMutationRequest mutation, SyncMutationResult result) {
+            FieldLog log = fieldLog(mutation, result);
+            validateFieldLog(log.getSeason(), mutation, false);
+
+            log.setLogDate(mutation.getLogDate());
+            log.setLogType(mutation.getLogType().toUpperCase().trim());
+            log.setNotes(mutation.getNotes());
+        }
+
+        private void deleteFieldLog(SyncMutationRequest mutation, SyncMutationResult result) {
+            FieldLog log = fieldLog(mutation, result);
+            FieldLogService.ensureSeasonOpenForLogs(log.getSeason(), false);
+
+            fieldLogs.remove(log.getId());
+            deleted.add(log);
+        }
+
+        private void completeTask(SyncMutationRequest mutation, SyncMutationResult result) {
+            Task task = task(mutation, result);
+            TaskStatus previousStatus = TaskWorkspaceService.applyDone(task, mutation.getDate());
+            if (previousStatus != TaskStatus.DONE) {
+                domainEventOutbox.append(new TaskCompletedEvent(task, previousStatus));
+            }
+        }
+
+        private FieldLog fieldLog(SyncMutationRequest mutation, SyncMutationResult result) {
+            result.setEntityId(mutation.getEntityId());
+            FieldLog log = mutation.getEntityId() != null ? fieldLogs.get(mutation.getEntityId()) : null;
+            if (log == null) {
+                throw new AppException(ErrorCode.FIELD_LOG_NOT_FOUND);
+            }
+            checkAccess(log.getSeason());
+            if (mutation.getBaseUpdatedAt() != null && log.getUpdatedAt() != null
+                    && log.getUpdatedAt().isAfter(mutation.getBaseUpdatedAt())) {
+                throw new AppException(ErrorCode.SYNC_CONFLICT);
+            }
+            return log;
+        }
+
+        private Task task(SyncMutationRequest mutation, SyncMutationResult result) {
+            result.setEntityId(mutation.getEntityId());
+            Task task = mutation.getEntityId() != null ? tasks.get(mutation.getEntityId()) : null;
+            if (task == null) {
+                throw new AppException(ErrorCode.RESOURCE_NOT_FOUND);
+            }
+            if (task.getSeason() != null) {
+                taskSeasonIds.add(task.getSeason().getId());
+            }
+            return task;
+        }
+
+        private void validateFieldLog(Season season, SyncMutationRequest mutation, boolean forCreate) {
+            if (mutation.getLogDate() == null || mutation.getLogType() == null || mutation.getLogType().isBlank()) {
+                throw new AppException(ErrorCode.MSG_1_MANDATORY_FIELD_EMPTY);
+            }
+            FieldLogService.ensureSeasonOpenForLogs(season, forCreate);
+            FieldLogService.validateLogType(mutation.getLogType());
+            FieldLogService.validateLogDateWithinSeason(season, mutation.getLogDate());
+        }
+
+        private void checkAccess(Season season) {
+            Plot plot = season != null ? season.getPlot() : null;
+            if (plot == null || plot.getFarm() == null || !farmIds.contains(plot.getFarm().getId())) {
+                throw new AppException(ErrorCode.FORBIDDEN);
+            }
+        }
+
+        private void write() {
+            insertFieldLogs();
+            if (!deleted.isEmpty()) {
+                fieldLogRepository.deleteAllInBatch(deleted);
+                syncTombstones.fieldLogsDeleted(deleted);
+            }
+            insertOutcomes();
+
+            for (Integer seasonId : taskSeasonIds) {
+                eventPublisher.publishEvent(new SeasonDataChangedEvent(seasonId, "TASK"));
+            }
+            log.info("Sync for user {}: {} mutations, {} field logs created, {} deleted",
+                    user.getId(), outcomes.size(), created.size(), deleted.size());
+        }
+
+        private void insertFieldLogs() {
+            if (created.isEmpty()) {
+                return;
+            }
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(FIELD_LOG_INSERT_SQL, new String[] { "field_log_id" }),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            FieldLog log = created.get(i);
+                            ps.setInt(1, log.getSeason().getId());
+                            ps.setDate(2, Date.valueOf(log.getLogDate()));
+                            ps.setString(3, log.getLogType());
+                            ps.setString(4, log.getNotes());
+                            ps.setTimestamp(5, Timestamp.valueOf(log.getCreatedAt()));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return created.size();
+                        }
+                    },
+                    keyHolder);
+
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            if (keys.size() != created.size()) {
+                throw new IllegalStateException("Driver returned " + keys.size() + " keys for "
+                        + created.size() + " field logs");
+            }
+            for (int i = 0; i < created.size(); i++) {
+                Object key = keys.get(i).values().iterator().next();
+                FieldLog log = created.get(i);
+                log.setId(((Number) key).intValue());
+                createdResults.get(log).setEntityId(log.getId());
+            }
+        }
+
+        /**
+         * Record the outcomes after the inserts so created rows carry their id.
+         */
+        private void insertOutcomes() {
+            jdbcTemplate.batchUpdate(MUTATION_INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    SyncMutationResult result = outcomes.get(i);
+                    ps.setLong(1, user.getId());
+                    ps.setString(2, result.getMutationId());
+                    ps.setString(3, applied.get(i).getOperation().name());
+                    ps.setString(4, result.getStatus().name());
+                    ps.setObject(5, result.getEntityId(), Types.INTEGER);
+                    ps.setString(6, result.getErrorCode());
+                    ps.setTimestamp(7, Timestamp.valueOf(now));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return outcomes.size();
+                }
+            });
+        }
+    }
+
+    private static SyncMutationResult replayed(SyncMutation earlier) {
+        return SyncMutationResult.builder()
+                .mutationId(earlier.getMutationId())
+                .status(earlier.getStatus())
+                .entityId(earlier.getEntityId())
+                .errorCode(earlier.getErrorCode())
+                .replayed(true)
+                .build();
+    }
+
+    private static void addIfPresent(Set<Integer> ids, Integer id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    /**
+     * Keyset position in one kind of change: (updated_at, id).
+     */
+    record Cursor(LocalDateTime time, Long id) implements Comparable<Cursor> {
+
+        static Cursor of(LocalDateTime time, Integer id) {
+            return new Cursor(time, id.longValue());
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            int byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Opaque sync token: one cursor each for field logs, tasks and deletes,
+     * as base64url of {@code "logTime|logId|taskTime|taskId|deleteTime|deleteId"}.
+     */
+    record SyncToken(Cursor logs, Cursor tasks, Cursor deletes) {
+
+        /**
+         * Start of a full sync: every live row, and only deletes from now on.
+         */
+        static SyncToken initial(LocalDateTime upTo) {
+            return new SyncToken(new Cursor(ORIGIN, 0L), new Cursor(ORIGIN, 0L), new Cursor(upTo, 0L));
+        }
+
+        static SyncToken decode(String token) {
+            if (token == null || token.isBlank()) {
+                return null;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+                if (parts.length != 6) {
+                    throw new AppException(ErrorCode.INVALID_CURSOR);
+                }
+                return new SyncToken(
+                        new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1])),
+                        new Cursor(LocalDateTime.parse(parts[2]), Long.parseLong(parts[3])),
+                        new Cursor(LocalDateTime.parse(parts[4]), Long.parseLong(parts[5])));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+        }
+
+        String encode() {
+            String raw = String.join("|", logs.time().toString(), logs.id().toString(),
+                    tasks.time().toString(), tasks.id().toString(),
+                    deletes.time().toString(), deletes.id().toString());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
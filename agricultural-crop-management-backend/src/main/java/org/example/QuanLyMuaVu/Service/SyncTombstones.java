@@ -0,0 +1,77 @@
+package org.example.QuanLyMuaVu.Service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.example.QuanLyMuaVu.Entity.FieldLog;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.SyncTombstone;
+import org.example.QuanLyMuaVu.Entity.Task;
+import org.example.QuanLyMuaVu.Enums.SyncEntityType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records deletes of synced rows (see {@link SyncService}) in the caller's
+ * transaction. Every code path that deletes a field log or a task goes
+ * through here, otherwise offline clients keep the row. deleted_at is taken
+ * from the database clock, like updated_at of the synced rows.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SyncTombstones {
+
+    static final String INSERT_SQL = "INSERT INTO sync_tombstones (entity_type, entity_id, farm_id, user_id, "
+            + "deleted_at) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP(6))";
+
+    JdbcTemplate jdbcTemplate;
+
+    public void fieldLogDeleted(FieldLog log) {
+        fieldLogsDeleted(List.of(log));
+    }
+
+    public void fieldLogsDeleted(List<FieldLog> logs) {
+        List<SyncTombstone> tombstones = new ArrayList<>(logs.size());
+        for (FieldLog log : logs) {
+            tombstones.add(tombstone(SyncEntityType.FIELD_LOG, log.getId(), farmIdOf(log.getSeason()), null));
+        }
+        insertAll(tombstones);
+    }
+
+    public void taskDeleted(Task task) {
+        Long userId = task.getUser() != null ? task.getUser().getId() : null;
+        insertAll(List.of(tombstone(SyncEntityType.TASK, task.getId(), farmIdOf(task.getSeason()), userId)));
+    }
+
+    private void insertAll(List<SyncTombstone> tombstones) {
+        if (tombstones.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, tombstones, tombstones.size(), (ps, tombstone) -> {
+            ps.setString(1, tombstone.getEntityType().name());
+            ps.setInt(2, tombstone.getEntityId());
+            ps.setObject(3, tombstone.getFarmId(), Types.INTEGER);
+            ps.setObject(4, tombstone.getUserId(), Types.BIGINT);
+        });
+    }
+
+    private static SyncTombstone tombstone(SyncEntityType type, Integer entityId, Integer farmId, Long userId) {
+        return SyncTombstone.builder()
+                .entityType(type)
+                .entityId(entityId)
+                .farmId(farmId)
+                .userId(userId)
+                .build();
+    }
+
+    private static Integer farmIdOf(Season season) {
+        Plot plot = season != null ? season.getPlot() : null;
+        return plot != null && plot.getFarm() != null ? plot.getFarm().getId() : null;
+    }
+}
@@ -5,38 +5,89 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.example.QuanLyMuaVu.Enums.TaskStatus;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
 import org.example.QuanLyMuaVu.Repository.TaskRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
- * Scheduled job to auto-update overdue tasks daily.
+ * Scheduled job that moves PENDING / IN_PROGRESS tasks past their due date to
+ * OVERDUE (candidates found through the (status, due_date) index).
+ * <p>
+ * Runs just after midnight and once at startup, to catch up on days the
+ * application was down; the startup run is handed to Spring's scheduler pool
+ * so it does not hold up the main thread. It goes through {@link JobRunner}, so only one node
+ * runs it and each chunk of tasks is updated in its own short transaction.
+ * Task writes set OVERDUE themselves, so task listings read the stored status
+ * and need no per-request scan.
  */
-@Component
+@Component("overdueTaskScheduler")
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class TaskScheduler {
 
+    static final String JOB_NAME = "tasks.overdue";
+    static final List<TaskStatus> OPEN_STATUSES = List.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS);
+
     TaskRepository taskRepository;
+    ApplicationEventPublisher eventPublisher;
+    JobRunner jobRunner;
+    org.springframework.scheduling.TaskScheduler scheduler;
+
+    /**
+     * Catch up on missed days once the application is ready, on the
+     * scheduler pool.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        scheduler.schedule(this::updateOverdueTasks, Instant.now());
+    }
 
     /**
-     * Run daily at 00:05 to mark tasks as OVERDUE.
+     * Run daily (00:00:05 by default) to mark tasks as OVERDUE.
      */
-    @Scheduled(cron = " 0 5 0 * * ?")
-    @Transactional
+    @Scheduled(cron = "${app.tasks.overdue-cron:5 0 0 * * *}")
     public void updateOverdueTasks() {
-        LocalDate today = LocalDate.now();
+        jobRunner.run(JOB_NAME, Duration.ofMinutes(10), context -> {
+            LocalDate today = LocalDate.now();
+            Set<Integer> seasonIds = new LinkedHashSet<>();
+            long[] updated = { 0 };
 
-        int updated = taskRepository.updateOverdueTasks(
-                today,
-                TaskStatus.OVERDUE,
-                Arrays.asList(TaskStatus.PENDING, TaskStatus.IN_PROGRESS));
+            context.inChunks(limit -> {
+                List<Object[]> candidates = taskRepository.findOverdueCandidates(
+                        today, OPEN_STATUSES, PageRequest.of(0, limit));
+                if (candidates.isEmpty()) {
+                    return 0;
+                }
+                List<Integer> ids = new ArrayList<>(candidates.size());
+                for (Object[] row : candidates) {
+                    ids.add((Integer) row[0]);
+                    if (row[1] != null) {
+                        seasonIds.add((Integer) row[1]);
+                    }
+                }
+                updated[0] += taskRepository.markOverdue(ids, TaskStatus.OVERDUE, OPEN_STATUSES);
+                return candidates.size();
+            });
 
-        log.info("Overdue task scheduler: Updated {} tasks to OVERDUE status", updated);
+            for (Integer seasonId : seasonIds) {
+                eventPublisher.publishEvent(new SeasonDataChangedEvent(seasonId, "TASK"));
+            }
+            log.info("Overdue task scheduler: Updated {} tasks to OVERDUE status", updated[0]);
+            return updated[0];
+        });
     }
 }
@@ -23,6 +23,7 @@ public class TaskService {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final SeasonRepository seasonRepository;
+    private final SyncTombstones syncTombstones;
 
     public TaskResponse create(TaskRequest request) {
         User user = userRepository.findById(request.getUserId()).orElseThrow();
@@ -57,11 +58,14 @@ public class TaskService {
         if (request.getStatus() != null) {
             task.setStatus(request.getStatus());
         }
-        return toResponse(taskRepository.save(task));
+        return toResponse(taskRepository.saveAndFlush(task));
     }
 
     public void delete(Integer id) {
-        taskRepository.deleteById(id);
+        taskRepository.findById(id).ifPresent(task -> {
+            taskRepository.delete(task);
+            syncTombstones.taskDeleted(task);
+        });
     }
 
     private TaskResponse toResponse(Task task) {
@@ -80,6 +84,7 @@ public class TaskService {
                 .notes(task.getNotes())
                 .userId(task.getUser() != null ? task.getUser().getId() : null)
                 .createdAt(task.getCreatedAt())
+                .updatedAt(task.getUpdatedAt())
                 .build();
     }
 }
@@ -0,0 +1,106 @@
+package org.example.QuanLyMuaVu.Service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.DTO.Request.TaskTemplateRequest;
+import org.example.QuanLyMuaVu.DTO.Response.TaskTemplateResponse;
+import org.example.QuanLyMuaVu.Entity.Crop;
+import org.example.QuanLyMuaVu.Entity.TaskTemplate;
+import org.example.QuanLyMuaVu.Entity.Variety;
+import org.example.QuanLyMuaVu.Exception.AppException;
+import org.example.QuanLyMuaVu.Exception.ErrorCode;
+import org.example.QuanLyMuaVu.Repository.CropRepository;
+import org.example.QuanLyMuaVu.Repository.TaskTemplateRepository;
+import org.example.QuanLyMuaVu.Repository.VarietyRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Admin management of crop / variety task templates used by
+ * {@link SeasonTaskPlanner} when a season is created.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Transactional
+@Slf4j
+public class TaskTemplateService {
+
+    TaskTemplateRepository taskTemplateRepository;
+    CropRepository cropRepository;
+    VarietyRepository varietyRepository;
+
+    public List<TaskTemplateResponse> listByCrop(Integer cropId) {
+        if (!cropRepository.existsById(cropId)) {
+            throw new AppException(ErrorCode.CROP_NOT_FOUND);
+        }
+        return taskTemplateRepository.findAllByCrop_IdOrderBySortOrderAscIdAsc(cropId)
+                .stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    public TaskTemplateResponse create(TaskTemplateRequest request) {
+        TaskTemplate template = new TaskTemplate();
+        apply(template, request);
+        TaskTemplate saved = taskTemplateRepository.save(template);
+        log.info("Created task template: id={}, cropId={}", saved.getId(), request.getCropId());
+        return toResponse(saved);
+    }
+
+    public TaskTemplateResponse update(Integer id, TaskTemplateRequest request) {
+        TaskTemplate template = taskTemplateRepository.findById(id)
+                .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
+        apply(template, request);
+        return toResponse(taskTemplateRepository.save(template));
+    }
+
+    public void delete(Integer id) {
+        TaskTemplate template = taskTemplateRepository.findById(id)
+                .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
+        taskTemplateRepository.delete(template);
+    }
+
+    private void apply(TaskTemplate template, TaskTemplateRequest request) {
+        Crop crop = cropRepository.findById(request.getCropId())
+                .orElseThrow(() -> new AppException(ErrorCode.CROP_NOT_FOUND));
+        Variety variety = null;
+        if (request.getVarietyId() != null) {
+            variety = varietyRepository.findById(request.getVarietyId())
+                    .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
+            if (variety.getCrop() == null || !crop.getId().equals(variety.getCrop().getId())) {
+                throw new AppException(ErrorCode.BAD_REQUEST);
+            }
+        }
+        if (request.getDueOffsetDays() != null
+                && request.getDueOffsetDays() < request.getPlannedOffsetDays()) {
+            throw new AppException(ErrorCode.INVALID_DATE_RANGE);
+        }
+        template.setCrop(crop);
+        template.setVariety(variety);
+        template.setTitle(request.getTitle());
+        template.setDescription(request.getDescription());
+        template.setPlannedOffsetDays(request.getPlannedOffsetDays());
+        template.setDueOffsetDays(request.getDueOffsetDays());
+        template.setSortOrder(request.getSortOrder() != null ? request.getSortOrder() : 0);
+    }
+
+    private TaskTemplateResponse toResponse(TaskTemplate template) {
+        return TaskTemplateResponse.builder()
+                .id(template.getId())
+                .cropId(template.getCrop() != null ? template.getCrop().getId() : null)
+                .cropName(template.getCrop() != null ? template.getCrop().getCropName() : null)
+                .varietyId(template.getVariety() != null ? template.getVariety().getId() : null)
+                .varietyName(template.getVariety() != null ? template.getVariety().getName() : null)
+                .title(template.getTitle())
+                .description(template.getDescription())
+                .plannedOffsetDays(template.getPlannedOffsetDays())
+                .dueOffsetDays(template.getDueOffsetDays())
+                .sortOrder(template.getSortOrder())
+                .build();
+    }
+}
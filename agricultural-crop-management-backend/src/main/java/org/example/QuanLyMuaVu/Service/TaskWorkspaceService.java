@@ -14,8 +14,11 @@ import org.example.QuanLyMuaVu.Entity.User;
 import org.example.QuanLyMuaVu.Enums.TaskStatus;
 import org.example.QuanLyMuaVu.Exception.AppException;
 import org.example.QuanLyMuaVu.Exception.ErrorCode;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.TaskCompletedEvent;
 import org.example.QuanLyMuaVu.Repository.SeasonRepository;
 import org.example.QuanLyMuaVu.Repository.TaskRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,7 +28,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -40,6 +42,9 @@ public class TaskWorkspaceService {
     TaskRepository taskRepository;
     SeasonRepository seasonRepository;
     FarmAccessService farmAccessService;
+    ApplicationEventPublisher eventPublisher;
+    DomainEventOutbox domainEventOutbox;
+    SyncTombstones syncTombstones;
 
     /**
      * Create a new task for the current user.
@@ -78,6 +83,7 @@ public class TaskWorkspaceService {
         }
 
         task = taskRepository.save(task);
+        publishSeasonDataChanged(task.getSeason());
         log.info("Created task {} for user {}", task.getId(), currentUser.getId());
 
         return mapToResponse(task);
@@ -97,9 +103,7 @@ public class TaskWorkspaceService {
             String sortDirection) {
         User currentUser = farmAccessService.getCurrentUser();
 
-        // Auto-update overdue tasks before listing
-        updateOverdueTasksForUser(currentUser);
-
+        // OVERDUE is maintained by TaskScheduler, so listing is a single paged query.
         // Build pagination
         Sort sort = Sort.by(
                 "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC,
@@ -195,7 +199,8 @@ public class TaskWorkspaceService {
             }
         }
 
-        task = taskRepository.save(task);
+        task = taskRepository.saveAndFlush(task);
+        publishSeasonDataChanged(task.getSeason());
         log.info("Updated task {}", taskId);
 
         return mapToResponse(task);
@@ -210,16 +215,10 @@ public class TaskWorkspaceService {
         Task task = taskRepository.findByIdAndUser(taskId, currentUser)
                 .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
 
-        // Cannot start DONE or CANCELLED tasks
-        if (task.getStatus() == TaskStatus.DONE || task.getStatus() == TaskStatus.CANCELLED) {
-            throw new AppException(ErrorCode.INVALID_OPERATION);
-        }
-
-        LocalDate startDate = request.getActualStartDate() != null ? request.getActualStartDate() : LocalDate.now();
-        task.setActualStartDate(startDate);
-        task.setStatus(TaskStatus.IN_PROGRESS);
+        applyStart(task, request.getActualStartDate());
 
-        task = taskRepository.save(task);
+        task = taskRepository.saveAndFlush(task);
+        publishSeasonDataChanged(task.getSeason());
         log.info("Started task {}", taskId);
 
         return mapToResponse(task);
@@ -234,22 +233,13 @@ public class TaskWorkspaceService {
         Task task = taskRepository.findByIdAndUser(taskId, currentUser)
                 .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
 
-        // Cannot mark CANCELLED tasks as done
-        if (task.getStatus() == TaskStatus.CANCELLED) {
-            throw new AppException(ErrorCode.INVALID_OPERATION);
-        }
-
-        LocalDate endDate = request.getActualEndDate() != null ? request.getActualEndDate() : LocalDate.now();
+        TaskStatus previousStatus = applyDone(task, request.getActualEndDate());
 
-        // Validate end date >= start date
-        if (task.getActualStartDate() != null && endDate.isBefore(task.getActualStartDate())) {
-            throw new AppException(ErrorCode.INVALID_DATE_RANGE);
+        task = taskRepository.saveAndFlush(task);
+        publishSeasonDataChanged(task.getSeason());
+        if (previousStatus != TaskStatus.DONE) {
+            domainEventOutbox.append(new TaskCompletedEvent(task, previousStatus));
         }
-
-        task.setActualEndDate(endDate);
-        task.setStatus(TaskStatus.DONE);
-
-        task = taskRepository.save(task);
         log.info("Marked task {} as done", taskId);
 
         return mapToResponse(task);
@@ -265,7 +255,8 @@ public class TaskWorkspaceService {
                 .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
 
         task.setStatus(TaskStatus.CANCELLED);
-        task = taskRepository.save(task);
+        task = taskRepository.saveAndFlush(task);
+        publishSeasonDataChanged(task.getSeason());
         log.info("Cancelled task {}", taskId);
 
         return mapToResponse(task);
@@ -281,6 +272,8 @@ public class TaskWorkspaceService {
                 .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
 
         taskRepository.delete(task);
+        syncTombstones.taskDeleted(task);
+        publishSeasonDataChanged(task.getSeason());
         log.info("Deleted task {}", taskId);
     }
 
@@ -304,27 +297,6 @@ public class TaskWorkspaceService {
 
     // ==================== Helper Methods ====================
 
-    /**
-     * Auto-update overdue tasks for a specific user.
-     */
-    private void updateOverdueTasksForUser(User user) {
-        List<Task> overdueCandidate = taskRepository.findByUserWithFilters(
-                user,
-                null,
-                null,
-                null,
-                Pageable.unpaged()).getContent();
-
-        for (Task task : overdueCandidate) {
-            if (task.getDueDate() != null &&
-                    task.getDueDate().isBefore(LocalDate.now()) &&
-                    (task.getStatus() == TaskStatus.PENDING || task.getStatus() == TaskStatus.IN_PROGRESS)) {
-                task.setStatus(TaskStatus.OVERDUE);
-                taskRepository.save(task);
-            }
-        }
-    }
-
     /**
      * Validate task dates.
      */
@@ -341,10 +313,44 @@ public class TaskWorkspaceService {
         }
     }
 
+    /**
+     * Move the task to IN_PROGRESS; DONE and CANCELLED tasks cannot start.
+     *
+     * @param startDate actual start date, today when null
+     */
+    static void applyStart(Task task, LocalDate startDate) {
+        if (task.getStatus() == TaskStatus.DONE || task.getStatus() == TaskStatus.CANCELLED) {
+            throw new AppException(ErrorCode.INVALID_OPERATION);
+        }
+        task.setActualStartDate(startDate != null ? startDate : LocalDate.now());
+        task.setStatus(TaskStatus.IN_PROGRESS);
+    }
+
+    /**
+     * Move the task to DONE; CANCELLED tasks cannot be completed and the end
+     * date cannot precede the start date.
+     *
+     * @param endDate actual end date, today when null
+     * @return status before the change
+     */
+    static TaskStatus applyDone(Task task, LocalDate endDate) {
+        if (task.getStatus() == TaskStatus.CANCELLED) {
+            throw new AppException(ErrorCode.INVALID_OPERATION);
+        }
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        if (task.getActualStartDate() != null && end.isBefore(task.getActualStartDate())) {
+            throw new AppException(ErrorCode.INVALID_DATE_RANGE);
+        }
+        TaskStatus previousStatus = task.getStatus();
+        task.setActualEndDate(end);
+        task.setStatus(TaskStatus.DONE);
+        return previousStatus;
+    }
+
     /**
      * Map Task entity to TaskResponse DTO.
      */
-    private TaskResponse mapToResponse(Task task) {
+    TaskResponse mapToResponse(Task task) {
         return TaskResponse.builder()
                 .taskId(task.getId())
                 .title(task.getTitle())
@@ -360,6 +366,13 @@ public class TaskWorkspaceService {
                 .userId(task.getUser() != null ? task.getUser().getId() : null)
                 .userName(task.getUser() != null ? task.getUser().getUsername() : null)
                 .createdAt(task.getCreatedAt())
+                .updatedAt(task.getUpdatedAt())
                 .build();
     }
+
+    private void publishSeasonDataChanged(Season season) {
+        if (season != null) {
+            eventPublisher.publishEvent(new SeasonDataChangedEvent(season.getId(), "TASK"));
+        }
+    }
 }
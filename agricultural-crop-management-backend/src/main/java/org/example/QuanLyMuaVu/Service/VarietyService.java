@@ -13,7 +13,11 @@ import org.example.QuanLyMuaVu.Exception.ErrorCode;
 import org.example.QuanLyMuaVu.Mapper.VarietyMapper;
 import org.example.QuanLyMuaVu.Repository.CropRepository;
 import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.example.QuanLyMuaVu.Repository.TaskTemplateRepository;
 import org.example.QuanLyMuaVu.Repository.VarietyRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,18 +34,22 @@ public class VarietyService {
     VarietyRepository varietyRepository;
     CropRepository cropRepository;
     SeasonRepository seasonRepository;
+    TaskTemplateRepository taskTemplateRepository;
     VarietyMapper varietyMapper;
+    CatalogVersions catalogVersions;
 
     // ═══════════════════════════════════════════════════════════════
     // READ OPERATIONS
     // ═══════════════════════════════════════════════════════════════
 
+    @Cacheable(value = "variety", key = "#id")
     public VarietyResponse get(Integer id) {
         Variety variety = varietyRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
         return varietyMapper.toResponse(variety);
     }
 
+    @Cacheable(value = "cropVarieties", key = "#cropId")
     public List<VarietyResponse> listByCrop(Integer cropId) {
         Crop crop = cropRepository.findById(cropId)
                 .orElseThrow(() -> new AppException(ErrorCode.CROP_NOT_FOUND));
@@ -54,6 +62,7 @@ public class VarietyService {
     /**
      * Get all varieties (Admin).
      */
+    @Cacheable(value = "varieties", key = "'all'")
     public List<VarietyResponse> getAll() {
         log.info("Fetching all varieties");
         return varietyRepository.findAll()
@@ -65,6 +74,7 @@ public class VarietyService {
     /**
      * Get varieties by crop ID (Admin alias for listByCrop).
      */
+    @Cacheable(value = "cropVarieties", key = "#cropId")
     public List<VarietyResponse> getByCropId(Integer cropId) {
         return listByCrop(cropId);
     }
@@ -76,6 +86,7 @@ public class VarietyService {
     /**
      * Create a new variety (Admin).
      */
+    @CacheEvict(value = { "varieties", "cropVarieties" }, allEntries = true)
     public VarietyResponse create(VarietyRequest request) {
         log.info("Creating variety: name={}, cropId={}", request.getName(), request.getCropId());
 
@@ -84,6 +95,7 @@ public class VarietyService {
 
         Variety variety = varietyMapper.toEntity(request, crop);
         Variety saved = varietyRepository.save(variety);
+        catalogVersions.bump(CatalogVersions.Catalog.VARIETIES);
 
         log.info("Created variety: id={}", saved.getId());
         return varietyMapper.toResponse(saved);
@@ -92,6 +104,10 @@ public class VarietyService {
     /**
      * Update an existing variety (Admin).
      */
+    @Caching(evict = {
+            @CacheEvict(value = { "varieties", "cropVarieties" }, allEntries = true),
+            @CacheEvict(value = "variety", key = "#id")
+    })
     public VarietyResponse update(Integer id, VarietyRequest request) {
         log.info("Updating variety: id={}", id);
 
@@ -103,6 +119,7 @@ public class VarietyService {
 
         varietyMapper.update(variety, request, crop);
         Variety saved = varietyRepository.save(variety);
+        catalogVersions.bump(CatalogVersions.Catalog.VARIETIES);
 
         log.info("Updated variety: id={}", saved.getId());
         return varietyMapper.toResponse(saved);
@@ -112,6 +129,10 @@ public class VarietyService {
      * Delete a variety (Admin).
      * Fails if the variety is referenced in any seasons.
      */
+    @Caching(evict = {
+            @CacheEvict(value = { "varieties", "cropVarieties" }, allEntries = true),
+            @CacheEvict(value = "variety", key = "#id")
+    })
     public void delete(Integer id) {
         log.info("Deleting variety: id={}", id);
 
@@ -125,7 +146,9 @@ public class VarietyService {
             throw new AppException(ErrorCode.DUPLICATE_RESOURCE); // Using existing error code for conflict
         }
 
+        taskTemplateRepository.deleteAll(taskTemplateRepository.findAllByVariety_IdOrderBySortOrderAscIdAsc(id));
         varietyRepository.delete(variety);
+        catalogVersions.bump(CatalogVersions.Catalog.VARIETIES);
         log.info("Deleted variety: id={}", id);
     }
 }
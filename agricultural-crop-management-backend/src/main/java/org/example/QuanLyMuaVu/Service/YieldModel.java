@@ -0,0 +1,300 @@
+package org.example.QuanLyMuaVu.Service;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable yield-per-hectare model fitted from historical harvests.
+ * <p>
+ * For every (crop, variety, province) combination and its coarser roll-ups a
+ * small ridge regression {@code kgPerHa = a + b1 * areaHa + b2 * durationDays}
+ * is fitted from sufficient statistics. Coefficients are stored in parallel
+ * primitive arrays indexed by a sorted array of group keys, so a prediction
+ * is a handful of binary searches and multiplications.
+ */
+final class YieldModel {
+
+    enum Level {
+        CROP_VARIETY_PROVINCE, CROP_VARIETY, CROP_PROVINCE, CROP
+    }
+
+    /**
+     * Minimum seasons in a group before it is used instead of a coarser one.
+     */
+    static final int MIN_GROUP_SAMPLES = 3;
+    /**
+     * Minimum seasons in a group before slopes are fitted; below this only the mean is used.
+     */
+    static final int MIN_REGRESSION_SAMPLES = 5;
+    private static final double RIDGE = 0.1;
+    private static final Level[] LEVELS = Level.values();
+
+    private final GroupKey[] keys;
+    private final double[] intercept;
+    private final double[] slopeArea;
+    private final double[] slopeDuration;
+    private final double[] meanDuration;
+    private final double[] rmse;
+    private final int[] count;
+    private final Map<String, Integer> cropIdsByName;
+
+    private final Instant trainedAt;
+    private final int sampleCount;
+    private final double trainingRmse;
+    private final double trainingMae;
+
+    private YieldModel(GroupKey[] keys, double[] intercept, double[] slopeArea, double[] slopeDuration,
+            double[] meanDuration, double[] rmse, int[] count, Map<String, Integer> cropIdsByName,
+            Instant trainedAt, int sampleCount, double trainingRmse, double trainingMae) {
+        this.keys = keys;
+        this.intercept = intercept;
+        this.slopeArea = slopeArea;
+        this.slopeDuration = slopeDuration;
+        this.meanDuration = meanDuration;
+        this.rmse = rmse;
+        this.count = count;
+        this.cropIdsByName = cropIdsByName;
+        this.trainedAt = trainedAt;
+        this.sampleCount = sampleCount;
+        this.trainingRmse = trainingRmse;
+        this.trainingMae = trainingMae;
+    }
+
+    /**
+     * One harvested season: crop/variety/province ids (variety and province may
+     * be null), plot area in hectares, days from start to last harvest and the
+     * observed yield in kg per hectare.
+     */
+    record Sample(int cropId, String cropName, Integer varietyId, Integer provinceId,
+            double areaHa, double durationDays, double kgPerHa) {
+    }
+
+    /**
+     * Result of a lookup; {@code level} is null when no group qualified.
+     */
+    record Prediction(Level level, double kgPerHa, int sampleCount, double rmseKgPerHa) {
+    }
+
+    /**
+     * Group identity; ids a level does not use are 0. Ordered by level, then
+     * crop, variety and province.
+     */
+    record GroupKey(Level level, int cropId, int varietyId, int provinceId) implements Comparable<GroupKey> {
+
+        @Override
+        public int compareTo(GroupKey other) {
+            int c = level.compareTo(other.level);
+            if (c == 0) {
+                c = Integer.compare(cropId, other.cropId);
+            }
+            if (c == 0) {
+                c = Integer.compare(varietyId, other.varietyId);
+            }
+            return c != 0 ? c : Integer.compare(provinceId, other.provinceId);
+        }
+    }
+
+    static YieldModel train(List<Sample> samples, Instant trainedAt) {
+        Map<GroupKey, double[]> stats = new HashMap<>();
+        Map<String, Integer> cropIds = new HashMap<>();
+        for (Sample sample : samples) {
+            if (sample.cropName() != null) {
+                cropIds.putIfAbsent(normalize(sample.cropName()), sample.cropId());
+            }
+            for (Level level : LEVELS) {
+                GroupKey key = keyFor(level, sample.cropId(), sample.varietyId(), sample.provinceId());
+                if (key != null) {
+                    accumulate(stats.computeIfAbsent(key, k -> new double[10]), sample);
+                }
+            }
+        }
+
+        GroupKey[] keys = stats.keySet().stream().sorted().toArray(GroupKey[]::new);
+        int size = keys.length;
+        double[] intercept = new double[size];
+        double[] slopeArea = new double[size];
+        double[] slopeDuration = new double[size];
+        double[] meanDuration = new double[size];
+        int[] count = new int[size];
+        for (int i = 0; i < size; i++) {
+            fit(stats.get(keys[i]), i, intercept, slopeArea, slopeDuration, meanDuration, count);
+        }
+
+        YieldModel unscored = new YieldModel(keys, intercept, slopeArea, slopeDuration, meanDuration,
+                new double[size], count, Map.copyOf(cropIds), trainedAt, samples.size(), Double.NaN, Double.NaN);
+        return unscored.withResiduals(samples);
+    }
+
+    Prediction predict(int cropId, Integer varietyId, Integer provinceId, double areaHa, Double durationDays) {
+        for (Level level : LEVELS) {
+            GroupKey key = keyFor(level, cropId, varietyId, provinceId);
+            if (key == null) {
+                continue;
+            }
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0 && count[index] >= MIN_GROUP_SAMPLES) {
+                return new Prediction(level, evaluate(index, areaHa, durationDays), count[index], rmse[index]);
+            }
+        }
+        return new Prediction(null, Double.NaN, 0, Double.NaN);
+    }
+
+    Integer resolveCropId(String cropName) {
+        return cropName == null ? null : cropIdsByName.get(normalize(cropName));
+    }
+
+    Instant getTrainedAt() {
+        return trainedAt;
+    }
+
+    int getSampleCount() {
+        return sampleCount;
+    }
+
+    int getGroupCount() {
+        return keys.length;
+    }
+
+    double getTrainingRmse() {
+        return trainingRmse;
+    }
+
+    double getTrainingMae() {
+        return trainingMae;
+    }
+
+    private double evaluate(int index, double areaHa, Double durationDays) {
+        double duration = durationDays != null ? durationDays : meanDuration[index];
+        double value = intercept[index] + slopeArea[index] * areaHa + slopeDuration[index] * duration;
+        return Math.max(0, value);
+    }
+
+    /**
+     * Score every sample with the group that would serve it and derive both the
+     * per-group RMSE (used as the expected error of a prediction) and the
+     * overall training error.
+     */
+    private YieldModel withResiduals(List<Sample> samples) {
+        double[] squaredError = new double[keys.length];
+        double totalSquared = 0;
+        double totalAbsolute = 0;
+        int scored = 0;
+        for (Sample sample : samples) {
+            Prediction prediction = predict(sample.cropId(), sample.varietyId(), sample.provinceId(),
+                    sample.areaHa(), sample.durationDays());
+            if (prediction.level() != null) {
+                double error = sample.kgPerHa() - prediction.kgPerHa();
+                totalSquared += error * error;
+                totalAbsolute += Math.abs(error);
+                scored++;
+            }
+            for (Level level : LEVELS) {
+                GroupKey key = keyFor(level, sample.cropId(), sample.varietyId(), sample.provinceId());
+                if (key != null) {
+                    int index = Arrays.binarySearch(keys, key);
+                    double error = sample.kgPerHa() - evaluate(index, sample.areaHa(), sample.durationDays());
+                    squaredError[index] += error * error;
+                }
+            }
+        }
+
+        double[] groupRmse = new double[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            groupRmse[i] = Math.sqrt(squaredError[i] / count[i]);
+        }
+        double overallRmse = scored > 0 ? Math.sqrt(totalSquared / scored) : Double.NaN;
+        double overallMae = scored > 0 ? totalAbsolute / scored : Double.NaN;
+        return new YieldModel(keys, intercept, slopeArea, slopeDuration, meanDuration, groupRmse, count,
+                cropIdsByName, trainedAt, sampleCount, overallRmse, overallMae);
+    }
+
+    /**
+     * Sufficient statistics layout: n, Σa, Σd, Σy, Σaa, Σad, Σdd, Σay, Σdy, unused.
+     */
+    private static void accumulate(double[] s, Sample sample) {
+        double a = sample.areaHa();
+        double d = sample.durationDays();
+        double y = sample.kgPerHa();
+        s[0] += 1;
+        s[1] += a;
+        s[2] += d;
+        s[3] += y;
+        s[4] += a * a;
+        s[5] += a * d;
+        s[6] += d * d;
+        s[7] += a * y;
+        s[8] += d * y;
+    }
+
+    private static void fit(double[] s, int i, double[] intercept, double[] slopeArea, double[] slopeDuration,
+            double[] meanDuration, int[] count) {
+        double n = s[0];
+        double meanA = s[1] / n;
+        double meanD = s[2] / n;
+        double meanY = s[3] / n;
+        count[i] = (int) n;
+        meanDuration[i] = meanD;
+
+        double b1 = 0;
+        double b2 = 0;
+        if (n >= MIN_REGRESSION_SAMPLES) {
+            // Centered normal equations with a relative ridge penalty on the slopes.
+            double saa = s[4] - n * meanA * meanA;
+            double sad = s[5] - n * meanA * meanD;
+            double sdd = s[6] - n * meanD * meanD;
+            double say = s[7] - n * meanA * meanY;
+            double sdy = s[8] - n * meanD * meanY;
+            saa += RIDGE * saa + 1e-9;
+            sdd += RIDGE * sdd + 1e-9;
+            double det = saa * sdd - sad * sad;
+            if (Math.abs(det) > 1e-12) {
+                b1 = (say * sdd - sdy * sad) / det;
+                b2 = (sdy * saa - say * sad) / det;
+            }
+        }
+        slopeArea[i] = b1;
+        slopeDuration[i] = b2;
+        intercept[i] = meanY - b1 * meanA - b2 * meanD;
+    }
+
+    /**
+     * Key of the group a sample falls into at {@code level}. Returns null when
+     * the level needs an id the sample does not have.
+     */
+    private static GroupKey keyFor(Level level, int cropId, Integer varietyId, Integer provinceId) {
+        int variety = 0;
+        int province = 0;
+        switch (level) {
+            case CROP_VARIETY_PROVINCE -> {
+                if (varietyId == null || provinceId == null) {
+                    return null;
+                }
+                variety = varietyId;
+                province = provinceId;
+            }
+            case CROP_VARIETY -> {
+                if (varietyId == null) {
+                    return null;
+                }
+                variety = varietyId;
+            }
+            case CROP_PROVINCE -> {
+                if (provinceId == null) {
+                    return null;
+                }
+                province = provinceId;
+            }
+            case CROP -> {
+            }
+        }
+        return new GroupKey(level, cropId, variety, province);
+    }
+
+    private static String normalize(String cropName) {
+        return cropName.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.QuanLyMuaVu.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.QuanLyMuaVu.DTO.Response.YieldPredictionResponse;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
+import org.example.QuanLyMuaVu.Repository.HarvestRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Predicts season yield from a model trained in-process on the
+ * {@code harvests} and {@code seasons} tables.
+ * <p>
+ * The model is rebuilt in the background when harvest or season data changes
+ * or when it is older than the refresh interval; predictions always read the
+ * last published model and never block on training or call an external AI.
+ * Until a crop has enough history the legacy fixed-rate estimate is returned.
+ */
+@Service
+@Slf4j
+public class YieldPredictionService {
+
+    /**
+     * Legacy estimate (tonnes per hectare) used while a crop has no history.
+     */
+    private static final BigDecimal BASELINE_TON_PER_HA = BigDecimal.valueOf(2.5);
+    private static final String BASELINE_LEVEL = "BASELINE";
+
+    private final HarvestRepository harvestRepository;
+    private final MeterRegistry meterRegistry;
+    private final long refreshIntervalMillis;
+    private final ExecutorService trainer;
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private final AtomicBoolean training = new AtomicBoolean(false);
+    private final Timer predictTimer;
+    private final Timer trainTimer;
+
+    private volatile YieldModel model;
+
+    public YieldPredictionService(
+            HarvestRepository harvestRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.yield.refresh-interval-minutes:60}") long refreshIntervalMinutes) {
+        this.harvestRepository = harvestRepository;
+        this.meterRegistry = meterRegistry;
+        this.refreshIntervalMillis = TimeUnit.MINUTES.toMillis(refreshIntervalMinutes);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("yield-model-");
+        threadFactory.setDaemon(true);
+        this.trainer = Executors.newSingleThreadExecutor(threadFactory);
+
+        this.predictTimer = Timer.builder("ai.yield.predict.latency")
+                .description("In-process yield prediction latency")
+                .register(meterRegistry);
+        this.trainTimer = Timer.builder("ai.yield.train.duration")
+                .description("Yield model training time")
+                .register(meterRegistry);
+        Gauge.builder("ai.yield.model.age.seconds", this, s -> s.modelAgeSeconds())
+                .description("Seconds since the yield model was trained")
+                .register(meterRegistry);
+        Gauge.builder("ai.yield.model.samples", this, s -> s.model != null ? s.model.getSampleCount() : 0)
+                .description("Harvested seasons used to train the yield model")
+                .register(meterRegistry);
+        Gauge.builder("ai.yield.model.groups", this, s -> s.model != null ? s.model.getGroupCount() : 0)
+                .description("Crop/variety/province groups in the yield model")
+                .register(meterRegistry);
+        Gauge.builder("ai.yield.model.rmse", this, s -> s.model != null ? s.model.getTrainingRmse() : Double.NaN)
+                .description("Training RMSE of the yield model (kg/ha)")
+                .baseUnit("kg_per_ha")
+                .register(meterRegistry);
+        Gauge.builder("ai.yield.model.mae", this, s -> s.model != null ? s.model.getTrainingMae() : Double.NaN)
+                .description("Training MAE of the yield model (kg/ha)")
+                .baseUnit("kg_per_ha")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Estimate the yield of a season.
+     *
+     * @param cropName     crop name as typed by the farmer; used when {@code cropId} is absent
+     * @param cropId       crop id, preferred over the name
+     * @param varietyId    optional variety
+     * @param provinceId   optional province of the farm
+     * @param area         plot area in hectares
+     * @param durationDays optional planned days from sowing to harvest
+     */
+    public YieldPredictionResponse predict(String cropName, Integer cropId, Integer varietyId, Integer provinceId,
+            BigDecimal area, Integer durationDays) {
+        refreshIfStale();
+        long start = System.nanoTime();
+
+        YieldModel current = model;
+        Integer resolvedCropId = cropId;
+        if (resolvedCropId == null && current != null) {
+            resolvedCropId = current.resolveCropId(cropName);
+        }
+
+        YieldModel.Prediction prediction = null;
+        if (current != null && resolvedCropId != null) {
+            prediction = current.predict(resolvedCropId, varietyId, provinceId, area.doubleValue(),
+                    durationDays != null ? durationDays.doubleValue() : null);
+        }
+
+        YieldPredictionResponse.YieldPredictionResponseBuilder response = YieldPredictionResponse.builder()
+                .crop(cropName)
+                .cropId(resolvedCropId)
+                .area(area)
+                .modelTrainedAt(current != null
+                        ? LocalDateTime.ofInstant(current.getTrainedAt(), ZoneId.systemDefault())
+                        : null);
+
+        if (prediction == null || prediction.level() == null) {
+            BigDecimal tons = area.multiply(BASELINE_TON_PER_HA);
+            response.estimatedYieldTon(tons)
+                    .estimatedYieldKg(tons.multiply(BigDecimal.valueOf(1000)))
+                    .yieldPerHectareKg(BASELINE_TON_PER_HA.multiply(BigDecimal.valueOf(1000)))
+                    .modelLevel(BASELINE_LEVEL)
+                    .sampleCount(0);
+        } else {
+            BigDecimal perHa = BigDecimal.valueOf(prediction.kgPerHa()).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal kg = perHa.multiply(area).setScale(2, RoundingMode.HALF_UP);
+            response.estimatedYieldKg(kg)
+                    .estimatedYieldTon(kg.divide(BigDecimal.valueOf(1000), 3, RoundingMode.HALF_UP))
+                    .yieldPerHectareKg(perHa)
+                    .expectedErrorKgPerHa(BigDecimal.valueOf(prediction.rmseKgPerHa()).setScale(2, RoundingMode.HALF_UP))
+                    .modelLevel(prediction.level().name())
+                    .sampleCount(prediction.sampleCount());
+        }
+
+        predictTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return response.build();
+    }
+
+    /**
+     * Harvest and season edits change the training data; the next prediction
+     * schedules a rebuild.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSeasonDataChanged(SeasonDataChangedEvent event) {
+        if ("HARVEST".equals(event.getChangeType()) || "SEASON".equals(event.getChangeType())) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Rebuild the model from the database and publish it.
+     */
+    public void retrain() {
+        long start = System.nanoTime();
+        dirty.set(false);
+        List<YieldModel.Sample> samples = loadSamples();
+        YieldModel trained = YieldModel.train(samples, Instant.now());
+        model = trained;
+        trainTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("Yield model trained: samples={}, groups={}, rmse={}kg/ha, mae={}kg/ha",
+                trained.getSampleCount(), trained.getGroupCount(), trained.getTrainingRmse(),
+                trained.getTrainingMae());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        trainer.shutdownNow();
+    }
+
+    private void refreshIfStale() {
+        YieldModel current = model;
+        boolean expired = current == null
+                || System.currentTimeMillis() - current.getTrainedAt().toEpochMilli() >= refreshIntervalMillis;
+        if ((dirty.get() || expired) && training.compareAndSet(false, true)) {
+            trainer.execute(() -> {
+                try {
+                    retrain();
+                } catch (Exception ex) {
+                    dirty.set(true);
+                    log.warn("Yield model training failed: {}", ex.toString());
+                } finally {
+                    training.set(false);
+                }
+            });
+        }
+    }
+
+    private List<YieldModel.Sample> loadSamples() {
+        List<HarvestRepository.YieldSample> rows = harvestRepository.findYieldSamples();
+        List<YieldModel.Sample> samples = new ArrayList<>(rows.size());
+        for (HarvestRepository.YieldSample row : rows) {
+            if (row.getCropId() == null || row.getPlotArea() == null || row.getTotalQuantity() == null
+                    || row.getStartDate() == null || row.getLastHarvestDate() == null) {
+                continue;
+            }
+            double areaHa = row.getPlotArea().doubleValue();
+            if (areaHa <= 0) {
+                continue;
+            }
+            double duration = ChronoUnit.DAYS.between(row.getStartDate(), row.getLastHarvestDate());
+            if (duration < 0) {
+                continue;
+            }
+            samples.add(new YieldModel.Sample(row.getCropId(), row.getCropName(), row.getVarietyId(),
+                    row.getProvinceId(), areaHa, duration, row.getTotalQuantity().doubleValue() / areaHa));
+        }
+        return samples;
+    }
+
+    private double modelAgeSeconds() {
+        YieldModel current = model;
+        if (current == null) {
+            return Double.NaN;
+        }
+        return (System.currentTimeMillis() - current.getTrainedAt().toEpochMilli()) / 1000.0;
+    }
+}
@@ -0,0 +1,240 @@
+package org.example.QuanLyMuaVu.Util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming reader for the value tuples of {@code INSERT ... VALUES} statements
+ * in a SQL dump.
+ * <p>
+ * The input is scanned one character at a time, so memory use is bounded by
+ * the largest single tuple regardless of file size. Quoted strings (single or
+ * double quotes, backslash escapes and doubled quotes), {@code --}/{@code #}
+ * line comments and {@code /* *&#47;} block comments are understood well enough
+ * that parentheses inside them do not confuse the tuple boundaries. Tuples
+ * outside a {@code VALUES} list (e.g. column lists of {@code CREATE TABLE})
+ * are ignored.
+ */
+public final class SqlValuesReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final StringBuilder word = new StringBuilder();
+    private final StringBuilder value = new StringBuilder();
+    private int pushedBack = -2;
+
+    private String currentTable;
+    private boolean expectTable;
+    private boolean inValues;
+    private long lineNumber = 1;
+
+    public SqlValuesReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 64 * 1024);
+    }
+
+    /**
+     * One parsed tuple. {@code values} holds unquoted strings; SQL {@code NULL}
+     * is returned as {@code null}.
+     */
+    public record Row(String table, List<String> values) {
+    }
+
+    /**
+     * Read the next tuple, or {@code null} at end of input.
+     */
+    public Row next() throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '\'' || c == '"' || c == '`') {
+                if (c == '`' && expectTable) {
+                    word.setLength(0);
+                    readQuoted(c, word);
+                    setTable(word.toString());
+                } else {
+                    readQuoted(c, null);
+                }
+                continue;
+            }
+            if (c == '-' && peek() == '-' || c == '#') {
+                skipLine();
+                continue;
+            }
+            if (c == '/' && peek() == '*') {
+                read();
+                skipBlockComment();
+                continue;
+            }
+            if (isWordChar(c)) {
+                word.setLength(0);
+                word.append((char) c);
+                while (isWordChar(peek())) {
+                    word.append((char) read());
+                }
+                onWord(word.toString());
+                continue;
+            }
+            if (c == ';') {
+                inValues = false;
+                expectTable = false;
+                continue;
+            }
+            if (c == '(' && inValues) {
+                return new Row(currentTable, readTuple());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Current 1-based line, for progress and error messages.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void onWord(String token) {
+        String upper = token.toUpperCase(Locale.ROOT);
+        if (expectTable) {
+            setTable(token);
+        } else if ("INTO".equals(upper)) {
+            expectTable = true;
+            inValues = false;
+        } else if ("VALUES".equals(upper) || "VALUE".equals(upper)) {
+            inValues = currentTable != null;
+        }
+    }
+
+    private void setTable(String name) {
+        int dot = name.lastIndexOf('.');
+        currentTable = (dot >= 0 ? name.substring(dot + 1) : name).toLowerCase(Locale.ROOT);
+        expectTable = false;
+    }
+
+    private List<String> readTuple() throws IOException {
+        List<String> values = new ArrayList<>();
+        value.setLength(0);
+        boolean quoted = false;
+        int depth = 0;
+        int c;
+        while ((c = read()) != -1) {
+            if ((c == '\'' || c == '"') && depth == 0) {
+                readQuoted(c, value);
+                quoted = true;
+            } else if (c == '(') {
+                depth++;
+                value.append((char) c);
+            } else if (c == ')' && depth > 0) {
+                depth--;
+                value.append((char) c);
+            } else if ((c == ',' || c == ')') && depth == 0) {
+                values.add(finishValue(quoted));
+                value.setLength(0);
+                quoted = false;
+                if (c == ')') {
+                    return values;
+                }
+            } else if (!Character.isWhitespace(c) || quoted || value.length() > 0) {
+                if (!quoted) {
+                    value.append((char) c);
+                }
+            }
+        }
+        throw new IOException("Unterminated VALUES tuple near line " + lineNumber);
+    }
+
+    private String finishValue(boolean quoted) {
+        if (quoted) {
+            return value.toString();
+        }
+        String raw = value.toString().trim();
+        return "NULL".equalsIgnoreCase(raw) ? null : raw;
+    }
+
+    private void readQuoted(int quote, StringBuilder target) throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '\\') {
+                int escaped = read();
+                if (escaped == -1) {
+                    break;
+                }
+                if (target != null) {
+                    target.append(unescape(escaped));
+                }
+            } else if (c == quote) {
+                if (peek() == quote) {
+                    read();
+                    if (target != null) {
+                        target.append((char) quote);
+                    }
+                } else {
+                    return;
+                }
+            } else if (target != null) {
+                target.append((char) c);
+            }
+        }
+        throw new IOException("Unterminated quoted string near line " + lineNumber);
+    }
+
+    private static char unescape(int c) {
+        return switch (c) {
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case '0' -> '\0';
+            default -> (char) c;
+        };
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '\n') {
+            // skip
+        }
+    }
+
+    private void skipBlockComment() throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '*' && peek() == '/') {
+                read();
+                return;
+            }
+        }
+    }
+
+    private static boolean isWordChar(int c) {
+        return c == '_' || c == '.' || (c >= 0 && Character.isLetterOrDigit(c));
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushedBack != -2) {
+            c = pushedBack;
+            pushedBack = -2;
+        } else {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (pushedBack == -2) {
+            pushedBack = reader.read();
+        }
+        return pushedBack;
+    }
+}
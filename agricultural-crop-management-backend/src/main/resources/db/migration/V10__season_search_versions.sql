@@ -0,0 +1,7 @@
+-- Per-owner change counter of season and plot names, so every node's
+-- season search index notices writes made through other nodes.
+
+CREATE TABLE IF NOT EXISTS season_search_versions (
+    owner_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL
+) ENGINE=InnoDB;
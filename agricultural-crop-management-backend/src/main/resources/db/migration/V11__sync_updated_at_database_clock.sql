@@ -0,0 +1,9 @@
+-- updated_at of field logs and tasks is stamped by the database on insert and
+-- on every change, so the offline sync cursor compares values from one clock.
+-- Rows written before the column existed stay NULL until the startup backfill.
+
+ALTER TABLE field_logs
+    MODIFY COLUMN updated_at TIMESTAMP(6) NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+ALTER TABLE tasks
+    MODIFY COLUMN updated_at TIMESTAMP(6) NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
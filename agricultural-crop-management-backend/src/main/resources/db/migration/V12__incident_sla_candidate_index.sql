@@ -0,0 +1,7 @@
+-- The SLA monitor only reads incidents whose missed deadline is not yet
+-- reported. Leading with sla_breached_at keeps reported incidents out of the
+-- scanned range; the old (status, deadline) index is no longer used.
+
+DROP INDEX idx_incidents_status_deadline ON incidents;
+
+CREATE INDEX idx_incidents_sla_candidates ON incidents (sla_breached_at, status, deadline);
@@ -0,0 +1,12 @@
+-- One recent-open row per user and document, so flushes can upsert.
+
+-- Keep the newest row of every duplicated pair
+DELETE r FROM document_recent_opens r
+JOIN document_recent_opens keep
+    ON keep.user_id = r.user_id
+   AND keep.document_id = r.document_id
+   AND (keep.opened_at > r.opened_at OR (keep.opened_at = r.opened_at AND keep.id > r.id)
+        OR (r.opened_at IS NULL AND keep.opened_at IS NOT NULL));
+
+ALTER TABLE document_recent_opens
+    ADD CONSTRAINT uk_document_recent_opens_user_document UNIQUE (user_id, document_id);
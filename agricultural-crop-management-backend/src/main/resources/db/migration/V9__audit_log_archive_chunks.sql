@@ -0,0 +1,13 @@
+-- Archived audit log entries, one gzipped NDJSON chunk per entity and day.
+-- Replaces the node-local archive files so every node can read the archive.
+
+CREATE TABLE IF NOT EXISTS audit_log_archive_chunks (
+    audit_log_archive_chunk_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    archive_day DATE NOT NULL COMMENT 'Day the archived entries were performed',
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id INT NOT NULL,
+    entry_count INT NOT NULL,
+    payload LONGBLOB NOT NULL COMMENT 'Gzipped NDJSON, one audit log entry per line',
+
+    INDEX idx_audit_archive_entity_day (entity_type, entity_id, archive_day)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,79 @@
+package org.example.QuanLyMuaVu.Config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncConfigTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new AsyncConfig(meterRegistry, 1, 1, 1, 60).domainEventExecutor();
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        MDC.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tasksSeeSubmitterMdcAndAuthentication() throws Exception {
+        Authentication auth = new UsernamePasswordAuthenticationToken("farmer", null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        MDC.put("requestId", "r-42");
+
+        CompletableFuture<String> seen = new CompletableFuture<>();
+        executor.execute(() -> seen.complete(MDC.get("requestId") + "/"
+                + SecurityContextHolder.getContext().getAuthentication().getName()));
+
+        assertEquals("r-42/farmer", seen.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void saturatedExecutorRejectsInsteadOfRunningInline() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> { }); // fills the queue
+
+        Thread caller = Thread.currentThread();
+        assertThrows(TaskRejectedException.class,
+                () -> executor.execute(() -> assertNotSame(caller, Thread.currentThread())));
+        assertEquals(1.0, meterRegistry.get("events.executor.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("events.executor.queued").gauge().value());
+        release.countDown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
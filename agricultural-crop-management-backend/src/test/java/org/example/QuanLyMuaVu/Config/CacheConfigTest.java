@@ -0,0 +1,49 @@
+package org.example.QuanLyMuaVu.Config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(CacheConfig.class);
+
+    @Test
+    void cachesAreBoundedAndRecordStats() {
+        contextRunner.run(context -> {
+            CaffeineCache wards = caffeine(context.getBean(CacheManager.class).getCache("wards"));
+
+            assertThat(wards.getNativeCache().policy().eviction()).isPresent();
+            assertThat(wards.getNativeCache().policy().eviction().get().getMaximum()).isEqualTo(2000);
+            assertThat(wards.getNativeCache().policy().isRecordingStats()).isTrue();
+        });
+    }
+
+    @Test
+    void specCanBeOverriddenPerCache() {
+        contextRunner
+                .withPropertyValues("app.cache.specs.crop=maximumSize=7,expireAfterWrite=5m")
+                .run(context -> {
+                    CaffeineCache crop = caffeine(context.getBean(CacheManager.class).getCache("crop"));
+
+                    assertThat(crop.getNativeCache().policy().eviction().get().getMaximum()).isEqualTo(7);
+                    assertThat(crop.getNativeCache().policy().isRecordingStats()).isTrue();
+                });
+    }
+
+    @Test
+    void unknownCacheIsNotCreated() {
+        contextRunner.run(context -> assertThat(context.getBean(CacheManager.class).getCache("adhoc")).isNull());
+    }
+
+    private static CaffeineCache caffeine(Cache cache) {
+        assertThat(cache).isInstanceOf(TransactionAwareCacheDecorator.class);
+        return (CaffeineCache) ((TransactionAwareCacheDecorator) cache).getTargetCache();
+    }
+}
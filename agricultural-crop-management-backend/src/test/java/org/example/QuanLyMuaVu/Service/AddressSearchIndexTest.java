@@ -0,0 +1,81 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.DTO.Response.ProvinceResponse;
+import org.example.QuanLyMuaVu.DTO.Response.WardResponse;
+import org.example.QuanLyMuaVu.Entity.Province;
+import org.example.QuanLyMuaVu.Entity.Ward;
+import org.example.QuanLyMuaVu.Mapper.AddressMapperImpl;
+import org.example.QuanLyMuaVu.Repository.ProvinceRepository;
+import org.example.QuanLyMuaVu.Repository.WardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AddressSearchIndexTest {
+
+    private static final Province HA_NOI = province(1, "Hà Nội", "thanh-pho", "Thành phố Hà Nội");
+    private static final Province HA_TINH = province(2, "Hà Tĩnh", "tinh", "Tỉnh Hà Tĩnh");
+    private static final Province NAM_DINH = province(3, "Nam Định", "tinh", "Tỉnh Nam Định");
+
+    private AddressSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProvinceRepository provinceRepository = mock(ProvinceRepository.class);
+        WardRepository wardRepository = mock(WardRepository.class);
+        when(provinceRepository.findAll()).thenReturn(List.of(HA_NOI, HA_TINH, NAM_DINH));
+        when(wardRepository.findAll()).thenReturn(List.of(
+                ward(10, "Hoàn Kiếm", "phuong", "Phường Hoàn Kiếm", NAM_DINH),
+                ward(11, "Hoàn Kiếm", "phuong", "Phường Hoàn Kiếm", HA_NOI),
+                ward(12, "Ba Đình", "phuong", "Phường Ba Đình", HA_NOI),
+                ward(13, "Đông Anh", "xa", "Xã Đông Anh", HA_NOI)));
+        index = new AddressSearchIndex(provinceRepository, wardRepository, new AddressMapperImpl(),
+                mock(CatalogVersions.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void searchProvinces_matchesFoldedTokenPrefixes() {
+        assertEquals(List.of(1), provinceIds(index.searchProvinces("ha noi", null, 10)));
+        assertEquals(List.of(1, 2), provinceIds(index.searchProvinces("HA", null, 10)));
+        assertEquals(List.of(3), provinceIds(index.searchProvinces("dinh", null, 10)));
+        assertEquals(List.of(2), provinceIds(index.searchProvinces("ha", "tinh", 10)));
+        assertEquals(List.of(1), provinceIds(index.searchProvinces("ha", null, 1)));
+    }
+
+    @Test
+    void searchWards_isScopedToProvinceAndRanksNamePrefixFirst() {
+        assertEquals(List.of(11), wardIds(index.searchWards(1, "hoan kiem", 10)));
+        assertEquals(List.of(13, 12), wardIds(index.searchWards(1, "d", 10)));
+        assertEquals(List.of(13), wardIds(index.searchWards(1, "xa d", 10)));
+        assertTrue(index.searchWards(2, "hoan", 10).isEmpty());
+        assertTrue(index.containsProvince(2));
+        assertFalse(index.containsProvince(99));
+    }
+
+    private static List<Integer> provinceIds(List<ProvinceResponse> provinces) {
+        return provinces.stream().map(ProvinceResponse::getId).toList();
+    }
+
+    private static List<Integer> wardIds(List<WardResponse> wards) {
+        return wards.stream().map(WardResponse::getId).toList();
+    }
+
+    private static Province province(int id, String name, String type, String nameWithType) {
+        return Province.builder().id(id).name(name).slug(name).type(type).nameWithType(nameWithType).build();
+    }
+
+    private static Ward ward(int id, String name, String type, String nameWithType, Province province) {
+        return Ward.builder().id(id).name(name).slug(name).type(type).nameWithType(nameWithType)
+                .province(province).build();
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.QuanLyMuaVu.Service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.QuanLyMuaVu.Config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AiCallGuardTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AppProperties appProperties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        appProperties = new AppProperties();
+        AppProperties.Resilience resilience = appProperties.getAi().getResilience();
+        resilience.setMaxConcurrentCalls(1);
+        resilience.setQueueCapacity(1);
+        resilience.setMaxConcurrentStreams(1);
+        resilience.setCallTimeoutMs(100);
+        resilience.setStreamTimeoutMs(300);
+        resilience.setFailureThreshold(2);
+        resilience.setOpenDurationMs(200);
+    }
+
+    @Test
+    void slowProvider_returnsFallbackWithinDeadline() {
+        StubClient client = new StubClient();
+        client.latency = Duration.ofSeconds(5);
+        GeminiService service = new GeminiService(client, new AiCallGuard(appProperties, meterRegistry));
+
+        long start = System.nanoTime();
+        String reply = service.chatAsAgriculturalExpert("hello", null);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(reply.startsWith("Hiện tại"));
+        assertTrue(elapsedMs < 1000, "call should be abandoned at the deadline, took " + elapsedMs + "ms");
+        assertEquals(1, meterRegistry.get("ai.calls.latency").tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    void failingProvider_opensCircuitAndStopsCallingIt() {
+        StubClient client = new StubClient();
+        client.failure = new IllegalStateException("provider down");
+        AiCallGuard guard = new AiCallGuard(appProperties, meterRegistry);
+        GeminiService service = new GeminiService(client, guard);
+
+        for (int i = 0; i < 5; i++) {
+            service.chatAsAgriculturalExpert("hello", null);
+        }
+
+        assertEquals(2, client.calls.get());
+        assertEquals(AiCallGuard.CircuitBreaker.State.OPEN, guard.getCircuitState());
+        assertEquals(3.0, meterRegistry.get("ai.calls.rejected").tag("reason", "circuit_open").counter().count());
+    }
+
+    @Test
+    void openCircuit_closesAfterSuccessfulTrialCall() throws InterruptedException {
+        StubClient client = new StubClient();
+        client.failure = new IllegalStateException("provider down");
+        AiCallGuard guard = new AiCallGuard(appProperties, meterRegistry);
+        GeminiService service = new GeminiService(client, guard);
+
+        service.chatAsAgriculturalExpert("hello", null);
+        service.chatAsAgriculturalExpert("hello", null);
+        assertEquals(AiCallGuard.CircuitBreaker.State.OPEN, guard.getCircuitState());
+
+        client.failure = null;
+        Thread.sleep(250);
+
+        assertEquals("ok", service.chatAsAgriculturalExpert("hello", null));
+        assertEquals(AiCallGuard.CircuitBreaker.State.CLOSED, guard.getCircuitState());
+    }
+
+    @Test
+    void fullBulkhead_rejectsInsteadOfQueueingUnbounded() throws Exception {
+        appProperties.getAi().getResilience().setCallTimeoutMs(2000);
+        StubClient client = new StubClient();
+        client.gate = new CountDownLatch(1);
+        AiCallGuard guard = new AiCallGuard(appProperties, meterRegistry);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> running = callers.submit(() -> guard.call(() -> client.generateText("a")));
+            Future<String> queued = callers.submit(() -> guard.call(() -> client.generateText("b")));
+            awaitQueueDepth(1);
+
+            AiCallGuard.AiUnavailableException ex = assertThrows(AiCallGuard.AiUnavailableException.class,
+                    () -> guard.call(() -> client.generateText("c")));
+            assertEquals(AiCallGuard.RejectReason.BULKHEAD_FULL, ex.getReason());
+
+            client.gate.countDown();
+            assertEquals("ok", running.get(2, TimeUnit.SECONDS));
+            assertEquals("ok", queued.get(2, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void stalledStream_failsWithTimeoutFallback() {
+        StubClient client = new StubClient();
+        client.streamChunkDelay = Duration.ofSeconds(5);
+        GeminiService service = new GeminiService(client, new AiCallGuard(appProperties, meterRegistry));
+
+        List<String> chunks = service.streamChatAsAgriculturalExpert("hello", null)
+                .collectList()
+                .block(Duration.ofSeconds(2));
+
+        assertEquals(1, chunks.size());
+        assertTrue(chunks.get(0).startsWith("Hiện tại"));
+    }
+
+    private void awaitQueueDepth(double expected) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (meterRegistry.get("ai.calls.queue.depth").gauge().value() >= expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Local provider stub that can be made slow, failing or blocked on a gate.
+     */
+    private static final class StubClient implements AiModelClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile Duration latency = Duration.ZERO;
+        private volatile Duration streamChunkDelay = Duration.ZERO;
+        private volatile RuntimeException failure;
+        private volatile CountDownLatch gate;
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public String generateText(String prompt) {
+            calls.incrementAndGet();
+            try {
+                if (gate != null) {
+                    gate.await();
+                }
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return "ok";
+        }
+
+        @Override
+        public Flux<String> streamText(String prompt) {
+            return Flux.just("a", "b").delayElements(streamChunkDelay);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.QuanLyMuaVu.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.QuanLyMuaVu.Entity.AuditLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AuditLogArchiveTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AuditLogArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:audit-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE audit_logs (audit_log_id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "entity_type VARCHAR(50) NOT NULL, entity_id INT NOT NULL, operation VARCHAR(50) NOT NULL, "
+                + "performed_by VARCHAR(255) NOT NULL, performed_at TIMESTAMP NOT NULL, snapshot_data TEXT, "
+                + "reason VARCHAR(500), ip_address VARCHAR(45))");
+        jdbcTemplate.execute("CREATE TABLE audit_log_archive_chunks (audit_log_archive_chunk_id BIGINT "
+                + "AUTO_INCREMENT PRIMARY KEY, archive_day DATE NOT NULL, entity_type VARCHAR(50) NOT NULL, "
+                + "entity_id INT NOT NULL, entry_count INT NOT NULL, payload LONGBLOB NOT NULL)");
+        archive = archive(new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        archive.shutdown();
+    }
+
+    @Test
+    void archiveBefore_movesOldDaysToChunksAndKeepsRecentRows() {
+        insert(1, LocalDateTime.of(2024, 1, 1, 9, 0), "{\"name\":\"Nông trại A\"}");
+        insert(1, LocalDateTime.of(2024, 1, 1, 17, 30), null);
+        insert(2, LocalDateTime.of(2024, 1, 1, 18, 0), "{}");
+        insert(1, LocalDateTime.of(2024, 1, 3, 8, 0), "{}");
+        insert(1, LocalDateTime.of(2024, 2, 1, 8, 0), "{}");
+
+        assertEquals(4, archive.archiveBefore(LocalDate.of(2024, 2, 1)));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Integer.class));
+        // One chunk per entity and day: farm 1 and farm 2 on Jan 1, farm 1 on Jan 3.
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_log_archive_chunks", Integer.class));
+
+        List<AuditLog> farm1 = archive.find("FARM", 1, null, null);
+        assertEquals(3, farm1.size());
+        assertEquals(LocalDateTime.of(2024, 1, 3, 8, 0), farm1.get(0).getPerformedAt());
+        assertEquals("{\"name\":\"Nông trại A\"}", farm1.get(2).getSnapshotDataJson());
+        assertNull(farm1.get(1).getSnapshotDataJson());
+
+        assertEquals(2, archive.find("FARM", 1, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1)).size());
+        assertEquals(1, archive.find("FARM", 2, null, null).size());
+        assertTrue(archive.find("PLOT", 1, null, null).isEmpty());
+    }
+
+    @Test
+    void find_returnsTheNewestEntriesUpToTheLimit() {
+        for (int day = 1; day <= 4; day++) {
+            insert(day % 2, LocalDateTime.of(2024, 1, day, 9, 0), "{}");
+            insert(day % 2, LocalDateTime.of(2024, 1, day, 10, 0), "{}");
+        }
+        archive.archiveBefore(LocalDate.of(2024, 2, 1));
+
+        // Both farms, no date bounds: limited to 3, newest first.
+        List<AuditLog> newest = archive.find("FARM", null, null, null);
+        assertEquals(3, newest.size());
+        assertEquals(LocalDateTime.of(2024, 1, 4, 10, 0), newest.get(0).getPerformedAt());
+        assertEquals(LocalDateTime.of(2024, 1, 3, 10, 0), newest.get(2).getPerformedAt());
+    }
+
+    @Test
+    void archiveBefore_addsChunkForDayArchivedAgain() {
+        insert(1, LocalDateTime.of(2024, 1, 1, 9, 0), "{}");
+        archive.archiveBefore(LocalDate.of(2024, 2, 1));
+        insert(1, LocalDateTime.of(2024, 1, 1, 10, 0), "{}");
+
+        assertEquals(1, archive.archiveBefore(LocalDate.of(2024, 2, 1)));
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_log_archive_chunks", Integer.class));
+        assertEquals(2, archive.find("FARM", 1, null, null).size());
+    }
+
+    @Test
+    void archiveBefore_stopsWhenTheLeaseIsLostAndKeepsUnarchivedRows() {
+        insert(1, LocalDateTime.of(2024, 1, 1, 9, 0), "{}");
+        insert(1, LocalDateTime.of(2024, 1, 1, 10, 0), "{}");
+        insert(1, LocalDateTime.of(2024, 1, 2, 9, 0), "{}");
+        AtomicInteger renewals = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> archive.archiveBefore(LocalDate.of(2024, 2, 1), () -> {
+            renewals.incrementAndGet();
+            throw new IllegalStateException("lease lost");
+        }));
+
+        // The first page (page size 2) was committed before the renewal failed.
+        assertEquals(1, renewals.get());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Integer.class));
+        assertEquals(2, archive.find("FARM", 1, null, null).size());
+    }
+
+    @Test
+    void archiveBefore_keepsTheRowsWhenAWrittenChunkDoesNotMatchThePage() throws Exception {
+        insert(1, LocalDateTime.of(2024, 1, 1, 9, 0), "{}");
+        insert(1, LocalDateTime.of(2024, 1, 1, 10, 0), "{}");
+        archive.shutdown();
+        // Writes every entry under another id, as a corrupted export would.
+        archive = archive(new ObjectMapper() {
+            @Override
+            public String writeValueAsString(Object value) throws JsonProcessingException {
+                if (value instanceof ObjectNode node) {
+                    node.put("id", node.get("id").asLong() + 1000);
+                }
+                return super.writeValueAsString(value);
+            }
+        });
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> archive.archiveBefore(LocalDate.of(2024, 2, 1)));
+
+        assertTrue(failure.getMessage().contains("verification"));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_log_archive_chunks", Integer.class));
+    }
+
+    private AuditLogArchive archive(ObjectMapper objectMapper) {
+        return new AuditLogArchive(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                objectMapper, mock(JobRunner.class), new SimpleMeterRegistry(), 30, 2, 3, 24, false);
+    }
+
+    private void insert(int farmId, LocalDateTime performedAt, String snapshot) {
+        jdbcTemplate.update("INSERT INTO audit_logs (entity_type, entity_id, operation, performed_by, performed_at, "
+                        + "snapshot_data) VALUES ('FARM', ?, 'UPDATE', 'farmer', ?, ?)",
+                farmId, Timestamp.valueOf(performedAt), snapshot);
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.QuanLyMuaVu.Service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.QuanLyMuaVu.Entity.AuditLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuditLogWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AuditLogWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_writesQueuedEntriesInBatches() {
+        // Long interval; reaching the flush size may also trigger an early flush.
+        writer = new AuditLogWriter(jdbcTemplate, transactionManager, meterRegistry, 10, 2, 60_000, 0);
+        writer.submit(entry(1));
+        writer.submit(entry(2));
+        writer.submit(entry(3));
+
+        writer.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), rows.capture());
+        assertEquals(3, rows.getAllValues().stream().mapToInt(List::size).sum());
+        assertTrue(rows.getAllValues().stream().allMatch(batch -> batch.size() <= 2));
+        assertEquals(3.0, meterRegistry.get("audit.writer.written").counter().count());
+    }
+
+    @Test
+    void submit_writesOnCallerThreadWhenQueueIsFull() {
+        writer = new AuditLogWriter(jdbcTemplate, transactionManager, meterRegistry, 1, 100, 60_000, 0);
+        writer.submit(entry(1));
+        writer.submit(entry(2));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertEquals(1.0, meterRegistry.get("audit.writer.caller_writes").counter().count());
+        // Independent of the caller's transaction.
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void submit_callerWriteFailureDoesNotReachTheCaller() {
+        when(transactionManager.getTransaction(any())).thenThrow(new IllegalStateException("no connection"));
+        writer = new AuditLogWriter(jdbcTemplate, transactionManager, meterRegistry, 1, 100, 60_000, 0);
+        writer.submit(entry(1));
+
+        assertDoesNotThrow(() -> writer.submit(entry(2)));
+        assertEquals(1.0, meterRegistry.get("audit.writer.failed").counter().count());
+    }
+
+    @Test
+    void shutdown_drainsQueue() {
+        writer = new AuditLogWriter(jdbcTemplate, transactionManager, meterRegistry, 10, 100, 60_000, 0);
+        writer.submit(entry(1));
+
+        writer.shutdown();
+        writer = null;
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void failedBatch_isRetriedRowByRow() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new IllegalStateException("bad row"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenReturn(1)
+                .thenThrow(new IllegalStateException("bad row"));
+        writer = new AuditLogWriter(jdbcTemplate, transactionManager, meterRegistry, 10, 100, 60_000, 0);
+        writer.submit(entry(1));
+        writer.submit(entry(2));
+
+        writer.flush();
+
+        assertEquals(1.0, meterRegistry.get("audit.writer.written").counter().count());
+        assertEquals(1.0, meterRegistry.get("audit.writer.failed").counter().count());
+    }
+
+    private static AuditLog entry(int farmId) {
+        return AuditLog.builder()
+                .entityType("FARM")
+                .entityId(farmId)
+                .operation("UPDATE")
+                .performedBy("farmer")
+                .performedAt(LocalDateTime.of(2024, 5, 1, 8, 0))
+                .snapshotDataJson("{}")
+                .build();
+    }
+}
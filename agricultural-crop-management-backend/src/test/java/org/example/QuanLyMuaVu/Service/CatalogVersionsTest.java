@@ -0,0 +1,86 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.Entity.CatalogVersion;
+import org.example.QuanLyMuaVu.Repository.CatalogVersionRepository;
+import org.example.QuanLyMuaVu.Service.CatalogVersions.Catalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CatalogVersionsTest {
+
+    private CatalogVersionRepository repository;
+    private Cache cache;
+    private CatalogVersions versions;
+
+    @AfterEach
+    void tearDown() {
+        versions.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CatalogVersionRepository.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        cache = mock(Cache.class);
+        when(cacheManager.getCache(anyString())).thenReturn(cache);
+        when(repository.findAll()).thenReturn(List.of(row(Catalog.CROPS, 3), row(Catalog.ADDRESS, 7)));
+        versions = new CatalogVersions(cacheManager, repository);
+    }
+
+    @Test
+    void etag_isDerivedFromStoredVersions() {
+        versions.refresh();
+        assertEquals("W/\"v-3\"", versions.etag(Catalog.CROPS));
+        assertEquals("W/\"v-3-0\"", versions.etag(Catalog.CROPS, Catalog.VARIETIES));
+
+        // Same rows give the same tag on any node.
+        CatalogVersions otherNode = new CatalogVersions(mock(CacheManager.class), repository);
+        otherNode.refresh();
+        assertEquals(versions.etag(Catalog.ADDRESS), otherNode.etag(Catalog.ADDRESS));
+    }
+
+    @Test
+    void bump_incrementsTheRowAndDropsLocalCaches() {
+        versions.bump(Catalog.VARIETIES);
+
+        verify(repository).increment("VARIETIES");
+        verify(cache, atLeastOnce()).invalidate();
+    }
+
+    @Test
+    void refresh_appliesWritesFromOtherNodesBeforeHandingOutTheVersion() {
+        AtomicInteger reloads = new AtomicInteger();
+        versions.onChange(Catalog.ADDRESS, reloads::incrementAndGet);
+        versions.refresh();
+        String before = versions.etag(Catalog.ADDRESS);
+        assertEquals(1, reloads.get());
+        clearInvocations(cache);
+
+        // Import committed through another node: tags keep the applied
+        // version, without a read, until the next refresh.
+        when(repository.findAll()).thenReturn(List.of(row(Catalog.CROPS, 3), row(Catalog.ADDRESS, 8)));
+        assertEquals(before, versions.etag(Catalog.ADDRESS));
+        verify(repository, times(1)).findAll();
+
+        versions.refresh();
+        assertNotEquals(before, versions.etag(Catalog.ADDRESS));
+        assertEquals(2, reloads.get());
+        verify(cache, atLeastOnce()).invalidate();
+        assertEquals(3, versions.version(Catalog.CROPS));
+        assertEquals(2, reloads.get());
+    }
+
+    private static CatalogVersion row(Catalog catalog, long version) {
+        return CatalogVersion.builder().catalog(catalog.name()).version(version).build();
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.QuanLyMuaVu.Service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DocumentOpenBufferTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 8, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private DocumentOpenBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // Long interval so only explicit flushes run during the test.
+        buffer = new DocumentOpenBuffer(jdbcTemplate, meterRegistry, 60_000, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.shutdown();
+    }
+
+    @Test
+    void record_coalescesRepeatedOpensAndKeepsLatest() {
+        buffer.record(1L, 10, T0);
+        buffer.record(1L, 10, T0.plusMinutes(5));
+        buffer.record(1L, 10, T0.plusMinutes(1));
+
+        assertEquals(Map.of(10, T0.plusMinutes(5)), buffer.pendingOpens(1L));
+        assertEquals(2.0, meterRegistry.get("documents.recent_opens.coalesced").counter().count());
+    }
+
+    @Test
+    void record_dropsNewPairsWhenBufferIsFull() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new IllegalStateException("db down"));
+
+        buffer.record(1L, 10, T0);
+        buffer.record(2L, 20, T0);
+        buffer.record(3L, 30, T0);
+
+        assertTrue(buffer.pendingOpens(3L).isEmpty());
+        assertTrue(meterRegistry.get("documents.recent_opens.dropped").counter().count() >= 1.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_upsertsEveryPairInOneBatch() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1, 2 });
+
+        buffer.record(1L, 10, T0);
+        buffer.record(1L, 11, T0.plusMinutes(1));
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("ON DUPLICATE KEY UPDATE"), rows.capture());
+        verifyNoMoreInteractions(jdbcTemplate);
+        assertEquals(2, rows.getValue().size());
+        assertTrue(buffer.pendingOpens(1L).isEmpty());
+        assertEquals(2.0, meterRegistry.get("documents.recent_opens.flushed").counter().count());
+    }
+
+    @Test
+    void flush_fallsBackToSingleRowsWhenTheBatchFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataIntegrityViolationException("fk"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1)
+                .thenThrow(new DataIntegrityViolationException("fk"));
+
+        buffer.record(1L, 10, T0);
+        buffer.record(1L, 11, T0);
+        buffer.flush();
+
+        verify(jdbcTemplate, times(2)).update(contains("ON DUPLICATE KEY UPDATE"), any(Object[].class));
+        assertEquals(1.0, meterRegistry.get("documents.recent_opens.dropped").counter().count());
+        assertTrue(buffer.pendingOpens(1L).isEmpty());
+    }
+
+    @Test
+    void flush_failureKeepsOpensForRetry() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new IllegalStateException("db down"));
+
+        buffer.record(1L, 10, T0);
+        assertThrows(IllegalStateException.class, () -> buffer.flush());
+
+        assertEquals(Map.of(10, T0), buffer.pendingOpens(1L));
+    }
+}
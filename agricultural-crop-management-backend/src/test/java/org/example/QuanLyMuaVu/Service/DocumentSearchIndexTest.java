@@ -0,0 +1,84 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.Entity.Document;
+import org.example.QuanLyMuaVu.Repository.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DocumentSearchIndexTest {
+
+    private DocumentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        DocumentRepository repository = mock(DocumentRepository.class);
+        when(repository.findAllByIsActiveTrueAndIsPublicTrue()).thenReturn(List.of(
+                doc(1, "Kỹ thuật bón phân cho lúa", "Hướng dẫn bón phân đạm", "rice", 1),
+                doc(2, "Phòng trừ sâu bệnh", "Sâu đục thân trên lúa", "rice", 2),
+                doc(3, "Tưới nước cho ngô", "Lịch tưới theo giai đoạn", "corn", 3),
+                doc(4, "Đất và dinh dưỡng", "Bón phân hữu cơ", "corn", 4)));
+        index = new DocumentSearchIndex(repository, mock(CatalogVersions.class));
+    }
+
+    @Test
+    void search_foldsDiacriticsAndRanksTitleMatchesFirst() {
+        DocumentSearchIndex.SearchResult result = index.search("bon phan", null, null, null, 0, 10);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(1, 4), result.documentIds());
+    }
+
+    @Test
+    void search_treatsLastTokenAsPrefix() {
+        assertEquals(List.of(3), index.search("tuo", null, null, null, 0, 10).documentIds());
+        assertEquals(List.of(4), index.search("Đất", null, null, null, 0, 10).documentIds());
+    }
+
+    @Test
+    void search_appliesFiltersAndPagination() {
+        DocumentSearchIndex.SearchResult filtered = index.search("lua", "rice", null, null, 0, 10);
+        assertEquals(2, filtered.total());
+
+        DocumentSearchIndex.SearchResult secondPage = index.search("lua", "rice", null, null, 1, 1);
+        assertEquals(2, secondPage.total());
+        assertEquals(1, secondPage.documentIds().size());
+        assertNotEquals(filtered.documentIds().get(0), secondPage.documentIds().get(0));
+
+        assertEquals(0, index.search("lua", "corn", null, null, 0, 10).total());
+    }
+
+    @Test
+    void search_expandsShortPrefixToEveryMatchingTerm() {
+        List<Document> documents = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            documents.add(doc(i, "Tài liệu " + "m" + Integer.toString(i, 36) + "x" + i, null, "rice", 1));
+        }
+        DocumentRepository repository = mock(DocumentRepository.class);
+        when(repository.findAllByIsActiveTrueAndIsPublicTrue()).thenReturn(documents);
+        DocumentSearchIndex large = new DocumentSearchIndex(repository, mock(CatalogVersions.class));
+
+        DocumentSearchIndex.SearchResult result = large.search("m", null, null, null, 0, 200);
+
+        assertEquals(100, result.total());
+        assertEquals(100, result.documentIds().size());
+        assertEquals(100, large.search("tai m", null, null, null, 0, 10).total());
+    }
+
+    private static Document doc(int id, String title, String description, String crop, int day) {
+        return Document.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .crop(crop)
+                .url("https://example.org/" + id)
+                .createdAt(LocalDateTime.of(2024, 1, day, 0, 0))
+                .build();
+    }
+}
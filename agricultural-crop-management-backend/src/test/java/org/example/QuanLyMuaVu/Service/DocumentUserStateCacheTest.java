@@ -0,0 +1,94 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.Entity.DocumentRecentOpen;
+import org.example.QuanLyMuaVu.Repository.DocumentFavoriteRepository;
+import org.example.QuanLyMuaVu.Repository.DocumentRecentOpenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DocumentUserStateCacheTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 8, 0);
+
+    private DocumentFavoriteRepository favoriteRepository;
+    private AtomicLong nanos;
+    private DocumentUserStateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository = mock(DocumentFavoriteRepository.class);
+        DocumentRecentOpenRepository recentRepository = mock(DocumentRecentOpenRepository.class);
+        DocumentOpenBuffer buffer = mock(DocumentOpenBuffer.class);
+
+        when(favoriteRepository.findDocumentIdsByUserId(1L)).thenReturn(Set.of(7, 3));
+        when(recentRepository.findByUserIdOrderByOpenedAtDesc(eq(1L), any())).thenReturn(List.of(
+                open(5, T0.plusMinutes(2)),
+                open(6, T0.plusMinutes(1))));
+        when(buffer.pendingOpens(1L)).thenReturn(Map.of(6, T0.plusMinutes(3), 8, T0));
+
+        nanos = new AtomicLong();
+        cache = new DocumentUserStateCache(favoriteRepository, recentRepository, buffer, 3, 100, 60, nanos::get);
+    }
+
+    @Test
+    void get_mergesPersistedAndBufferedOpensNewestFirst() {
+        DocumentUserStateCache.UserDocumentState state = cache.get(1L);
+
+        assertArrayEquals(new int[] { 6, 5, 8 }, state.recentIds());
+        assertTrue(state.isFavorite(3));
+        assertFalse(state.isFavorite(5));
+    }
+
+    @Test
+    void onOpened_movesDocumentToFrontWithinBound() {
+        cache.get(1L);
+
+        cache.onOpened(1L, 9);
+        assertArrayEquals(new int[] { 9, 6, 5 }, cache.get(1L).recentIds());
+
+        cache.onOpened(1L, 5);
+        assertArrayEquals(new int[] { 5, 9, 6 }, cache.get(1L).recentIds());
+    }
+
+    @Test
+    void invalidateAfterCommit_reloadsFavorites() {
+        cache.get(1L);
+        when(favoriteRepository.findDocumentIdsByUserId(1L)).thenReturn(Set.of(7, 3, 11));
+
+        cache.invalidateAfterCommit(1L);
+
+        assertTrue(cache.get(1L).isFavorite(11));
+        verify(favoriteRepository, times(2)).findDocumentIdsByUserId(1L);
+    }
+
+    @Test
+    void get_reloadsFavoritesChangedElsewhereOnceTheEntryExpires() {
+        cache.get(1L);
+        // Favorite added through another node: no invalidation reaches this one.
+        when(favoriteRepository.findDocumentIdsByUserId(1L)).thenReturn(Set.of(7, 3, 11));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        cache.onOpened(1L, 9);
+        assertFalse(cache.get(1L).isFavorite(11));
+
+        // Opens do not push expiry out.
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertTrue(cache.get(1L).isFavorite(11));
+    }
+
+    private static DocumentRecentOpen open(int documentId, LocalDateTime openedAt) {
+        return DocumentRecentOpen.builder().userId(1L).documentId(documentId).openedAt(openedAt).build();
+    }
+}
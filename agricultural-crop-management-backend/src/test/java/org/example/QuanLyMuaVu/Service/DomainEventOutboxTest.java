@@ -0,0 +1,171 @@
+package org.example.QuanLyMuaVu.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.QuanLyMuaVu.Entity.OutboxEvent;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.Task;
+import org.example.QuanLyMuaVu.Enums.OutboxStatus;
+import org.example.QuanLyMuaVu.Enums.TaskStatus;
+import org.example.QuanLyMuaVu.Pattern.Observer.DomainEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonCreatedEvent;
+import org.example.QuanLyMuaVu.Pattern.Observer.TaskCompletedEvent;
+import org.example.QuanLyMuaVu.Repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DomainEventOutboxTest {
+
+    private OutboxEventRepository repository;
+    private ApplicationEventPublisher publisher;
+    private DomainEventOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        publisher = mock(ApplicationEventPublisher.class);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        // Not started, so only explicit dispatches run.
+        outbox = new DomainEventOutbox(repository, objectMapper, publisher, Runnable::run, new SimpleMeterRegistry(),
+                60_000, 10, 3, 1000, 60_000, 60_000, 72);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outbox.shutdown();
+    }
+
+    @Test
+    void dispatch_restoresEventWithOriginalIdAndMarksItDispatched() {
+        Task task = Task.builder().id(7).title("Bón phân").season(Season.builder().id(3).build()).build();
+        TaskCompletedEvent original = new TaskCompletedEvent(task, TaskStatus.IN_PROGRESS);
+        OutboxEvent entry = appendAndClaim(original);
+
+        assertEquals(1, outbox.dispatchDue());
+
+        ArgumentCaptor<Object> published = ArgumentCaptor.forClass(Object.class);
+        verify(publisher).publishEvent(published.capture());
+        TaskCompletedEvent restored = (TaskCompletedEvent) published.getValue();
+        assertEquals(original.getEventId(), restored.getEventId());
+        assertEquals(original.getOccurredOn(), restored.getOccurredOn());
+        assertEquals("Bón phân", restored.getTaskTitle());
+        assertEquals(3, restored.getSeasonId());
+        assertEquals(TaskStatus.IN_PROGRESS, restored.getPreviousStatus());
+        assertEquals(OutboxStatus.DISPATCHED, entry.getStatus());
+        assertNull(entry.getClaimedBy());
+    }
+
+    @Test
+    void dispatch_retriesWithBackoffAndGivesUpAfterMaxAttempts() {
+        doThrow(new IllegalStateException("listener down")).when(publisher).publishEvent(any(Object.class));
+        OutboxEvent entry = appendAndClaim(new SeasonCreatedEvent(Season.builder().id(5).seasonName("Vụ Đông").build()));
+
+        assertEquals(0, outbox.dispatchDue());
+        assertEquals(OutboxStatus.PENDING, entry.getStatus());
+        assertEquals(1, entry.getAttempts());
+        assertTrue(entry.getLastError().contains("listener down"));
+        verify(repository).recordFailure(isNull(), anyString(), eq("PENDING"), eq(1), contains("listener down"),
+                eq(1L));
+
+        entry.setAttempts(2);
+        when(repository.claimDue(anyString(), anyLong(), anyInt())).thenReturn(1, 0);
+        outbox.dispatchDue();
+        assertEquals(OutboxStatus.FAILED, entry.getStatus());
+    }
+
+    @Test
+    void dispatch_waitsForListenersOnTheExecutorAndKeepsTheEntryPendingWhenOneThrows() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        DomainEventOutbox pooled = new DomainEventOutbox(repository, objectMapper, publisher, executor,
+                new SimpleMeterRegistry(), 60_000, 10, 3, 1000, 60_000, 60_000, 72);
+        try {
+            doAnswer(invocation -> {
+                Thread.sleep(50);
+                throw new IllegalStateException("listener down");
+            }).when(publisher).publishEvent(any(Object.class));
+            pooled.append(new SeasonCreatedEvent(Season.builder().id(5).seasonName("Vụ Đông").build()));
+            ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+            verify(repository).save(saved.capture());
+            OutboxEvent entry = saved.getValue();
+            when(repository.claimDue(anyString(), anyLong(), anyInt())).thenReturn(1, 0);
+            when(repository.findByClaimedByOrderByIdAsc(anyString())).thenReturn(List.of(entry));
+            when(repository.recordFailure(any(), anyString(), anyString(), anyInt(), anyString(), anyLong()))
+                    .thenReturn(1);
+
+            assertEquals(0, pooled.dispatchDue());
+
+            assertEquals(OutboxStatus.PENDING, entry.getStatus());
+            assertEquals(1, entry.getAttempts());
+            assertNull(entry.getDispatchedAt());
+            assertTrue(entry.getLastError().contains("listener down"));
+        } finally {
+            pooled.shutdown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void dispatch_countsARejectedSubmissionAsAFailedAttempt() {
+        OutboxEvent entry = appendAndClaim(new SeasonCreatedEvent(Season.builder().id(5).seasonName("Vụ Đông").build()));
+        DomainEventOutbox saturated = new DomainEventOutbox(repository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), publisher,
+                task -> { throw new RejectedExecutionException("saturated"); },
+                new SimpleMeterRegistry(), 60_000, 10, 3, 1000, 60_000, 60_000, 72);
+        try {
+            assertEquals(0, saturated.dispatchDue());
+        } finally {
+            saturated.shutdown();
+        }
+
+        verify(publisher, never()).publishEvent(any(Object.class));
+        assertEquals(OutboxStatus.PENDING, entry.getStatus());
+        assertEquals(1, entry.getAttempts());
+    }
+
+    @Test
+    void dispatch_leavesTheEntryToTheRunThatTookOverAnExpiredClaim() {
+        OutboxEvent entry = appendAndClaim(new SeasonCreatedEvent(Season.builder().id(5).seasonName("Vụ Đông").build()));
+        when(repository.markDispatched(any(), anyString())).thenReturn(0);
+
+        assertEquals(0, outbox.dispatchDue());
+
+        assertEquals(OutboxStatus.PENDING, entry.getStatus());
+        assertEquals(0, entry.getAttempts());
+        verify(repository, never()).recordFailure(any(), anyString(), anyString(), anyInt(), anyString(), anyLong());
+        verify(repository, times(1)).save(any());
+    }
+
+    @Test
+    void backoff_doublesUpToTheCap() {
+        assertEquals(1000, outbox.backoffMs(1));
+        assertEquals(8000, outbox.backoffMs(4));
+        assertEquals(60_000, outbox.backoffMs(20));
+    }
+
+    private OutboxEvent appendAndClaim(DomainEvent event) {
+        outbox.append(event);
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(repository).save(saved.capture());
+        OutboxEvent entry = saved.getValue();
+        when(repository.claimDue(anyString(), anyLong(), anyInt())).thenReturn(1, 0);
+        when(repository.findByClaimedByOrderByIdAsc(anyString())).thenReturn(List.of(entry));
+        when(repository.markDispatched(any(), anyString())).thenReturn(1);
+        when(repository.recordFailure(any(), anyString(), anyString(), anyInt(), anyString(), anyLong()))
+                .thenReturn(1);
+        return entry;
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.DTO.Common.CursorPageResponse;
+import org.example.QuanLyMuaVu.DTO.Common.PageResponse;
+import org.example.QuanLyMuaVu.DTO.Response.FieldLogResponse;
+import org.example.QuanLyMuaVu.Entity.Crop;
+import org.example.QuanLyMuaVu.Entity.Farm;
+import org.example.QuanLyMuaVu.Entity.FieldLog;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.Province;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.Ward;
+import org.example.QuanLyMuaVu.Enums.SeasonStatus;
+import org.example.QuanLyMuaVu.Exception.AppException;
+import org.example.QuanLyMuaVu.Exception.ErrorCode;
+import org.example.QuanLyMuaVu.Repository.FieldLogRepository;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:jpa-h2.properties")
+class FieldLogServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private FieldLogRepository fieldLogRepository;
+    @Autowired
+    private SeasonRepository seasonRepository;
+
+    private FieldLogService fieldLogService;
+    private Integer seasonId;
+
+    @BeforeEach
+    void setUp() {
+        fieldLogService = new FieldLogService(fieldLogRepository, seasonRepository, mock(FarmAccessService.class),
+                mock(SyncTombstones.class));
+        Crop crop = entityManager.persist(Crop.builder().cropName("Lúa").build());
+        Province province = entityManager.persist(Province.builder().id(1).name("An Giang").slug("an-giang")
+                .type("tinh").nameWithType("Tỉnh An Giang").build());
+        Ward ward = entityManager.persist(Ward.builder().id(1).name("Mỹ Bình").slug("my-binh").type("phuong")
+                .nameWithType("Phường Mỹ Bình").province(province).build());
+        Farm farm = entityManager.persist(Farm.builder().name("Nông trại A").province(province).ward(ward)
+                .active(true).build());
+        Plot plot = entityManager.persist(Plot.builder().plotName("Lô 1").farm(farm).build());
+        Season season = entityManager.persist(Season.builder().seasonName("Vụ xuân").plot(plot).crop(crop)
+                .startDate(LocalDate.of(2025, 3, 1)).status(SeasonStatus.ACTIVE).initialPlantCount(100).build());
+        Season other = entityManager.persist(Season.builder().seasonName("Vụ hè").plot(plot).crop(crop)
+                .startDate(LocalDate.of(2025, 3, 1)).status(SeasonStatus.ACTIVE).initialPlantCount(100).build());
+        seasonId = season.getId();
+
+        log(season, 1, "IRRIGATE", "Tưới 100% diện tích");
+        log(season, 2, "PEST", "Rầy nâu xuất hiện");
+        log(season, 2, "IRRIGATE", "Tưới bổ sung");
+        log(season, 2, "WEATHER", "Mưa lớn");
+        log(season, 5, "PEST", "Phun thuốc trừ rầy");
+        log(other, 3, "PEST", "Rầy nâu ở vụ khác");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listFieldLogTimeline_walksAllRowsInDateOrderAcrossTies() {
+        List<FieldLogResponse> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageResponse<FieldLogResponse> page = fieldLogService.listFieldLogTimeline(
+                    seasonId, null, null, null, null, cursor, 2);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(5, seen.size());
+        assertEquals(5, seen.stream().map(FieldLogResponse::getId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            FieldLogResponse previous = seen.get(i - 1);
+            FieldLogResponse current = seen.get(i);
+            assertFalse(current.getLogDate().isAfter(previous.getLogDate()));
+            if (current.getLogDate().equals(previous.getLogDate())) {
+                assertTrue(current.getId() < previous.getId());
+            }
+        }
+    }
+
+    @Test
+    void listFieldLogTimeline_appliesFiltersInQuery() {
+        CursorPageResponse<FieldLogResponse> pests = fieldLogService.listFieldLogTimeline(
+                seasonId, LocalDate.of(2025, 3, 2), null, "pe", "rầy", null, 10);
+
+        assertEquals(2, pests.getItems().size());
+        assertFalse(pests.isHasMore());
+        assertEquals("Phun thuốc trừ rầy", pests.getItems().get(0).getNotes());
+
+        // Wildcards in the search text are literal.
+        assertEquals(1, fieldLogService.listFieldLogTimeline(seasonId, null, null, null, "0%", null, 10)
+                .getItems().size());
+        assertEquals(0, fieldLogService.listFieldLogTimeline(seasonId, null, null, null, "_ư", null, 10)
+                .getItems().size());
+    }
+
+    @Test
+    void listFieldLogsForSeason_pagesFilteredRowsInTheDatabase() {
+        PageResponse<FieldLogResponse> page = fieldLogService.listFieldLogsForSeason(
+                seasonId, LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 3), null, null, 1, 2);
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertEquals(1, page.getItems().size());
+    }
+
+    @Test
+    void listFieldLogTimeline_rejectsMalformedCursor() {
+        AppException error = assertThrows(AppException.class, () -> fieldLogService.listFieldLogTimeline(
+                seasonId, null, null, null, null, "not-a-cursor", 2));
+
+        assertEquals(ErrorCode.INVALID_CURSOR, error.getErrorCode());
+    }
+
+    private void log(Season season, int day, String type, String notes) {
+        entityManager.persist(FieldLog.builder().season(season).logDate(LocalDate.of(2025, 3, day))
+                .logType(type).notes(notes).build());
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.QuanLyMuaVu.Service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.QuanLyMuaVu.Config.AppProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeminiServiceTest {
+
+    @Test
+    void streamChat_forwardsChunksInArrivalOrder() {
+        FakeStreamingClient client = new FakeStreamingClient(List.of("Lúa ", "cần ", "nước."));
+        GeminiService service = newService(client);
+
+        List<String> chunks = service.streamChatAsAgriculturalExpert("Tưới bao nhiêu?", null)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("Lúa ", "cần ", "nước."), chunks);
+    }
+
+    @Test
+    void streamChat_firstChunkArrivesBeforeGenerationCompletes() {
+        FakeStreamingClient client = new FakeStreamingClient(List.of("a", "b", "c"), Duration.ofMillis(200));
+        GeminiService service = newService(client);
+
+        long start = System.nanoTime();
+        String first = service.streamChatAsAgriculturalExpert("hello", null)
+                .blockFirst(Duration.ofSeconds(5));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("a", first);
+        assertTrue(elapsedMs < 500, "first chunk should not wait for the full answer, took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void streamChat_cancellationStopsUpstream() throws InterruptedException {
+        FakeStreamingClient client = new FakeStreamingClient(List.of("a", "b", "c", "d"), Duration.ofMillis(50));
+        GeminiService service = newService(client);
+
+        service.streamChatAsAgriculturalExpert("hello", null)
+                .take(1)
+                .blockLast(Duration.ofSeconds(5));
+
+        assertTrue(client.cancelled.await(2, TimeUnit.SECONDS), "upstream stream should be cancelled");
+        assertTrue(client.emitted.get() < 4, "upstream should stop emitting after cancellation");
+    }
+
+    @Test
+    void streamChat_whenDisabled_emitsConnectionFallback() {
+        FakeStreamingClient client = new FakeStreamingClient(List.of("ignored"));
+        client.enabled = false;
+        GeminiService service = newService(client);
+
+        List<String> chunks = service.streamChatAsAgriculturalExpert("hello", null)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(1, chunks.size());
+        assertEquals(service.chatAsAgriculturalExpert("hello", null), chunks.get(0));
+    }
+
+    @Test
+    void streamChat_whenProviderFailsBeforeFirstChunk_emitsSingleFallback() {
+        FakeStreamingClient client = new FakeStreamingClient(List.of());
+        client.failure = new IllegalStateException("provider down");
+        GeminiService service = newService(client);
+
+        List<String> chunks = service.streamChatAsAgriculturalExpert("hello", null)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(1, chunks.size());
+        assertTrue(chunks.get(0).startsWith("Hiện tại"));
+    }
+
+    @Test
+    void streamChat_whenProviderReturnsNothing_emitsEmptyFallback() {
+        FakeStreamingClient client = new FakeStreamingClient(List.of("", ""));
+        GeminiService service = newService(client);
+
+        List<String> chunks = service.streamChatAsAgriculturalExpert("hello", null)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(1, chunks.size());
+        assertTrue(chunks.get(0).contains("câu trả lời"));
+    }
+
+    private static GeminiService newService(AiModelClient client) {
+        return new GeminiService(client, new AiCallGuard(new AppProperties(), new SimpleMeterRegistry()));
+    }
+
+    /**
+     * Local stand-in for the Gemini streaming API that emits canned chunks,
+     * optionally spaced out to mimic token latency.
+     */
+    private static final class FakeStreamingClient implements AiModelClient {
+
+        private final List<String> chunks;
+        private final Duration delay;
+        private final CountDownLatch cancelled = new CountDownLatch(1);
+        private final AtomicInteger emitted = new AtomicInteger();
+        private boolean enabled = true;
+        private RuntimeException failure;
+
+        private FakeStreamingClient(List<String> chunks) {
+            this(chunks, Duration.ZERO);
+        }
+
+        private FakeStreamingClient(List<String> chunks, Duration delay) {
+            this.chunks = chunks;
+            this.delay = delay;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public String generateText(String prompt) {
+            return String.join("", chunks);
+        }
+
+        @Override
+        public Flux<String> streamText(String prompt) {
+            if (failure != null) {
+                return Flux.error(failure);
+            }
+            Flux<String> source = Flux.fromIterable(chunks);
+            if (!delay.isZero()) {
+                source = source.delayElements(delay);
+            }
+            return source
+                    .doOnNext(chunk -> emitted.incrementAndGet())
+                    .doOnCancel(cancelled::countDown);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.Entity.Crop;
+import org.example.QuanLyMuaVu.Entity.Farm;
+import org.example.QuanLyMuaVu.Entity.Incident;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.Province;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.Task;
+import org.example.QuanLyMuaVu.Entity.User;
+import org.example.QuanLyMuaVu.Entity.Ward;
+import org.example.QuanLyMuaVu.Enums.IncidentStatus;
+import org.example.QuanLyMuaVu.Enums.SeasonStatus;
+import org.example.QuanLyMuaVu.Enums.TaskStatus;
+import org.example.QuanLyMuaVu.Repository.DashboardRepository;
+import org.example.QuanLyMuaVu.Repository.IncidentCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:jpa-h2.properties")
+class IncidentCountersTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private IncidentCounterRepository incidentCounterRepository;
+    @Autowired
+    private DashboardRepository dashboardRepository;
+
+    private IncidentCounters incidentCounters;
+    private User owner;
+    private Season first;
+    private Season second;
+
+    @BeforeEach
+    void setUp() {
+        incidentCounters = new IncidentCounters(incidentCounterRepository, null, mock(JobRunner.class),
+                mock(TaskScheduler.class));
+        Province province = entityManager.persist(Province.builder().id(1).name("An Giang").slug("an-giang")
+                .type("tinh").nameWithType("Tỉnh An Giang").build());
+        Ward ward = entityManager.persist(Ward.builder().id(1).name("Mỹ Bình").slug("my-binh").type("phuong")
+                .nameWithType("Phường Mỹ Bình").province(province).build());
+        owner = entityManager.persist(User.builder().username("owner").email("owner@example.com").build());
+        User other = entityManager.persist(User.builder().username("other").email("other@example.com").build());
+        first = season(farm("Nông trại A", owner, province, ward), "Vụ xuân");
+        second = season(farm("Nông trại B", owner, province, ward), "Vụ hè");
+        Season foreign = season(farm("Nông trại C", other, province, ward), "Vụ thu");
+
+        Incident pest = incident(first, IncidentStatus.OPEN);
+        incident(first, IncidentStatus.OPEN);
+        incident(second, IncidentStatus.OPEN);
+        incident(foreign, IncidentStatus.OPEN);
+        entityManager.persist(Task.builder().title("Bón phân").user(owner).season(second)
+                .status(TaskStatus.OVERDUE).build());
+        entityManager.flush();
+
+        pest.setStatus(IncidentStatus.IN_PROGRESS);
+        incidentCounters.statusChanged(pest, IncidentStatus.OPEN);
+    }
+
+    @Test
+    void counters_followCreateStatusChangeAndDelete() {
+        Map<IncidentStatus, Long> counts = incidentCounters.countsForSeason(first.getId());
+        assertEquals(1L, counts.get(IncidentStatus.OPEN));
+        assertEquals(1L, counts.get(IncidentStatus.IN_PROGRESS));
+        assertEquals(0L, counts.get(IncidentStatus.RESOLVED));
+
+        assertEquals(3, incidentCounters.countForOwner(owner.getId(),
+                List.of(IncidentStatus.OPEN, IncidentStatus.IN_PROGRESS)));
+        assertEquals(2, incidentCounters.countForOwner(owner.getId(), List.of(IncidentStatus.OPEN)));
+
+        Incident removed = Incident.builder().season(second).status(IncidentStatus.OPEN).build();
+        incidentCounters.deleted(removed);
+        assertEquals(0L, incidentCounters.countsForSeason(second.getId()).get(IncidentStatus.OPEN));
+    }
+
+    @Test
+    void rebuild_matchesMaintainedCounts() {
+        Map<IncidentStatus, Long> maintained = incidentCounters.countsForSeason(first.getId());
+
+        incidentCounterRepository.deleteAllRows();
+        assertEquals(0L, incidentCounters.countsForSeason(first.getId()).get(IncidentStatus.OPEN));
+        incidentCounterRepository.insertCountsFromIncidents();
+
+        assertEquals(maintained, incidentCounters.countsForSeason(first.getId()));
+    }
+
+    @Test
+    void findRiskySeasons_readsCounters() {
+        List<DashboardRepository.RiskySeasonProjection> risky = dashboardRepository
+                .findRiskySeasons(TaskStatus.OVERDUE, PageRequest.of(0, 10));
+
+        assertEquals(3, risky.size());
+        DashboardRepository.RiskySeasonProjection top = risky.get(0);
+        assertEquals(2L, top.getRiskScore());
+        DashboardRepository.RiskySeasonProjection secondRow = risky.stream()
+                .filter(p -> p.getSeasonId().equals(second.getId())).findFirst().orElseThrow();
+        assertEquals(1L, secondRow.getIncidentCount());
+        assertEquals(1L, secondRow.getOverdueTaskCount());
+        assertEquals(2L, secondRow.getRiskScore());
+    }
+
+    private Farm farm(String name, User farmOwner, Province province, Ward ward) {
+        return entityManager.persist(Farm.builder().name(name).owner(farmOwner).province(province).ward(ward)
+                .active(true).build());
+    }
+
+    private Season season(Farm farm, String name) {
+        Crop crop = entityManager.persist(Crop.builder().cropName("Cây " + name).build());
+        Plot plot = entityManager.persist(Plot.builder().plotName("Lô " + name).farm(farm).build());
+        return entityManager.persist(Season.builder().seasonName(name).plot(plot).crop(crop)
+                .startDate(LocalDate.of(2025, 3, 1)).status(SeasonStatus.ACTIVE).initialPlantCount(100).build());
+    }
+
+    private Incident incident(Season season, IncidentStatus status) {
+        Incident incident = entityManager.persist(Incident.builder().season(season).incidentType("PEST")
+                .status(status).build());
+        incidentCounters.created(incident);
+        return incident;
+    }
+}
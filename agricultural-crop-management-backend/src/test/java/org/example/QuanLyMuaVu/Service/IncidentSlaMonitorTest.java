@@ -0,0 +1,165 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.Entity.Crop;
+import org.example.QuanLyMuaVu.Entity.Farm;
+import org.example.QuanLyMuaVu.Entity.Incident;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.Province;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.Ward;
+import org.example.QuanLyMuaVu.Enums.IncidentStatus;
+import org.example.QuanLyMuaVu.Enums.SeasonStatus;
+import org.example.QuanLyMuaVu.Pattern.Observer.IncidentOverdueEvent;
+import org.example.QuanLyMuaVu.Repository.IncidentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:jpa-h2.properties")
+class IncidentSlaMonitorTest {
+
+    private static final LocalDate DEADLINE = LocalDate.of(2025, 3, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private IncidentRepository incidentRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private DomainEventOutbox outbox;
+    private IncidentSlaMonitor monitor;
+    private Incident open;
+    private Incident inProgress;
+    private Incident later;
+
+    @BeforeEach
+    void setUp() {
+        outbox = mock(DomainEventOutbox.class);
+        // Window of 2: refills one page at a time as the queue drains.
+        monitor = new IncidentSlaMonitor(incidentRepository, outbox, new TransactionTemplate(transactionManager),
+                2, 15);
+
+        Province province = entityManager.persist(Province.builder().id(1).name("An Giang").slug("an-giang")
+                .type("tinh").nameWithType("Tỉnh An Giang").build());
+        Ward ward = entityManager.persist(Ward.builder().id(1).name("Mỹ Bình").slug("my-binh").type("phuong")
+                .nameWithType("Phường Mỹ Bình").province(province).build());
+        Farm farm = entityManager.persist(Farm.builder().name("Nông trại A").province(province).ward(ward)
+                .active(true).build());
+        Crop crop = entityManager.persist(Crop.builder().cropName("Lúa").build());
+        Plot plot = entityManager.persist(Plot.builder().plotName("Lô 1").farm(farm).build());
+        Season season = entityManager.persist(Season.builder().seasonName("Vụ xuân").plot(plot).crop(crop)
+                .startDate(LocalDate.of(2025, 1, 1)).status(SeasonStatus.ACTIVE).initialPlantCount(100).build());
+
+        open = incident(season, IncidentStatus.OPEN, DEADLINE);
+        inProgress = incident(season, IncidentStatus.IN_PROGRESS, DEADLINE);
+        later = incident(season, IncidentStatus.OPEN, DEADLINE.plusDays(4));
+        incident(season, IncidentStatus.RESOLVED, DEADLINE);
+        incident(season, IncidentStatus.OPEN, null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.shutdown();
+    }
+
+    @Test
+    void fireDue_emitsOnceWhenTheDeadlineDayEnds() {
+        monitor.reload();
+        assertEquals(2, monitor.pending());
+
+        assertEquals(0, monitor.fireDue(DEADLINE.atTime(23, 59, 59)));
+        assertEquals(2, monitor.fireDue(DEADLINE.plusDays(1).atStartOfDay()));
+
+        ArgumentCaptor<IncidentOverdueEvent> events = ArgumentCaptor.forClass(IncidentOverdueEvent.class);
+        verify(outbox, times(2)).append(events.capture());
+        Set<Integer> ids = events.getAllValues().stream().map(IncidentOverdueEvent::getIncidentId)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(open.getId(), inProgress.getId()), ids);
+
+        // The next page was loaded from the index as the queue drained.
+        assertEquals(1, monitor.pending());
+        entityManager.clear();
+        assertNotNull(incidentRepository.findById(open.getId()).orElseThrow().getSlaBreachedAt());
+
+        // Already reported incidents are not loaded or reported again.
+        monitor.reload();
+        assertEquals(1, monitor.pending());
+        assertEquals(1, monitor.fireDue(LocalDateTime.of(2025, 12, 31, 0, 0)));
+        verify(outbox, times(3)).append(any());
+    }
+
+    @Test
+    void fireDue_skipsIncidentsChangedAfterQueueing() {
+        monitor.reload();
+
+        // Moved deadline, seen by this node.
+        Incident moved = incidentRepository.findById(open.getId()).orElseThrow();
+        moved.setDeadline(DEADLINE.plusDays(10));
+        // Closed on another node: the queue still has the old entry.
+        Incident closed = incidentRepository.findById(inProgress.getId()).orElseThrow();
+        closed.setStatus(IncidentStatus.RESOLVED);
+        entityManager.flush();
+        monitor.onChanged(moved.getId(), new IncidentSlaMonitor.Entry(moved.getId(), moved.getDeadline()));
+
+        assertEquals(0, monitor.fireDue(DEADLINE.plusDays(1).atStartOfDay()));
+        assertEquals(1, monitor.fireDue(DEADLINE.plusDays(5).atStartOfDay()));
+        assertEquals(1, monitor.fireDue(DEADLINE.plusDays(11).atStartOfDay()));
+
+        ArgumentCaptor<IncidentOverdueEvent> events = ArgumentCaptor.forClass(IncidentOverdueEvent.class);
+        verify(outbox, times(2)).append(events.capture());
+        assertEquals(later.getId(), events.getAllValues().get(0).getIncidentId());
+        assertEquals(open.getId(), events.getAllValues().get(1).getIncidentId());
+        assertEquals(DEADLINE.plusDays(10), events.getAllValues().get(1).getDeadline());
+    }
+
+    @Test
+    void reload_rereadsTheLoadedRangeWithoutMovingTheFrontier() {
+        Season season = entityManager.find(Incident.class, open.getId()).getSeason();
+        incident(season, IncidentStatus.OPEN, DEADLINE.plusDays(8));
+        entityManager.flush();
+        monitor.reload();
+        assertEquals(2, monitor.pending());
+
+        // Closed on another node: the refresh drops it but does not load past the frontier.
+        Incident closed = incidentRepository.findById(inProgress.getId()).orElseThrow();
+        closed.setStatus(IncidentStatus.RESOLVED);
+        entityManager.flush();
+        monitor.reload();
+        assertEquals(1, monitor.pending());
+
+        // Reported on another node before the frontier.
+        incidentRepository.markSlaBreached(open.getId(), DEADLINE, IncidentSlaMonitor.OPEN_STATUSES,
+                DEADLINE.plusDays(1).atStartOfDay());
+        monitor.reload();
+        // The window is empty, so the refill loads past the old frontier.
+        assertEquals(2, monitor.pending());
+        assertEquals(0, monitor.fireDue(DEADLINE.plusDays(1).atStartOfDay()));
+        verify(outbox, never()).append(any());
+    }
+
+    private Incident incident(Season season, IncidentStatus status, LocalDate deadline) {
+        return entityManager.persist(Incident.builder().season(season).incidentType("PEST").status(status)
+                .deadline(deadline).build());
+    }
+}
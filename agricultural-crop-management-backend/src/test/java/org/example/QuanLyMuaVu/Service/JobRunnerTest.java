@@ -0,0 +1,108 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.Entity.JobRun;
+import org.example.QuanLyMuaVu.Enums.JobRunStatus;
+import org.example.QuanLyMuaVu.Repository.JobRunRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JobRunnerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private JobRunRepository jobRunRepository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:jobs-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("CREATE TABLE job_locks (job_name VARCHAR(100) PRIMARY KEY, locked_by VARCHAR(100), "
+                + "locked_at TIMESTAMP, locked_until TIMESTAMP)");
+        jobRunRepository = mock(JobRunRepository.class);
+        when(jobRunRepository.save(any(JobRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void run_skipsWhileAnotherNodeHoldsTheLease() {
+        JobRunner first = new JobRunner(jdbcTemplate, transactionTemplate, jobRunRepository, 10, 30);
+        JobRunner second = new JobRunner(jdbcTemplate, transactionTemplate, jobRunRepository, 10, 30);
+        List<Optional<JobRun>> inner = new ArrayList<>();
+
+        Optional<JobRun> outer = first.run("demo", Duration.ofMinutes(5), context -> {
+            inner.add(second.run("demo", Duration.ofMinutes(5), nested -> 1));
+            return 7;
+        });
+
+        assertTrue(inner.get(0).isEmpty());
+        assertEquals(JobRunStatus.SUCCEEDED, outer.orElseThrow().getStatus());
+        assertEquals(7L, outer.get().getRowsAffected());
+        // Released: the other node can run it now.
+        assertTrue(second.run("demo", Duration.ofMinutes(5), context -> 0).isPresent());
+    }
+
+    @Test
+    void inChunks_repeatsUntilAChunkComesBackShort() {
+        JobRunner runner = new JobRunner(jdbcTemplate, transactionTemplate, jobRunRepository, 10, 30);
+        int[] remaining = { 25 };
+        List<Integer> limits = new ArrayList<>();
+
+        JobRun run = runner.run("chunks", Duration.ofMinutes(5), context -> context.inChunks(limit -> {
+            limits.add(limit);
+            int done = Math.min(limit, remaining[0]);
+            remaining[0] -= done;
+            return done;
+        })).orElseThrow();
+
+        assertEquals(List.of(10, 10, 10), limits);
+        assertEquals(25L, run.getRowsAffected());
+    }
+
+    @Test
+    void run_takesOverALeaseOnlyOnceItExpiredByTheDatabaseClock() {
+        JobRunner runner = new JobRunner(jdbcTemplate, transactionTemplate, jobRunRepository, 10, 30);
+        jdbcTemplate.update("INSERT INTO job_locks (job_name, locked_by, locked_at, locked_until) "
+                + "VALUES ('held', 'other-node', CURRENT_TIMESTAMP, TIMESTAMPADD(MINUTE, 5, CURRENT_TIMESTAMP))");
+
+        assertTrue(runner.run("held", Duration.ofMinutes(5), context -> 0).isEmpty());
+
+        jdbcTemplate.update("UPDATE job_locks SET locked_until = TIMESTAMPADD(SECOND, -1, CURRENT_TIMESTAMP) "
+                + "WHERE job_name = 'held'");
+        assertTrue(runner.run("held", Duration.ofMinutes(5), context -> {
+            context.renewLease();
+            Boolean extended = jdbcTemplate.queryForObject("SELECT locked_until > TIMESTAMPADD(MINUTE, 4, "
+                    + "CURRENT_TIMESTAMP) FROM job_locks WHERE job_name = 'held'", Boolean.class);
+            assertTrue(extended);
+            return 0;
+        }).isPresent());
+    }
+
+    @Test
+    void run_recordsFailureAndReleasesLease() {
+        JobRunner runner = new JobRunner(jdbcTemplate, transactionTemplate, jobRunRepository, 10, 30);
+
+        JobRun run = runner.run("broken", Duration.ofMinutes(5), context -> {
+            throw new IllegalStateException("boom");
+        }).orElseThrow();
+
+        assertEquals(JobRunStatus.FAILED, run.getStatus());
+        assertTrue(run.getError().contains("boom"));
+        assertNotNull(run.getFinishedAt());
+        assertTrue(runner.run("broken", Duration.ofMinutes(5), context -> 0).isPresent());
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.DTO.Common.PageResponse;
+import org.example.QuanLyMuaVu.DTO.Response.IncidentResponse;
+import org.example.QuanLyMuaVu.DTO.Response.OnHandRowResponse;
+import org.example.QuanLyMuaVu.DTO.Response.StockMovementResponse;
+import org.example.QuanLyMuaVu.Entity.Crop;
+import org.example.QuanLyMuaVu.Entity.Farm;
+import org.example.QuanLyMuaVu.Entity.Incident;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.Province;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.StockLocation;
+import org.example.QuanLyMuaVu.Entity.StockMovement;
+import org.example.QuanLyMuaVu.Entity.Supplier;
+import org.example.QuanLyMuaVu.Entity.SupplyItem;
+import org.example.QuanLyMuaVu.Entity.SupplyLot;
+import org.example.QuanLyMuaVu.Entity.Task;
+import org.example.QuanLyMuaVu.Entity.User;
+import org.example.QuanLyMuaVu.Entity.Ward;
+import org.example.QuanLyMuaVu.Entity.Warehouse;
+import org.example.QuanLyMuaVu.Enums.IncidentStatus;
+import org.example.QuanLyMuaVu.Enums.SeasonStatus;
+import org.example.QuanLyMuaVu.Enums.StockMovementType;
+import org.example.QuanLyMuaVu.Enums.TaskStatus;
+import org.example.QuanLyMuaVu.Repository.FarmRepository;
+import org.example.QuanLyMuaVu.Repository.IncidentRepository;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.example.QuanLyMuaVu.Repository.StockLocationRepository;
+import org.example.QuanLyMuaVu.Repository.StockMovementRepository;
+import org.example.QuanLyMuaVu.Repository.SupplyLotRepository;
+import org.example.QuanLyMuaVu.Repository.TaskRepository;
+import org.example.QuanLyMuaVu.Repository.WarehouseRepository;
+import org.example.QuanLyMuaVu.Util.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Statement budgets for list endpoints: the number of SQL statements must not
+ * grow with the number of rows returned.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:jpa-h2.properties")
+class ListQueryBudgetTest {
+
+    private static final int ROWS = 8;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private StockLocationRepository stockLocationRepository;
+    @Autowired
+    private SupplyLotRepository supplyLotRepository;
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+    @Autowired
+    private FarmRepository farmRepository;
+    @Autowired
+    private SeasonRepository seasonRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    private InventoryService inventoryService;
+    private IncidentService incidentService;
+    private Warehouse warehouse;
+    private Season firstSeason;
+
+    @BeforeEach
+    void setUp() {
+        FarmAccessService farmAccessService = mock(FarmAccessService.class);
+        inventoryService = new InventoryService(warehouseRepository, stockLocationRepository, supplyLotRepository,
+                stockMovementRepository, farmRepository, seasonRepository, taskRepository, farmAccessService);
+        incidentService = new IncidentService(incidentRepository, seasonRepository, farmAccessService,
+                mock(ApplicationEventPublisher.class), mock(DomainEventOutbox.class), mock(IncidentCounters.class),
+                mock(IncidentSlaMonitor.class));
+        seed();
+    }
+
+    @Test
+    void getMovements_staysWithinBudget() {
+        PageResponse<StockMovementResponse> page = SqlStatementCounter.assertAtMost(5,
+                () -> inventoryService.getMovements(warehouse.getId(), null, null, null, PageRequest.of(0, 20)));
+
+        assertEquals(ROWS, page.getItems().size());
+        assertNotNull(page.getItems().get(0).getSupplyItemName());
+    }
+
+    @Test
+    void getOnHandList_staysWithinBudget() {
+        PageResponse<OnHandRowResponse> page = SqlStatementCounter.assertAtMost(5,
+                () -> inventoryService.getOnHandList(warehouse.getId(), null, null, null, PageRequest.of(0, 20)));
+
+        assertEquals(ROWS, page.getItems().size());
+        assertEquals(0, new BigDecimal("10").compareTo(page.getItems().get(0).getOnHandQuantity()));
+    }
+
+    @Test
+    void listIncidents_staysWithinBudget() {
+        PageResponse<IncidentResponse> page = SqlStatementCounter.assertAtMost(4,
+                () -> incidentService.listIncidents(firstSeason.getId(), null, null, null, null, null, null,
+                        0, 20, null));
+
+        assertEquals(ROWS, page.getItems().size());
+        assertNotNull(page.getItems().get(0).getReportedByUsername());
+    }
+
+    private void seed() {
+        Province province = entityManager.persist(Province.builder().id(1).name("Hà Nội").slug("ha-noi")
+                .type("thanh-pho").nameWithType("Thành phố Hà Nội").build());
+        Ward ward = entityManager.persist(Ward.builder().id(1).name("Phúc Xá").slug("phuc-xa").type("phuong")
+                .nameWithType("Phường Phúc Xá").province(province).build());
+        User owner = entityManager.persist(User.builder().username("owner").email("owner@example.com").build());
+        Farm farm = entityManager.persist(Farm.builder().name("Nông trại A").owner(owner).province(province)
+                .ward(ward).active(true).build());
+        warehouse = entityManager.persist(Warehouse.builder().name("Kho chính").farm(farm).build());
+        StockLocation location = entityManager.persist(StockLocation.builder().warehouse(warehouse).build());
+
+        for (int i = 0; i < ROWS; i++) {
+            User reporter = entityManager.persist(User.builder().username("reporter" + i)
+                    .email("reporter" + i + "@example.com").build());
+            Crop crop = entityManager.persist(Crop.builder().cropName("Cây " + i).build());
+            Plot plot = entityManager.persist(Plot.builder().plotName("Lô " + i).farm(farm).user(owner).build());
+            Season season = entityManager.persist(Season.builder().seasonName("Vụ " + i).plot(plot).crop(crop)
+                    .startDate(LocalDate.of(2025, 1, 1).plusDays(i)).status(SeasonStatus.ACTIVE)
+                    .initialPlantCount(100).build());
+            if (firstSeason == null) {
+                firstSeason = season;
+            }
+            Task task = entityManager.persist(Task.builder().title("Bón phân " + i).user(owner).season(season)
+                    .status(TaskStatus.PENDING).build());
+            SupplyItem item = entityManager.persist(SupplyItem.builder().name("Phân bón " + i).unit("kg").build());
+            Supplier supplier = entityManager.persist(Supplier.builder().name("Nhà cung cấp " + i).build());
+            SupplyLot lot = entityManager.persist(SupplyLot.builder().batchCode("LOT-" + i).supplyItem(item)
+                    .supplier(supplier).build());
+            entityManager.persist(StockMovement.builder().supplyLot(lot).warehouse(warehouse).location(location)
+                    .movementType(StockMovementType.IN).quantity(new BigDecimal("10"))
+                    .movementDate(LocalDateTime.of(2025, 2, 1, 8, 0).plusHours(i))
+                    .season(season).task(task).build());
+            entityManager.persist(Incident.builder().season(firstSeason).reportedBy(reporter)
+                    .incidentType("PEST").status(IncidentStatus.OPEN)
+                    .createdAt(LocalDateTime.of(2025, 2, 1, 8, 0).plusHours(i)).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
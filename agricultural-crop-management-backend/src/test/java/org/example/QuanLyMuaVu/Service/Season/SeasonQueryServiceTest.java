@@ -0,0 +1,119 @@
+package org.example.QuanLyMuaVu.Service.Season;
+
+import org.example.QuanLyMuaVu.DTO.Response.SeasonResponse;
+import org.example.QuanLyMuaVu.Entity.Crop;
+import org.example.QuanLyMuaVu.Entity.Farm;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.Province;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.User;
+import org.example.QuanLyMuaVu.Entity.Ward;
+import org.example.QuanLyMuaVu.Enums.SeasonStatus;
+import org.example.QuanLyMuaVu.Mapper.SeasonMapper;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.example.QuanLyMuaVu.Service.FarmAccessService;
+import org.example.QuanLyMuaVu.Service.SeasonSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Scope and date-range filter of the farmer's season listing
+ * ({@code buildMySeasonSpecification}), run against H2.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:jpa-h2.properties")
+class SeasonQueryServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private SeasonRepository seasonRepository;
+
+    private SeasonQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        Province province = entityManager.persist(Province.builder().id(1).name("An Giang").slug("an-giang")
+                .type("tinh").nameWithType("Tỉnh An Giang").build());
+        Ward ward = entityManager.persist(Ward.builder().id(1).name("Mỹ Bình").slug("my-binh").type("phuong")
+                .nameWithType("Phường Mỹ Bình").province(province).build());
+        User me = entityManager.persist(User.builder().username("farmer").email("farmer@example.com").build());
+        User neighbour = entityManager.persist(User.builder().username("neighbour")
+                .email("neighbour@example.com").build());
+        Crop crop = entityManager.persist(Crop.builder().cropName("Lúa").build());
+
+        Farm myFarm = entityManager.persist(Farm.builder().name("Nông trại của tôi").owner(me).province(province)
+                .ward(ward).active(true).build());
+        Farm theirFarm = entityManager.persist(Farm.builder().name("Nông trại hàng xóm").owner(neighbour)
+                .province(province).ward(ward).active(true).build());
+        Farm ownerless = entityManager.persist(Farm.builder().name("Nông trại chung").province(province)
+                .ward(ward).active(true).build());
+
+        // Owned farm, plot created by someone else.
+        season("Vụ Xuân", entityManager.persist(Plot.builder().plotName("Lô A").farm(myFarm).user(neighbour).build()),
+                crop, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 5, 31));
+        // Someone else's farm, plot created by me; still open (no end date).
+        season("Vụ Hè", entityManager.persist(Plot.builder().plotName("Lô B").farm(theirFarm).user(me).build()),
+                crop, LocalDate.of(2025, 6, 10), null);
+        // Farm without owner, plot created by me.
+        season("Vụ Thu", entityManager.persist(Plot.builder().plotName("Lô C").farm(ownerless).user(me).build()),
+                crop, LocalDate.of(2025, 9, 1), LocalDate.of(2025, 11, 30));
+        // Neither owned nor created by me.
+        season("Vụ Đông", entityManager.persist(Plot.builder().plotName("Lô D").farm(theirFarm).user(neighbour)
+                .build()), crop, LocalDate.of(2025, 3, 1), null);
+        entityManager.flush();
+        entityManager.clear();
+
+        FarmAccessService farmAccessService = mock(FarmAccessService.class);
+        when(farmAccessService.getCurrentUser()).thenReturn(me);
+        service = new SeasonQueryService(seasonRepository, new SeasonMapper(), farmAccessService,
+                mock(SeasonSearchIndex.class));
+    }
+
+    @Test
+    void searchMySeasons_includesOwnedAndCreatedSeasonsOnly() {
+        assertEquals(Set.of("Vụ Xuân", "Vụ Hè", "Vụ Thu"), names(null, null));
+    }
+
+    @Test
+    void searchMySeasons_matchesRangeOverlapInclusively() {
+        // Vụ Xuân ends on the first day asked for, Vụ Hè starts on the last.
+        assertEquals(Set.of("Vụ Xuân", "Vụ Hè"), names(LocalDate.of(2025, 5, 31), LocalDate.of(2025, 6, 10)));
+        assertEquals(Set.of("Vụ Hè"), names(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 10)));
+        assertEquals(Set.of("Vụ Xuân"), names(LocalDate.of(2025, 5, 31), LocalDate.of(2025, 6, 9)));
+        assertEquals(Set.of("Vụ Xuân"), names(null, LocalDate.of(2025, 3, 1)));
+        assertEquals(Set.of(), names(null, LocalDate.of(2025, 2, 28)));
+    }
+
+    @Test
+    void searchMySeasons_treatsMissingEndDateAsTheStartDate() {
+        assertEquals(Set.of("Vụ Hè", "Vụ Thu"), names(LocalDate.of(2025, 6, 10), null));
+        // Vụ Hè has no end date, so a range after its start no longer overlaps it.
+        assertEquals(Set.of("Vụ Thu"), names(LocalDate.of(2025, 6, 11), null));
+    }
+
+    private Set<String> names(LocalDate from, LocalDate to) {
+        List<SeasonResponse> items = service.searchMySeasons(null, null, null, from, to, 0, 20).getItems();
+        return items.stream().map(SeasonResponse::getSeasonName).collect(Collectors.toSet());
+    }
+
+    private void season(String name, Plot plot, Crop crop, LocalDate start, LocalDate end) {
+        entityManager.persist(Season.builder().seasonName(name).plot(plot).crop(crop).startDate(start)
+                .endDate(end).status(SeasonStatus.ACTIVE).initialPlantCount(100).build());
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.Entity.Crop;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Enums.SeasonStatus;
+import org.example.QuanLyMuaVu.Exception.AppException;
+import org.example.QuanLyMuaVu.Exception.ErrorCode;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
+import org.example.QuanLyMuaVu.Repository.ExpenseRepository;
+import org.example.QuanLyMuaVu.Repository.HarvestRepository;
+import org.example.QuanLyMuaVu.Repository.IncidentRepository;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.example.QuanLyMuaVu.Repository.TaskRepository;
+import org.example.QuanLyMuaVu.Util.CurrentUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SeasonChatContextServiceTest {
+
+    @Mock
+    private SeasonRepository seasonRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private HarvestRepository harvestRepository;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    private Season season;
+
+    @BeforeEach
+    void setUp() {
+        season = Season.builder()
+                .id(7)
+                .seasonName("Vu Dong Xuan")
+                .status(SeasonStatus.ACTIVE)
+                .crop(Crop.builder().cropName("Lua").build())
+                .startDate(LocalDate.now().minusDays(9))
+                .build();
+
+        when(currentUserService.getCurrentUserId()).thenReturn(1L);
+        when(seasonRepository.findByIdAndFarmOwnerId(7, 1L)).thenReturn(Optional.of(season));
+        when(taskRepository.countBySeasonIdGroupByStatus(anyInt())).thenReturn(List.of());
+        when(taskRepository.findTop5BySeason_IdAndStatusInOrderByDueDateAsc(anyInt(), any())).thenReturn(List.of());
+        when(incidentRepository.findTop3BySeason_IdAndStatusInOrderByCreatedAtDesc(anyInt(), any()))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    void resolveCropContext_reusesCachedSummaryUntilSeasonChanges() {
+        SeasonChatContextService service = newService(400);
+
+        String first = service.resolveCropContext(7, null);
+        String second = service.resolveCropContext(7, "  hoi ve sau benh  ");
+
+        assertTrue(first.contains("Vu Dong Xuan"));
+        assertTrue(first.contains("Lua"));
+        assertEquals(first + "\nhoi ve sau benh", second);
+        verify(seasonRepository, times(1)).findByIdAndFarmOwnerId(7, 1L);
+
+        service.onSeasonDataChanged(new SeasonDataChangedEvent(7, "TASK"));
+        service.resolveCropContext(7, null);
+
+        verify(seasonRepository, times(2)).findByIdAndFarmOwnerId(7, 1L);
+    }
+
+    @Test
+    void resolveCropContext_cachedSeasonIsNotServedToAnotherFarmer() {
+        SeasonChatContextService service = newService(400);
+        service.resolveCropContext(7, null);
+
+        when(currentUserService.getCurrentUserId()).thenReturn(2L);
+
+        AppException ex = assertThrows(AppException.class, () -> service.resolveCropContext(7, null));
+        assertEquals(ErrorCode.SEASON_NOT_FOUND, ex.getErrorCode());
+    }
+
+    @Test
+    void resolveCropContext_withoutSeasonReturnsClientContext() {
+        SeasonChatContextService service = newService(400);
+
+        assertEquals("client note", service.resolveCropContext(null, "client note"));
+        verifyNoInteractions(seasonRepository);
+    }
+
+    @Test
+    void buildSummary_dropsLowerPriorityLinesOverBudget() {
+        SeasonChatContextService service = newService(10);
+
+        String summary = service.buildSummary(season);
+
+        assertTrue(summary.length() <= 40);
+        assertTrue(summary.contains("Vu Dong Xuan"));
+    }
+
+    private SeasonChatContextService newService(int tokenBudget) {
+        return new SeasonChatContextService(seasonRepository, taskRepository, incidentRepository,
+                expenseRepository, harvestRepository, currentUserService, tokenBudget, 30, 100);
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.Entity.Farm;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.User;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository.SearchEntry;
+import org.example.QuanLyMuaVu.Repository.SeasonSearchVersionRepository;
+import org.example.QuanLyMuaVu.Service.CatalogVersions.Catalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SeasonSearchIndexTest {
+
+    private SeasonRepository seasonRepository;
+    private SeasonSearchVersionRepository seasonSearchVersionRepository;
+    private CatalogVersions catalogVersions;
+    private SeasonSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        seasonRepository = mock(SeasonRepository.class);
+        seasonSearchVersionRepository = mock(SeasonSearchVersionRepository.class);
+        catalogVersions = mock(CatalogVersions.class);
+        index = new SeasonSearchIndex(seasonRepository, seasonSearchVersionRepository, catalogVersions, 10, 30, 2);
+        when(seasonRepository.findSearchEntriesByFarmOwnerId(1L)).thenReturn(List.of(
+                entry(1, "Vụ đông xuân 2023", "Ruộng A", "Lúa", LocalDate.of(2023, 1, 5)),
+                entry(2, "Vụ hè thu 2024", "Ruộng Bắc", "Lúa", LocalDate.of(2024, 5, 1)),
+                entry(3, "Vụ ngô 2024", "Đồi lúa cũ", "Ngô", LocalDate.of(2024, 2, 1))));
+    }
+
+    @Test
+    void search_foldsAccentsAndRanksByFieldThenRecency() {
+        // Plot name beats crop name; among crop matches the newer season wins.
+        assertEquals(List.of(3, 2), index.search(1L, "lua", 5));
+        assertEquals(List.of(2), index.search(1L, "HE THU", 5));
+        assertEquals(List.of(3), index.search(1L, "ngo do", 5));
+        assertEquals(List.of(1), index.search(1L, "đông", 5));
+        assertTrue(index.search(1L, "lua ngo xuan", 5).isEmpty());
+    }
+
+    @Test
+    void search_ranksAnySeasonNameMatchAboveACropNameMatch() {
+        when(seasonRepository.findSearchEntriesByFarmOwnerId(2L)).thenReturn(List.of(
+                entry(10, "Vụ Caolúa", "Vườn 1", "Mía", LocalDate.of(2023, 1, 1)),
+                entry(11, "Vụ 2024", "Vườn 2", "Lúa", LocalDate.of(2024, 6, 1))));
+
+        // Infix in the season name beats the older-is-worse tie-break against an exact crop name.
+        assertEquals(List.of(10, 11), index.search(2L, "lua", 5));
+    }
+
+    @Test
+    void search_matchesInfixForLongTokensAndPrefixForShortOnes() {
+        assertEquals(List.of(2), index.search(1L, "uong bac", 5));
+        assertEquals(List.of(1, 3), index.search(1L, "do", 5));
+        assertTrue(index.search(1L, "ua", 5).isEmpty());
+    }
+
+    @Test
+    void search_capsResultsAndRebuildsAfterInvalidationOrVersionChange() {
+        assertEquals(2, index.search(1L, "vu", 10).size());
+        index.search(1L, "vu", 1);
+        verify(seasonRepository, times(1)).findSearchEntriesByFarmOwnerId(1L);
+
+        index.invalidate(1L);
+        index.search(1L, "vu", 1);
+        when(catalogVersions.version(Catalog.CROPS)).thenReturn(1L);
+        index.search(1L, "vu", 1);
+        verify(seasonRepository, times(3)).findSearchEntriesByFarmOwnerId(1L);
+
+        // A season write committed through another node.
+        when(seasonSearchVersionRepository.findVersion(1L)).thenReturn(Optional.of(1L));
+        index.search(1L, "vu", 1);
+        index.search(1L, "vu", 1);
+        verify(seasonRepository, times(4)).findSearchEntriesByFarmOwnerId(1L);
+    }
+
+    @Test
+    void invalidateAfterCommit_incrementsTheOwnersVersion() {
+        Plot plot = Plot.builder().farm(Farm.builder().owner(User.builder().id(1L).build()).build()).build();
+
+        index.invalidateAfterCommit(plot);
+
+        verify(seasonSearchVersionRepository).increment(1L);
+    }
+
+    private static SearchEntry entry(int id, String seasonName, String plotName, String cropName, LocalDate start) {
+        return new SearchEntry() {
+            public Integer getId() {
+                return id;
+            }
+
+            public String getSeasonName() {
+                return seasonName;
+            }
+
+            public String getPlotName() {
+                return plotName;
+            }
+
+            public String getCropName() {
+                return cropName;
+            }
+
+            public LocalDate getStartDate() {
+                return start;
+            }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.Entity.Crop;
+import org.example.QuanLyMuaVu.Entity.Farm;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.Task;
+import org.example.QuanLyMuaVu.Entity.TaskTemplate;
+import org.example.QuanLyMuaVu.Entity.User;
+import org.example.QuanLyMuaVu.Entity.Variety;
+import org.example.QuanLyMuaVu.Enums.SeasonStatus;
+import org.example.QuanLyMuaVu.Enums.TaskStatus;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.example.QuanLyMuaVu.Repository.TaskRepository;
+import org.example.QuanLyMuaVu.Repository.TaskTemplateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SeasonTaskPlannerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TaskTemplateRepository taskTemplateRepository;
+    private SeasonRepository seasonRepository;
+    private TaskRepository taskRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private SeasonTaskPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:tasks-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE tasks (task_id INT AUTO_INCREMENT PRIMARY KEY, user_id INT NOT NULL, "
+                + "season_id INT, title VARCHAR(255) NOT NULL, description TEXT, planned_date DATE, due_date DATE, "
+                + "status VARCHAR(255), actual_start_date DATE, actual_end_date DATE, notes TEXT, "
+                + "created_at TIMESTAMP, "
+                + "updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6))");
+        taskTemplateRepository = mock(TaskTemplateRepository.class);
+        seasonRepository = mock(SeasonRepository.class);
+        taskRepository = mock(TaskRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        planner = new SeasonTaskPlanner(jdbcTemplate, taskTemplateRepository, seasonRepository, taskRepository,
+                eventPublisher);
+    }
+
+    @Test
+    void insertAll_writesBatchAndAssignsIds() {
+        Season season = season(null);
+        List<Task> tasks = List.of(
+                Task.builder().user(season.getPlot().getUser()).season(season).title("Cày đất")
+                        .plannedDate(LocalDate.of(2025, 3, 1)).build(),
+                Task.builder().user(season.getPlot().getUser()).season(season).title("Gieo sạ")
+                        .plannedDate(LocalDate.of(2025, 3, 5)).dueDate(LocalDate.of(2025, 3, 6)).build());
+
+        planner.insertAll(tasks);
+
+        assertNotNull(tasks.get(0).getId());
+        assertNotEquals(tasks.get(0).getId(), tasks.get(1).getId());
+        assertEquals(TaskStatus.PENDING, tasks.get(0).getStatus());
+        // Due date already passed: inserted as OVERDUE rather than waiting for the scheduler.
+        assertEquals(TaskStatus.OVERDUE, tasks.get(1).getStatus());
+        assertNotNull(tasks.get(1).getCreatedAt());
+        // Stamped by the database and read back.
+        assertNotNull(tasks.get(1).getUpdatedAt());
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT title, status, due_date FROM tasks WHERE task_id = ?", tasks.get(1).getId());
+        assertEquals("Gieo sạ", row.get("TITLE"));
+        assertEquals("OVERDUE", row.get("STATUS"));
+        assertEquals(java.sql.Date.valueOf("2025-03-06"), row.get("DUE_DATE"));
+    }
+
+    @Test
+    void generateFromTemplates_datesTasksFromSeasonStartWithinSeason() {
+        Season season = season(null);
+        when(seasonRepository.findById(7)).thenReturn(Optional.of(season));
+        when(taskTemplateRepository.findAllByCrop_IdAndVarietyIsNullOrderBySortOrderAscIdAsc(1)).thenReturn(List.of(
+                template("Cày đất", 0, 2),
+                template("Bón thúc", 20, 200),
+                template("Sau thu hoạch", 120, null)));
+
+        assertEquals(2, planner.generateFromTemplates(7));
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT title, planned_date, due_date, user_id FROM tasks ORDER BY task_id");
+        assertEquals(2, rows.size());
+        assertEquals(java.sql.Date.valueOf("2025-03-01"), rows.get(0).get("PLANNED_DATE"));
+        assertEquals(java.sql.Date.valueOf("2025-03-03"), rows.get(0).get("DUE_DATE"));
+        // Due date past the planned harvest is clamped to it.
+        assertEquals(java.sql.Date.valueOf("2025-06-15"), rows.get(1).get("DUE_DATE"));
+        assertEquals(5, rows.get(0).get("USER_ID"));
+        verify(eventPublisher).publishEvent(any(SeasonDataChangedEvent.class));
+    }
+
+    @Test
+    void generateFromTemplates_prefersVarietyTemplatesAndSkipsSeasonsWithTasks() {
+        Variety variety = Variety.builder().id(3).build();
+        Season season = season(variety);
+        when(seasonRepository.findById(7)).thenReturn(Optional.of(season));
+        when(taskTemplateRepository.findAllByVariety_IdOrderBySortOrderAscIdAsc(3))
+                .thenReturn(List.of(template("Phun thuốc", 10, null)));
+
+        assertEquals(1, planner.generateFromTemplates(7));
+        verify(taskTemplateRepository, never()).findAllByCrop_IdAndVarietyIsNullOrderBySortOrderAscIdAsc(any());
+
+        when(taskRepository.existsBySeason_Id(7)).thenReturn(true);
+        assertEquals(0, planner.generateFromTemplates(7));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Integer.class));
+    }
+
+    private static Season season(Variety variety) {
+        User owner = User.builder().id(5L).build();
+        User creator = User.builder().id(6L).build();
+        Farm farm = Farm.builder().id(2).owner(owner).build();
+        Plot plot = Plot.builder().id(4).farm(farm).user(creator).build();
+        return Season.builder()
+                .id(7)
+                .plot(plot)
+                .crop(Crop.builder().id(1).build())
+                .variety(variety)
+                .status(SeasonStatus.PLANNED)
+                .startDate(LocalDate.of(2025, 3, 1))
+                .plannedHarvestDate(LocalDate.of(2025, 6, 15))
+                .build();
+    }
+
+    private static TaskTemplate template(String title, int plannedOffset, Integer dueOffset) {
+        return TaskTemplate.builder()
+                .title(title)
+                .plannedOffsetDays(plannedOffset)
+                .dueOffsetDays(dueOffset)
+                .sortOrder(0)
+                .build();
+    }
+}
@@ -0,0 +1,233 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.DTO.Request.SyncMutationRequest;
+import org.example.QuanLyMuaVu.DTO.Request.SyncRequest;
+import org.example.QuanLyMuaVu.DTO.Response.FieldLogResponse;
+import org.example.QuanLyMuaVu.DTO.Response.SyncMutationResult;
+import org.example.QuanLyMuaVu.DTO.Response.SyncResponse;
+import org.example.QuanLyMuaVu.Entity.Crop;
+import org.example.QuanLyMuaVu.Entity.Farm;
+import org.example.QuanLyMuaVu.Entity.FieldLog;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.Province;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.Task;
+import org.example.QuanLyMuaVu.Entity.User;
+import org.example.QuanLyMuaVu.Entity.Ward;
+import org.example.QuanLyMuaVu.Enums.SeasonStatus;
+import org.example.QuanLyMuaVu.Enums.SyncEntityType;
+import org.example.QuanLyMuaVu.Enums.SyncMutationStatus;
+import org.example.QuanLyMuaVu.Enums.SyncOperation;
+import org.example.QuanLyMuaVu.Enums.TaskStatus;
+import org.example.QuanLyMuaVu.Exception.ErrorCode;
+import org.example.QuanLyMuaVu.Repository.FieldLogRepository;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.example.QuanLyMuaVu.Repository.SyncMutationRepository;
+import org.example.QuanLyMuaVu.Repository.SyncTombstoneRepository;
+import org.example.QuanLyMuaVu.Repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:jpa-h2.properties")
+class SyncServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private FieldLogRepository fieldLogRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private SeasonRepository seasonRepository;
+    @Autowired
+    private SyncMutationRepository syncMutationRepository;
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private FarmAccessService farmAccessService;
+    private SyncService syncService;
+    private Season season;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        Crop crop = entityManager.persist(Crop.builder().cropName("Lúa").build());
+        Province province = entityManager.persist(Province.builder().id(1).name("An Giang").slug("an-giang")
+                .type("tinh").nameWithType("Tỉnh An Giang").build());
+        Ward ward = entityManager.persist(Ward.builder().id(1).name("Mỹ Bình").slug("my-binh").type("phuong")
+                .nameWithType("Phường Mỹ Bình").province(province).build());
+        User farmer = entityManager.persist(User.builder().username("farmer").email("farmer@example.com").build());
+        Farm farm = entityManager.persist(Farm.builder().name("Nông trại A").owner(farmer).province(province)
+                .ward(ward).active(true).build());
+        Plot plot = entityManager.persist(Plot.builder().plotName("Lô 1").farm(farm).user(farmer).build());
+        season = entityManager.persist(Season.builder().seasonName("Vụ xuân").plot(plot).crop(crop)
+                .startDate(LocalDate.of(2025, 3, 1)).status(SeasonStatus.ACTIVE).initialPlantCount(100).build());
+        task = entityManager.persist(Task.builder().title("Bón phân").user(farmer).season(season)
+                .status(TaskStatus.PENDING).build());
+        entityManager.flush();
+
+        farmAccessService = mock(FarmAccessService.class);
+        when(farmAccessService.getCurrentUser()).thenReturn(farmer);
+        when(farmAccessService.getAccessibleFarmIdsForCurrentUser()).thenReturn(List.of(farm.getId()));
+        syncService = syncService(syncMutationRepository);
+    }
+
+    @Test
+    void sync_replayedMutationsAreNotAppliedTwice() {
+        SyncRequest request = request(null, create("m-1", "IRRIGATE"), taskDone("m-2"));
+
+        SyncResponse first = syncService.sync(request);
+        entityManager.clear();
+        SyncResponse second = syncService.sync(request);
+
+        assertEquals(SyncMutationStatus.APPLIED, first.getResults().get(0).getStatus());
+        assertNotNull(first.getResults().get(0).getEntityId());
+        assertTrue(second.getResults().stream().allMatch(SyncMutationResult::isReplayed));
+        assertEquals(first.getResults().get(0).getEntityId(), second.getResults().get(0).getEntityId());
+        assertEquals(1, fieldLogRepository.count());
+        assertEquals(TaskStatus.DONE, taskRepository.findById(task.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void sync_rejectsInvalidMutationAndAppliesTheRest() {
+        SyncResponse response = syncService.sync(request(null, create("m-1", "NOT_A_TYPE"), create("m-2", "PEST")));
+
+        assertEquals(SyncMutationStatus.REJECTED, response.getResults().get(0).getStatus());
+        assertEquals(SyncMutationStatus.APPLIED, response.getResults().get(1).getStatus());
+        assertEquals(1, fieldLogRepository.count());
+    }
+
+    @Test
+    void sync_returnsChangesAndDeletesSinceToken() {
+        SyncResponse initial = syncService.sync(request(null, create("m-1", "IRRIGATE"), create("m-2", "PEST")));
+        assertTrue(initial.isFullResync());
+        assertEquals(2, initial.getFieldLogs().size());
+        assertEquals(1, initial.getTasks().size());
+        entityManager.flush();
+        entityManager.clear();
+
+        FieldLogResponse pest = fieldLog(initial, "PEST");
+        SyncMutationRequest delete = SyncMutationRequest.builder().mutationId("m-3")
+                .operation(SyncOperation.FIELD_LOG_DELETE).entityId(pest.getId())
+                .baseUpdatedAt(pest.getUpdatedAt()).build();
+        SyncResponse next = syncService.sync(request(initial.getSyncToken(), delete));
+
+        assertEquals(SyncMutationStatus.APPLIED, next.getResults().get(0).getStatus());
+        assertFalse(next.isFullResync());
+        assertTrue(next.getFieldLogs().isEmpty());
+        assertTrue(next.getTasks().isEmpty());
+        assertEquals(1, next.getDeleted().size());
+        assertEquals(SyncEntityType.FIELD_LOG, next.getDeleted().get(0).getEntityType());
+        assertEquals(pest.getId(), next.getDeleted().get(0).getEntityId());
+    }
+
+    @Test
+    void sync_conflictsOnlyWhenTheFieldLogChangedAfterTheEchoedUpdatedAt() {
+        SyncResponse initial = syncService.sync(request(null, create("m-1", "IRRIGATE"), create("m-2", "PEST")));
+        entityManager.flush();
+        entityManager.clear();
+        FieldLogResponse irrigate = fieldLog(initial, "IRRIGATE");
+        FieldLogResponse pest = fieldLog(initial, "PEST");
+        assertNotNull(irrigate.getUpdatedAt());
+        assertNotNull(pest.getUpdatedAt());
+
+        // Another device edits the pest log after this client last synced.
+        jdbcTemplate.update("UPDATE field_logs SET notes = ?, updated_at = TIMESTAMPADD(SECOND, 1, updated_at) "
+                + "WHERE field_log_id = ?", "Sửa trên máy khác", pest.getId());
+        SyncResponse next = syncService.sync(request(initial.getSyncToken(),
+                update("m-3", irrigate.getId(), irrigate.getUpdatedAt()),
+                update("m-4", pest.getId(), pest.getUpdatedAt())));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(SyncMutationStatus.APPLIED, next.getResults().get(0).getStatus());
+        assertNull(next.getResults().get(0).getErrorCode());
+        assertEquals(SyncMutationStatus.REJECTED, next.getResults().get(1).getStatus());
+        assertEquals(ErrorCode.SYNC_CONFLICT.getCode(), next.getResults().get(1).getErrorCode());
+        assertEquals(LocalDate.of(2025, 3, 3), fieldLogRepository.findById(irrigate.getId()).orElseThrow().getLogDate());
+        assertEquals("Sửa trên máy khác", fieldLogRepository.findById(pest.getId()).orElseThrow().getNotes());
+    }
+
+    @Test
+    void sync_answersAConcurrentReplayWithTheStoredOutcomes() {
+        SyncRequest request = request(null, create("m-1", "IRRIGATE"), taskDone("m-2"));
+        SyncResponse first = syncService.sync(request);
+        entityManager.clear();
+
+        // The replay looked for earlier outcomes before the first request committed.
+        SyncMutationRepository racing = mock(SyncMutationRepository.class, delegatesTo(syncMutationRepository));
+        doReturn(List.of()).doAnswer(delegatesTo(syncMutationRepository)).when(racing).findAllByUserIdAndMutationIdIn(any(), any());
+        SyncResponse second = syncService(racing).sync(request);
+
+        assertTrue(second.getResults().stream().allMatch(SyncMutationResult::isReplayed));
+        assertEquals(first.getResults().get(0).getEntityId(), second.getResults().get(0).getEntityId());
+        verify(racing, times(2)).findAllByUserIdAndMutationIdIn(any(), any());
+    }
+
+    private SyncService syncService(SyncMutationRepository mutations) {
+        SyncTombstones syncTombstones = new SyncTombstones(jdbcTemplate);
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        DomainEventOutbox outbox = mock(DomainEventOutbox.class);
+        return new SyncService(fieldLogRepository, taskRepository, seasonRepository, mutations,
+                syncTombstoneRepository, syncTombstones,
+                new FieldLogService(fieldLogRepository, seasonRepository, farmAccessService, syncTombstones),
+                new TaskWorkspaceService(taskRepository, seasonRepository, farmAccessService, eventPublisher,
+                        outbox, syncTombstones),
+                farmAccessService, outbox, eventPublisher, jdbcTemplate, new TransactionTemplate(transactionManager),
+                mock(JobRunner.class), mock(TaskScheduler.class), 500, 0, 30);
+    }
+
+    private static FieldLogResponse fieldLog(SyncResponse response, String type) {
+        return response.getFieldLogs().stream()
+                .filter(log -> log.getLogType().equals(type)).findFirst().orElseThrow();
+    }
+
+    private SyncMutationRequest create(String mutationId, String type) {
+        return SyncMutationRequest.builder().mutationId(mutationId).operation(SyncOperation.FIELD_LOG_CREATE)
+                .seasonId(season.getId()).logDate(LocalDate.of(2025, 3, 2)).logType(type).notes("Ghi chú").build();
+    }
+
+    private SyncMutationRequest update(String mutationId, Integer id, LocalDateTime baseUpdatedAt) {
+        return SyncMutationRequest.builder().mutationId(mutationId).operation(SyncOperation.FIELD_LOG_UPDATE)
+                .entityId(id).logDate(LocalDate.of(2025, 3, 3)).logType("PEST").baseUpdatedAt(baseUpdatedAt)
+                .build();
+    }
+
+    private SyncMutationRequest taskDone(String mutationId) {
+        return SyncMutationRequest.builder().mutationId(mutationId).operation(SyncOperation.TASK_DONE)
+                .entityId(task.getId()).date(LocalDate.of(2025, 3, 2)).build();
+    }
+
+    private static SyncRequest request(String token, SyncMutationRequest... mutations) {
+        return SyncRequest.builder().syncToken(token).mutations(List.of(mutations)).build();
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.example.QuanLyMuaVu.DTO.Common.PageResponse;
+import org.example.QuanLyMuaVu.DTO.Response.TaskResponse;
+import org.example.QuanLyMuaVu.Entity.Crop;
+import org.example.QuanLyMuaVu.Entity.Farm;
+import org.example.QuanLyMuaVu.Entity.JobRun;
+import org.example.QuanLyMuaVu.Entity.Plot;
+import org.example.QuanLyMuaVu.Entity.Province;
+import org.example.QuanLyMuaVu.Entity.Season;
+import org.example.QuanLyMuaVu.Entity.Task;
+import org.example.QuanLyMuaVu.Entity.User;
+import org.example.QuanLyMuaVu.Entity.Ward;
+import org.example.QuanLyMuaVu.Enums.JobRunStatus;
+import org.example.QuanLyMuaVu.Enums.SeasonStatus;
+import org.example.QuanLyMuaVu.Enums.TaskStatus;
+import org.example.QuanLyMuaVu.Pattern.Observer.SeasonDataChangedEvent;
+import org.example.QuanLyMuaVu.Repository.JobRunRepository;
+import org.example.QuanLyMuaVu.Repository.SeasonRepository;
+import org.example.QuanLyMuaVu.Repository.TaskRepository;
+import org.example.QuanLyMuaVu.Util.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * OVERDUE is written by the scheduler only; task listings return the stored
+ * status.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:jpa-h2.properties")
+class TaskSchedulerTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private SeasonRepository seasonRepository;
+    @Autowired
+    private JobRunRepository jobRunRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+    private User owner;
+    private Season season;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        seed();
+    }
+
+    @Test
+    void updateOverdueTasks_marksOpenTasksPastTheirDueDateInChunks() {
+        LocalDate today = LocalDate.now();
+        Task latePending = task("Bón phân", TaskStatus.PENDING, today.minusDays(1));
+        Task lateInProgress = task("Phun thuốc", TaskStatus.IN_PROGRESS, today.minusDays(3));
+        Task dueToday = task("Tưới nước", TaskStatus.PENDING, today);
+        Task lateDone = task("Làm cỏ", TaskStatus.DONE, today.minusDays(5));
+        Task undated = task("Kiểm tra ruộng", TaskStatus.PENDING, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Chunk size 1, so the scan has to pick up where the previous chunk's update left off.
+        JobRunner jobRunner = new JobRunner(new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager),
+                jobRunRepository, 1, 30);
+        new TaskScheduler(taskRepository, eventPublisher, jobRunner, mock(org.springframework.scheduling.TaskScheduler.class))
+                .updateOverdueTasks();
+        entityManager.clear();
+
+        Map<Integer, TaskStatus> statuses = taskRepository.findAll().stream()
+                .collect(Collectors.toMap(Task::getId, Task::getStatus));
+        assertEquals(TaskStatus.OVERDUE, statuses.get(latePending.getId()));
+        assertEquals(TaskStatus.OVERDUE, statuses.get(lateInProgress.getId()));
+        assertEquals(TaskStatus.PENDING, statuses.get(dueToday.getId()));
+        assertEquals(TaskStatus.DONE, statuses.get(lateDone.getId()));
+        assertEquals(TaskStatus.PENDING, statuses.get(undated.getId()));
+
+        JobRun run = jobRunRepository.findAll().get(0);
+        assertEquals(JobRunStatus.SUCCEEDED, run.getStatus());
+        assertEquals(2L, run.getRowsAffected());
+        ArgumentCaptor<SeasonDataChangedEvent> event = ArgumentCaptor.forClass(SeasonDataChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(season.getId(), event.getValue().getSeasonId());
+    }
+
+    @Test
+    void catchUpOnStartup_handsTheRunToTheSchedulerPool() {
+        JobRunner jobRunner = mock(JobRunner.class);
+        org.springframework.scheduling.TaskScheduler scheduler = mock(org.springframework.scheduling.TaskScheduler.class);
+        new TaskScheduler(taskRepository, eventPublisher, jobRunner, scheduler).catchUpOnStartup();
+
+        verify(scheduler).schedule(any(Runnable.class), any(Instant.class));
+        verifyNoInteractions(jobRunner);
+    }
+
+    @Test
+    void listTasks_returnsStoredStatusWithoutWriting() {
+        Task latePending = task("Bón phân", TaskStatus.PENDING, LocalDate.now().minusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+        FarmAccessService farmAccessService = mock(FarmAccessService.class);
+        when(farmAccessService.getCurrentUser()).thenReturn(entityManager.find(User.class, owner.getId()));
+        TaskWorkspaceService service = new TaskWorkspaceService(taskRepository, seasonRepository, farmAccessService,
+                eventPublisher, mock(DomainEventOutbox.class), mock(SyncTombstones.class));
+
+        // The page query and its count, nothing else.
+        PageResponse<TaskResponse> page = SqlStatementCounter.assertAtMost(2,
+                () -> service.listTasks(null, null, null, 0, 20, null, null));
+        entityManager.flush();
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(TaskStatus.PENDING.getCode(), page.getItems().get(0).getStatus());
+        entityManager.clear();
+        assertEquals(TaskStatus.PENDING, taskRepository.findById(latePending.getId()).orElseThrow().getStatus());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private Task task(String title, TaskStatus status, LocalDate dueDate) {
+        return entityManager.persist(Task.builder().title(title).user(owner).season(season)
+                .status(status).dueDate(dueDate).build());
+    }
+
+    private void seed() {
+        Province province = entityManager.persist(Province.builder().id(1).name("An Giang").slug("an-giang")
+                .type("tinh").nameWithType("Tỉnh An Giang").build());
+        Ward ward = entityManager.persist(Ward.builder().id(1).name("Mỹ Bình").slug("my-binh").type("phuong")
+                .nameWithType("Phường Mỹ Bình").province(province).build());
+        owner = entityManager.persist(User.builder().username("owner").email("owner@example.com").build());
+        Farm farm = entityManager.persist(Farm.builder().name("Nông trại A").owner(owner).province(province)
+                .ward(ward).active(true).build());
+        Plot plot = entityManager.persist(Plot.builder().plotName("Lô 1").farm(farm).user(owner).build());
+        Crop crop = entityManager.persist(Crop.builder().cropName("Lúa").build());
+        season = entityManager.persist(Season.builder().seasonName("Vụ Hè Thu").plot(plot).crop(crop)
+                .startDate(LocalDate.now().minusDays(30)).status(SeasonStatus.ACTIVE).initialPlantCount(100)
+                .build());
+    }
+}
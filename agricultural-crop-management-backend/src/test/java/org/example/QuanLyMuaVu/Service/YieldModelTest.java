@@ -0,0 +1,73 @@
+package org.example.QuanLyMuaVu.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class YieldModelTest {
+
+    @Test
+    void train_recoversLinearRelationshipWithinGroup() {
+        List<YieldModel.Sample> samples = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            double area = 1 + (i % 5);
+            double duration = 90 + i;
+            double kgPerHa = 4000 + 100 * area + 10 * duration;
+            samples.add(new YieldModel.Sample(1, "Lua", 10, 5, area, duration, kgPerHa));
+        }
+
+        YieldModel model = YieldModel.train(samples, Instant.now());
+        YieldModel.Prediction prediction = model.predict(1, 10, 5, 3, 100.0);
+
+        assertEquals(YieldModel.Level.CROP_VARIETY_PROVINCE, prediction.level());
+        assertEquals(4000 + 300 + 1000, prediction.kgPerHa(), 100);
+        assertEquals(20, prediction.sampleCount());
+        assertTrue(model.getTrainingRmse() < 100);
+    }
+
+    @Test
+    void predict_fallsBackToCoarserGroupWhenSpecificHistoryIsThin() {
+        List<YieldModel.Sample> samples = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            samples.add(new YieldModel.Sample(1, "Lua", 10, 5, 2, 100, 5000));
+        }
+        samples.add(new YieldModel.Sample(1, "Lua", 11, 6, 2, 100, 7000));
+
+        YieldModel model = YieldModel.train(samples, Instant.now());
+
+        YieldModel.Prediction thin = model.predict(1, 11, 6, 2, null);
+        assertEquals(YieldModel.Level.CROP, thin.level());
+        assertEquals(5, thin.sampleCount());
+        assertEquals(5400, thin.kgPerHa(), 1e-6);
+
+        assertEquals(YieldModel.Level.CROP_VARIETY_PROVINCE, model.predict(1, 10, 5, 2, null).level());
+        assertEquals(1, model.resolveCropId(" lua "));
+    }
+
+    @Test
+    void train_keepsCropsApartWhoseIdsShareTheLow20Bits() {
+        List<YieldModel.Sample> samples = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            samples.add(new YieldModel.Sample(1, "Lua", null, null, 2, 100, 5000));
+            samples.add(new YieldModel.Sample(1 + (1 << 20), "Ngo", null, null, 2, 100, 9000));
+        }
+
+        YieldModel model = YieldModel.train(samples, Instant.now());
+
+        assertEquals(5000, model.predict(1, null, null, 2, null).kgPerHa(), 1e-6);
+        assertEquals(9000, model.predict(1 + (1 << 20), null, null, 2, null).kgPerHa(), 1e-6);
+        assertEquals(3, model.predict(1, null, null, 2, null).sampleCount());
+    }
+
+    @Test
+    void predict_unknownCropHasNoLevel() {
+        YieldModel model = YieldModel.train(List.of(), Instant.now());
+
+        assertNull(model.predict(99, null, null, 1, null).level());
+        assertNull(model.resolveCropId("Ngo"));
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.QuanLyMuaVu.Util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Hibernate statement inspector that records the SQL prepared on the current
+ * thread, for query-count budgets in tests.
+ * <p>
+ * Register it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector=org.example.QuanLyMuaVu.Util.SqlStatementCounter}
+ * and wrap the call under test in {@link #assertAtMost}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static int count() {
+        return STATEMENTS.get().size();
+    }
+
+    /**
+     * Run the action and fail when it prepared more than {@code budget}
+     * statements; the message lists them.
+     */
+    public static <T> T assertAtMost(int budget, Supplier<T> action) {
+        reset();
+        T result = action.get();
+        List<String> statements = List.copyOf(STATEMENTS.get());
+        reset();
+        if (statements.size() > budget) {
+            throw new AssertionError("Expected at most " + budget + " SQL statements but got "
+                    + statements.size() + ":\n  " + String.join("\n  ", statements));
+        }
+        return result;
+    }
+}
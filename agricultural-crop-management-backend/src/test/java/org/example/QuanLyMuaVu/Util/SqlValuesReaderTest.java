@@ -0,0 +1,50 @@
+package org.example.QuanLyMuaVu.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlValuesReaderTest {
+
+    @Test
+    void next_readsTuplesOfInsertStatementsOnly() throws IOException {
+        String sql = """
+                -- dump header (not a tuple)
+                /*!40101 SET NAMES utf8mb4 */;
+                CREATE TABLE `provinces` (`Id` int NOT NULL, `Name` varchar(255) COMMENT 'x (y)');
+                INSERT INTO `provinces` (`Id`, `Name`) VALUES (1, 'Hà Nội'),(2,'Qu\\'ng ''Ninh''');
+                INSERT INTO wards VALUES (10, "Ph\\"ường (1)", NULL, 1);
+                """;
+
+        List<SqlValuesReader.Row> rows = readAll(sql);
+
+        assertEquals(3, rows.size());
+        assertEquals("provinces", rows.get(0).table());
+        assertEquals(List.of("1", "Hà Nội"), rows.get(0).values());
+        assertEquals(List.of("2", "Qu'ng 'Ninh'"), rows.get(1).values());
+        assertEquals("wards", rows.get(2).table());
+        assertEquals(Arrays.asList("10", "Ph\"ường (1)", null, "1"), rows.get(2).values());
+    }
+
+    @Test
+    void next_failsOnUnterminatedTuple() {
+        assertThrows(IOException.class, () -> readAll("INSERT INTO provinces VALUES (1, 'abc"));
+    }
+
+    private static List<SqlValuesReader.Row> readAll(String sql) throws IOException {
+        List<SqlValuesReader.Row> rows = new ArrayList<>();
+        try (SqlValuesReader reader = new SqlValuesReader(new StringReader(sql))) {
+            SqlValuesReader.Row row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
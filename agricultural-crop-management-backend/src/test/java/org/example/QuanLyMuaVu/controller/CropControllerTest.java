@@ -3,6 +3,7 @@ package org.example.QuanLyMuaVu.controller;
 import org.example.QuanLyMuaVu.Controller.CropController;
 import org.example.QuanLyMuaVu.DTO.Request.CropRequest;
 import org.example.QuanLyMuaVu.DTO.Response.CropResponse;
+import org.example.QuanLyMuaVu.Service.CatalogVersions;
 import org.example.QuanLyMuaVu.Service.CropService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -29,6 +30,9 @@ class CropControllerTest {
     @MockBean
     private CropService cropService;
 
+    @MockBean
+    private CatalogVersions catalogVersions;
+
     @Test
     void list_returnsCrops() throws Exception {
         when(cropService.getAll()).thenReturn(List.of(